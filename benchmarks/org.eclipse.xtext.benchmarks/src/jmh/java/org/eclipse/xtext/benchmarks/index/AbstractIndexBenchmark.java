@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import java.io.IOException;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.util.StringInputStream;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import com.google.inject.Injector;
+
+/**
+ * Common state of the benchmarks that work on generated IndexTestLanguage models. The size of the model is
+ * controlled by the number of namespaces, each of them contains ten entities with five properties.
+ *
+ * @since 2.9
+ */
+public abstract class AbstractIndexBenchmark {
+
+	public static final int ENTITIES_PER_NAMESPACE = 10;
+
+	public static final int PROPERTIES_PER_ENTITY = 5;
+
+	@Param({ "10", "100" })
+	public int namespaces;
+
+	protected Injector injector;
+
+	protected String model;
+
+	@Setup(Level.Trial)
+	public void setUpModel() throws Exception {
+		injector = new IndexBenchmarkSetup().createInjectorAndDoEMFRegistration();
+		injector.injectMembers(this);
+		model = new IndexModelGenerator().generate(namespaces, ENTITIES_PER_NAMESPACE, PROPERTIES_PER_ENTITY);
+	}
+
+	/**
+	 * Parses the generated model into a new resource. Cross references are installed as proxies but not resolved.
+	 */
+	protected XtextResource loadModel() throws IOException {
+		XtextResourceSet resourceSet = injector.getInstance(XtextResourceSet.class);
+		XtextResource resource = (XtextResource) resourceSet.createResource(URI.createURI("benchmark.indextestlanguage"));
+		resource.load(new StringInputStream(model), null);
+		return resource;
+	}
+
+	protected XtextResource loadAndResolveModel() throws IOException {
+		XtextResource resource = loadModel();
+		EcoreUtil.resolveAll(resource);
+		return resource;
+	}
+
+}
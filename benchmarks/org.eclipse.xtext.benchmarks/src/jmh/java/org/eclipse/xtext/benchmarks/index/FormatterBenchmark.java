@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import java.util.List;
+
+import org.eclipse.xtext.formatting2.FormatterRequest;
+import org.eclipse.xtext.formatting2.IFormatter2;
+import org.eclipse.xtext.formatting2.regionaccess.ITextReplacement;
+import org.eclipse.xtext.formatting2.regionaccess.TextRegionAccessBuilder;
+import org.eclipse.xtext.resource.XtextResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * Measures the {@link IFormatter2 formatter} including the creation of the text region access for the node model.
+ *
+ * @since 2.9
+ */
+@State(Scope.Benchmark)
+public class FormatterBenchmark extends AbstractIndexBenchmark {
+
+	@Inject
+	private IFormatter2 formatter;
+
+	@Inject
+	private Provider<FormatterRequest> requestProvider;
+
+	@Inject
+	private Provider<TextRegionAccessBuilder> regionAccessBuilder;
+
+	private XtextResource resource;
+
+	@Setup
+	public void loadResource() throws Exception {
+		resource = loadAndResolveModel();
+	}
+
+	@Benchmark
+	public List<ITextReplacement> format() {
+		FormatterRequest request = requestProvider.get();
+		request.setTextRegionAccess(regionAccessBuilder.get().forNodeModel(resource).create());
+		return formatter.format(request);
+	}
+
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import org.eclipse.xtext.formatting2.IFormatter2;
+import org.eclipse.xtext.index.IndexTestLanguageRuntimeModule;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.persistence.StorageAwareResource;
+
+/**
+ * Binds the services that are exercised by the benchmarks but not configured for the IndexTestLanguage.
+ *
+ * @since 2.9
+ */
+public class IndexBenchmarkModule extends IndexTestLanguageRuntimeModule {
+
+	@Override
+	public Class<? extends XtextResource> bindXtextResource() {
+		return StorageAwareResource.class;
+	}
+
+	public Class<? extends IFormatter2> bindIFormatter2() {
+		return IndexTestLanguageFormatter.class;
+	}
+
+}
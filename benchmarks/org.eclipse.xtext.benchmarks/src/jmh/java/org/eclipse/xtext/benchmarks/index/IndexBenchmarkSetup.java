@@ -0,0 +1,25 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import org.eclipse.xtext.index.IndexTestLanguageStandaloneSetup;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * @since 2.9
+ */
+public class IndexBenchmarkSetup extends IndexTestLanguageStandaloneSetup {
+
+	@Override
+	public Injector createInjector() {
+		return Guice.createInjector(new IndexBenchmarkModule());
+	}
+
+}
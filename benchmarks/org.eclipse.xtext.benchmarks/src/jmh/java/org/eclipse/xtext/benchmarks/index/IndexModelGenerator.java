@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import java.util.Random;
+
+/**
+ * Generates reproducible models of the IndexTestLanguage. Each namespace declares a datatype, imports another
+ * namespace and contains entities whose properties refer to local, imported and fully qualified types.
+ *
+ * @since 2.9
+ */
+public class IndexModelGenerator {
+
+	public static final long DEFAULT_SEED = 4711;
+
+	private final Random random;
+
+	public IndexModelGenerator() {
+		this(DEFAULT_SEED);
+	}
+
+	public IndexModelGenerator(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * @return the text of a model with <code>namespaces * entitiesPerNamespace</code> entities, each with the given
+	 *         number of properties.
+	 */
+	public String generate(int namespaces, int entitiesPerNamespace, int propertiesPerEntity) {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < namespaces; i++) {
+			int imported = random.nextInt(namespaces);
+			result.append("ns").append(i).append(".sub {\n");
+			result.append("\timport ns").append(imported).append(".sub.*\n");
+			result.append("\tdatatype T").append(i).append("\n");
+			for (int j = 0; j < entitiesPerNamespace; j++) {
+				result.append("\tentity E").append(j).append(" {\n");
+				for (int k = 0; k < propertiesPerEntity; k++) {
+					result.append("\t\t");
+					appendTypeReference(result, i, imported, namespaces, entitiesPerNamespace);
+					result.append(" p").append(k).append("\n");
+				}
+				result.append("\t}\n");
+			}
+			result.append("}\n");
+		}
+		return result.toString();
+	}
+
+	protected void appendTypeReference(StringBuilder result, int namespace, int imported, int namespaces,
+			int entitiesPerNamespace) {
+		switch (random.nextInt(4)) {
+			case 0:
+				result.append("T").append(namespace);
+				break;
+			case 1:
+				result.append("E").append(random.nextInt(entitiesPerNamespace));
+				break;
+			case 2:
+				result.append("T").append(imported);
+				break;
+			default:
+				result.append("ns").append(random.nextInt(namespaces)).append(".sub.E")
+						.append(random.nextInt(entitiesPerNamespace));
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.formatting2.AbstractFormatter2;
+import org.eclipse.xtext.formatting2.IFormattableDocument;
+import org.eclipse.xtext.formatting2.IHiddenRegionFormatter;
+import org.eclipse.xtext.formatting2.regionaccess.ISemanticRegionsFinder;
+import org.eclipse.xtext.index.indexTestLanguage.Entity;
+import org.eclipse.xtext.index.indexTestLanguage.File;
+import org.eclipse.xtext.index.indexTestLanguage.IndexTestLanguagePackage;
+import org.eclipse.xtext.index.indexTestLanguage.Namespace;
+import org.eclipse.xtext.index.indexTestLanguage.Property;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+
+/**
+ * A formatter for the IndexTestLanguage that puts each element on a line of its own and indents blocks.
+ *
+ * @since 2.9
+ */
+public class IndexTestLanguageFormatter extends AbstractFormatter2 {
+
+	private static final Procedure1<IHiddenRegionFormatter> NEW_LINE = new Procedure1<IHiddenRegionFormatter>() {
+		@Override
+		public void apply(IHiddenRegionFormatter it) {
+			it.newLine();
+		}
+	};
+
+	private static final Procedure1<IHiddenRegionFormatter> ONE_SPACE = new Procedure1<IHiddenRegionFormatter>() {
+		@Override
+		public void apply(IHiddenRegionFormatter it) {
+			it.oneSpace();
+		}
+	};
+
+	private static final Procedure1<IHiddenRegionFormatter> INDENT = new Procedure1<IHiddenRegionFormatter>() {
+		@Override
+		public void apply(IHiddenRegionFormatter it) {
+			it.indent();
+		}
+	};
+
+	@Override
+	public void format(Object obj, IFormattableDocument document) {
+		if (obj instanceof File) {
+			for (EObject element : ((File) obj).getElements())
+				formatElement(element, document);
+		} else {
+			_format(obj, document);
+		}
+	}
+
+	protected void formatElement(EObject element, IFormattableDocument document) {
+		document.append(element, NEW_LINE);
+		if (element instanceof Namespace) {
+			formatBlock(element, document);
+			for (EObject child : ((Namespace) element).getElements())
+				formatElement(child, document);
+		} else if (element instanceof Entity) {
+			formatBlock(element, document);
+			for (Property property : ((Entity) element).getProperties()) {
+				document.append(property, NEW_LINE);
+				document.append(textRegionExtensions.regionFor(property).feature(IndexTestLanguagePackage.Literals.PROPERTY__TYPE),
+						ONE_SPACE);
+			}
+		}
+	}
+
+	protected void formatBlock(EObject element, IFormattableDocument document) {
+		ISemanticRegionsFinder regions = textRegionExtensions.regionFor(element);
+		document.append(document.prepend(regions.keyword("{"), ONE_SPACE), NEW_LINE);
+		document.interior(regions.keyword("{"), regions.keyword("}"), INDENT);
+	}
+
+}
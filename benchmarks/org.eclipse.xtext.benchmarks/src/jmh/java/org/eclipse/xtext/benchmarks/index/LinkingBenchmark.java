@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import java.io.StringReader;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.diagnostics.IDiagnosticConsumer;
+import org.eclipse.xtext.linking.ILinker;
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.impl.ListBasedDiagnosticConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.Inject;
+
+/**
+ * Measures the {@link org.eclipse.xtext.linking.lazy.LazyLinker LazyLinker}, i.e. the installation of proxies for
+ * all cross references of a freshly parsed model.
+ *
+ * @since 2.9
+ */
+@State(Scope.Benchmark)
+public class LinkingBenchmark extends AbstractIndexBenchmark {
+
+	@Inject
+	private IParser parser;
+
+	@Inject
+	private ILinker linker;
+
+	private EObject root;
+
+	@Setup(Level.Invocation)
+	public void parseModel() {
+		XtextResourceSet resourceSet = injector.getInstance(XtextResourceSet.class);
+		XtextResource resource = (XtextResource) resourceSet.createResource(URI.createURI("benchmark.indextestlanguage"));
+		root = parser.parse(new StringReader(model)).getRootASTElement();
+		resource.getContents().add(root);
+	}
+
+	@Benchmark
+	public IDiagnosticConsumer link() {
+		IDiagnosticConsumer consumer = new ListBasedDiagnosticConsumer();
+		linker.linkModel(root, consumer);
+		return consumer;
+	}
+
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import java.io.StringReader;
+
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.parser.IParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.Inject;
+
+/**
+ * Measures the parser including the construction of the node model.
+ *
+ * @since 2.9
+ */
+@State(Scope.Benchmark)
+public class ParserBenchmark extends AbstractIndexBenchmark {
+
+	@Inject
+	private IParser parser;
+
+	@Benchmark
+	public IParseResult parse() {
+		return parser.parse(new StringReader(model));
+	}
+
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.persistence.ResourceStorageFacade;
+import org.eclipse.xtext.resource.persistence.StorageAwareResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.Inject;
+
+/**
+ * Measures writing a resource to its binary storage and loading it back with the {@link ResourceStorageFacade}.
+ *
+ * @since 2.9
+ */
+@State(Scope.Benchmark)
+public class ResourceStorageBenchmark extends AbstractIndexBenchmark {
+
+	@Inject
+	private ResourceStorageFacade storageFacade;
+
+	private StorageAwareResource resource;
+
+	private byte[] storage;
+
+	@Setup
+	public void writeStorage() throws Exception {
+		resource = (StorageAwareResource) loadAndResolveModel();
+		storage = write();
+	}
+
+	@Benchmark
+	public byte[] write() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		storageFacade.createResourceStorageWritable(out).writeResource(resource);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public StorageAwareResource read() throws Exception {
+		XtextResourceSet resourceSet = injector.getInstance(XtextResourceSet.class);
+		StorageAwareResource result = (StorageAwareResource) resourceSet.createResource(URI
+				.createURI("benchmark.indextestlanguage"));
+		result.loadFromStorage(storageFacade.createResourceStorageLoadable(new ByteArrayInputStream(storage)));
+		return result;
+	}
+
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.resource.XtextResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the resolution of all cross references of a model. The IndexTestLanguage uses the
+ * {@link org.eclipse.xtext.scoping.impl.ImportedNamespaceAwareLocalScopeProvider} which is backed by
+ * {@link org.eclipse.xtext.scoping.impl.SelectableBasedScope selectable based scopes} for the resource contents.
+ *
+ * @since 2.9
+ */
+@State(Scope.Benchmark)
+public class ScopingBenchmark extends AbstractIndexBenchmark {
+
+	private XtextResource resource;
+
+	@Setup(Level.Invocation)
+	public void loadResource() throws Exception {
+		resource = loadModel();
+	}
+
+	@Benchmark
+	public XtextResource resolveAll() {
+		EcoreUtil.resolveAll(resource);
+		return resource;
+	}
+
+}
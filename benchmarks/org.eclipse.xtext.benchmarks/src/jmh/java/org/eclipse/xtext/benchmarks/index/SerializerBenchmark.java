@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.index;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.resource.SaveOptions;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.Inject;
+
+/**
+ * Measures the {@link ISerializer} for a model with resolved cross references.
+ *
+ * @since 2.9
+ */
+@State(Scope.Benchmark)
+public class SerializerBenchmark extends AbstractIndexBenchmark {
+
+	@Inject
+	private ISerializer serializer;
+
+	private EObject root;
+
+	@Setup
+	public void loadResource() throws Exception {
+		root = loadAndResolveModel().getContents().get(0);
+	}
+
+	@Benchmark
+	public String serialize() {
+		return serializer.serialize(root, SaveOptions.newBuilder().getOptions());
+	}
+
+}
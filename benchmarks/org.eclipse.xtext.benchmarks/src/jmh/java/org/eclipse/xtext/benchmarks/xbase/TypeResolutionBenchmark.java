@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.xbase;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.util.StringInputStream;
+import org.eclipse.xtext.xbase.XbaseStandaloneSetup;
+import org.eclipse.xtext.xbase.typesystem.IBatchTypeResolver;
+import org.eclipse.xtext.xbase.typesystem.IResolvedTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+/**
+ * Measures the {@link org.eclipse.xtext.xbase.typesystem.internal.DefaultBatchTypeResolver type resolution} of a
+ * generated Xbase expression including the linking of its feature calls.
+ *
+ * @since 2.9
+ */
+@State(Scope.Benchmark)
+public class TypeResolutionBenchmark {
+
+	@Param({ "10", "50" })
+	public int groups;
+
+	@Inject
+	private IBatchTypeResolver typeResolver;
+
+	private Injector injector;
+
+	private String model;
+
+	private EObject expression;
+
+	@Setup(Level.Trial)
+	public void setUpModel() {
+		injector = new XbaseStandaloneSetup().createInjectorAndDoEMFRegistration();
+		injector.injectMembers(this);
+		model = new XbaseModelGenerator().generate(groups);
+	}
+
+	@Setup(Level.Invocation)
+	public void loadModel() throws Exception {
+		XtextResourceSet resourceSet = injector.getInstance(XtextResourceSet.class);
+		resourceSet.setClasspathURIContext(getClass().getClassLoader());
+		XtextResource resource = (XtextResource) resourceSet.createResource(URI.createURI("benchmark.___xbase"));
+		resource.load(new StringInputStream(model), null);
+		expression = resource.getContents().get(0);
+	}
+
+	@Benchmark
+	public IResolvedTypes resolveTypes() {
+		return typeResolver.resolveTypes(expression);
+	}
+
+}
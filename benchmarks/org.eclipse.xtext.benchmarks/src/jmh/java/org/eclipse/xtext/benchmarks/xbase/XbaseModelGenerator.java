@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.benchmarks.xbase;
+
+import java.util.Random;
+
+/**
+ * Generates reproducible Xbase block expressions. Each group of statements declares a list, derives values from it
+ * with lambda expressions and extension methods, and refers to variables of previous groups.
+ *
+ * @since 2.9
+ */
+public class XbaseModelGenerator {
+
+	public static final long DEFAULT_SEED = 4711;
+
+	private final Random random;
+
+	public XbaseModelGenerator() {
+		this(DEFAULT_SEED);
+	}
+
+	public XbaseModelGenerator(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * @return a block expression with the given number of statement groups.
+	 */
+	public String generate(int groups) {
+		StringBuilder result = new StringBuilder("{\n");
+		for (int i = 0; i < groups; i++) {
+			String list = "list" + i;
+			result.append("\tval ").append(list).append(" = newArrayList(");
+			for (int j = 0, size = 1 + random.nextInt(5); j < size; j++) {
+				if (j != 0)
+					result.append(", ");
+				result.append("'s").append(random.nextInt(1000)).append("'");
+			}
+			if (i > 0)
+				result.append(", s").append(random.nextInt(i));
+			result.append(")\n");
+			result.append("\tval s").append(i).append(" = ").append(list)
+					.append(".map[ toUpperCase ].filter[ length > ").append(random.nextInt(5)).append(" ].join(',')\n");
+			result.append("\tvar i").append(i).append(" = ").append(i == 0 ? "0" : "i" + random.nextInt(i)).append("\n");
+			result.append("\tfor (x : ").append(list).append(") {\n");
+			result.append("\t\ti").append(i).append(" = i").append(i).append(" + x.length\n");
+			result.append("\t}\n");
+			result.append("\tif (i").append(i).append(" > ").append(random.nextInt(20)).append(") s").append(i)
+					.append(".substring(1) else s").append(i).append(".trim\n");
+		}
+		result.append("}\n");
+		return result.toString();
+	}
+
+}
@@ -126,6 +126,21 @@ public class XtextGenerator extends AbstractMojo {
 	 */
 	private ClusteringConfig clusteringConfig;
 
+	/**
+	 * Directory of a persistent build cache. If set, unchanged models are neither parsed, validated nor generated
+	 * again.
+	 *
+	 * @parameter expression="${xtext.buildCacheDirectory}"
+	 */
+	private String buildCacheDirectory;
+
+	/**
+	 * Number of threads that load the models and fill the index.
+	 *
+	 * @parameter expression="${xtext.numberOfThreads}" default-value="1"
+	 */
+	private Integer numberOfThreads;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -159,6 +174,10 @@ public class XtextGenerator extends AbstractMojo {
 		builder.setDebugLog(getLog().isDebugEnabled());
 		if(clusteringConfig != null)
 			builder.setClusteringConfig(clusteringConfig.convertToStandaloneConfig());
+		if (buildCacheDirectory != null)
+			builder.setBuildCacheDir(new File(buildCacheDirectory));
+		if (numberOfThreads != null)
+			builder.setNumberOfThreads(numberOfThreads);
 		configureCompiler(builder.getCompiler());
 		logState();
 		boolean errorDetected = !builder.launch();
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.core.compiler.batch;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.eclipse.xtext.common.types.access.impl.CachingDeclaredTypeFactory;
+import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
+import org.eclipse.xtext.common.types.access.impl.ITypeFactory;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * The state that an {@link XtendBatchCompiler} keeps between two compilations of the same sources, e.g. in a
+ * {@link XtendCompilerDaemon daemon}. It holds
+ * <ul>
+ * <li>the fingerprints of the Xtend files, the Java files generated from them and the index of the last successful
+ * compilation, such that only changed files, files with missing output and their dependents have to be compiled
+ * again,</li>
+ * <li>a class loader for the jar archives on the class path together with a cache of the types that have been read
+ * from them. Both are reused as long as the jars did not change.</li>
+ * </ul>
+ *
+ * A state must not be used by concurrent compilations.
+ *
+ * @since 2.9
+ */
+public class CompilationState implements Closeable {
+
+	private static final Logger log = Logger.getLogger(CompilationState.class);
+
+	private Map<URI, String> sourceFingerprints = Collections.emptyMap();
+
+	private Map<URI, Set<String>> generatedFiles = Collections.emptyMap();
+
+	private String configurationFingerprint;
+
+	private ResourceDescriptionsData index;
+
+	private String archivesFingerprint;
+
+	private ClassLoader archivesClassLoader;
+
+	private CachingDeclaredTypeFactory archivesTypeFactory;
+
+	/**
+	 * @return the index of the last successful compilation or <code>null</code> if the sources have to be compiled
+	 *         completely, since the previous compilation failed or its configuration was different.
+	 */
+	ResourceDescriptionsData getIndex(String configurationFingerprint) {
+		if (index != null && configurationFingerprint.equals(this.configurationFingerprint))
+			return index;
+		return null;
+	}
+
+	/**
+	 * @return the Xtend files that were added, changed or removed since the last successful compilation, and the ones
+	 *         whose generated files have been deleted.
+	 */
+	Set<URI> getChangedSources(Map<URI, String> sourceFingerprints) {
+		Set<URI> result = Sets.newLinkedHashSet();
+		for (Map.Entry<URI, String> entry : sourceFingerprints.entrySet()) {
+			if (!entry.getValue().equals(this.sourceFingerprints.get(entry.getKey()))
+					|| isGeneratedFileMissing(entry.getKey()))
+				result.add(entry.getKey());
+		}
+		for (URI uri : this.sourceFingerprints.keySet()) {
+			if (!sourceFingerprints.containsKey(uri))
+				result.add(uri);
+		}
+		return result;
+	}
+
+	private boolean isGeneratedFileMissing(URI source) {
+		Set<String> files = generatedFiles.get(source);
+		if (files != null) {
+			for (String file : files) {
+				if (!new File(file).exists())
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param generatedFiles
+	 *            the absolute paths of the files that were generated in this compilation. Xtend files that were not
+	 *            compiled again keep the generated files of the previous compilation.
+	 */
+	void compilationSucceeded(Map<URI, String> sourceFingerprints, String configurationFingerprint,
+			ResourceDescriptionsData index, Map<URI, Set<String>> generatedFiles) {
+		Map<URI, Set<String>> newGeneratedFiles = Maps.newHashMap(Maps.filterKeys(this.generatedFiles,
+				Predicates.in(sourceFingerprints.keySet())));
+		newGeneratedFiles.putAll(generatedFiles);
+		this.generatedFiles = newGeneratedFiles;
+		this.sourceFingerprints = Maps.newHashMap(sourceFingerprints);
+		this.configurationFingerprint = configurationFingerprint;
+		this.index = index;
+	}
+
+	void compilationFailed() {
+		this.sourceFingerprints = Collections.emptyMap();
+		this.generatedFiles = Collections.emptyMap();
+		this.configurationFingerprint = null;
+		this.index = null;
+	}
+
+	/**
+	 * @return a class loader for the given archives. The loader of a previous compilation is reused if the
+	 *         fingerprint of the archives did not change.
+	 */
+	ClassLoader getArchivesClassLoader(URL[] archives, String fingerprint, ClassLoader parent) {
+		if (archivesClassLoader == null || !fingerprint.equals(archivesFingerprint)) {
+			close();
+			archivesClassLoader = new URLClassLoader(archives, parent);
+			archivesTypeFactory = new CachingDeclaredTypeFactory(new DeclaredTypeFactory(new ClassFileBytesAccess(),
+					archivesClassLoader));
+			archivesFingerprint = fingerprint;
+		}
+		return archivesClassLoader;
+	}
+
+	/**
+	 * @return a type factory that takes types which are defined in the archives from the cache and delegates all
+	 *         others to the given factory.
+	 */
+	ITypeFactory<BinaryClass, JvmDeclaredType> getTypeFactory(final ITypeFactory<BinaryClass, JvmDeclaredType> delegate) {
+		final ClassLoader archives = archivesClassLoader;
+		final CachingDeclaredTypeFactory cache = archivesTypeFactory;
+		return new ITypeFactory<BinaryClass, JvmDeclaredType>() {
+			@Override
+			public JvmDeclaredType createType(BinaryClass clazz) {
+				BinaryClass fromArchives = new BinaryClass(clazz.getName(), archives);
+				URL classFile = fromArchives.getClassFileURL();
+				URL actualClassFile = clazz.getClassFileURL();
+				if (classFile != null && actualClassFile != null
+						&& classFile.toExternalForm().equals(actualClassFile.toExternalForm()))
+					return cache.createType(fromArchives);
+				return delegate.createType(clazz);
+			}
+		};
+	}
+
+	/**
+	 * Releases the class loader of the archives.
+	 */
+	@Override
+	public void close() {
+		if (archivesClassLoader instanceof Closeable) {
+			try {
+				((Closeable) archivesClassLoader).close();
+			} catch (IOException e) {
+				log.warn("Unable to close a classloader", e);
+			}
+		}
+		archivesClassLoader = null;
+		archivesTypeFactory = null;
+		archivesFingerprint = null;
+	}
+
+}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.core.compiler.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.xtext.xbase.compiler.JavaVersion;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Compiles the Java stubs of Xtend files and the Java files that refer to them without going through the file
+ * system. The sources are passed as strings and the resulting class files are kept in memory, such that they can be
+ * fed into the {@link InMemoryClassLoader class loader} of the second compilation phase directly.
+ *
+ * The compiler is the same Eclipse compiler that is used for the pre-compilation on disk, it proceeds on errors.
+ *
+ * @since 2.9
+ */
+class InMemoryStubCompiler {
+
+	private static final Logger log = Logger.getLogger(InMemoryStubCompiler.class);
+
+	/**
+	 * A class loader that defines classes from the given class files and serves them as resources, too.
+	 */
+	static class InMemoryClassLoader extends ClassLoader {
+
+		private final Map<String, byte[]> classFiles;
+
+		InMemoryClassLoader(Map<String, byte[]> classFiles, ClassLoader parent) {
+			super(parent);
+			this.classFiles = classFiles;
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytes = classFiles.get(name);
+			if (bytes == null) {
+				return super.findClass(name);
+			}
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+
+		@Override
+		protected URL findResource(String path) {
+			if (path.endsWith(".class")) {
+				final byte[] bytes = classFiles.get(path.substring(0, path.length() - 6).replace('/', '.'));
+				if (bytes != null) {
+					try {
+						return new URL("in-memory", null, -1, path, new URLStreamHandler() {
+							@Override
+							protected URLConnection openConnection(URL url) throws IOException {
+								return new URLConnection(url) {
+									@Override
+									public void connect() throws IOException {
+									}
+
+									@Override
+									public InputStream getInputStream() throws IOException {
+										return new ByteArrayInputStream(bytes);
+									}
+								};
+							}
+						});
+					} catch (MalformedURLException e) {
+						throw new IllegalStateException(e);
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up the referenced types as class files of a class loader.
+	 */
+	private static class ClassLoaderBasedNameEnvironment implements INameEnvironment {
+
+		private final ClassLoader classLoader;
+
+		private final Map<String, NameEnvironmentAnswer> cache = Maps.newHashMap();
+
+		ClassLoaderBasedNameEnvironment(ClassLoader classLoader) {
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public NameEnvironmentAnswer findType(char[][] compoundTypeName) {
+			return findType(CharOperation.toString(compoundTypeName).replace('.', '/') + ".class");
+		}
+
+		@Override
+		public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName) {
+			return findType(CharOperation.concatWith(packageName, typeName, '/'));
+		}
+
+		private NameEnvironmentAnswer findType(char[] path) {
+			return findType(String.valueOf(path) + ".class");
+		}
+
+		private NameEnvironmentAnswer findType(String fileName) {
+			if (cache.containsKey(fileName)) {
+				return cache.get(fileName);
+			}
+			NameEnvironmentAnswer result = null;
+			InputStream stream = classLoader.getResourceAsStream(fileName);
+			if (stream != null) {
+				try {
+					result = new NameEnvironmentAnswer(ClassFileReader.read(stream, fileName), null);
+				} catch (Exception e) {
+					log.debug("Cannot read class file " + fileName, e);
+				} finally {
+					try {
+						stream.close();
+					} catch (IOException e) {
+						// ignore
+					}
+				}
+			}
+			cache.put(fileName, result);
+			return result;
+		}
+
+		@Override
+		public boolean isPackage(char[][] parentPackageName, char[] packageName) {
+			// a cheap approximation that does not need to scan the class path for directories
+			if (packageName.length == 0 || !Character.isLowerCase(packageName[0])) {
+				return false;
+			}
+			return findType(CharOperation.concatWith(parentPackageName, packageName, '/')) == null;
+		}
+
+		@Override
+		public void cleanup() {
+			cache.clear();
+		}
+	}
+
+	private final ClassLoader classPath;
+
+	private final CompilerOptions compilerOptions;
+
+	/**
+	 * @param classPath
+	 *            the class loader that provides the class files of all referenced types.
+	 */
+	InMemoryStubCompiler(ClassLoader classPath, JavaVersion javaVersion) {
+		this.classPath = classPath;
+		Map<String, String> options = Maps.newHashMap();
+		options.put(CompilerOptions.OPTION_Source, javaVersion.getQualifier());
+		options.put(CompilerOptions.OPTION_Compliance, javaVersion.getQualifier());
+		options.put(CompilerOptions.OPTION_TargetPlatform, javaVersion.getQualifier());
+		this.compilerOptions = new CompilerOptions(options);
+	}
+
+	/**
+	 * @param sources
+	 *            the contents of the compilation units by their file name.
+	 * @param classFiles
+	 *            receives the created class files by the binary name of their type.
+	 * @return <code>true</code> if the sources were compiled without errors.
+	 */
+	boolean compile(Map<String, ? extends CharSequence> sources, final Map<String, byte[]> classFiles) {
+		final List<CategorizedProblem> errors = Lists.newArrayList();
+		ICompilerRequestor requestor = new ICompilerRequestor() {
+			@Override
+			public void acceptResult(CompilationResult result) {
+				for (ClassFile classFile : result.getClassFiles()) {
+					classFiles.put(CharOperation.toString(classFile.getCompoundName()), classFile.getBytes());
+				}
+				CategorizedProblem[] problems = result.getErrors();
+				if (problems != null) {
+					for (CategorizedProblem problem : problems) {
+						errors.add(problem);
+					}
+				}
+			}
+		};
+		INameEnvironment nameEnvironment = new ClassLoaderBasedNameEnvironment(classPath);
+		Compiler compiler = new Compiler(nameEnvironment, DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+				compilerOptions, requestor, new DefaultProblemFactory(Locale.getDefault()));
+		List<ICompilationUnit> units = Lists.newArrayList();
+		for (Map.Entry<String, ? extends CharSequence> source : sources.entrySet()) {
+			units.add(new CompilationUnit(source.getValue().toString().toCharArray(), source.getKey(), null));
+		}
+		try {
+			compiler.compile(units.toArray(new ICompilationUnit[units.size()]));
+		} finally {
+			nameEnvironment.cleanup();
+		}
+		if (log.isDebugEnabled()) {
+			for (CategorizedProblem error : errors) {
+				log.debug(String.valueOf(error.getOriginatingFileName()) + ":" + error.getSourceLineNumber() + ": "
+						+ error.getMessage());
+			}
+		}
+		return errors.isEmpty();
+	}
+
+}
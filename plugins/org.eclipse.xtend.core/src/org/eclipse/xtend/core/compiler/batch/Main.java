@@ -8,6 +8,7 @@
 package org.eclipse.xtend.core.compiler.batch;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,12 +29,37 @@ public class Main {
 	public static void main(String[] args) {
 		BasicConfigurator.configure();
 		Injector injector = XtendInjectorSingleton.INJECTOR;
-		XtendBatchCompiler compiler = injector.getInstance(XtendBatchCompiler.class);
 		if ((args == null) || (args.length == 0)) {
 			printUsage();
 			return;
 		}
-		Iterator<String> arguments = Arrays.asList(args).iterator();
+		if ("-daemon".equals(args[0].trim())) {
+			XtendCompilerDaemon daemon = injector.getInstance(XtendCompilerDaemon.class);
+			try {
+				if (args.length > 1) {
+					daemon.serve(Integer.parseInt(args[1].trim()));
+				} else {
+					daemon.serve(System.in, System.out);
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+			return;
+		}
+		XtendBatchCompiler compiler = injector.getInstance(XtendBatchCompiler.class);
+		configure(compiler, Arrays.asList(args).iterator());
+		if (!compiler.compile()) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Applies the command line arguments to the given compiler.
+	 * 
+	 * @since 2.9
+	 */
+	static void configure(XtendBatchCompiler compiler, Iterator<String> arguments) {
 		while (arguments.hasNext()) {
 			String argument = arguments.next().trim();
 			if ("-d".equals(argument)) {
@@ -56,6 +82,10 @@ public class Main {
 				compiler.setGeneratedAnnotationComment(arguments.next().trim());
 			} else if ("-useCurrentClassLoader".equals(argument)) {
 				compiler.setUseCurrentClassLoaderAsParent(true);
+			} else if ("-preCompileInMemory".equals(argument)) {
+				compiler.setPreCompileInMemory(true);
+			} else if ("-numberOfThreads".equals(argument)) {
+				compiler.setNumberOfThreads(Integer.parseInt(arguments.next().trim()));
 			} else {
 				List<String> existingDirs = new ArrayList<String>(compiler.getSourcePathDirectories());
 				existingDirs.add(argument);
@@ -63,14 +93,12 @@ public class Main {
 				compiler.setSourcePath(pathes);
 			}
 		}
-		if (!compiler.compile()) {
-			System.exit(1);
-		}
 	}
 
 	private static void printUsage() {
 		PrintStream out = System.out;
 		out.println("Usage: Main <options> <source directories>");
+		out.println("   or: Main -daemon [<port>]");
 		out.println("where possible options include:");
 		out.println("-d <directory>                      Specify where to place generated xtend files");
 		out.println("-tp <path>                          Temp directory to hold generated stubs and classes");
@@ -82,6 +110,9 @@ public class Main {
 		out.println("-includeDateInGeneratedAnnnotation  If -generateGeneratedAnnotation is used, add the current date/time.");
 		out.println("-generateAnnotationComment <string> If -generateGeneratedAnnotation is used, add a comment.");
 		out.println("-useCurrentClassLoader              Use current classloader as parent classloader");
+		out.println("-preCompileInMemory                 Compile the Java stubs in memory instead of the temp directory");
+		out.println("-numberOfThreads <n>                Validate and generate the Xtend files with n threads");
+		out.println("-daemon [<port>]                    Keep running and compile on request, see XtendCompilerDaemon");
 	}
 
 }
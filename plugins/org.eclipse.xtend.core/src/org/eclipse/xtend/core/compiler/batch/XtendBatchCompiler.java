@@ -19,10 +19,19 @@ import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
@@ -31,17 +40,23 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
+import org.eclipse.xtend.core.compiler.batch.InMemoryStubCompiler.InMemoryClassLoader;
 import org.eclipse.xtend.core.compiler.batch.internal.AlternateJdkLoader;
 import org.eclipse.xtend.core.macro.ProcessorInstanceForJvmTypeProvider;
 import org.eclipse.xtend.core.xtend.XtendFile;
 import org.eclipse.xtext.Constants;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.eclipse.xtext.common.types.access.impl.CachingClasspathTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider;
+import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
 import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
 import org.eclipse.xtext.common.types.descriptions.IStubGenerator;
 import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.generator.GeneratorDelegate;
 import org.eclipse.xtext.generator.IOutputConfigurationProvider;
+import org.eclipse.xtext.generator.InMemoryFileSystemAccess;
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess.IFileCallback;
 import org.eclipse.xtext.generator.OutputConfiguration;
 import org.eclipse.xtext.generator.OutputConfigurationAdapter;
 import org.eclipse.xtext.mwe.NameBasedFilter;
@@ -54,7 +69,9 @@ import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.impl.ResourceSetBasedResourceDescriptions;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.util.Files;
 import org.eclipse.xtext.util.Strings;
@@ -69,14 +86,18 @@ import org.eclipse.xtext.xbase.compiler.GeneratorConfig;
 import org.eclipse.xtext.xbase.compiler.GeneratorConfigProvider;
 import org.eclipse.xtext.xbase.compiler.JavaVersion;
 import org.eclipse.xtext.xbase.resource.BatchLinkableResource;
+import org.eclipse.xtext.xbase.typesystem.IBatchTypeResolver;
 
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.name.Named;
@@ -115,6 +136,8 @@ public class XtendBatchCompiler {
 	@Inject
 	protected Provider<JavaIoFileSystemAccess> javaIoFileSystemAccessProvider;
 	@Inject
+	private Provider<InMemoryFileSystemAccess> inMemoryFileSystemAccessProvider;
+	@Inject
 	protected FileExtensionProvider fileExtensionProvider;
 	@Inject
 	protected Provider<ResourceSetBasedResourceDescriptions> resourceSetDescriptionsProvider;
@@ -135,6 +158,8 @@ public class XtendBatchCompiler {
 	@Inject
 	private GeneratorConfigProvider generatorConfigProvider;
 	@Inject
+	private IBatchTypeResolver typeResolver;
+	@Inject
 	@Named(Constants.LANGUAGE_NAME)
 	private String languageName;
 
@@ -156,6 +181,14 @@ public class XtendBatchCompiler {
 	 * @since 2.8
 	 */
 	protected boolean writeStorageFiles = false;
+	/**
+	 * @since 2.9
+	 */
+	protected boolean preCompileInMemory = false;
+	/**
+	 * @since 2.9
+	 */
+	protected int numberOfThreads = 1;
 	private GeneratorConfig generatorConfig = new GeneratorConfig();
 	protected ClassLoader currentClassLoader = getClass().getClassLoader();
 
@@ -169,6 +202,29 @@ public class XtendBatchCompiler {
 
 	private OutputConfiguration outputConfiguration;
 
+	private CompilationState compilationState;
+
+	/**
+	 * The class files of the Java sources that were pre-compiled in memory.
+	 */
+	private Map<String, byte[]> preCompiledClasses;
+
+	/**
+	 * The Xtend files that have to be validated and generated, <code>null</code> if all of them are affected.
+	 */
+	private Set<URI> affectedSources;
+
+	/**
+	 * The files generated for each Xtend file in the current compilation, if a {@link CompilationState} is used.
+	 */
+	private Map<URI, Set<String>> generatedFiles;
+
+	/**
+	 * The executor that validates and generates the Xtend files, <code>null</code> if they are processed on the
+	 * calling thread.
+	 */
+	private ExecutorService executor;
+
 	public void setCurrentClassLoader(ClassLoader currentClassLoader) {
 		this.currentClassLoader = currentClassLoader;
 	}
@@ -207,6 +263,41 @@ public class XtendBatchCompiler {
 		this.writeStorageFiles = writeStorageFiles;
 	}
 	
+	/**
+	 * @since 2.9
+	 */
+	public boolean isPreCompileInMemory() {
+		return preCompileInMemory;
+	}
+
+	/**
+	 * Whether the Java stubs of the Xtend files and the Java files that refer to them are compiled in memory
+	 * instead of in the temp directory.
+	 * 
+	 * @since 2.9
+	 */
+	public void setPreCompileInMemory(boolean preCompileInMemory) {
+		this.preCompileInMemory = preCompileInMemory;
+	}
+
+	/**
+	 * @since 2.9
+	 */
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * The number of threads that validate the Xtend files and generate the Java code for them. Loading, linking and
+	 * type resolution always happen on the calling thread, see {@link #resolveTypes(ResourceSet)}. The reported issues
+	 * and the generated files do not depend on the number of threads.
+	 * 
+	 * @since 2.9
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 	@Inject
 	public void setResourceSetProvider(Provider<ResourceSet> resourceSetProvider) {
 		this.resourceSetProvider = resourceSetProvider;
@@ -242,6 +333,33 @@ public class XtendBatchCompiler {
 		this.outputPath = outputPath;
 	}
 
+	/**
+	 * @since 2.9
+	 */
+	public String getOutputPath() {
+		return outputPath;
+	}
+
+	/**
+	 * @since 2.9
+	 */
+	public CompilationState getCompilationState() {
+		return compilationState;
+	}
+
+	/**
+	 * Lets this compiler reuse the given state of a previous compilation of the same sources. Only the Xtend files
+	 * that were changed since then and the files that depend on them are validated and generated. The state is
+	 * updated after the compilation.
+	 * 
+	 * @param compilationState
+	 *            the state or <code>null</code> if all files should be compiled.
+	 * @since 2.9
+	 */
+	public void setCompilationState(CompilationState compilationState) {
+		this.compilationState = compilationState;
+	}
+
 	public void setSourcePath(String sourcePath) {
 		this.sourcePath = sourcePath;
 	}
@@ -451,6 +569,7 @@ public class XtendBatchCompiler {
 	}
 
 	public boolean compile() {
+		boolean successful = false;
 		try {
 			if (!checkConfiguration()) {
 				return false;
@@ -459,26 +578,64 @@ public class XtendBatchCompiler {
 			if (!configureWorkspace(resourceSet)) {
 				return false;
 			}
+			Map<URI, String> sourceFingerprints = null;
+			String configurationFingerprint = null;
+			ResourceDescriptionsData previousIndex = null;
+			affectedSources = null;
+			generatedFiles = null;
+			if (compilationState != null) {
+				generatedFiles = new ConcurrentHashMap<URI, Set<String>>();
+				sourceFingerprints = getSourceFingerprints();
+				configurationFingerprint = getConfigurationFingerprint();
+				previousIndex = compilationState.getIndex(configurationFingerprint);
+				if (previousIndex != null && compilationState.getChangedSources(sourceFingerprints).isEmpty()) {
+					log.info("All Xtend files are up to date.");
+					successful = true;
+					return true;
+				}
+			}
 			generatorConfigProvider.install(resourceSet, generatorConfig);
-			File classDirectory = createTempDir("classes");
+			preCompiledClasses = null;
+			File classDirectory = isPreCompileInMemory() ? null : createTempDir("classes");
 			try {
 				compilerPhases.setIndexing(resourceSet, true);
 				// install a type provider without index lookup for the first phase
 				installJvmTypeProvider(resourceSet, classDirectory, true);
 				loadXtendFiles(resourceSet);
-				File sourceDirectory = createStubs(resourceSet);
-				if (!preCompileStubs(sourceDirectory, classDirectory)) {
-					log.warn("Compilation of stubs had errors.");
-				}
-				if (!preCompileJava(sourceDirectory, classDirectory)) {
-					log.debug("Compilation of Java code against stubs had errors. This is expected and usually is not a probblem.");
+				if (isPreCompileInMemory()) {
+					preCompileInMemory(resourceSet);
+				} else {
+					File sourceDirectory = createStubs(resourceSet);
+					if (!preCompileStubs(sourceDirectory, classDirectory)) {
+						log.warn("Compilation of stubs had errors.");
+					}
+					if (!preCompileJava(sourceDirectory, classDirectory)) {
+						log.debug("Compilation of Java code against stubs had errors. This is expected and usually is not a probblem.");
+					}
 				}
 			} finally {
 				compilerPhases.setIndexing(resourceSet, false);
 			}
 			// install a fresh type provider for the second phase, so we clear all previously cached classes and misses.
 			installJvmTypeProvider(resourceSet, classDirectory, false);
-			EcoreUtil.resolveAll(resourceSet);
+			if (previousIndex != null) {
+				affectedSources = computeAffectedSources(resourceSet, previousIndex,
+						compilationState.getChangedSources(sourceFingerprints));
+				log.info("Compiling " + affectedSources.size() + " of " + sourceFingerprints.size() + " Xtend files.");
+				for (Resource resource : newArrayList(resourceSet.getResources())) {
+					if (affectedSources.contains(resource.getURI())) {
+						EcoreUtil.resolveAll(resource);
+					}
+				}
+			} else {
+				EcoreUtil.resolveAll(resourceSet);
+			}
+			if (numberOfThreads > 1) {
+				resolveTypes(resourceSet);
+				ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("XtendBatchCompiler-%d")
+						.setDaemon(true).build();
+				executor = Executors.newFixedThreadPool(numberOfThreads, threadFactory);
+			}
 			List<Issue> issues = validate(resourceSet);
 			Iterable<Issue> errors = Iterables.filter(issues, SeverityFilter.ERROR);
 			Iterable<Issue> warnings = Iterables.filter(issues, SeverityFilter.WARNING);
@@ -487,9 +644,24 @@ public class XtendBatchCompiler {
 				return false;
 			}
 			generateJavaFiles(resourceSet);
+			if (compilationState != null) {
+				compilationState.compilationSucceeded(sourceFingerprints, configurationFingerprint,
+						createIndex(resourceSet, previousIndex), generatedFiles);
+			}
+			successful = true;
 		} finally {
-			destroyClassLoader(jvmTypesClassLoader);
-			destroyClassLoader(annotationProcessingClassLoader);
+			if (compilationState != null && !successful) {
+				compilationState.compilationFailed();
+			}
+			if (executor != null) {
+				executor.shutdown();
+				executor = null;
+			}
+			affectedSources = null;
+			generatedFiles = null;
+			preCompiledClasses = null;
+			destroyClassLoader(unwrapPreCompiledClasses(jvmTypesClassLoader));
+			destroyClassLoader(unwrapPreCompiledClasses(annotationProcessingClassLoader));
 			if (isDeleteTempDirectory()) {
 				deleteTmpFolders();
 			}
@@ -499,6 +671,129 @@ public class XtendBatchCompiler {
 	
 	
 
+	/**
+	 * Computes the changed Xtend files and the files that depend on them transitively.
+	 */
+	private Set<URI> computeAffectedSources(ResourceSet resourceSet, ResourceDescriptionsData previousIndex,
+			Set<URI> changedSources) {
+		Set<URI> result = newLinkedHashSet(changedSources);
+		List<IResourceDescription.Delta> deltas = newArrayList();
+		for (URI uri : changedSources) {
+			deltas.add(resourceDescriptionManager.createDelta(previousIndex.getResourceDescription(uri),
+					getCopiedResourceDescription(resourceSet.getResource(uri, false))));
+		}
+		while (!deltas.isEmpty()) {
+			List<IResourceDescription.Delta> affectedDeltas = newArrayList();
+			for (IResourceDescription candidate : previousIndex.getAllResourceDescriptions()) {
+				URI uri = candidate.getURI();
+				if (!result.contains(uri) && resourceDescriptionManager.isAffected(deltas, candidate, previousIndex)) {
+					result.add(uri);
+					IResourceDescription.Delta delta = resourceDescriptionManager.createDelta(candidate,
+							getCopiedResourceDescription(resourceSet.getResource(uri, false)));
+					if (delta.haveEObjectDescriptionsChanged()) {
+						affectedDeltas.add(delta);
+					}
+				}
+			}
+			deltas = affectedDeltas;
+		}
+		return result;
+	}
+
+	/**
+	 * Creates the index of all Xtend files. The descriptions of the files that were not affected by this
+	 * compilation are taken from the previous index.
+	 */
+	private ResourceDescriptionsData createIndex(ResourceSet resourceSet, /* @Nullable */ ResourceDescriptionsData previousIndex) {
+		List<IResourceDescription> descriptions = newArrayList();
+		for (Resource resource : newArrayList(resourceSet.getResources())) {
+			if (isSourceFile(resource)) {
+				IResourceDescription description = null;
+				if (previousIndex != null && !isAffected(resource)) {
+					description = previousIndex.getResourceDescription(resource.getURI());
+				}
+				if (description == null) {
+					description = getCopiedResourceDescription(resource);
+				}
+				descriptions.add(description);
+			}
+		}
+		return new ResourceDescriptionsData(descriptions);
+	}
+
+	/* @Nullable */ private IResourceDescription getCopiedResourceDescription(/* @Nullable */ Resource resource) {
+		if (resource == null) {
+			return null;
+		}
+		return SerializableResourceDescription.createCopy(resourceDescriptionManager.getResourceDescription(resource));
+	}
+
+	/**
+	 * @return <code>true</code> if the given resource has to be validated and generated by this compilation.
+	 * @since 2.9
+	 */
+	protected boolean isAffected(Resource resource) {
+		return affectedSources == null || affectedSources.contains(resource.getURI());
+	}
+
+	private Map<URI, String> getSourceFingerprints() {
+		Map<URI, String> result = newHashMap();
+		for (URI uri : findXtendFiles().values()) {
+			if (uri.isFile()) {
+				File file = new File(uri.toFileString());
+				result.put(uri, file.length() + ":" + file.lastModified());
+			} else {
+				result.put(uri, "");
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The fingerprint covers all settings that influence the generated code and the state of the class path.
+	 */
+	private String getConfigurationFingerprint() {
+		StringBuilder result = new StringBuilder();
+		result.append(outputPath).append(';').append(getFileEncoding()).append(';');
+		result.append(getJavaSourceVersion()).append(';').append(isGenerateSyntheticSuppressWarnings()).append(';');
+		result.append(isGenerateGeneratedAnnotation()).append(';').append(isIncludeDateInGeneratedAnnotation()).append(';');
+		result.append(getGeneratedAnnotationComment()).append(';').append(writeTraceFiles).append(';');
+		result.append(writeStorageFiles).append(';').append(useCurrentClassLoaderAsParent).append(';');
+		result.append(bootClassPath).append(';');
+		for (String entry : getClassPathEntries()) {
+			result.append(getFileFingerprint(new File(entry))).append(';');
+		}
+		return result.toString();
+	}
+
+	/**
+	 * @return the path, length and modification stamp of a file. For a directory, the number of contained files and
+	 *         the latest modification stamp are used.
+	 */
+	private String getFileFingerprint(File file) {
+		if (file.isDirectory()) {
+			long[] countAndStamp = new long[2];
+			collectFolderFingerprint(file, countAndStamp);
+			return file.getPath() + ":" + countAndStamp[0] + ":" + countAndStamp[1];
+		}
+		return file.getPath() + ":" + file.length() + ":" + file.lastModified();
+	}
+
+	private void collectFolderFingerprint(File folder, long[] countAndStamp) {
+		countAndStamp[1] = Math.max(countAndStamp[1], folder.lastModified());
+		File[] children = folder.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				if (child.isDirectory()) {
+					collectFolderFingerprint(child, countAndStamp);
+				} else {
+					countAndStamp[0]++;
+					countAndStamp[1] = Math.max(countAndStamp[1], child.lastModified());
+				}
+			}
+		}
+	}
+
 	/**
 	 * @since 2.8
 	 */
@@ -544,6 +839,19 @@ public class XtendBatchCompiler {
 
 	protected ResourceSet loadXtendFiles(final ResourceSet resourceSet) {
 		encodingProvider.setDefaultEncoding(getFileEncoding());
+		Multimap<String, URI> pathes = findXtendFiles();
+		for (String src : pathes.keySet()) {
+			for (URI uri : pathes.get(src)) {
+				if (log.isDebugEnabled()) {
+					log.debug("load xtend file '" + uri + "'");
+				}
+				resourceSet.getResource(uri, true);
+			}
+		}
+		return resourceSet;
+	}
+
+	private Multimap<String, URI> findXtendFiles() {
 		final NameBasedFilter nameBasedFilter = new NameBasedFilter();
 		nameBasedFilter.setExtension(fileExtensionProvider.getPrimaryFileExtension());
 		PathTraverser pathTraverser = new PathTraverser();
@@ -555,15 +863,7 @@ public class XtendBatchCompiler {
 				return matches;
 			}
 		});
-		for (String src : pathes.keySet()) {
-			for (URI uri : pathes.get(src)) {
-				if (log.isDebugEnabled()) {
-					log.debug("load xtend file '" + uri + "'");
-				}
-				resourceSet.getResource(uri, true);
-			}
-		}
-		return resourceSet;
+		return pathes;
 	}
 
 	@Deprecated
@@ -584,6 +884,63 @@ public class XtendBatchCompiler {
 		return outputDirectory;
 	}
 
+	/**
+	 * Generates the Java stubs of the Xtend files into memory and compiles them. The Java files of the source path
+	 * are compiled against the stubs afterwards. Their class files are used by the type provider of the second phase.
+	 * 
+	 * @since 2.9
+	 */
+	protected void preCompileInMemory(ResourceSet resourceSet) {
+		InMemoryFileSystemAccess stubs = inMemoryFileSystemAccessProvider.get();
+		for (Resource resource : Lists.newArrayList(resourceSet.getResources())) {
+			IResourceDescription description = resourceDescriptionManager.getResourceDescription(resource);
+			stubGenerator.doGenerateStubs(stubs, description);
+		}
+		ClassLoader classPath = createClassLoader(transform(getClassPathEntries(), TO_FILE), getParentClassLoader());
+		try {
+			Map<String, byte[]> stubClasses = newHashMap();
+			JavaVersion javaVersion = generatorConfig.getJavaSourceVersion();
+			if (!new InMemoryStubCompiler(classPath, javaVersion).compile(stubs.getTextFiles(), stubClasses)) {
+				log.warn("Compilation of stubs had errors.");
+			}
+			Map<String, byte[]> javaClasses = newHashMap();
+			ClassLoader classPathAndStubs = new InMemoryClassLoader(stubClasses, classPath);
+			if (!new InMemoryStubCompiler(classPathAndStubs, javaVersion).compile(readJavaFiles(), javaClasses)) {
+				log.debug("Compilation of Java code against stubs had errors. This is expected and usually is not a probblem.");
+			}
+			preCompiledClasses = javaClasses;
+		} finally {
+			destroyClassLoader(classPath);
+		}
+	}
+
+	private Map<String, CharSequence> readJavaFiles() {
+		String encoding = encodingProvider.getDefaultEncoding();
+		Charset charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+		Map<String, CharSequence> result = newLinkedHashMap();
+		for (String sourceDirectory : getSourcePathDirectories()) {
+			collectJavaFiles(new File(sourceDirectory), charset, result);
+		}
+		return result;
+	}
+
+	private void collectJavaFiles(File file, Charset charset, Map<String, CharSequence> result) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					collectJavaFiles(child, charset, result);
+				}
+			}
+		} else if (file.getName().endsWith(".java")) {
+			try {
+				result.put(file.getPath(), com.google.common.io.Files.toString(file, charset));
+			} catch (IOException e) {
+				log.warn("Cannot read Java file " + file, e);
+			}
+		}
+	}
+
 	protected boolean preCompileStubs(File tmpSourceDirectory, File classDirectory) {
 		return preCompile(tmpSourceDirectory, singletonList(tmpSourceDirectory.toString()), getClassPathEntries());
 	}	
@@ -652,18 +1009,73 @@ public class XtendBatchCompiler {
 	protected List<Issue> validate(ResourceSet resourceSet) {
 		List<Issue> issues = Lists.newArrayList();
 		List<Resource> resources = Lists.newArrayList(resourceSet.getResources());
+		if (executor != null) {
+			List<Future<List<Issue>>> validations = Lists.newArrayList();
+			for (final Resource resource : resources) {
+				if (isSourceFile(resource) && isAffected(resource)) {
+					validations.add(executor.submit(new Callable<List<Issue>>() {
+						@Override
+						public List<Issue> call() throws Exception {
+							return validate(resource);
+						}
+					}));
+				}
+			}
+			// collect the issues in the order of the resources
+			for (Future<List<Issue>> validation : validations) {
+				addAll(issues, waitFor(validation));
+			}
+			return issues;
+		}
 		for (Resource resource : resources) {
-			IResourceServiceProvider resourceServiceProvider = IResourceServiceProvider.Registry.INSTANCE
-					.getResourceServiceProvider(resource.getURI());
-			if (resourceServiceProvider != null && isSourceFile(resource)) {
-				IResourceValidator resourceValidator = resourceServiceProvider.getResourceValidator();
-				List<Issue> result = resourceValidator.validate(resource, CheckMode.ALL, null);
-				addAll(issues, result);
+			if (isSourceFile(resource) && isAffected(resource)) {
+				addAll(issues, validate(resource));
 			}
 		}
 		return issues;
 	}
 
+	/**
+	 * Resolves the types of the Xtend files before they are validated and generated concurrently. The type resolution
+	 * of a file may need the inferred types of other files, so it is synchronized on the lock of the resource set.
+	 * Resolving a file on a worker thread would block all other workers. Once the types of a file are resolved, they
+	 * are read without locking.
+	 * 
+	 * @since 2.9
+	 */
+	protected void resolveTypes(ResourceSet resourceSet) {
+		for (Resource resource : newArrayList(resourceSet.getResources())) {
+			if (isSourceFile(resource) && isAffected(resource) && !resource.getContents().isEmpty()) {
+				typeResolver.resolveTypes(resource.getContents().get(0));
+			}
+		}
+	}
+
+	/**
+	 * Validates a single Xtend file. May be called concurrently for different resources.
+	 * 
+	 * @since 2.9
+	 */
+	protected List<Issue> validate(Resource resource) {
+		IResourceServiceProvider resourceServiceProvider = IResourceServiceProvider.Registry.INSTANCE
+				.getResourceServiceProvider(resource.getURI());
+		if (resourceServiceProvider == null) {
+			return emptyList();
+		}
+		IResourceValidator resourceValidator = resourceServiceProvider.getResourceValidator();
+		return resourceValidator.validate(resource, CheckMode.ALL, null);
+	}
+
+	private <T> T waitFor(Future<T> future) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw Throwables.propagate(e.getCause());
+		} catch (InterruptedException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+
 	/**
 	 * @since 2.8
 	 */
@@ -703,7 +1115,7 @@ public class XtendBatchCompiler {
 	 */
 	private void internalInstallJvmTypeProvider(ResourceSet resourceSet, File tmpClassDirectory, boolean skipIndexLookup) {
 		Iterable<String> classPathEntries = concat(getClassPathEntries(), getSourcePathDirectories(),
-				asList(tmpClassDirectory.toString()));
+				tmpClassDirectory == null ? Collections.<String>emptyList() : asList(tmpClassDirectory.toString()));
 		classPathEntries = filter(classPathEntries, new Predicate<String>() {
 			@Override
 			public boolean apply(String input) {
@@ -715,26 +1127,61 @@ public class XtendBatchCompiler {
 		if (log.isDebugEnabled()) {
 			log.debug("classpath used for Xtend compilation : " + classpath);
 		}
-		ClassLoader parentClassLoader;
-		if (useCurrentClassLoaderAsParent) {
-			parentClassLoader = currentClassLoader;
-		} else {
-			if (isEmpty(bootClassPath)) {
-				parentClassLoader = ClassLoader.getSystemClassLoader().getParent();
-			} else {
-				Iterable<File> bootClassPathEntries = transform(getBootClassPathEntries(), TO_FILE);
-				parentClassLoader = new AlternateJdkLoader(bootClassPathEntries);
+		ClassLoader parentClassLoader = getParentClassLoader();
+		Iterable<File> jvmTypesClasspath = classpath;
+		if (compilationState != null) {
+			// archives are loaded by a class loader that is reused as long as they don't change
+			List<File> archives = newArrayList(filter(classpath, IS_ARCHIVE));
+			StringBuilder fingerprint = new StringBuilder().append(useCurrentClassLoaderAsParent).append(';').append(bootClassPath);
+			for (File archive : archives) {
+				fingerprint.append(';').append(getFileFingerprint(archive));
 			}
+			parentClassLoader = compilationState.getArchivesClassLoader(toArray(transform(archives, TO_URL), URL.class),
+					fingerprint.toString(), parentClassLoader);
+			jvmTypesClasspath = newArrayList(filter(classpath, Predicates.not(IS_ARCHIVE)));
+		}
+		jvmTypesClassLoader = createClassLoader(jvmTypesClasspath, parentClassLoader);
+		if (preCompiledClasses != null) {
+			jvmTypesClassLoader = new InMemoryClassLoader(preCompiledClasses, jvmTypesClassLoader);
+		}
+		if (compilationState != null) {
+			DeclaredTypeFactory typeFactory = new DeclaredTypeFactory(new ClassFileBytesAccess(), jvmTypesClassLoader);
+			new CachingClasspathTypeProvider(jvmTypesClassLoader, resourceSet, skipIndexLookup ? null : indexedJvmTypeAccess,
+					compilationState.getTypeFactory(typeFactory), null);
+		} else {
+			new ClasspathTypeProvider(jvmTypesClassLoader, resourceSet, skipIndexLookup ? null : indexedJvmTypeAccess, null);
 		}
-		jvmTypesClassLoader = createClassLoader(classpath, parentClassLoader);
-		new ClasspathTypeProvider(jvmTypesClassLoader, resourceSet, skipIndexLookup ? null : indexedJvmTypeAccess, null);
 		((XtextResourceSet) resourceSet).setClasspathURIContext(jvmTypesClassLoader);
 
 		// for annotation processing we need to have the compiler's classpath as a parent.
 		annotationProcessingClassLoader = createClassLoader(classpath, currentClassLoader);
+		if (preCompiledClasses != null) {
+			annotationProcessingClassLoader = new InMemoryClassLoader(preCompiledClasses, annotationProcessingClassLoader);
+		}
 		resourceSet.eAdapters().add(new ProcessorInstanceForJvmTypeProvider.ProcessorClassloaderAdapter(annotationProcessingClassLoader));
 	}
 	
+	private ClassLoader getParentClassLoader() {
+		if (useCurrentClassLoaderAsParent) {
+			return currentClassLoader;
+		}
+		if (isEmpty(bootClassPath)) {
+			return ClassLoader.getSystemClassLoader().getParent();
+		}
+		Iterable<File> bootClassPathEntries = transform(getBootClassPathEntries(), TO_FILE);
+		return new AlternateJdkLoader(bootClassPathEntries);
+	}
+
+	/**
+	 * @return the class loader that is decorated with the pre-compiled classes.
+	 */
+	private ClassLoader unwrapPreCompiledClasses(ClassLoader classLoader) {
+		if (classLoader instanceof InMemoryClassLoader) {
+			return classLoader.getParent();
+		}
+		return classLoader;
+	}
+
 	private static final Function<String, File> TO_FILE = new Function<String, File>() {
 		@Override
 		public File apply(String from) {
@@ -742,6 +1189,13 @@ public class XtendBatchCompiler {
 		}
 	};
 	
+	private static final Predicate<File> IS_ARCHIVE = new Predicate<File>() {
+		@Override
+		public boolean apply(File input) {
+			return input.isFile();
+		}
+	};
+	
 	private static final Function<File, URL> TO_URL= new Function<File, URL>() {
 		@SuppressWarnings("deprecation")
 		@Override
@@ -788,19 +1242,71 @@ public class XtendBatchCompiler {
 	}
 
 	protected void generateJavaFiles(ResourceSet resourceSet) {
-		JavaIoFileSystemAccess javaIoFileSystemAccess = javaIoFileSystemAccessProvider.get();
-		javaIoFileSystemAccess.setOutputPath(outputPath);
-		javaIoFileSystemAccess.setWriteTrace(writeTraceFiles);
-
-		for (Resource resource : newArrayList(resourceSet.getResources())) {
-			if (isSourceFile(resource)) {
-				if (isWriteStorageFiles()) {
-					StorageAwareResource storageAwareResource = (StorageAwareResource)resource;
-					storageAwareResource.getResourceStorageFacade().saveResource(storageAwareResource, javaIoFileSystemAccess);
+		if (executor != null) {
+			List<Future<?>> generations = Lists.newArrayList();
+			for (final Resource resource : newArrayList(resourceSet.getResources())) {
+				if (isSourceFile(resource) && isAffected(resource)) {
+					generations.add(executor.submit(new Runnable() {
+						@Override
+						public void run() {
+							// the file system access is not thread-safe, thus each task uses its own one
+							JavaIoFileSystemAccess javaIoFileSystemAccess = createFileSystemAccess();
+							recordGeneratedFiles(resource, javaIoFileSystemAccess);
+							generateJavaFiles(resource, javaIoFileSystemAccess);
+						}
+					}));
 				}
-				generator.generate(resource, javaIoFileSystemAccess);
 			}
+			for (Future<?> generation : generations) {
+				waitFor(generation);
+			}
+			return;
+		}
+		JavaIoFileSystemAccess javaIoFileSystemAccess = createFileSystemAccess();
+		for (Resource resource : newArrayList(resourceSet.getResources())) {
+			if (isSourceFile(resource) && isAffected(resource)) {
+				recordGeneratedFiles(resource, javaIoFileSystemAccess);
+				generateJavaFiles(resource, javaIoFileSystemAccess);
+			}
+		}
+	}
+
+	private void recordGeneratedFiles(Resource resource, JavaIoFileSystemAccess javaIoFileSystemAccess) {
+		if (generatedFiles == null)
+			return;
+		final Set<String> files = newHashSet();
+		generatedFiles.put(resource.getURI(), files);
+		javaIoFileSystemAccess.setCallBack(new IFileCallback() {
+			@Override
+			public void fileAdded(File file) {
+				files.add(file.getAbsolutePath());
+			}
+
+			@Override
+			public void fileDeleted(File file) {
+				files.remove(file.getAbsolutePath());
+			}
+		});
+	}
+
+	/**
+	 * Generates the Java code for a single Xtend file. May be called concurrently for different resources.
+	 * 
+	 * @since 2.9
+	 */
+	protected void generateJavaFiles(Resource resource, JavaIoFileSystemAccess javaIoFileSystemAccess) {
+		if (isWriteStorageFiles()) {
+			StorageAwareResource storageAwareResource = (StorageAwareResource)resource;
+			storageAwareResource.getResourceStorageFacade().saveResource(storageAwareResource, javaIoFileSystemAccess);
 		}
+		generator.generate(resource, javaIoFileSystemAccess);
+	}
+
+	private JavaIoFileSystemAccess createFileSystemAccess() {
+		JavaIoFileSystemAccess javaIoFileSystemAccess = javaIoFileSystemAccessProvider.get();
+		javaIoFileSystemAccess.setOutputPath(outputPath);
+		javaIoFileSystemAccess.setWriteTrace(writeTraceFiles);
+		return javaIoFileSystemAccess;
 	}
 
 	protected ResourceSetBasedResourceDescriptions getResourceDescriptions(ResourceSet resourceSet) {
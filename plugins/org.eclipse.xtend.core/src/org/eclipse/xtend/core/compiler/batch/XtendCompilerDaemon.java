@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.core.compiler.batch;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * A long-lived compiler process that avoids the start-up costs of the {@link XtendBatchCompiler} for subsequent
+ * builds. The injector, the {@link CompilationState state} of each compiled project, and with it the cached types of
+ * unchanged jar archives and the index of the previous compilation, are kept between the requests. Thus only changed
+ * Xtend files and their dependents are compiled again.
+ *
+ * The protocol is line based. A request consists of the command line arguments of {@link Main}, one argument per
+ * line, and is terminated by an empty line. The daemon answers with a single line, either {@value #SUCCESS} or
+ * {@value #FAILURE}. The request {@value #SHUTDOWN} stops the daemon. The log output of the compiler is not part of
+ * the answer.
+ *
+ * Projects are identified by their output directory.
+ *
+ * @since 2.9
+ */
+public class XtendCompilerDaemon {
+
+	private static final Logger log = Logger.getLogger(XtendCompilerDaemon.class);
+
+	public static final String SUCCESS = "xtend-daemon:success";
+
+	public static final String FAILURE = "xtend-daemon:failure";
+
+	public static final String SHUTDOWN = "shutdown";
+
+	@Inject
+	private Provider<XtendBatchCompiler> compilerProvider;
+
+	private final Map<String, CompilationState> states = Maps.newHashMap();
+
+	private boolean shutdown;
+
+	/**
+	 * Serves the requests that are read from the given stream until the stream ends or the daemon is shut down.
+	 */
+	public void serve(InputStream in, OutputStream out) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+		PrintStream writer = new PrintStream(out, true, "UTF-8");
+		List<String> request = Lists.newArrayList();
+		String line;
+		while (!shutdown && (line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.length() != 0) {
+				request.add(line);
+			} else if (!request.isEmpty()) {
+				if (request.size() == 1 && SHUTDOWN.equals(request.get(0))) {
+					shutdown();
+				} else {
+					writer.println(compile(request) ? SUCCESS : FAILURE);
+				}
+				request.clear();
+			}
+		}
+	}
+
+	/**
+	 * Serves the connections to the given port of the loopback interface one after another until the daemon is shut
+	 * down.
+	 */
+	public void serve(int port) throws IOException {
+		serve(new ServerSocket(port, 0, InetAddress.getByName(null)));
+	}
+
+	/**
+	 * Serves the connections to the given server socket one after another until the daemon is shut down. A client
+	 * that fails or disconnects does not stop the daemon. The server socket is closed afterwards.
+	 */
+	public void serve(ServerSocket serverSocket) throws IOException {
+		try {
+			log.info("Xtend compiler daemon is listening on port " + serverSocket.getLocalPort());
+			while (!shutdown) {
+				Socket socket = serverSocket.accept();
+				try {
+					serve(socket.getInputStream(), socket.getOutputStream());
+				} catch (IOException e) {
+					log.warn("Lost the connection to a client", e);
+				} finally {
+					try {
+						socket.close();
+					} catch (IOException e) {
+						log.debug("Unable to close a client connection", e);
+					}
+				}
+			}
+		} finally {
+			serverSocket.close();
+		}
+	}
+
+	/**
+	 * Compiles a project with the given command line arguments.
+	 */
+	public boolean compile(List<String> arguments) {
+		XtendBatchCompiler compiler = compilerProvider.get();
+		try {
+			Main.configure(compiler, arguments.iterator());
+		} catch (RuntimeException e) {
+			log.error("Invalid arguments " + arguments, e);
+			return false;
+		}
+		if (compiler.getOutputPath() == null) {
+			log.error("No output directory given in " + arguments);
+			return false;
+		}
+		String project = new File(compiler.getOutputPath()).getAbsolutePath();
+		CompilationState state = states.get(project);
+		if (state == null) {
+			state = new CompilationState();
+			states.put(project, state);
+		}
+		compiler.setCompilationState(state);
+		try {
+			return compiler.compile();
+		} catch (RuntimeException e) {
+			log.error("Compilation failed with an exception", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Stops serving requests and releases the state of all projects.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		for (CompilationState state : states.values()) {
+			state.close();
+		}
+		states.clear();
+	}
+
+}
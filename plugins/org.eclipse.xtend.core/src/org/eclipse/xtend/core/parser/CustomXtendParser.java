@@ -43,6 +43,14 @@ public class CustomXtendParser extends XtendParser {
 		throw new IllegalArgumentException(stream.getClass().getName());
 	}
 	
+	/**
+	 * The tokens are produced by the JFlex based lexer rather than the lexer of the {@link #getLexerProvider() provider}.
+	 */
+	@Override
+	public boolean isIncrementalLexingSupported() {
+		return false;
+	}
+	
 	@Override
 	public IParseResult parse(ParserRule rule, Reader reader) {
 		IParseResult parseResult = parse(rule.getName(), new ReaderCharStream(reader));
@@ -30,6 +30,7 @@ import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.ILeafNode;
 import org.eclipse.xtext.nodemodel.impl.AbstractNode;
 import org.eclipse.xtext.nodemodel.impl.NodeModelBuilder;
+import org.eclipse.xtext.nodemodel.impl.PackedRootNode;
 import org.eclipse.xtext.nodemodel.impl.SyntheticCompositeNode;
 import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.parser.IParser;
@@ -68,6 +69,10 @@ public class XtendPartialParsingHelper implements IPartialParsingHelper {
 
 	@Override
 	public IParseResult reparse(IParser parser, IParseResult previousParseResult, ReplaceRegion changedRegion) {
+		if (previousParseResult.getRootNode() instanceof PackedRootNode) {
+			// packed node models are read-only
+			return fullyReparse(parser, previousParseResult, changedRegion);
+		}
 		if (isBrokenPreviousState(previousParseResult, changedRegion.getOffset())) {
 			return fullyReparse(parser, previousParseResult, changedRegion);
 		}
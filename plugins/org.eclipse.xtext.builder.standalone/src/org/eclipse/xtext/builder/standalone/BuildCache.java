@@ -0,0 +1,451 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess.IFileCallback;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.resource.impl.MappedResourceDescriptionsData;
+import org.eclipse.xtext.resource.impl.MappedResourceDescriptionsWriter;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.eclipse.xtext.validation.CheckType;
+import org.eclipse.xtext.validation.Issue;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+
+/**
+ * A persistent cache for the {@link StandaloneBuilder}. For every resource it stores the content hash and the
+ * resource description, and for source resources additionally the validation issues and the generated files. The
+ * resource descriptions are kept in a separate file that is memory mapped by {@link MappedResourceDescriptionsData}
+ * when the cache is loaded, so they are only decoded when they are used.
+ *
+ * Resources with an unchanged content hash are not parsed to fill the index. A source resource is neither validated
+ * nor generated again if its fingerprint is unchanged, i.e. its own content and the content of the resources it depends
+ * on are the same as in the previous build, none of its dependencies has to be rebuilt, and all of its generated files
+ * still exist. The whole cache is discarded if the configuration of the builder changes.
+ *
+ * @since 2.9
+ */
+public class BuildCache {
+
+	private static final Logger LOG = Logger.getLogger(BuildCache.class);
+
+	public static final String FILE_NAME = "xtext-build.cache";
+
+	public static final String INDEX_FILE_NAME = "xtext-build.index";
+
+	/**
+	 * The cached state of a single resource.
+	 */
+	public static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 2L;
+
+		private String contentHash;
+		private String fingerprint;
+		private ArrayList<CachedIssue> issues = Lists.newArrayList();
+		private ArrayList<String> generatedFiles = Lists.newArrayList();
+
+		public Entry(String contentHash) {
+			this.contentHash = contentHash;
+		}
+
+		public String getContentHash() {
+			return contentHash;
+		}
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+
+		public List<CachedIssue> getIssues() {
+			return issues;
+		}
+
+		public List<String> getGeneratedFiles() {
+			return generatedFiles;
+		}
+	}
+
+	/**
+	 * A serializable copy of an {@link Issue}.
+	 */
+	public static class CachedIssue implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Severity severity;
+		private String message;
+		private String code;
+		private CheckType type;
+		private String uriToProblem;
+		private Integer lineNumber;
+		private Integer offset;
+		private Integer length;
+		private boolean syntaxError;
+		private String[] data;
+
+		public CachedIssue(Issue issue) {
+			severity = issue.getSeverity();
+			message = issue.getMessage();
+			code = issue.getCode();
+			type = issue.getType();
+			uriToProblem = issue.getUriToProblem() == null ? null : issue.getUriToProblem().toString();
+			lineNumber = issue.getLineNumber();
+			offset = issue.getOffset();
+			length = issue.getLength();
+			syntaxError = issue.isSyntaxError();
+			data = issue.getData();
+		}
+
+		public Issue toIssue() {
+			Issue.IssueImpl result = new Issue.IssueImpl();
+			result.setSeverity(severity);
+			result.setMessage(message);
+			result.setCode(code);
+			result.setType(type);
+			result.setUriToProblem(uriToProblem == null ? null : URI.createURI(uriToProblem));
+			result.setLineNumber(lineNumber);
+			result.setOffset(offset);
+			result.setLength(length);
+			result.setSyntaxError(syntaxError);
+			result.setData(data);
+			return result;
+		}
+	}
+
+	private final File file;
+
+	private final File indexFile;
+
+	private final String configurationFingerprint;
+
+	private Map<String, Entry> previousEntries = Collections.emptyMap();
+
+	private IResourceDescriptions previousDescriptions = null;
+
+	private final Map<String, Entry> entries = Maps.newHashMap();
+
+	private final Map<URI, IResourceDescription> descriptions = Maps.newLinkedHashMap();
+
+	private final Map<URI, String> contentHashes = Maps.newHashMap();
+
+	private final Map<URI, String> fingerprints = Maps.newHashMap();
+
+	/**
+	 * @param directory
+	 *            the directory that holds the cache file
+	 * @param configurationFingerprint
+	 *            identifies the builder configuration; the cache is discarded if it changes
+	 */
+	public BuildCache(File directory, String configurationFingerprint) {
+		this.file = new File(directory, FILE_NAME);
+		this.indexFile = new File(directory, INDEX_FILE_NAME);
+		this.configurationFingerprint = configurationFingerprint;
+	}
+
+	public void load() {
+		load(EPackage.Registry.INSTANCE);
+	}
+
+	/**
+	 * @param packageRegistry
+	 *            resolves the EClasses and EReferences of the cached resource descriptions, e.g. the registry of the
+	 *            resource set they are used with
+	 */
+	@SuppressWarnings("unchecked")
+	public void load(EPackage.Registry packageRegistry) {
+		if (!file.exists() || !indexFile.exists())
+			return;
+		try {
+			ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				if (configurationFingerprint.equals(in.readUTF())) {
+					previousEntries = (Map<String, Entry>) in.readObject();
+					previousDescriptions = MappedResourceDescriptionsData.load(indexFile, packageRegistry);
+				} else {
+					LOG.info("The builder configuration changed. Performing a full build.");
+				}
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			LOG.warn("Could not read the build cache '" + file.getAbsolutePath() + "'. Performing a full build.", e);
+			previousEntries = Collections.emptyMap();
+			previousDescriptions = null;
+		}
+	}
+
+	/**
+	 * Writes the entries and descriptions of the resources that were seen in the current build. A cache that cannot be
+	 * written only causes a full build next time, so failures are logged but not propagated.
+	 */
+	public void save() {
+		try {
+			File directory = file.getParentFile();
+			if (!directory.mkdirs() && !directory.exists())
+				throw new IOException("Failed to create directory '" + directory.getAbsolutePath() + "'");
+			// the previous index is still mapped and may be read while writing, so it is replaced instead of overwritten
+			File newIndexFile = new File(directory, INDEX_FILE_NAME + ".tmp");
+			MappedResourceDescriptionsWriter.write(descriptions.values(), newIndexFile);
+			if (indexFile.exists() && !indexFile.delete() || !newIndexFile.renameTo(indexFile))
+				throw new IOException("Failed to replace '" + indexFile.getAbsolutePath() + "'");
+			ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			try {
+				out.writeUTF(configurationFingerprint);
+				out.writeObject(new HashMap<String, Entry>(entries));
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			LOG.error("Could not write the build cache '" + file.getAbsolutePath() + "'.", e);
+			// entries without a matching index must not be used
+			file.delete();
+		}
+	}
+
+	/**
+	 * Returns the cached description if the content of the resource did not change since the last build,
+	 * <code>null</code> otherwise.
+	 */
+	public IResourceDescription getDescription(URI uri, URIConverter converter) {
+		String contentHash = getContentHash(uri, converter);
+		Entry previous = previousEntries.get(uri.toString());
+		if (contentHash == null || previous == null || !contentHash.equals(previous.contentHash)
+				|| previousDescriptions == null)
+			return null;
+		IResourceDescription description = previousDescriptions.getResourceDescription(uri);
+		if (description == null)
+			return null;
+		entries.put(uri.toString(), previous);
+		descriptions.put(uri, description);
+		return description;
+	}
+
+	public void putDescription(URI uri, IResourceDescription description, URIConverter converter) {
+		if (description == null)
+			return;
+		entries.put(uri.toString(), new Entry(getContentHash(uri, converter)));
+		descriptions.put(uri, SerializableResourceDescription.createCopy(description));
+	}
+
+	public String getContentHash(URI uri, URIConverter converter) {
+		if (contentHashes.containsKey(uri))
+			return contentHashes.get(uri);
+		String result = null;
+		try {
+			InputStream in = converter.createInputStream(uri);
+			try {
+				result = hash(ByteStreams.toByteArray(in));
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			LOG.warn("Could not compute the content hash of '" + uri + "'.", e);
+		}
+		contentHashes.put(uri, result);
+		return result;
+	}
+
+	/**
+	 * Computes the source resources that have to be validated and generated. A resource has to be built if its
+	 * fingerprint changed, if one of its generated files is missing or if it transitively depends on a resource that
+	 * has to be built. The issues and generated files of those resources are reset.
+	 */
+	public Set<URI> computeResourcesToBuild(Iterable<URI> sourceURIs, IResourceDescriptions index) {
+		Multimap<URI, URI> dependents = HashMultimap.create();
+		Set<URI> result = Sets.newLinkedHashSet();
+		for (URI uri : sourceURIs) {
+			IResourceDescription description = index.getResourceDescription(uri);
+			Set<URI> dependencies = getDependencies(uri, description, index);
+			for (URI dependency : dependencies) {
+				dependents.put(dependency, uri);
+			}
+			String fingerprint = computeFingerprint(uri, dependencies);
+			fingerprints.put(uri, fingerprint);
+			Entry entry = entries.get(uri.toString());
+			if (entry == null || fingerprint == null || !fingerprint.equals(entry.fingerprint)
+					|| !allFilesExist(entry.generatedFiles)) {
+				result.add(uri);
+			}
+		}
+		LinkedList<URI> queue = Lists.newLinkedList(result);
+		while (!queue.isEmpty()) {
+			for (URI dependent : dependents.get(queue.removeFirst())) {
+				if (result.add(dependent))
+					queue.add(dependent);
+			}
+		}
+		for (URI uri : result) {
+			Entry entry = entries.get(uri.toString());
+			if (entry != null) {
+				entry.fingerprint = null;
+				entry.issues = Lists.newArrayList();
+				entry.generatedFiles = Lists.newArrayList();
+			}
+		}
+		return result;
+	}
+
+	protected Set<URI> getDependencies(URI uri, IResourceDescription description, IResourceDescriptions index) {
+		Set<URI> result = Sets.newHashSet();
+		if (description == null)
+			return result;
+		for (QualifiedName importedName : description.getImportedNames()) {
+			for (IEObjectDescription object : index.getExportedObjects(EcorePackage.Literals.EOBJECT, importedName, true)) {
+				result.add(object.getEObjectURI().trimFragment());
+			}
+		}
+		for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+			if (reference.getTargetEObjectUri() != null)
+				result.add(reference.getTargetEObjectUri().trimFragment());
+		}
+		result.remove(uri);
+		return result;
+	}
+
+	/**
+	 * Dependencies without a known content hash, e.g. Java types, are covered by the configuration fingerprint.
+	 */
+	protected String computeFingerprint(URI uri, Set<URI> dependencies) {
+		String contentHash = contentHashes.get(uri);
+		if (contentHash == null)
+			return null;
+		StringBuilder result = new StringBuilder(contentHash);
+		for (String dependency : toSortedStrings(dependencies)) {
+			result.append('\n').append(dependency).append('=').append(contentHashes.get(URI.createURI(dependency)));
+		}
+		try {
+			return hash(result.toString().getBytes("UTF-8"));
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Set<String> toSortedStrings(Set<URI> uris) {
+		Set<String> result = new TreeSet<String>();
+		for (URI uri : uris) {
+			result.add(uri.toString());
+		}
+		return result;
+	}
+
+	protected boolean allFilesExist(List<String> files) {
+		for (String path : files) {
+			if (!new File(path).exists())
+				return false;
+		}
+		return true;
+	}
+
+	public List<Issue> getIssues(URI uri) {
+		List<Issue> result = Lists.newArrayList();
+		Entry entry = entries.get(uri.toString());
+		if (entry != null) {
+			for (CachedIssue issue : entry.issues) {
+				result.add(issue.toIssue());
+			}
+		}
+		return result;
+	}
+
+	public void recordIssues(URI uri, Iterable<Issue> issues) {
+		Entry entry = entries.get(uri.toString());
+		if (entry != null) {
+			for (Issue issue : issues) {
+				entry.issues.add(new CachedIssue(issue));
+			}
+		}
+	}
+
+	public IFileCallback recordGeneratedFiles(URI uri) {
+		return recordGeneratedFiles(uri, null);
+	}
+
+	/**
+	 * Records the generated files of the given source resource and forwards the notifications to the given delegate,
+	 * e.g. the callback that was installed when the file system access was configured.
+	 */
+	public IFileCallback recordGeneratedFiles(URI uri, final IFileCallback delegate) {
+		final Entry entry = entries.get(uri.toString());
+		return new IFileCallback() {
+			@Override
+			public void fileAdded(File file) {
+				if (entry != null)
+					entry.generatedFiles.add(file.getAbsolutePath());
+				if (delegate != null)
+					delegate.fileAdded(file);
+			}
+
+			@Override
+			public void fileDeleted(File file) {
+				if (entry != null)
+					entry.generatedFiles.remove(file.getAbsolutePath());
+				if (delegate != null)
+					delegate.fileDeleted(file);
+			}
+		};
+	}
+
+	/**
+	 * Marks the given source resource as validated and generated, such that it is skipped in the next build unless
+	 * its fingerprint changes.
+	 */
+	public void markBuilt(URI uri) {
+		Entry entry = entries.get(uri.toString());
+		if (entry != null)
+			entry.fingerprint = fingerprints.get(uri);
+	}
+
+	public static String hash(byte[] bytes) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			return new BigInteger(1, digest.digest(bytes)).toString(16);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
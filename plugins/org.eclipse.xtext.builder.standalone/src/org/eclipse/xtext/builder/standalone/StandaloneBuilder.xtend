@@ -1,6 +1,8 @@
 package org.eclipse.xtext.builder.standalone
 
+import com.google.common.collect.Lists
 import com.google.common.io.Files
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import com.google.inject.Inject
 import com.google.inject.Provider
 import java.io.File
@@ -9,6 +11,11 @@ import java.net.URLClassLoader
 import java.util.Collection
 import java.util.List
 import java.util.Map
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
 import java.util.jar.JarFile
 import java.util.jar.Manifest
 import java.util.regex.Pattern
@@ -27,13 +34,16 @@ import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess
 import org.eclipse.xtext.generator.AbstractFileSystemAccess
 import org.eclipse.xtext.generator.IFileSystemAccess
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess
+import org.eclipse.xtext.generator.JavaIoFileSystemAccess.IFileCallback
 import org.eclipse.xtext.mwe.NameBasedFilter
 import org.eclipse.xtext.mwe.PathTraverser
 import org.eclipse.xtext.parser.IEncodingProvider
 import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy
 import org.eclipse.xtext.resource.clustering.DynamicResourceClusteringPolicy
+import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription
 import org.eclipse.xtext.resource.persistence.StorageAwareResource
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.UriUtil
@@ -61,6 +71,19 @@ class StandaloneBuilder {
 	@Accessors boolean debugLog
 	@Accessors boolean writeStorageResources
 	@Accessors ClusteringConfig clusteringConfig = null
+	/**
+	 * If set, the builder keeps a {@link BuildCache} in this directory. Resources whose content did not change are
+	 * not parsed again to fill the index, and source resources whose content and dependencies did not change are
+	 * neither validated nor generated again. Their cached issues are reported instead.
+	 * <br>Default is <code>null</code>, i.e. no build cache
+	 */
+	@Accessors File buildCacheDir
+	/**
+	 * The number of threads that are used to collect the models and to fill the index. Each thread loads the models
+	 * in its own resource set. Validation and generation always run on the calling thread.
+	 * <br>Default is <code>1</code>
+	 */
+	@Accessors int numberOfThreads = 1
 
 	@Inject IndexedJvmTypeAccess jvmTypeAccess
 	@Inject Provider<XtextResourceSet> resourceSetProvider
@@ -69,6 +92,8 @@ class StandaloneBuilder {
 	@Inject IEncodingProvider.Runtime encodingProvider
 	@Inject IJavaCompiler compiler
 
+	BuildCache buildCache
+
 	def void setTempDir(String pathAsString) {
 		if (pathAsString != null) {
 			tempDir = new File(pathAsString)
@@ -91,6 +116,11 @@ class StandaloneBuilder {
 
 		val resourceSet = resourceSetProvider.get
 
+		buildCache = if (buildCacheDir != null) {
+			LOG.info("Using build cache in " + buildCacheDir.absolutePath)
+			new BuildCache(buildCacheDir, computeConfigurationFingerprint(needsJava)) => [load(resourceSet.packageRegistry)]
+		}
+
 		if (encoding != null) {
 			forceDebugLog("Setting encoding.")
 			fileEncodingSetup(languages.values, encoding)
@@ -128,28 +158,42 @@ class StandaloneBuilder {
 
 		// Fill index
 		var ResourceDescriptionsData index = new ResourceDescriptionsData(newArrayList());
-		var allResourceIterator = allResourcesURIs.iterator
-		while (allResourceIterator.hasNext) {
-			var List<Resource> resources = newArrayList()
-			var int clusterIndex = 0
-			var continue = true
-			while (allResourceIterator.hasNext && continue) {
-				val uri = allResourceIterator.next
-				val resource = resourceSet.getResource(uri, true)
-				resources.add(resource)
-				fillIndex(uri, resource, index)
-				clusterIndex++
-				if (!strategy.continueProcessing(resourceSet, null, clusterIndex)) {
-					continue = false
+		if (numberOfThreads > 1) {
+			fillIndexInParallel(allResourcesURIs, index, resourceSet, allClassPathEntries, needsJava, strategy)
+		} else {
+			var allResourceIterator = allResourcesURIs.iterator
+			while (allResourceIterator.hasNext) {
+				var List<Resource> resources = newArrayList()
+				var int clusterIndex = 0
+				var continue = true
+				while (allResourceIterator.hasNext && continue) {
+					val uri = allResourceIterator.next
+					val cachedDescription = buildCache?.getDescription(uri, resourceSet.URIConverter)
+					if (cachedDescription != null) {
+						index.addDescription(uri, cachedDescription)
+					} else {
+						val resource = resourceSet.getResource(uri, true)
+						resources.add(resource)
+						fillIndex(uri, resource, index)
+						buildCache?.putDescription(uri, index.getResourceDescription(uri), resourceSet.URIConverter)
+						clusterIndex++
+						if (!strategy.continueProcessing(resourceSet, null, clusterIndex)) {
+							continue = false
+						}
+					}
 				}
+				if (!continue)
+					resourceSet.clearResourceSet
 			}
-			if (!continue)
-				resourceSet.clearResourceSet
 		}
 		installIndex(resourceSet, index)
+		val resourcesToBuild = if (buildCache != null)
+				buildCache.computeResourcesToBuild(sourceResourceURIs, index)
+			else
+				sourceResourceURIs
 
 		// Generate Stubs
-		if (needsJava) {
+		if (needsJava && !resourcesToBuild.empty) {
 			val stubsClasses = compileStubs(generateStubs(index, sourceResourceURIs))
 			LOG.info("Installing type provider for stubs.")
 			installTypeProvider(allClassPathEntries + newArrayList(stubsClasses), resourceSet, jvmTypeAccess)
@@ -157,8 +201,19 @@ class StandaloneBuilder {
 
 		// Validate and generate
 		LOG.info("Validate and generate.")
-		val sourceResourceIterator = sourceResourceURIs.iterator
 		var hasValidationErrors = false
+		if (buildCache != null) {
+			val upToDate = sourceResourceURIs.filter[!resourcesToBuild.contains(it)].toList
+			LOG.info("Skipping " + upToDate.size + " of " + sourceResourceURIs.size + " source models that are up to date.")
+			for (uri : upToDate) {
+				hasValidationErrors = !issueHandler.handleIssue(buildCache.getIssues(uri)) || hasValidationErrors
+			}
+			if (failOnValidationError && hasValidationErrors) {
+				buildCache.save
+				return !hasValidationErrors
+			}
+		}
+		val sourceResourceIterator = resourcesToBuild.iterator
 		while (sourceResourceIterator.hasNext) {
 			var List<Resource> resources = newArrayList()
 			var int clusterIndex = 0
@@ -176,20 +231,164 @@ class StandaloneBuilder {
 				}
 			}
 			if (failOnValidationError && hasValidationErrors) {
+				buildCache?.save
 				return !hasValidationErrors
 			}
 			generate(resources)
+			if (buildCache != null)
+				resources.forEach[buildCache.markBuilt(it.URI)]
 			if (!continue)
 				resourceSet.clearResourceSet
 		}
+		buildCache?.save
 		return !hasValidationErrors
 	}
 
+	/**
+	 * The build cache is discarded if the fingerprint changes. It covers the languages with their generators and
+	 * output configurations, the settings that influence all resources, and the Java types on the class path and in
+	 * the Java source folders.
+	 */
+	def protected String computeConfigurationFingerprint(boolean needsJava) {
+		val result = new StringBuilder
+		result.append(baseDir).append('\n').append(encoding).append('\n').append(writeStorageResources)
+		for (key : languages.keySet.sort) {
+			val language = languages.get(key)
+			result.append('\n').append(key).append('=').append(language.resourceServiceProvider.class.name)
+			val generator = language.generator
+			appendClassFingerprint(result, generator.generator?.class)
+			appendClassFingerprint(result, generator.legacyGenerator?.class)
+			for (output : language.fileSystemAccess.outputConfigurations.values.sortBy[name]) {
+				result.append('\n').append(output.name).append(':').append(output.outputDirectory)
+					.append(':').append(output.overrideExistingResources)
+					.append(':').append(output.cleanUpDerivedResources)
+					.append(':').append(output.useOutputPerSourceFolder)
+				for (mapping : output.sourceMappings.sortBy[sourceFolder]) {
+					result.append('\n').append(mapping.sourceFolder).append('->').append(mapping.outputDirectory)
+						.append(':').append(mapping.ignore)
+				}
+			}
+		}
+		for (entry : classPathEntries) {
+			appendFileFingerprint(result, new File(entry), if (needsJava) '.class' else null)
+		}
+		if (needsJava) {
+			for (entry : javaSourceDirs) {
+				appendFileFingerprint(result, new File(entry), '.java')
+			}
+		}
+		return BuildCache.hash(result.toString.getBytes('UTF-8'))
+	}
+
+	/**
+	 * Identifies the given class by its name and the class file or archive it was loaded from.
+	 */
+	def private void appendClassFingerprint(StringBuilder result, Class<?> type) {
+		if (type == null)
+			return;
+		result.append('\n').append(type.name)
+		val location = type.protectionDomain.codeSource?.location
+		if (location != null && location.protocol == 'file') {
+			val codeSource = new File(location.toURI)
+			if (codeSource.directory)
+				appendFileFingerprint(result, new File(codeSource, type.name.replace('.', '/') + '.class'), null)
+			else
+				appendFileFingerprint(result, codeSource, null)
+		}
+	}
+
+	def private void appendFileFingerprint(StringBuilder result, File file, String directoryContentSuffix) {
+		if (file.directory) {
+			if (directoryContentSuffix != null) {
+				for (child : file.listFiles.sortBy[name]) {
+					if (child.directory || child.name.endsWith(directoryContentSuffix))
+						appendFileFingerprint(result, child, directoryContentSuffix)
+				}
+			}
+		} else if (file.exists) {
+			result.append('\n').append(file.absolutePath).append(':').append(file.length).append(':').append(file.lastModified)
+		}
+	}
+
 	def fillIndex(URI uri, Resource resource, ResourceDescriptionsData index) {
 		val description = languageAccess(uri).resourceDescriptionManager.getResourceDescription(resource)
 		index.addDescription(uri, description)
 	}
 
+	/**
+	 * Splits the resources that are not in the build cache into one shard per thread. Each shard is described in
+	 * its own resource set and merged into the index afterwards.
+	 */
+	def protected void fillIndexInParallel(Iterable<URI> uris, ResourceDescriptionsData index, ResourceSet resourceSet,
+			Iterable<String> classPathEntries, boolean needsJava, IResourceClusteringPolicy strategy) {
+		val List<URI> toLoad = newArrayList
+		for (uri : uris) {
+			val cachedDescription = buildCache?.getDescription(uri, resourceSet.URIConverter)
+			if (cachedDescription != null)
+				index.addDescription(uri, cachedDescription)
+			else
+				toLoad += uri
+		}
+		if (toLoad.empty)
+			return;
+		val executor = createExecutor('StandaloneBuilder-index-%d')
+		try {
+			val shardSize = (toLoad.size + numberOfThreads - 1) / numberOfThreads
+			val shards = Lists.partition(toLoad, shardSize).map [ shard |
+				val Callable<ResourceDescriptionsData> task = [| describeResources(shard, classPathEntries, needsJava, strategy) ]
+				executor.submit(task)
+			].toList
+			for (shard : shards) {
+				val shardIndex = shard.waitFor
+				for (uri : shardIndex.allURIs) {
+					val description = shardIndex.getResourceDescription(uri)
+					index.addDescription(uri, description)
+					buildCache?.putDescription(uri, description, resourceSet.URIConverter)
+				}
+			}
+		} finally {
+			executor.shutdown
+		}
+	}
+
+	/**
+	 * Loads the given resources in a new resource set and returns copies of their descriptions, such that the
+	 * resource set can be discarded.
+	 */
+	def protected ResourceDescriptionsData describeResources(List<URI> uris, Iterable<String> classPathEntries,
+			boolean needsJava, IResourceClusteringPolicy strategy) {
+		val resourceSet = resourceSetProvider.get
+		if (needsJava) {
+			installTypeProvider(classPathEntries, resourceSet, null)
+		}
+		val result = new ResourceDescriptionsData(newArrayList())
+		var int clusterIndex = 0
+		for (uri : uris) {
+			val resource = resourceSet.getResource(uri, true)
+			val description = languageAccess(uri).resourceDescriptionManager.getResourceDescription(resource)
+			result.addDescription(uri, SerializableResourceDescription.createCopy(description))
+			clusterIndex++
+			if (!strategy.continueProcessing(resourceSet, null, clusterIndex)) {
+				resourceSet.clearResourceSet
+				clusterIndex = 0
+			}
+		}
+		return result
+	}
+
+	def private ExecutorService createExecutor(String nameFormat) {
+		val threadFactory = new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build
+		return Executors.newFixedThreadPool(numberOfThreads, threadFactory)
+	}
+
+	def private <T> T waitFor(Future<T> future) {
+		try {
+			return future.get
+		} catch (ExecutionException e) {
+			throw e.cause
+		}
+	}
+
 	def fileEncodingSetup(Collection<LanguageAccess> langs, String encoding) {
 		for (lang : langs) {
 			switch provider : lang.encodingProvider {
@@ -247,6 +446,7 @@ class StandaloneBuilder {
 		LOG.info("Starting validation for input: '" + resource.getURI().lastSegment() + "'");
 		val resourceValidator = languageAccess(resource.URI).getResourceValidator();
 		val validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
+		buildCache?.recordIssues(resource.URI, validationResult)
 		return issueHandler.handleIssue(validationResult)
 	}
 
@@ -256,6 +456,8 @@ class StandaloneBuilder {
 			registerCurrentSource(it.URI)
 			val access = URI.languageAccess
 			val fileSystemAccess = access.fileSystemAccess
+			if (buildCache != null)
+				fileSystemAccess.callBack = buildCache.recordGeneratedFiles(it.URI, configuredCallBacks.get(fileSystemAccess))
 			if (isWriteStorageResources) {
 				switch it {
 					StorageAwareResource case resourceStorageFacade != null: {
@@ -292,12 +494,15 @@ class StandaloneBuilder {
 
 	Map<LanguageAccess, JavaIoFileSystemAccess> configuredFsas = newHashMap()
 
+	Map<JavaIoFileSystemAccess, IFileCallback> configuredCallBacks = newHashMap()
+
 	private def getFileSystemAccess(LanguageAccess language) {
 		var fsa = configuredFsas.get(language)
 		if (fsa == null) {
 			fsa = language.createFileSystemAccess(new File(baseDir))
 			fsa = fsa.configureFileSystemAccess(language)
 			configuredFsas.put(language, fsa)
+			configuredCallBacks.put(fsa, fsa.callBack)
 		}
 		return fsa
 	}
@@ -329,6 +534,8 @@ class StandaloneBuilder {
 	}
 
 	def protected List<URI> collectResources(Iterable<String> roots, ResourceSet resourceSet) {
+		if (numberOfThreads > 1 && roots.size > 1)
+			return collectResourcesInParallel(roots, resourceSet)
 		val extensions = languages.keySet.join("|")
 		val nameBasedFilter = new NameBasedFilter
 
@@ -356,7 +563,23 @@ class StandaloneBuilder {
 		return resources;
 	}
 
-	def protected registerBundle(File file) {
+	/**
+	 * Traverses each root on its own thread. The result is in the order of the roots.
+	 */
+	def protected List<URI> collectResourcesInParallel(Iterable<String> roots, ResourceSet resourceSet) {
+		val executor = createExecutor('StandaloneBuilder-collect-%d')
+		try {
+			val results = roots.map [ root |
+				val Callable<List<URI>> task = [| collectResources(#[root], resourceSet) ]
+				executor.submit(task)
+			].toList
+			return results.map[waitFor].flatten.toList
+		} finally {
+			executor.shutdown
+		}
+	}
+
+	def protected synchronized registerBundle(File file) {
 
 		// copied from org.eclipse.emf.mwe.utils.StandaloneSetup.registerBundle(File)
 		var JarFile jarFile = null;
@@ -3,20 +3,31 @@ package org.eclipse.xtext.builder.standalone;
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.io.Files;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -26,12 +37,15 @@ import java.util.zip.ZipException;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.plugin.EcorePlugin;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtend2.lib.StringConcatenation;
 import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.builder.standalone.BuildCache;
 import org.eclipse.xtext.builder.standalone.ClusteringConfig;
 import org.eclipse.xtext.builder.standalone.IIssueHandler;
 import org.eclipse.xtext.builder.standalone.LanguageAccess;
@@ -42,18 +56,22 @@ import org.eclipse.xtext.common.types.descriptions.IStubGenerator;
 import org.eclipse.xtext.generator.AbstractFileSystemAccess;
 import org.eclipse.xtext.generator.GeneratorDelegate;
 import org.eclipse.xtext.generator.IFileSystemAccess;
+import org.eclipse.xtext.generator.IGenerator;
+import org.eclipse.xtext.generator.IGenerator2;
 import org.eclipse.xtext.generator.JavaIoFileSystemAccess;
 import org.eclipse.xtext.generator.OutputConfiguration;
 import org.eclipse.xtext.mwe.NameBasedFilter;
 import org.eclipse.xtext.mwe.PathTraverser;
 import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy;
 import org.eclipse.xtext.resource.clustering.DynamicResourceClusteringPolicy;
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.persistence.IResourceStorageFacade;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.UriUtil;
@@ -65,6 +83,7 @@ import org.eclipse.xtext.xbase.lib.Conversions;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.MapExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
@@ -120,6 +139,23 @@ public class StandaloneBuilder {
   @Accessors
   private ClusteringConfig clusteringConfig = null;
   
+  /**
+   * If set, the builder keeps a {@link BuildCache} in this directory. Resources whose content did not change are
+   * not parsed again to fill the index, and source resources whose content and dependencies did not change are
+   * neither validated nor generated again. Their cached issues are reported instead.
+   * <br>Default is <code>null</code>, i.e. no build cache
+   */
+  @Accessors
+  private File buildCacheDir;
+  
+  /**
+   * The number of threads that are used to collect the models and to fill the index. Each thread loads the models
+   * in its own resource set. Validation and generation always run on the calling thread.
+   * <br>Default is <code>1</code>
+   */
+  @Accessors
+  private int numberOfThreads = 1;
+  
   @Inject
   private IndexedJvmTypeAccess jvmTypeAccess;
   
@@ -138,6 +174,8 @@ public class StandaloneBuilder {
   @Inject
   private IJavaCompiler compiler;
   
+  private BuildCache buildCache;
+  
   public void setTempDir(final String pathAsString) {
     boolean _notEquals = (!Objects.equal(pathAsString, null));
     if (_notEquals) {
@@ -168,8 +206,30 @@ public class StandaloneBuilder {
       StandaloneBuilder.LOG.info("Using common types.");
     }
     final XtextResourceSet resourceSet = this.resourceSetProvider.get();
-    boolean _notEquals = (!Objects.equal(this.encoding, null));
+    BuildCache _xifexpression = null;
+    boolean _notEquals = (!Objects.equal(this.buildCacheDir, null));
     if (_notEquals) {
+      BuildCache _xblockexpression = null;
+      {
+        String _absolutePath = this.buildCacheDir.getAbsolutePath();
+        String _plus = ("Using build cache in " + _absolutePath);
+        StandaloneBuilder.LOG.info(_plus);
+        String _computeConfigurationFingerprint = this.computeConfigurationFingerprint(needsJava);
+        BuildCache _buildCache = new BuildCache(this.buildCacheDir, _computeConfigurationFingerprint);
+        final Procedure1<BuildCache> _function_1 = new Procedure1<BuildCache>() {
+          @Override
+          public void apply(final BuildCache it) {
+            EPackage.Registry _packageRegistry = resourceSet.getPackageRegistry();
+            it.load(_packageRegistry);
+          }
+        };
+        _xblockexpression = ObjectExtensions.<BuildCache>operator_doubleArrow(_buildCache, _function_1);
+      }
+      _xifexpression = _xblockexpression;
+    }
+    this.buildCache = _xifexpression;
+    boolean _notEquals_1 = (!Objects.equal(this.encoding, null));
+    if (_notEquals_1) {
       this.forceDebugLog("Setting encoding.");
       Collection<LanguageAccess> _values_1 = this.languages.values();
       this.fileEncodingSetup(_values_1, this.encoding);
@@ -177,18 +237,18 @@ public class StandaloneBuilder {
     StandaloneBuilder.LOG.info("Collecting source models.");
     final long startedAt = System.currentTimeMillis();
     Iterable<String> rootsToTravers = this.classPathEntries;
-    boolean _notEquals_1 = (!Objects.equal(this.classPathLookUpFilter, null));
-    if (_notEquals_1) {
+    boolean _notEquals_2 = (!Objects.equal(this.classPathLookUpFilter, null));
+    if (_notEquals_2) {
       StandaloneBuilder.LOG.info("Class path look up filter is active.");
       final Pattern cpLookUpFilter = Pattern.compile(this.classPathLookUpFilter);
-      final Function1<String, Boolean> _function_1 = new Function1<String, Boolean>() {
+      final Function1<String, Boolean> _function_2 = new Function1<String, Boolean>() {
         @Override
         public Boolean apply(final String root) {
           Matcher _matcher = cpLookUpFilter.matcher(root);
           return Boolean.valueOf(_matcher.matches());
         }
       };
-      Iterable<String> _filter = IterableExtensions.<String>filter(this.classPathEntries, _function_1);
+      Iterable<String> _filter = IterableExtensions.<String>filter(this.classPathEntries, _function_2);
       rootsToTravers = _filter;
       final Iterable<String> _converted_rootsToTravers = (Iterable<String>)rootsToTravers;
       int _length = ((Object[])Conversions.unwrapArray(_converted_rootsToTravers, Object.class)).length;
@@ -212,14 +272,14 @@ public class StandaloneBuilder {
       StandaloneBuilder.LOG.info("Installing type provider.");
       this.installTypeProvider(allClassPathEntries, resourceSet, null);
     }
-    IResourceClusteringPolicy _xifexpression = null;
-    boolean _notEquals_2 = (!Objects.equal(this.clusteringConfig, null));
-    if (_notEquals_2) {
-      DynamicResourceClusteringPolicy _xblockexpression = null;
+    IResourceClusteringPolicy _xifexpression_1 = null;
+    boolean _notEquals_3 = (!Objects.equal(this.clusteringConfig, null));
+    if (_notEquals_3) {
+      DynamicResourceClusteringPolicy _xblockexpression_1 = null;
       {
         StandaloneBuilder.LOG.info("Clustering configured.");
         DynamicResourceClusteringPolicy _dynamicResourceClusteringPolicy = new DynamicResourceClusteringPolicy();
-        final Procedure1<DynamicResourceClusteringPolicy> _function_2 = new Procedure1<DynamicResourceClusteringPolicy>() {
+        final Procedure1<DynamicResourceClusteringPolicy> _function_3 = new Procedure1<DynamicResourceClusteringPolicy>() {
           @Override
           public void apply(final DynamicResourceClusteringPolicy it) {
             long _minimumFreeMemory = StandaloneBuilder.this.clusteringConfig.getMinimumFreeMemory();
@@ -232,42 +292,78 @@ public class StandaloneBuilder {
             it.setMinimumPercentFreeMemory(_minimumPercentFreeMemory);
           }
         };
-        _xblockexpression = ObjectExtensions.<DynamicResourceClusteringPolicy>operator_doubleArrow(_dynamicResourceClusteringPolicy, _function_2);
+        _xblockexpression_1 = ObjectExtensions.<DynamicResourceClusteringPolicy>operator_doubleArrow(_dynamicResourceClusteringPolicy, _function_3);
       }
-      _xifexpression = _xblockexpression;
+      _xifexpression_1 = _xblockexpression_1;
     } else {
-      _xifexpression = new DisabledClusteringPolicy();
+      _xifexpression_1 = new DisabledClusteringPolicy();
     }
-    final IResourceClusteringPolicy strategy = _xifexpression;
+    final IResourceClusteringPolicy strategy = _xifexpression_1;
     ArrayList<IResourceDescription> _newArrayList = CollectionLiterals.<IResourceDescription>newArrayList();
     ResourceDescriptionsData index = new ResourceDescriptionsData(_newArrayList);
-    Iterator<URI> allResourceIterator = allResourcesURIs.iterator();
-    while (allResourceIterator.hasNext()) {
-      {
-        List<Resource> resources = CollectionLiterals.<Resource>newArrayList();
-        int clusterIndex = 0;
-        boolean continue_ = true;
-        while ((allResourceIterator.hasNext() && continue_)) {
-          {
-            final URI uri = allResourceIterator.next();
-            final Resource resource = resourceSet.getResource(uri, true);
-            resources.add(resource);
-            this.fillIndex(uri, resource, index);
-            clusterIndex++;
-            boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, clusterIndex);
-            boolean _not = (!_continueProcessing);
-            if (_not) {
-              continue_ = false;
+    if ((this.numberOfThreads > 1)) {
+      this.fillIndexInParallel(allResourcesURIs, index, resourceSet, allClassPathEntries, needsJava, strategy);
+    } else {
+      Iterator<URI> allResourceIterator = allResourcesURIs.iterator();
+      while (allResourceIterator.hasNext()) {
+        {
+          List<Resource> resources = CollectionLiterals.<Resource>newArrayList();
+          int clusterIndex = 0;
+          boolean continue_ = true;
+          while ((allResourceIterator.hasNext() && continue_)) {
+            {
+              final URI uri = allResourceIterator.next();
+              IResourceDescription _description = null;
+              if (this.buildCache!=null) {
+                URIConverter _uRIConverter = resourceSet.getURIConverter();
+                _description=this.buildCache.getDescription(uri, _uRIConverter);
+              }
+              final IResourceDescription cachedDescription = _description;
+              boolean _notEquals_4 = (!Objects.equal(cachedDescription, null));
+              if (_notEquals_4) {
+                index.addDescription(uri, cachedDescription);
+              } else {
+                final Resource resource = resourceSet.getResource(uri, true);
+                resources.add(resource);
+                this.fillIndex(uri, resource, index);
+                if (this.buildCache!=null) {
+                  IResourceDescription _resourceDescription = index.getResourceDescription(uri);
+                  URIConverter _uRIConverter_1 = resourceSet.getURIConverter();
+                  this.buildCache.putDescription(uri, _resourceDescription, _uRIConverter_1);
+                }
+                clusterIndex++;
+                boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, clusterIndex);
+                boolean _not = (!_continueProcessing);
+                if (_not) {
+                  continue_ = false;
+                }
+              }
             }
           }
-        }
-        if ((!continue_)) {
-          this.clearResourceSet(resourceSet);
+          if ((!continue_)) {
+            this.clearResourceSet(resourceSet);
+          }
         }
       }
     }
     this.installIndex(resourceSet, index);
-    if (needsJava) {
+    Collection<URI> _xifexpression_2 = null;
+    boolean _notEquals_5 = (!Objects.equal(this.buildCache, null));
+    if (_notEquals_5) {
+      _xifexpression_2 = this.buildCache.computeResourcesToBuild(sourceResourceURIs, index);
+    } else {
+      _xifexpression_2 = sourceResourceURIs;
+    }
+    final Collection<URI> resourcesToBuild = _xifexpression_2;
+    boolean _and = false;
+    if (!needsJava) {
+      _and = false;
+    } else {
+      boolean _isEmpty = resourcesToBuild.isEmpty();
+      boolean _not = (!_isEmpty);
+      _and = _not;
+    }
+    if (_and) {
       File _generateStubs = this.generateStubs(index, sourceResourceURIs);
       final String stubsClasses = this.compileStubs(_generateStubs);
       StandaloneBuilder.LOG.info("Installing type provider for stubs.");
@@ -276,8 +372,49 @@ public class StandaloneBuilder {
       this.installTypeProvider(_plus_6, resourceSet, this.jvmTypeAccess);
     }
     StandaloneBuilder.LOG.info("Validate and generate.");
-    final Iterator<URI> sourceResourceIterator = sourceResourceURIs.iterator();
     boolean hasValidationErrors = false;
+    boolean _notEquals_6 = (!Objects.equal(this.buildCache, null));
+    if (_notEquals_6) {
+      final Function1<URI, Boolean> _function_4 = new Function1<URI, Boolean>() {
+        @Override
+        public Boolean apply(final URI it) {
+          boolean _contains = resourcesToBuild.contains(it);
+          return Boolean.valueOf((!_contains));
+        }
+      };
+      Iterable<URI> _filter_1 = IterableExtensions.<URI>filter(sourceResourceURIs, _function_4);
+      final List<URI> upToDate = IterableExtensions.<URI>toList(_filter_1);
+      int _size = upToDate.size();
+      String _plus_7 = ("Skipping " + Integer.valueOf(_size));
+      String _plus_8 = (_plus_7 + " of ");
+      int _size_1 = sourceResourceURIs.size();
+      String _plus_9 = (_plus_8 + Integer.valueOf(_size_1));
+      String _plus_10 = (_plus_9 + " source models that are up to date.");
+      StandaloneBuilder.LOG.info(_plus_10);
+      for (final URI uri : upToDate) {
+        boolean _or = false;
+        List<Issue> _issues = this.buildCache.getIssues(uri);
+        boolean _handleIssue = this.issueHandler.handleIssue(_issues);
+        boolean _not_1 = (!_handleIssue);
+        if (_not_1) {
+          _or = true;
+        } else {
+          _or = hasValidationErrors;
+        }
+        hasValidationErrors = _or;
+      }
+      boolean _and_1 = false;
+      if (!this.failOnValidationError) {
+        _and_1 = false;
+      } else {
+        _and_1 = hasValidationErrors;
+      }
+      if (_and_1) {
+        this.buildCache.save();
+        return (!hasValidationErrors);
+      }
+    }
+    final Iterator<URI> sourceResourceIterator = resourcesToBuild.iterator();
     while (sourceResourceIterator.hasNext()) {
       {
         List<Resource> resources = CollectionLiterals.<Resource>newArrayList();
@@ -307,24 +444,244 @@ public class StandaloneBuilder {
             }
           }
         }
-        boolean _and = false;
+        boolean _and_2 = false;
         if (!this.failOnValidationError) {
-          _and = false;
+          _and_2 = false;
         } else {
-          _and = hasValidationErrors;
+          _and_2 = hasValidationErrors;
         }
-        if (_and) {
+        if (_and_2) {
+          if (this.buildCache!=null) {
+            this.buildCache.save();
+          }
           return (!hasValidationErrors);
         }
         this.generate(resources);
+        boolean _notEquals_7 = (!Objects.equal(this.buildCache, null));
+        if (_notEquals_7) {
+          final Procedure1<Resource> _function_5 = new Procedure1<Resource>() {
+            @Override
+            public void apply(final Resource it) {
+              URI _uRI = it.getURI();
+              StandaloneBuilder.this.buildCache.markBuilt(_uRI);
+            }
+          };
+          IterableExtensions.<Resource>forEach(resources, _function_5);
+        }
         if ((!continue_)) {
           this.clearResourceSet(resourceSet);
         }
       }
     }
+    if (this.buildCache!=null) {
+      this.buildCache.save();
+    }
     return (!hasValidationErrors);
   }
   
+  /**
+   * The build cache is discarded if the fingerprint changes. It covers the languages with their generators and
+   * output configurations, the settings that influence all resources, and the Java types on the class path and in
+   * the Java source folders.
+   */
+  protected String computeConfigurationFingerprint(final boolean needsJava) {
+    try {
+      final StringBuilder result = new StringBuilder();
+      StringBuilder _append = result.append(this.baseDir);
+      StringBuilder _append_1 = _append.append("\n");
+      StringBuilder _append_2 = _append_1.append(this.encoding);
+      StringBuilder _append_3 = _append_2.append("\n");
+      _append_3.append(this.writeStorageResources);
+      Set<String> _keySet = this.languages.keySet();
+      List<String> _sort = IterableExtensions.<String>sort(_keySet);
+      for (final String key : _sort) {
+        {
+          final LanguageAccess language = this.languages.get(key);
+          StringBuilder _append_4 = result.append("\n");
+          StringBuilder _append_5 = _append_4.append(key);
+          StringBuilder _append_6 = _append_5.append("=");
+          IResourceServiceProvider _resourceServiceProvider = language.getResourceServiceProvider();
+          Class<? extends IResourceServiceProvider> _class = _resourceServiceProvider.getClass();
+          String _name = _class.getName();
+          _append_6.append(_name);
+          final GeneratorDelegate generator = language.getGenerator();
+          IGenerator2 _generator = generator.getGenerator();
+          Class<? extends IGenerator2> _class_1 = null;
+          if (_generator!=null) {
+            _class_1=_generator.getClass();
+          }
+          this.appendClassFingerprint(result, _class_1);
+          IGenerator _legacyGenerator = generator.getLegacyGenerator();
+          Class<? extends IGenerator> _class_2 = null;
+          if (_legacyGenerator!=null) {
+            _class_2=_legacyGenerator.getClass();
+          }
+          this.appendClassFingerprint(result, _class_2);
+          JavaIoFileSystemAccess _fileSystemAccess = this.getFileSystemAccess(language);
+          Map<String, OutputConfiguration> _outputConfigurations = _fileSystemAccess.getOutputConfigurations();
+          Collection<OutputConfiguration> _values = _outputConfigurations.values();
+          final Function1<OutputConfiguration, String> _function = new Function1<OutputConfiguration, String>() {
+            @Override
+            public String apply(final OutputConfiguration it) {
+              return it.getName();
+            }
+          };
+          List<OutputConfiguration> _sortBy = IterableExtensions.<OutputConfiguration, String>sortBy(_values, _function);
+          for (final OutputConfiguration output : _sortBy) {
+            {
+              StringBuilder _append_7 = result.append("\n");
+              String _name_1 = output.getName();
+              StringBuilder _append_8 = _append_7.append(_name_1);
+              StringBuilder _append_9 = _append_8.append(":");
+              String _outputDirectory = output.getOutputDirectory();
+              StringBuilder _append_10 = _append_9.append(_outputDirectory);
+              StringBuilder _append_11 = _append_10.append(":");
+              boolean _isOverrideExistingResources = output.isOverrideExistingResources();
+              StringBuilder _append_12 = _append_11.append(_isOverrideExistingResources);
+              StringBuilder _append_13 = _append_12.append(":");
+              boolean _isCleanUpDerivedResources = output.isCleanUpDerivedResources();
+              StringBuilder _append_14 = _append_13.append(_isCleanUpDerivedResources);
+              StringBuilder _append_15 = _append_14.append(":");
+              boolean _isUseOutputPerSourceFolder = output.isUseOutputPerSourceFolder();
+              _append_15.append(_isUseOutputPerSourceFolder);
+              Set<OutputConfiguration.SourceMapping> _sourceMappings = output.getSourceMappings();
+              final Function1<OutputConfiguration.SourceMapping, String> _function_1 = new Function1<OutputConfiguration.SourceMapping, String>() {
+                @Override
+                public String apply(final OutputConfiguration.SourceMapping it) {
+                  return it.getSourceFolder();
+                }
+              };
+              List<OutputConfiguration.SourceMapping> _sortBy_1 = IterableExtensions.<OutputConfiguration.SourceMapping, String>sortBy(_sourceMappings, _function_1);
+              for (final OutputConfiguration.SourceMapping mapping : _sortBy_1) {
+                StringBuilder _append_16 = result.append("\n");
+                String _sourceFolder = mapping.getSourceFolder();
+                StringBuilder _append_17 = _append_16.append(_sourceFolder);
+                StringBuilder _append_18 = _append_17.append("->");
+                String _outputDirectory_1 = mapping.getOutputDirectory();
+                StringBuilder _append_19 = _append_18.append(_outputDirectory_1);
+                StringBuilder _append_20 = _append_19.append(":");
+                boolean _isIgnore = mapping.isIgnore();
+                _append_20.append(_isIgnore);
+              }
+            }
+          }
+        }
+      }
+      for (final String entry : this.classPathEntries) {
+        File _file = new File(entry);
+        String _xifexpression = null;
+        if (needsJava) {
+          _xifexpression = ".class";
+        } else {
+          _xifexpression = null;
+        }
+        this.appendFileFingerprint(result, _file, _xifexpression);
+      }
+      if (needsJava) {
+        for (final String entry_1 : this.javaSourceDirs) {
+          File _file_1 = new File(entry_1);
+          this.appendFileFingerprint(result, _file_1, ".java");
+        }
+      }
+      String _string = result.toString();
+      byte[] _bytes = _string.getBytes("UTF-8");
+      return BuildCache.hash(_bytes);
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * Identifies the given class by its name and the class file or archive it was loaded from.
+   */
+  private void appendClassFingerprint(final StringBuilder result, final Class<?> type) {
+    try {
+      boolean _equals = Objects.equal(type, null);
+      if (_equals) {
+        return;
+      }
+      StringBuilder _append = result.append("\n");
+      String _name = type.getName();
+      _append.append(_name);
+      ProtectionDomain _protectionDomain = type.getProtectionDomain();
+      CodeSource _codeSource = _protectionDomain.getCodeSource();
+      URL _location = null;
+      if (_codeSource!=null) {
+        _location=_codeSource.getLocation();
+      }
+      final URL location = _location;
+      boolean _and = false;
+      boolean _notEquals = (!Objects.equal(location, null));
+      if (!_notEquals) {
+        _and = false;
+      } else {
+        String _protocol = location.getProtocol();
+        boolean _equals_1 = Objects.equal(_protocol, "file");
+        _and = _equals_1;
+      }
+      if (_and) {
+        java.net.URI _uRI = location.toURI();
+        final File codeSource = new File(_uRI);
+        boolean _isDirectory = codeSource.isDirectory();
+        if (_isDirectory) {
+          String _name_1 = type.getName();
+          String _replace = _name_1.replace(".", "/");
+          String _plus = (_replace + ".class");
+          File _file = new File(codeSource, _plus);
+          this.appendFileFingerprint(result, _file, null);
+        } else {
+          this.appendFileFingerprint(result, codeSource, null);
+        }
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  private void appendFileFingerprint(final StringBuilder result, final File file, final String directoryContentSuffix) {
+    boolean _isDirectory = file.isDirectory();
+    if (_isDirectory) {
+      boolean _notEquals = (!Objects.equal(directoryContentSuffix, null));
+      if (_notEquals) {
+        File[] _listFiles = file.listFiles();
+        final Function1<File, String> _function = new Function1<File, String>() {
+          @Override
+          public String apply(final File it) {
+            return it.getName();
+          }
+        };
+        List<File> _sortBy = IterableExtensions.<File, String>sortBy(((Iterable<File>)Conversions.doWrapArray(_listFiles)), _function);
+        for (final File child : _sortBy) {
+          boolean _or = false;
+          boolean _isDirectory_1 = child.isDirectory();
+          if (_isDirectory_1) {
+            _or = true;
+          } else {
+            String _name = child.getName();
+            boolean _endsWith = _name.endsWith(directoryContentSuffix);
+            _or = _endsWith;
+          }
+          if (_or) {
+            this.appendFileFingerprint(result, child, directoryContentSuffix);
+          }
+        }
+      }
+    } else {
+      boolean _exists = file.exists();
+      if (_exists) {
+        StringBuilder _append = result.append("\n");
+        String _absolutePath = file.getAbsolutePath();
+        StringBuilder _append_1 = _append.append(_absolutePath);
+        StringBuilder _append_2 = _append_1.append(":");
+        long _length = file.length();
+        StringBuilder _append_3 = _append_2.append(_length);
+        StringBuilder _append_4 = _append_3.append(":");
+        long _lastModified = file.lastModified();
+        _append_4.append(_lastModified);
+      }
+    }
+  }
+  
   public void fillIndex(final URI uri, final Resource resource, final ResourceDescriptionsData index) {
     LanguageAccess _languageAccess = this.languageAccess(uri);
     IResourceDescription.Manager _resourceDescriptionManager = _languageAccess.getResourceDescriptionManager();
@@ -332,6 +689,137 @@ public class StandaloneBuilder {
     index.addDescription(uri, description);
   }
   
+  /**
+   * Splits the resources that are not in the build cache into one shard per thread. Each shard is described in
+   * its own resource set and merged into the index afterwards.
+   */
+  protected void fillIndexInParallel(final Iterable<URI> uris, final ResourceDescriptionsData index, final ResourceSet resourceSet, final Iterable<String> classPathEntries, final boolean needsJava, final IResourceClusteringPolicy strategy) {
+    final List<URI> toLoad = CollectionLiterals.<URI>newArrayList();
+    for (final URI uri : uris) {
+      {
+        IResourceDescription _description = null;
+        if (this.buildCache!=null) {
+          URIConverter _uRIConverter = resourceSet.getURIConverter();
+          _description=this.buildCache.getDescription(uri, _uRIConverter);
+        }
+        final IResourceDescription cachedDescription = _description;
+        boolean _notEquals = (!Objects.equal(cachedDescription, null));
+        if (_notEquals) {
+          index.addDescription(uri, cachedDescription);
+        } else {
+          toLoad.add(uri);
+        }
+      }
+    }
+    boolean _isEmpty = toLoad.isEmpty();
+    if (_isEmpty) {
+      return;
+    }
+    final ExecutorService executor = this.createExecutor("StandaloneBuilder-index-%d");
+    try {
+      int _size = toLoad.size();
+      int _plus = (_size + this.numberOfThreads);
+      int _minus = (_plus - 1);
+      final int shardSize = (_minus / this.numberOfThreads);
+      List<List<URI>> _partition = Lists.<URI>partition(toLoad, shardSize);
+      final Function1<List<URI>, Future<ResourceDescriptionsData>> _function = new Function1<List<URI>, Future<ResourceDescriptionsData>>() {
+        @Override
+        public Future<ResourceDescriptionsData> apply(final List<URI> shard) {
+          Future<ResourceDescriptionsData> _xblockexpression = null;
+          {
+            final Callable<ResourceDescriptionsData> _function = new Callable<ResourceDescriptionsData>() {
+              @Override
+              public ResourceDescriptionsData call() throws Exception {
+                return StandaloneBuilder.this.describeResources(shard, classPathEntries, needsJava, strategy);
+              }
+            };
+            final Callable<ResourceDescriptionsData> task = _function;
+            _xblockexpression = executor.<ResourceDescriptionsData>submit(task);
+          }
+          return _xblockexpression;
+        }
+      };
+      List<Future<ResourceDescriptionsData>> _map = ListExtensions.<List<URI>, Future<ResourceDescriptionsData>>map(_partition, _function);
+      final List<Future<ResourceDescriptionsData>> shards = IterableExtensions.<Future<ResourceDescriptionsData>>toList(_map);
+      for (final Future<ResourceDescriptionsData> shard : shards) {
+        {
+          final ResourceDescriptionsData shardIndex = this.<ResourceDescriptionsData>waitFor(shard);
+          Set<URI> _allURIs = shardIndex.getAllURIs();
+          for (final URI uri_1 : _allURIs) {
+            {
+              final IResourceDescription description = shardIndex.getResourceDescription(uri_1);
+              index.addDescription(uri_1, description);
+              if (this.buildCache!=null) {
+                URIConverter _uRIConverter = resourceSet.getURIConverter();
+                this.buildCache.putDescription(uri_1, description, _uRIConverter);
+              }
+            }
+          }
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+  
+  /**
+   * Loads the given resources in a new resource set and returns copies of their descriptions, such that the
+   * resource set can be discarded.
+   */
+  protected ResourceDescriptionsData describeResources(final List<URI> uris, final Iterable<String> classPathEntries, final boolean needsJava, final IResourceClusteringPolicy strategy) {
+    final XtextResourceSet resourceSet = this.resourceSetProvider.get();
+    if (needsJava) {
+      this.installTypeProvider(classPathEntries, resourceSet, null);
+    }
+    ArrayList<IResourceDescription> _newArrayList = CollectionLiterals.<IResourceDescription>newArrayList();
+    final ResourceDescriptionsData result = new ResourceDescriptionsData(_newArrayList);
+    int clusterIndex = 0;
+    for (final URI uri : uris) {
+      {
+        final Resource resource = resourceSet.getResource(uri, true);
+        LanguageAccess _languageAccess = this.languageAccess(uri);
+        IResourceDescription.Manager _resourceDescriptionManager = _languageAccess.getResourceDescriptionManager();
+        final IResourceDescription description = _resourceDescriptionManager.getResourceDescription(resource);
+        SerializableResourceDescription _createCopy = SerializableResourceDescription.createCopy(description);
+        result.addDescription(uri, _createCopy);
+        clusterIndex++;
+        boolean _continueProcessing = strategy.continueProcessing(resourceSet, null, clusterIndex);
+        boolean _not = (!_continueProcessing);
+        if (_not) {
+          this.clearResourceSet(resourceSet);
+          clusterIndex = 0;
+        }
+      }
+    }
+    return result;
+  }
+  
+  private ExecutorService createExecutor(final String nameFormat) {
+    ThreadFactoryBuilder _threadFactoryBuilder = new ThreadFactoryBuilder();
+    ThreadFactoryBuilder _setNameFormat = _threadFactoryBuilder.setNameFormat(nameFormat);
+    ThreadFactoryBuilder _setDaemon = _setNameFormat.setDaemon(true);
+    final ThreadFactory threadFactory = _setDaemon.build();
+    return Executors.newFixedThreadPool(this.numberOfThreads, threadFactory);
+  }
+  
+  private <T extends Object> T waitFor(final Future<T> future) {
+    try {
+      try {
+        return future.get();
+      } catch (final Throwable _t) {
+        if (_t instanceof ExecutionException) {
+          final ExecutionException e = (ExecutionException)_t;
+          Throwable _cause = e.getCause();
+          throw _cause;
+        } else {
+          throw Exceptions.sneakyThrow(_t);
+        }
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
   public void fileEncodingSetup(final Collection<LanguageAccess> langs, final String encoding) {
     for (final LanguageAccess lang : langs) {
       IEncodingProvider _encodingProvider = lang.getEncodingProvider();
@@ -441,6 +929,10 @@ public class StandaloneBuilder {
     LanguageAccess _languageAccess = this.languageAccess(_uRI_1);
     final IResourceValidator resourceValidator = _languageAccess.getResourceValidator();
     final List<Issue> validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
+    if (this.buildCache!=null) {
+      URI _uRI_2 = resource.getURI();
+      this.buildCache.recordIssues(_uRI_2, validationResult);
+    }
     return this.issueHandler.handleIssue(validationResult);
   }
   
@@ -457,14 +949,21 @@ public class StandaloneBuilder {
         URI _uRI_2 = it.getURI();
         final LanguageAccess access = this.languageAccess(_uRI_2);
         final JavaIoFileSystemAccess fileSystemAccess = this.getFileSystemAccess(access);
+        boolean _notEquals = (!Objects.equal(this.buildCache, null));
+        if (_notEquals) {
+          URI _uRI_3 = it.getURI();
+          JavaIoFileSystemAccess.IFileCallback _get = this.configuredCallBacks.get(fileSystemAccess);
+          JavaIoFileSystemAccess.IFileCallback _recordGeneratedFiles = this.buildCache.recordGeneratedFiles(_uRI_3, _get);
+          fileSystemAccess.setCallBack(_recordGeneratedFiles);
+        }
         boolean _isWriteStorageResources = this.isWriteStorageResources();
         if (_isWriteStorageResources) {
           boolean _matched = false;
           if (!_matched) {
             if (it instanceof StorageAwareResource) {
               IResourceStorageFacade _resourceStorageFacade = ((StorageAwareResource)it).getResourceStorageFacade();
-              boolean _notEquals = (!Objects.equal(_resourceStorageFacade, null));
-              if (_notEquals) {
+              boolean _notEquals_1 = (!Objects.equal(_resourceStorageFacade, null));
+              if (_notEquals_1) {
                 _matched=true;
                 IResourceStorageFacade _resourceStorageFacade_1 = ((StorageAwareResource)it).getResourceStorageFacade();
                 _resourceStorageFacade_1.saveResource(((StorageAwareResource)it), fileSystemAccess);
@@ -531,6 +1030,8 @@ public class StandaloneBuilder {
   
   private Map<LanguageAccess, JavaIoFileSystemAccess> configuredFsas = CollectionLiterals.<LanguageAccess, JavaIoFileSystemAccess>newHashMap();
   
+  private Map<JavaIoFileSystemAccess, JavaIoFileSystemAccess.IFileCallback> configuredCallBacks = CollectionLiterals.<JavaIoFileSystemAccess, JavaIoFileSystemAccess.IFileCallback>newHashMap();
+  
   private JavaIoFileSystemAccess getFileSystemAccess(final LanguageAccess language) {
     JavaIoFileSystemAccess fsa = this.configuredFsas.get(language);
     boolean _equals = Objects.equal(fsa, null);
@@ -541,6 +1042,8 @@ public class StandaloneBuilder {
       JavaIoFileSystemAccess _configureFileSystemAccess = this.configureFileSystemAccess(fsa, language);
       fsa = _configureFileSystemAccess;
       this.configuredFsas.put(language, fsa);
+      JavaIoFileSystemAccess.IFileCallback _callBack = fsa.getCallBack();
+      this.configuredCallBacks.put(fsa, _callBack);
     }
     return fsa;
   }
@@ -603,6 +1106,17 @@ public class StandaloneBuilder {
   }
   
   protected List<URI> collectResources(final Iterable<String> roots, final ResourceSet resourceSet) {
+    boolean _and = false;
+    if (!(this.numberOfThreads > 1)) {
+      _and = false;
+    } else {
+      int _size = IterableExtensions.size(roots);
+      boolean _greaterThan = (_size > 1);
+      _and = _greaterThan;
+    }
+    if (_and) {
+      return this.collectResourcesInParallel(roots, resourceSet);
+    }
     Set<String> _keySet = this.languages.keySet();
     final String extensions = IterableExtensions.join(_keySet, "|");
     final NameBasedFilter nameBasedFilter = new NameBasedFilter();
@@ -653,7 +1167,46 @@ public class StandaloneBuilder {
     return resources;
   }
   
-  protected void registerBundle(final File file) {
+  /**
+   * Traverses each root on its own thread. The result is in the order of the roots.
+   */
+  protected List<URI> collectResourcesInParallel(final Iterable<String> roots, final ResourceSet resourceSet) {
+    final ExecutorService executor = this.createExecutor("StandaloneBuilder-collect-%d");
+    try {
+      final Function1<String, Future<List<URI>>> _function = new Function1<String, Future<List<URI>>>() {
+        @Override
+        public Future<List<URI>> apply(final String root) {
+          Future<List<URI>> _xblockexpression = null;
+          {
+            final Callable<List<URI>> _function = new Callable<List<URI>>() {
+              @Override
+              public List<URI> call() throws Exception {
+                return StandaloneBuilder.this.collectResources(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList(root)), resourceSet);
+              }
+            };
+            final Callable<List<URI>> task = _function;
+            _xblockexpression = executor.<List<URI>>submit(task);
+          }
+          return _xblockexpression;
+        }
+      };
+      Iterable<Future<List<URI>>> _map = IterableExtensions.<String, Future<List<URI>>>map(roots, _function);
+      final List<Future<List<URI>>> results = IterableExtensions.<Future<List<URI>>>toList(_map);
+      final Function1<Future<List<URI>>, List<URI>> _function_1 = new Function1<Future<List<URI>>, List<URI>>() {
+        @Override
+        public List<URI> apply(final Future<List<URI>> it) {
+          return StandaloneBuilder.this.<List<URI>>waitFor(it);
+        }
+      };
+      List<List<URI>> _map_1 = ListExtensions.<Future<List<URI>>, List<URI>>map(results, _function_1);
+      Iterable<URI> _flatten = Iterables.<URI>concat(_map_1);
+      return IterableExtensions.<URI>toList(_flatten);
+    } finally {
+      executor.shutdown();
+    }
+  }
+  
+  protected synchronized void registerBundle(final File file) {
     JarFile jarFile = null;
     try {
       JarFile _jarFile = new JarFile(file);
@@ -852,4 +1405,22 @@ public class StandaloneBuilder {
   public void setClusteringConfig(final ClusteringConfig clusteringConfig) {
     this.clusteringConfig = clusteringConfig;
   }
+  
+  @Pure
+  public File getBuildCacheDir() {
+    return this.buildCacheDir;
+  }
+  
+  public void setBuildCacheDir(final File buildCacheDir) {
+    this.buildCacheDir = buildCacheDir;
+  }
+  
+  @Pure
+  public int getNumberOfThreads() {
+    return this.numberOfThreads;
+  }
+  
+  public void setNumberOfThreads(final int numberOfThreads) {
+    this.numberOfThreads = numberOfThreads;
+  }
 }
@@ -7,16 +7,20 @@
  *******************************************************************************/
 package org.eclipse.xtext.common.types.access;
 
+import java.io.File;
+
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
 import org.eclipse.xtext.common.types.access.impl.CachingClasspathTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.CachingDeclaredTypeFactory;
 import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
+import org.eclipse.xtext.common.types.access.impl.PersistentDeclaredTypeCache;
 import org.eclipse.xtext.common.types.access.impl.TypeResourceServices;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 
 /**
  * @author Sebastian Zarnekow - Initial contribution and API
@@ -24,17 +28,41 @@ import com.google.inject.Singleton;
 @Singleton
 public class CachingClasspathTypeProviderFactory extends ClasspathTypeProviderFactory {
 
+	/**
+	 * The name of an optional binding for the directory of a {@link PersistentDeclaredTypeCache}.
+	 * 
+	 * @since 2.9
+	 */
+	public final static String PERSISTENT_CACHE_DIRECTORY = "org.eclipse.xtext.common.types.access.CachingClasspathTypeProviderFactory.persistentCacheDirectory";
+
+	private final ClassLoader defaultClassLoader;
+
+	private PersistentDeclaredTypeCache persistentCache;
+
 	private CachingDeclaredTypeFactory reusedFactory;
 
 	@Inject
 	public CachingClasspathTypeProviderFactory(ClassLoader classLoader, TypeResourceServices services) {
 		super(classLoader, services);
+		defaultClassLoader = classLoader;
 		reusedFactory = newClassReaderTypeFactory(classLoader);
 	}
 
+	/**
+	 * Types that are loaded from jar archives will be cached in the given directory such that subsequent processes
+	 * don't have to read the class files again.
+	 * 
+	 * @since 2.9
+	 */
+	@Inject(optional = true)
+	public void setPersistentCacheDirectory(@Named(PERSISTENT_CACHE_DIRECTORY) String directory) {
+		persistentCache = directory == null ? null : new PersistentDeclaredTypeCache(new File(directory));
+		reusedFactory = newClassReaderTypeFactory(defaultClassLoader);
+	}
+
 	private CachingDeclaredTypeFactory newClassReaderTypeFactory(ClassLoader classLoader) {
 		DeclaredTypeFactory factoryDelegate = new DeclaredTypeFactory(new ClassFileBytesAccess(), classLoader);
-		return new CachingDeclaredTypeFactory(factoryDelegate);
+		return new CachingDeclaredTypeFactory(factoryDelegate, persistentCache);
 	}
 	
 	@Override
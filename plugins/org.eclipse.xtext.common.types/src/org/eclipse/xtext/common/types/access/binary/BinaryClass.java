@@ -68,6 +68,16 @@ public class BinaryClass {
 		return name;
 	}
 
+	/**
+	 * @return the location of the class file or <code>null</code> if it cannot be found.
+	 * @since 2.9
+	 */
+	public URL getClassFileURL() {
+		if (classLoader == null)
+			return null;
+		return classLoader.getResource(toClassFile(name));
+	}
+
 	public byte[] getBytes() {
 		InputStream stream = null;
 		try {
@@ -35,7 +35,7 @@ public abstract class AbstractRuntimeJvmTypeProvider extends AbstractJvmTypeProv
 
 	protected static class TypeInResourceSetAdapter extends AdapterImpl {
 		
-		private Map<String, JvmType> typeByQueryString = Maps.newHashMap();
+		private Map<String, JvmType> typeByQueryString = Maps.newConcurrentMap();
 		
 		@Override
 		public boolean isAdapterForType(Object type) {
@@ -31,7 +31,8 @@ import org.eclipse.xtext.common.types.access.binary.BinaryClass;
  * 
  * Real world use cases like the command line compiler for Xtend will usually not benefit from cached
  * {@link JvmType types} since only one resource set is involved which maintains an index of resolved
- * types.  
+ * types unless a {@link PersistentDeclaredTypeCache persistent cache} is used which survives the lifetime of the
+ * process.
  * 
  * @author Sebastian Zarnekow - Initial contribution and API
  */
@@ -45,8 +46,20 @@ public class CachingDeclaredTypeFactory implements ITypeFactory<BinaryClass, Jvm
 	
 	private final JvmDeclaredType nullValue = TypesFactory.eINSTANCE.createJvmGenericType();
 
+	private final PersistentDeclaredTypeCache persistentCache;
+
 	public CachingDeclaredTypeFactory(DeclaredTypeFactory delegate) {
+		this(delegate, null);
+	}
+
+	/**
+	 * @param persistentCache the cache that is consulted before a type is created from its class file. May be
+	 *            <code>null</code>.
+	 * @since 2.9
+	 */
+	public CachingDeclaredTypeFactory(DeclaredTypeFactory delegate, PersistentDeclaredTypeCache persistentCache) {
 		this.delegate = delegate;
+		this.persistentCache = persistentCache;
 	}
 	
 	@Override
@@ -86,7 +99,15 @@ public class CachingDeclaredTypeFactory implements ITypeFactory<BinaryClass, Jvm
 	private JvmDeclaredType load(BinaryClass key) {
 		if (log.isDebugEnabled())
 			log.debug("Hit:" + key.getName());
-		return delegate.createType(key);
+		if (persistentCache != null) {
+			JvmDeclaredType result = persistentCache.load(key);
+			if (result != null)
+				return result;
+		}
+		JvmDeclaredType result = delegate.createType(key);
+		if (persistentCache != null && result != null)
+			persistentCache.store(key, result);
+		return result;
 	}
 	
 }
@@ -7,7 +7,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.common.types.access.impl;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Sebastian Zarnekow - Initial contribution and API
@@ -23,7 +23,7 @@ public class ClassFinder extends AbstractClassFinder<Class<?>> {
 	}
 
 	@SuppressWarnings("serial")
-	private static class Cache extends HashMap<String, Class<?>> {
+	private static class Cache extends ConcurrentHashMap<String, Class<?>> {
 		public Cache() {
 			super(500);
 			for (Class<?> primitiveType : Primitives.ALL_PRIMITIVE_TYPES) {
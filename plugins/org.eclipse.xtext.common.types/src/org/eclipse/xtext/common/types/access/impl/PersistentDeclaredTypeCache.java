@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+
+/**
+ * An on-disk cache of {@link JvmDeclaredType types} that were created from class files in jar archives. The cache is
+ * content addressed: types are stored per jar in a folder that is named after the SHA-1 hash of the archive, thus
+ * an updated archive never yields stale types and the same archive can be shared by different class paths and
+ * processes.
+ * 
+ * Types from class folders or other locations are not cached. Failures to read or write the cache are logged and
+ * treated like a cache miss.
+ * 
+ * @see CachingDeclaredTypeFactory
+ * @since 2.9
+ */
+public class PersistentDeclaredTypeCache {
+
+	private static final Logger log = Logger.getLogger(PersistentDeclaredTypeCache.class);
+
+	/**
+	 * Incremented whenever the structure of the cached types changes.
+	 */
+	private static final String FORMAT_VERSION = "v1";
+
+	private static final String FILE_EXTENSION = ".jvmtypes";
+
+	private final File directory;
+
+	private final Map<String, String> jarHashes = new ConcurrentHashMap<String, String>();
+
+	public PersistentDeclaredTypeCache(File directory) {
+		this.directory = new File(directory, FORMAT_VERSION);
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @return a fresh copy of the cached type or <code>null</code> if the type was not cached before.
+	 */
+	public JvmDeclaredType load(BinaryClass clazz) {
+		File file = getCacheFile(clazz);
+		if (file == null || !file.isFile())
+			return null;
+		try {
+			InputStream in = new BufferedInputStream(new FileInputStream(file));
+			try {
+				Resource resource = new BinaryResourceImpl(clazz.getResourceURI());
+				resource.load(in, null);
+				if (resource.getContents().isEmpty())
+					return null;
+				EObject result = resource.getContents().get(0);
+				resource.getContents().clear();
+				return (JvmDeclaredType) result;
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			log.debug("Cannot read cached type " + clazz.getName() + " from " + file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores a copy of the given type. The type itself is not modified.
+	 */
+	public void store(BinaryClass clazz, JvmDeclaredType type) {
+		File file = getCacheFile(clazz);
+		if (file == null)
+			return;
+		File folder = file.getParentFile();
+		if (!folder.isDirectory() && !folder.mkdirs() && !folder.isDirectory()) {
+			log.debug("Cannot create cache folder " + folder);
+			return;
+		}
+		File tmpFile = null;
+		try {
+			tmpFile = File.createTempFile(clazz.getName(), ".tmp", folder);
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(tmpFile));
+			try {
+				Resource resource = new BinaryResourceImpl(clazz.getResourceURI());
+				resource.getContents().add(EcoreUtil2.cloneWithProxies(type));
+				resource.save(out, null);
+			} finally {
+				out.close();
+			}
+			// a concurrent writer may have stored the very same content already
+			if (!tmpFile.renameTo(file) && !file.isFile()) {
+				log.debug("Cannot store cached type " + clazz.getName() + " in " + file);
+			}
+		} catch (Exception e) {
+			log.debug("Cannot store cached type " + clazz.getName() + " in " + file, e);
+		} finally {
+			if (tmpFile != null && tmpFile.exists())
+				tmpFile.delete();
+		}
+	}
+
+	/**
+	 * @return the file that holds the cached type or <code>null</code> if the class is not located in a jar.
+	 */
+	protected File getCacheFile(BinaryClass clazz) {
+		File jar = getJarFile(clazz.getClassFileURL());
+		if (jar == null)
+			return null;
+		String hash = getJarHash(jar);
+		if (hash == null)
+			return null;
+		return new File(new File(directory, hash), clazz.getName() + FILE_EXTENSION);
+	}
+
+	protected File getJarFile(URL classFileURL) {
+		if (classFileURL == null || !"jar".equals(classFileURL.getProtocol()))
+			return null;
+		String path = classFileURL.getPath();
+		int separator = path.indexOf("!/");
+		if (separator == -1)
+			return null;
+		URI jarURI = URI.createURI(path.substring(0, separator));
+		if (!jarURI.isFile())
+			return null;
+		File result = new File(jarURI.toFileString());
+		if (!result.isFile())
+			return null;
+		return result;
+	}
+
+	protected String getJarHash(File jar) {
+		String key = jar.getAbsolutePath() + ':' + jar.length() + ':' + jar.lastModified();
+		String result = jarHashes.get(key);
+		if (result == null) {
+			try {
+				result = computeHash(jar);
+				jarHashes.put(key, result);
+			} catch (IOException e) {
+				log.debug("Cannot compute hash of " + jar, e);
+			}
+		}
+		return result;
+	}
+
+	private String computeHash(File jar) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		InputStream in = new FileInputStream(jar);
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		} finally {
+			in.close();
+		}
+		StringBuilder result = new StringBuilder();
+		for (byte b : digest.digest()) {
+			result.append(Character.forDigit((b >> 4) & 0xF, 16));
+			result.append(Character.forDigit(b & 0xF, 16));
+		}
+		return result.toString();
+	}
+
+}
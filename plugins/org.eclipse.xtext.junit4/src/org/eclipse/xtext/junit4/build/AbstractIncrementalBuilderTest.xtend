@@ -96,7 +96,7 @@ abstract class AbstractIncrementalBuilderTest {
 				generated.put(source, target)
 			]
 			
-			state = new IndexState(newIndex, indexState.fileMappings.copy)
+			state = new IndexState(newIndex, indexState.fileMappings.copy, indexState.reverseDependencies.copy)
 		]
 		init.apply(result)
 		return result
@@ -25,6 +25,7 @@ import org.eclipse.emf.ecore.resource.URIHandler;
 import org.eclipse.xtext.build.BuildRequest;
 import org.eclipse.xtext.build.IncrementalBuilder;
 import org.eclipse.xtext.build.IndexState;
+import org.eclipse.xtext.build.ReverseDependencyIndex;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
 import org.eclipse.xtext.junit4.util.InMemoryURIHandler;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
@@ -172,7 +173,9 @@ public abstract class AbstractIncrementalBuilderTest {
         it.setAfterGenerateFile(_function_3);
         Source2GeneratedMapping _fileMappings = AbstractIncrementalBuilderTest.this.indexState.getFileMappings();
         Source2GeneratedMapping _copy = _fileMappings.copy();
-        IndexState _indexState = new IndexState(newIndex, _copy);
+        ReverseDependencyIndex _reverseDependencies = AbstractIncrementalBuilderTest.this.indexState.getReverseDependencies();
+        ReverseDependencyIndex _copy_1 = _reverseDependencies.copy();
+        IndexState _indexState = new IndexState(newIndex, _copy, _copy_1);
         it.setState(_indexState);
       }
     };
@@ -0,0 +1,464 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+/**
+ * A cache implementation that stores its values in the scope of a resource, too, but unlike the
+ * {@link OnChangeEvictingCache} it
+ * <ul>
+ * <li>bounds the total weight of all cached values. If the {@link #setMaximumWeight(long) maximum weight} is exceeded,
+ * the least recently used values are evicted. The weight of a value is computed by {@link #weigh(Object, Object)}.</li>
+ * <li>allows to put values into invalidation groups. A group can be {@link #invalidate(Resource, Object) invalidated}
+ * individually, thus clients don't have to discard all values of a resource if only some of them are affected by a
+ * change. A semantic change of a resource invalidates all of its groups, values of other resources are kept.</li>
+ * <li>counts the {@link #getHitCount() hits}, {@link #getMissCount() misses} and {@link #getEvictionCount()
+ * evictions}.</li>
+ * </ul>
+ * 
+ * Values are read without locking, the groups of a resource are looked up in a map with weak keys and values. Only
+ * the installation of the adapter that invalidates the groups of a resource is synchronized on the resource. The
+ * values are stored in their groups, which are only strongly reachable from the adapter of their resource. Thus a
+ * resource that is no longer used can be garbage collected together with its cached values. Invalidation is done by
+ * incrementing the generation of a group, so values that have been computed concurrently to an invalidation will not
+ * be cached. Evictions are done in batches, such that the cache shrinks to three quarters of its maximum weight.
+ * 
+ * @since 2.9
+ */
+@Singleton
+public class BoundedResourceScopeCache implements IResourceScopeCache {
+
+	private static final Logger log = Logger.getLogger(BoundedResourceScopeCache.class);
+
+	/**
+	 * The maximum weight of all cached values. Defaults to {@value #DEFAULT_MAXIMUM_WEIGHT}.
+	 */
+	public final static String MAXIMUM_WEIGHT = "org.eclipse.xtext.util.BoundedResourceScopeCache.maximumWeight";
+
+	public final static long DEFAULT_MAXIMUM_WEIGHT = 100000;
+
+	/**
+	 * The group of all values that are cached by {@link #get(Object, Resource, Provider)}.
+	 */
+	public final static Object DEFAULT_GROUP = new Object() {
+		@Override
+		public String toString() {
+			return "DEFAULT_GROUP";
+		}
+	};
+
+	private static final Object NULL = new Object();
+
+	private static class Group {
+		private volatile int generation = 0;
+
+		private final ConcurrentMap<Object, Entry> entries = new ConcurrentHashMap<Object, Entry>();
+
+		/**
+		 * The total weight of the entries. It is shared with the {@link GroupReference} of the group.
+		 */
+		private final AtomicLong weight = new AtomicLong(0);
+	}
+
+	/**
+	 * Allows to subtract the weight of a group from the total weight after the group has been garbage collected.
+	 */
+	private static class GroupReference extends WeakReference<Group> {
+		private final AtomicLong weight;
+
+		private GroupReference(Group group, ReferenceQueue<Group> queue) {
+			super(group, queue);
+			this.weight = group.weight;
+		}
+	}
+
+	private static class Candidate {
+		private final Group group;
+
+		private final Object key;
+
+		private final long lastAccess;
+
+		private Candidate(Group group, Object key, long lastAccess) {
+			this.group = group;
+			this.key = key;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private static class Entry {
+		private final Object value;
+
+		private final int weight;
+
+		private final int generation;
+
+		private volatile long lastAccess;
+
+		private Entry(Object value, int weight, int generation, long lastAccess) {
+			this.value = value;
+			this.weight = weight;
+			this.generation = generation;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	/**
+	 * Knows the groups of a resource and invalidates them on semantic changes.
+	 */
+	private class GroupsAdapter extends EContentAdapter {
+
+		private final ConcurrentMap<Object, Group> groups = new ConcurrentHashMap<Object, Group>();
+
+		private Group getGroup(Object name) {
+			Group result = groups.get(name);
+			if (result == null) {
+				Group newGroup = new Group();
+				result = groups.putIfAbsent(name, newGroup);
+				if (result == null) {
+					groupReferences.add(new GroupReference(newGroup, collectedGroups));
+					result = newGroup;
+				}
+			}
+			return result;
+		}
+
+		private void invalidateAll() {
+			for (Group group : groups.values()) {
+				invalidate(group);
+			}
+		}
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			super.notifyChanged(notification);
+			if (isSemanticStateChange(notification)) {
+				invalidateAll();
+			}
+		}
+
+		private boolean isSemanticStateChange(Notification notification) {
+			return !notification.isTouch() && !(notification.getNewValue() instanceof Diagnostic)
+					&& !(notification.getOldValue() instanceof Diagnostic);
+		}
+
+		@Override
+		protected void unsetTarget(Resource target) {
+			super.unsetTarget(target);
+			// the groups won't be notified about changes anymore
+			adapters.remove(target, this);
+			invalidateAll();
+		}
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type == BoundedResourceScopeCache.this;
+		}
+
+		@Override
+		protected boolean resolve() {
+			return false;
+		}
+	}
+
+	@Inject(optional = true)
+	@Named(MAXIMUM_WEIGHT)
+	private long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+
+	/**
+	 * The adapters are strongly reachable from their resources only, since an adapter knows its resource.
+	 */
+	private final ConcurrentMap<Resource, GroupsAdapter> adapters = new MapMaker().weakKeys().weakValues().makeMap();
+
+	private final Set<GroupReference> groupReferences = Collections
+			.newSetFromMap(new ConcurrentHashMap<GroupReference, Boolean>());
+
+	private final ReferenceQueue<Group> collectedGroups = new ReferenceQueue<Group>();
+
+	private final AtomicLong weight = new AtomicLong(0);
+
+	private final AtomicLong clock = new AtomicLong(0);
+
+	private final AtomicLong hits = new AtomicLong(0);
+
+	private final AtomicLong misses = new AtomicLong(0);
+
+	private final AtomicLong evictions = new AtomicLong(0);
+
+	private final Object evictionLock = new Object();
+
+	/**
+	 * Try to obtain the value that is cached for the given key in the default group of the given resource. If no value
+	 * is cached, the provider is used to compute it and store it afterwards.
+	 * 
+	 * @param resource
+	 *            the resource. If it is <code>null</code>, the provider will be used to compute the value.
+	 * @param key
+	 *            the cache key. May not be <code>null</code>.
+	 * @param provider
+	 *            the strategy to compute the value if necessary. May not be <code>null</code>.
+	 */
+	@Override
+	public <T> T get(Object key, Resource resource, Provider<T> provider) {
+		return get(key, DEFAULT_GROUP, resource, provider);
+	}
+
+	/**
+	 * Try to obtain the value that is cached for the given key in the given group of the given resource. If no value
+	 * is cached, the provider is used to compute it and store it afterwards.
+	 * 
+	 * @param key
+	 *            the cache key. May not be <code>null</code>.
+	 * @param groupName
+	 *            the invalidation group of the value. May not be <code>null</code>.
+	 * @param resource
+	 *            the resource. If it is <code>null</code>, the provider will be used to compute the value.
+	 * @param provider
+	 *            the strategy to compute the value if necessary. May not be <code>null</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Object groupName, Resource resource, Provider<T> provider) {
+		if (resource == null) {
+			return provider.get();
+		}
+		Group group = getOrCreate(resource).getGroup(groupName);
+		int generation = group.generation;
+		Entry entry = group.entries.get(key);
+		if (entry != null && entry.generation == generation) {
+			entry.lastAccess = clock.incrementAndGet();
+			hits.incrementAndGet();
+			if (entry.value == NULL) {
+				return null;
+			}
+			return (T) entry.value;
+		}
+		misses.incrementAndGet();
+		T value = provider.get();
+		Object cachedValue = value != null ? value : NULL;
+		put(group, key, new Entry(cachedValue, weigh(key, value), generation, clock.incrementAndGet()));
+		return value;
+	}
+
+	private void put(Group group, Object key, Entry entry) {
+		Entry previous = group.entries.put(key, entry);
+		addWeight(group, previous != null ? entry.weight - previous.weight : entry.weight);
+		if (group.generation != entry.generation) {
+			// the group was invalidated while the value was computed
+			remove(group, key);
+		} else {
+			expungeCollectedGroups();
+			if (weight.get() > maximumWeight) {
+				evict();
+			}
+		}
+	}
+
+	private boolean remove(Group group, Object key) {
+		Entry removed = group.entries.remove(key);
+		if (removed != null) {
+			addWeight(group, -removed.weight);
+			return true;
+		}
+		return false;
+	}
+
+	private void addWeight(Group group, long delta) {
+		group.weight.addAndGet(delta);
+		weight.addAndGet(delta);
+	}
+
+	/**
+	 * Subtracts the weight of the groups of garbage collected resources.
+	 */
+	private void expungeCollectedGroups() {
+		Reference<? extends Group> collected;
+		while ((collected = collectedGroups.poll()) != null) {
+			GroupReference reference = (GroupReference) collected;
+			if (groupReferences.remove(reference)) {
+				weight.addAndGet(-reference.weight.get());
+			}
+		}
+	}
+
+	/**
+	 * Discards all values of the given resource.
+	 */
+	@Override
+	public void clear(Resource resource) {
+		GroupsAdapter adapter = getAdapter(resource);
+		if (adapter != null) {
+			adapter.invalidateAll();
+		}
+	}
+
+	/**
+	 * Discards the values of the given group of the resource. Values of other groups are kept.
+	 */
+	public void invalidate(Resource resource, Object groupName) {
+		GroupsAdapter adapter = getAdapter(resource);
+		if (adapter != null) {
+			Group group = adapter.groups.get(groupName);
+			if (group != null) {
+				invalidate(group);
+			}
+		}
+	}
+
+	private void invalidate(Group group) {
+		synchronized (group) {
+			group.generation++;
+		}
+		Iterator<Object> keys = group.entries.keySet().iterator();
+		while (keys.hasNext()) {
+			remove(group, keys.next());
+		}
+	}
+
+	/**
+	 * Evicts the least recently used values until three quarters of the maximum weight are reached.
+	 */
+	protected void evict() {
+		synchronized (evictionLock) {
+			expungeCollectedGroups();
+			if (weight.get() <= maximumWeight) {
+				return;
+			}
+			long targetWeight = maximumWeight - maximumWeight / 4;
+			// snapshot the access times, they may change concurrently
+			List<Candidate> candidates = Lists.newArrayList();
+			for (GroupReference reference : groupReferences) {
+				Group group = reference.get();
+				if (group != null) {
+					for (Map.Entry<Object, Entry> entry : group.entries.entrySet()) {
+						candidates.add(new Candidate(group, entry.getKey(), entry.getValue().lastAccess));
+					}
+				}
+			}
+			Collections.sort(candidates, new Comparator<Candidate>() {
+				@Override
+				public int compare(Candidate o1, Candidate o2) {
+					return o1.lastAccess < o2.lastAccess ? -1 : (o1.lastAccess == o2.lastAccess ? 0 : 1);
+				}
+			});
+			int evicted = 0;
+			for (int i = 0; i < candidates.size() && weight.get() > targetWeight; i++) {
+				Candidate candidate = candidates.get(i);
+				if (remove(candidate.group, candidate.key)) {
+					evicted++;
+				}
+			}
+			evictions.addAndGet(evicted);
+			if (log.isDebugEnabled()) {
+				log.debug(String.format("Evicted %d cache entries after %d hits and %d misses", evicted, hits.get(),
+						misses.get()));
+			}
+		}
+	}
+
+	/**
+	 * Computes the weight of a value that is about to be cached. Defaults to <code>1</code>, i.e. the maximum weight is
+	 * the maximum number of cached values.
+	 * 
+	 * @param key
+	 *            the cache key.
+	 * @param value
+	 *            the value. May be <code>null</code>.
+	 * @return the weight of the value. Must not be negative.
+	 */
+	protected int weigh(Object key, Object value) {
+		return 1;
+	}
+
+	private GroupsAdapter getAdapter(Resource resource) {
+		return adapters.get(resource);
+	}
+
+	private GroupsAdapter getOrCreate(Resource resource) {
+		GroupsAdapter adapter = adapters.get(resource);
+		if (adapter != null) {
+			return adapter;
+		}
+		// guard against two threads that install an adapter for the same resource
+		synchronized (resource) {
+			adapter = adapters.get(resource);
+			if (adapter == null) {
+				adapter = new GroupsAdapter();
+				resource.eAdapters().add(adapter);
+				adapters.put(resource, adapter);
+			}
+			return adapter;
+		}
+	}
+
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	public void setMaximumWeight(long maximumWeight) {
+		this.maximumWeight = maximumWeight;
+		if (weight.get() > maximumWeight) {
+			evict();
+		}
+	}
+
+	/**
+	 * @return the total weight of the cached values.
+	 */
+	public long getWeight() {
+		expungeCollectedGroups();
+		return weight.get();
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Resets the {@link #getHitCount() hit}, {@link #getMissCount() miss} and {@link #getEvictionCount() eviction}
+	 * counters.
+	 */
+	public void resetStatistics() {
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+	}
+
+}
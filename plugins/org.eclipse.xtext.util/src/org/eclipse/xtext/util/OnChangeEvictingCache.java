@@ -8,6 +8,7 @@
 package org.eclipse.xtext.util;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,8 @@ import com.google.inject.Singleton;
  * Clients may override this behavior for certain transactions by means of {@link #execWithoutCacheClear(Resource, IUnitOfWork)}
  * or {@link #execWithTemporaryCaching(Resource, IUnitOfWork)}.
  * 
+ * Values may be requested concurrently, e.g. by parallel validation of several resources. 
+ * 
  * @author Sven Efftinge - Initial contribution and API
  * @author Sebastian Zarnekow
  */
@@ -109,13 +112,16 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 	 * @return the cache adapter for the given resource. Never <code>null</code>.
 	 */
 	public CacheAdapter getOrCreate(Resource resource) {
-		CacheAdapter adapter = (CacheAdapter) EcoreUtil.getAdapter(resource.eAdapters(), CacheAdapter.class);
-		if (adapter == null) {
-			adapter = new CacheAdapter();
-			resource.eAdapters().add(adapter);
-			adapter.setResource(resource);
+		// guard against two threads that install an adapter for the same resource
+		synchronized (resource) {
+			CacheAdapter adapter = (CacheAdapter) EcoreUtil.getAdapter(resource.eAdapters(), CacheAdapter.class);
+			if (adapter == null) {
+				adapter = new CacheAdapter();
+				resource.eAdapters().add(adapter);
+				adapter.setResource(resource);
+			}
+			return adapter;
 		}
-		return adapter;
 	}
 	
 	/**
@@ -154,7 +160,7 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 	}
 	
 	private static class IgnoreValuesMemento {
-		private final List<Object> keys = Lists.newArrayList();
+		private final List<Object> keys = Collections.synchronizedList(Lists.newArrayList());
 		private final IgnoreValuesMemento previous;
 		private final CacheAdapter adapter;
 		
@@ -183,7 +189,7 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 		
 		private final Map<Object, Object> values = new ConcurrentHashMap<Object, Object>(500);
 
-		private final Collection<Listener> listeners = Sets.newLinkedHashSet();
+		private final Collection<Listener> listeners = Collections.synchronizedSet(Sets.<Listener>newLinkedHashSet());
 		
 		@Deprecated
 		private volatile boolean ignoreNotifications = false;
@@ -196,8 +202,8 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 		
 		private Resource resource;
 		
-		private int misses = 0;
-		private int hits = 0;
+		private final AtomicInteger misses = new AtomicInteger(0);
+		private final AtomicInteger hits = new AtomicInteger(0);
 
 		public void set(Object name, Object value) {
 			empty = false;
@@ -231,14 +237,14 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 		 * @since 2.1
 		 */
 		protected void cacheMiss() {
-			misses++;
+			misses.incrementAndGet();
 		}
 		
 		/**
 		 * @since 2.1
 		 */
 		protected void cacheHit() {
-			hits++;
+			hits.incrementAndGet();
 		}
 		
 		@SuppressWarnings("unchecked")
@@ -269,10 +275,14 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 			super.notifyChanged(notification);
 			if (ignoreNotificationCounter.get() == 0 && !ignoreNotifications && isSemanticStateChange(notification)) {
 				clearValues();
-				Iterator<Listener> iter = listeners.iterator();
+				List<Listener> evicted;
+				synchronized (listeners) {
+					evicted = Lists.newArrayList(listeners);
+					listeners.clear();
+				}
+				Iterator<Listener> iter = evicted.iterator();
 				while(iter.hasNext()) {
 					Listener next = iter.next();
-					iter.remove();
 					next.onEvict(this);
 				}
 			}
@@ -282,13 +292,15 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 			if (!empty) {
 				if (log.isDebugEnabled()) {
 					String lastSegment = resource != null && resource.getURI() != null ? resource.getURI().lastSegment() : "null";
+					int hits = this.hits.get();
+					int misses = this.misses.get();
 					log.debug(String.format("Clear %d cache entries for resource %s after %d hits and %d misses (quota: %d%%)", 
 							values.size(), lastSegment, hits, misses, hits + misses != 0 ? hits * 100 / (hits + misses) : 0));
 				}
 				values.clear();
 				empty = true;
-				misses = 0;
-				hits = 0;
+				misses.set(0);
+				hits.set(0);
 			}
 		}
 
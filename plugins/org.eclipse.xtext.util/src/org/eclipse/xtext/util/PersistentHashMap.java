@@ -0,0 +1,563 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A hash map that can be {@link #copy() copied} in constant time. The entries are stored in a hash array mapped
+ * trie whose nodes are shared between a map and its copies. A modification copies only the nodes on the path to the
+ * modified entry, unless these nodes have been created by the very same map since it was copied the last time. In
+ * that case they are modified in place, such that filling a new map is not more expensive than necessary.
+ *
+ * The map does not permit <code>null</code> keys. It is not thread-safe. Its iterators work on a snapshot of the map
+ * and do not fail if the map is modified concurrently.
+ *
+ * @since 2.9
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	/**
+	 * An immutable entry of the map.
+	 */
+	private static final class Leaf<K, V> implements Map.Entry<K, V> {
+
+		private final int hash;
+
+		private final K key;
+
+		private final V value;
+
+		Leaf(int hash, K key, V value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry<?, ?>))
+				return false;
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+			return key.equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+	/**
+	 * An immutable bucket of entries whose keys have the same hash code.
+	 */
+	private static final class Collision {
+
+		private final int hash;
+
+		private final Leaf<?, ?>[] leaves;
+
+		Collision(int hash, Leaf<?, ?>[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		int indexOf(Object key) {
+			for (int i = 0; i < leaves.length; i++) {
+				if (leaves[i].key.equals(key))
+					return i;
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * A node of the trie. The bitmap tells which of the 32 possible slots are occupied, the array holds the
+	 * occupied ones, each being either a {@link Leaf}, a {@link Collision} or another {@link Node}. The node may only
+	 * be modified in place by the map that owns the {@link #edit} token.
+	 */
+	private static final class Node {
+
+		private final Object edit;
+
+		private int bitmap;
+
+		private Object[] slots;
+
+		Node(Object edit, int bitmap, Object[] slots) {
+			this.edit = edit;
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+	}
+
+	/**
+	 * Walks through the leaves of a trie depth first.
+	 */
+	private static class LeafIterator implements Iterator<Leaf<?, ?>> {
+
+		// 7 levels of nodes for 32bit hashes plus a collision bucket
+		private final Object[][] arrays = new Object[8][];
+
+		private final int[] positions = new int[8];
+
+		private int depth = -1;
+
+		private Leaf<?, ?> next;
+
+		LeafIterator(Node root) {
+			if (root != null) {
+				depth = 0;
+				arrays[0] = root.slots;
+			}
+			computeNext();
+		}
+
+		private void computeNext() {
+			next = null;
+			while (depth >= 0) {
+				if (positions[depth] == arrays[depth].length) {
+					arrays[depth] = null;
+					depth--;
+				} else {
+					Object slot = arrays[depth][positions[depth]++];
+					if (slot instanceof Leaf<?, ?>) {
+						next = (Leaf<?, ?>) slot;
+						return;
+					}
+					depth++;
+					positions[depth] = 0;
+					arrays[depth] = slot instanceof Node ? ((Node) slot).slots : ((Collision) slot).leaves;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Leaf<?, ?> next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			Leaf<?, ?> result = next;
+			computeNext();
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			// the iterator works on the current trie, subsequent modifications of the map have to copy it
+			edit = new Object();
+			final LeafIterator delegate = new LeafIterator(root);
+			return new Iterator<Map.Entry<K, V>>() {
+
+				private Leaf<K, V> current;
+
+				@Override
+				public boolean hasNext() {
+					return delegate.hasNext();
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public Map.Entry<K, V> next() {
+					current = (Leaf<K, V>) delegate.next();
+					return current;
+				}
+
+				@Override
+				public void remove() {
+					if (current == null)
+						throw new IllegalStateException();
+					PersistentHashMap.this.remove(current.key);
+					current = null;
+				}
+			};
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry<?, ?>))
+				return false;
+			Leaf<?, ?> leaf = find(((Map.Entry<?, ?>) o).getKey());
+			return leaf != null && leaf.equals(o);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			PersistentHashMap.this.clear();
+		}
+	}
+
+	private Node root;
+
+	private int size;
+
+	/**
+	 * The token of the nodes that this map may modify in place.
+	 */
+	private Object edit = new Object();
+
+	private Set<Map.Entry<K, V>> entrySet;
+
+	/**
+	 * Set by the modifying operations.
+	 */
+	private boolean sizeChanged;
+
+	/**
+	 * Set by the modifying operations.
+	 */
+	private Object previousValue;
+
+	public PersistentHashMap() {
+	}
+
+	public PersistentHashMap(Map<? extends K, ? extends V> map) {
+		putAll(map);
+	}
+
+	/**
+	 * Returns a copy of this map in constant time. The copy and this map share their entries until either of them is
+	 * modified.
+	 */
+	public PersistentHashMap<K, V> copy() {
+		PersistentHashMap<K, V> result = new PersistentHashMap<K, V>();
+		result.root = root;
+		result.size = size;
+		edit = new Object();
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key) != null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		Leaf<?, ?> leaf = find(key);
+		if (leaf == null)
+			return null;
+		return (V) leaf.value;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V put(K key, V value) {
+		int hash = hash(key);
+		Leaf<K, V> leaf = new Leaf<K, V>(hash, key, value);
+		sizeChanged = false;
+		previousValue = null;
+		if (root == null) {
+			root = new Node(edit, bitpos(hash, 0), new Object[] { leaf });
+			sizeChanged = true;
+		} else {
+			root = put(root, 0, leaf);
+		}
+		if (sizeChanged)
+			size++;
+		V result = (V) previousValue;
+		previousValue = null;
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void putAll(Map<? extends K, ? extends V> map) {
+		if (isEmpty() && map instanceof PersistentHashMap<?, ?>) {
+			PersistentHashMap<K, V> other = (PersistentHashMap<K, V>) map;
+			root = other.root;
+			size = other.size;
+			other.edit = new Object();
+		} else {
+			super.putAll(map);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V remove(Object key) {
+		if (root == null || key == null)
+			return null;
+		sizeChanged = false;
+		previousValue = null;
+		root = (Node) remove(root, 0, hash(key), key);
+		if (sizeChanged)
+			size--;
+		V result = (V) previousValue;
+		previousValue = null;
+		return result;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		if (entrySet == null)
+			entrySet = new EntrySet();
+		return entrySet;
+	}
+
+	protected int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static int bitpos(int hash, int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	private static int index(int bitmap, int bit) {
+		return Integer.bitCount(bitmap & (bit - 1));
+	}
+
+	private Leaf<?, ?> find(Object key) {
+		if (key == null)
+			return null;
+		int hash = hash(key);
+		Node node = root;
+		int shift = 0;
+		while (node != null) {
+			int bit = bitpos(hash, shift);
+			if ((node.bitmap & bit) == 0)
+				return null;
+			Object slot = node.slots[index(node.bitmap, bit)];
+			if (slot instanceof Node) {
+				node = (Node) slot;
+				shift += BITS;
+			} else if (slot instanceof Collision) {
+				Collision collision = (Collision) slot;
+				if (collision.hash != hash)
+					return null;
+				int idx = collision.indexOf(key);
+				return idx == -1 ? null : collision.leaves[idx];
+			} else {
+				Leaf<?, ?> leaf = (Leaf<?, ?>) slot;
+				return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+			}
+		}
+		return null;
+	}
+
+	private Node editable(Node node) {
+		if (node.edit == edit)
+			return node;
+		return new Node(edit, node.bitmap, node.slots.clone());
+	}
+
+	private Node put(Node node, int shift, Leaf<K, V> leaf) {
+		int bit = bitpos(leaf.hash, shift);
+		int idx = index(node.bitmap, bit);
+		if ((node.bitmap & bit) == 0) {
+			Object[] slots = new Object[node.slots.length + 1];
+			System.arraycopy(node.slots, 0, slots, 0, idx);
+			slots[idx] = leaf;
+			System.arraycopy(node.slots, idx, slots, idx + 1, node.slots.length - idx);
+			sizeChanged = true;
+			if (node.edit == edit) {
+				node.bitmap |= bit;
+				node.slots = slots;
+				return node;
+			}
+			return new Node(edit, node.bitmap | bit, slots);
+		}
+		Object slot = node.slots[idx];
+		Object newSlot;
+		if (slot instanceof Node) {
+			newSlot = put((Node) slot, shift + BITS, leaf);
+		} else if (slot instanceof Collision) {
+			Collision collision = (Collision) slot;
+			if (collision.hash == leaf.hash) {
+				newSlot = put(collision, leaf);
+			} else {
+				newSlot = merge(collision, collision.hash, leaf, shift + BITS);
+				sizeChanged = true;
+			}
+		} else {
+			Leaf<?, ?> existing = (Leaf<?, ?>) slot;
+			if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+				previousValue = existing.value;
+				if (existing.value == leaf.value)
+					return node;
+				newSlot = leaf;
+			} else if (existing.hash == leaf.hash) {
+				newSlot = new Collision(leaf.hash, new Leaf<?, ?>[] { existing, leaf });
+				sizeChanged = true;
+			} else {
+				newSlot = merge(existing, existing.hash, leaf, shift + BITS);
+				sizeChanged = true;
+			}
+		}
+		if (newSlot == slot)
+			return node;
+		Node result = editable(node);
+		result.slots[idx] = newSlot;
+		return result;
+	}
+
+	private Collision put(Collision collision, Leaf<K, V> leaf) {
+		int idx = collision.indexOf(leaf.key);
+		Leaf<?, ?>[] leaves;
+		if (idx == -1) {
+			leaves = new Leaf<?, ?>[collision.leaves.length + 1];
+			System.arraycopy(collision.leaves, 0, leaves, 0, collision.leaves.length);
+			leaves[collision.leaves.length] = leaf;
+			sizeChanged = true;
+		} else {
+			previousValue = collision.leaves[idx].value;
+			if (previousValue == leaf.value)
+				return collision;
+			leaves = collision.leaves.clone();
+			leaves[idx] = leaf;
+		}
+		return new Collision(collision.hash, leaves);
+	}
+
+	/**
+	 * Creates the nodes that hold two slots with different hash codes.
+	 */
+	private Node merge(Object slot, int slotHash, Leaf<K, V> leaf, int shift) {
+		int bit1 = bitpos(slotHash, shift);
+		int bit2 = bitpos(leaf.hash, shift);
+		if (bit1 == bit2) {
+			return new Node(edit, bit1, new Object[] { merge(slot, slotHash, leaf, shift + BITS) });
+		}
+		Object[] slots = new Object[2];
+		int bitmap = bit1 | bit2;
+		slots[index(bitmap, bit1)] = slot;
+		slots[index(bitmap, bit2)] = leaf;
+		return new Node(edit, bitmap, slots);
+	}
+
+	/**
+	 * @return the modified node, <code>null</code> if the node became empty, or the only remaining leaf or collision
+	 *         that should be inlined into the parent.
+	 */
+	private Object remove(Node node, int shift, int hash, Object key) {
+		int bit = bitpos(hash, shift);
+		if ((node.bitmap & bit) == 0)
+			return node;
+		int idx = index(node.bitmap, bit);
+		Object slot = node.slots[idx];
+		Object newSlot;
+		if (slot instanceof Node) {
+			newSlot = remove((Node) slot, shift + BITS, hash, key);
+		} else if (slot instanceof Collision) {
+			newSlot = remove((Collision) slot, hash, key);
+		} else {
+			Leaf<?, ?> leaf = (Leaf<?, ?>) slot;
+			if (leaf.hash != hash || !leaf.key.equals(key))
+				return node;
+			previousValue = leaf.value;
+			sizeChanged = true;
+			newSlot = null;
+		}
+		if (newSlot == slot)
+			return node;
+		if (newSlot == null) {
+			if (node.slots.length == 1)
+				return null;
+			if (node.slots.length == 2 && shift > 0 && !(node.slots[1 - idx] instanceof Node))
+				return node.slots[1 - idx];
+			Object[] slots = new Object[node.slots.length - 1];
+			System.arraycopy(node.slots, 0, slots, 0, idx);
+			System.arraycopy(node.slots, idx + 1, slots, idx, slots.length - idx);
+			if (node.edit == edit) {
+				node.bitmap ^= bit;
+				node.slots = slots;
+				return node;
+			}
+			return new Node(edit, node.bitmap ^ bit, slots);
+		}
+		if (node.slots.length == 1 && shift > 0 && !(newSlot instanceof Node))
+			return newSlot;
+		Node result = editable(node);
+		result.slots[idx] = newSlot;
+		return result;
+	}
+
+	/**
+	 * @return the modified collision or the only remaining leaf.
+	 */
+	private Object remove(Collision collision, int hash, Object key) {
+		if (collision.hash != hash)
+			return collision;
+		int idx = collision.indexOf(key);
+		if (idx == -1)
+			return collision;
+		previousValue = collision.leaves[idx].value;
+		sizeChanged = true;
+		if (collision.leaves.length == 2)
+			return collision.leaves[1 - idx];
+		Leaf<?, ?>[] leaves = new Leaf<?, ?>[collision.leaves.length - 1];
+		System.arraycopy(collision.leaves, 0, leaves, 0, idx);
+		System.arraycopy(collision.leaves, idx + 1, leaves, idx, leaves.length - idx);
+		return new Collision(hash, leaves);
+	}
+
+}
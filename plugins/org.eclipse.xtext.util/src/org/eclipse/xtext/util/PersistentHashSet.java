@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * A hash set that can be {@link #copy() copied} in constant time. It is backed by a {@link PersistentHashMap}, see
+ * there for the details.
+ *
+ * The set does not permit <code>null</code> elements. It is not thread-safe. Its iterators work on a snapshot of the
+ * set.
+ *
+ * @since 2.9
+ */
+public class PersistentHashSet<E> extends AbstractSet<E> {
+
+	private final PersistentHashMap<E, Boolean> map;
+
+	public PersistentHashSet() {
+		this(new PersistentHashMap<E, Boolean>());
+	}
+
+	public PersistentHashSet(Collection<? extends E> elements) {
+		this();
+		addAll(elements);
+	}
+
+	private PersistentHashSet(PersistentHashMap<E, Boolean> map) {
+		this.map = map;
+	}
+
+	/**
+	 * Returns a copy of this set in constant time. The copy and this set share their elements until either of them is
+	 * modified.
+	 */
+	public PersistentHashSet<E> copy() {
+		return new PersistentHashSet<E>(map.copy());
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return map.keySet().iterator();
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	@Override
+	public boolean add(E e) {
+		return map.put(e, Boolean.TRUE) == null;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return map.remove(o) != null;
+	}
+
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.util.Collections;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+
+/**
+ * A multimap whose values are kept in {@link PersistentHashSet persistent sets} per key, such that a {@link #copy()}
+ * is created in constant time. The value sets that are shared with a copy are copied before they are modified, the
+ * ones that have been created by this multimap since its last copy are modified in place. Adding a value thus does
+ * not depend on the number of values of its key.
+ *
+ * The multimap does not permit <code>null</code> keys or values. It is not thread-safe. The returned sets are
+ * snapshots, they are not affected by subsequent modifications.
+ *
+ * @since 2.9
+ */
+public class PersistentSetMultimap<K, V> {
+
+	private final PersistentHashMap<K, PersistentHashSet<V>> map;
+
+	/**
+	 * The value sets that are not shared with any copy, compared by identity.
+	 */
+	private Set<PersistentHashSet<V>> ownedSets = Sets.newIdentityHashSet();
+
+	public PersistentSetMultimap() {
+		this(new PersistentHashMap<K, PersistentHashSet<V>>());
+	}
+
+	private PersistentSetMultimap(PersistentHashMap<K, PersistentHashSet<V>> map) {
+		this.map = map;
+	}
+
+	/**
+	 * Returns a copy of this multimap in constant time.
+	 */
+	public PersistentSetMultimap<K, V> copy() {
+		// the value sets are shared with the copy from now on
+		ownedSets = Sets.newIdentityHashSet();
+		return new PersistentSetMultimap<K, V>(map.copy());
+	}
+
+	/**
+	 * @return <code>true</code> if the value was not associated with the key before.
+	 */
+	public boolean put(K key, V value) {
+		PersistentHashSet<V> values = map.get(key);
+		if (values != null && values.contains(value))
+			return false;
+		editableValues(key, values).add(value);
+		return true;
+	}
+
+	/**
+	 * @return <code>true</code> if the value was associated with the key.
+	 */
+	public boolean remove(K key, V value) {
+		PersistentHashSet<V> values = map.get(key);
+		if (values == null || !values.contains(value))
+			return false;
+		if (values.size() == 1) {
+			map.remove(key);
+			ownedSets.remove(values);
+		} else {
+			editableValues(key, values).remove(value);
+		}
+		return true;
+	}
+
+	/**
+	 * @return the values that were associated with the key.
+	 */
+	public Set<V> removeAll(K key) {
+		PersistentHashSet<V> values = map.remove(key);
+		if (values == null)
+			return Collections.emptySet();
+		ownedSets.remove(values);
+		return values.copy();
+	}
+
+	/**
+	 * @return a snapshot of the values of the given key, never <code>null</code>.
+	 */
+	public Set<V> get(K key) {
+		PersistentHashSet<V> values = map.get(key);
+		if (values == null)
+			return Collections.emptySet();
+		return values.copy();
+	}
+
+	public boolean containsKey(K key) {
+		return map.containsKey(key);
+	}
+
+	/**
+	 * @return a snapshot of the keys.
+	 */
+	public Set<K> keySet() {
+		return map.copy().keySet();
+	}
+
+	public int keyCount() {
+		return map.size();
+	}
+
+	public void clear() {
+		map.clear();
+		ownedSets = Sets.newIdentityHashSet();
+	}
+
+	private PersistentHashSet<V> editableValues(K key, PersistentHashSet<V> values) {
+		if (values != null && ownedSets.contains(values))
+			return values;
+		PersistentHashSet<V> result = values != null ? values.copy() : new PersistentHashSet<V>();
+		ownedSets.add(result);
+		map.put(key, result);
+		return result;
+	}
+
+}
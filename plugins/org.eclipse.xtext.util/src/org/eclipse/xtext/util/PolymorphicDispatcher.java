@@ -274,6 +274,55 @@ public class PolymorphicDispatcher<RT> {
 			}
 		);
 
+	/**
+	 * The resolved methods for the parameter types of a recent invocation.
+	 */
+	private final class InlineCacheEntry {
+		private final Class<?>[] types;
+		private final List<MethodDesc> methods;
+
+		private InlineCacheEntry(List<Class<?>> types, List<MethodDesc> methods) {
+			this.types = types.toArray(new Class<?>[types.size()]);
+			this.methods = methods;
+		}
+
+		private boolean matches(Object[] params) {
+			if (types.length != params.length)
+				return false;
+			for (int i = 0; i < params.length; i++) {
+				Class<?> type = params[i] != null ? params[i].getClass() : getDefaultClass(i);
+				if (types[i] != type)
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/*
+	 * Most call sites see only one or two different parameter types in a row, so the two most recently used
+	 * entries are checked before the cache is consulted.
+	 */
+	private volatile InlineCacheEntry recent;
+
+	private volatile InlineCacheEntry previous;
+
+	private List<MethodDesc> getMethods(Object[] params) {
+		InlineCacheEntry entry = recent;
+		if (entry != null && entry.matches(params))
+			return entry.methods;
+		entry = previous;
+		if (entry != null && entry.matches(params)) {
+			previous = recent;
+			recent = entry;
+			return entry.methods;
+		}
+		List<Class<?>> types = getTypes(params);
+		List<MethodDesc> result = cache.get(types);
+		previous = recent;
+		recent = new InlineCacheEntry(types, result);
+		return result;
+	}
+
 	@SuppressWarnings("unchecked")
 	public RT invoke(Object... params) {
 		if (methodFilter instanceof MethodNameFilter) {
@@ -282,7 +331,7 @@ public class PolymorphicDispatcher<RT> {
 				throw new IllegalArgumentException("Wrong number of arguments. Expected "+filter.getMinParams()+" to "+filter.getMaxParams()+".");
 			}
 		}
-		List<MethodDesc> result = cache.get(getTypes(params));
+		List<MethodDesc> result = getMethods(params);
 		// check if ambiguous
 		if (result.size()>1)
 			return handleAmbigousMethods(result, params);
@@ -292,7 +341,8 @@ public class PolymorphicDispatcher<RT> {
 
 		try {
 			MethodDesc current = result.get(0);
-			current.method.setAccessible(true);
+			if (!current.method.isAccessible())
+				current.method.setAccessible(true);
 			return (RT) current.method.invoke(current.target, params);
 		} catch (InvocationTargetException e) {
 			if (e.getTargetException() instanceof Error)
@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.interpreter.impl;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.common.types.JvmField;
+import org.eclipse.xtext.common.types.JvmIdentifiableElement;
+import org.eclipse.xtext.common.types.JvmOperation;
+import org.eclipse.xtext.common.types.JvmTypeReference;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.IResourceScopeCache;
+import org.eclipse.xtext.util.Tuples;
+import org.eclipse.xtext.xbase.XAbstractFeatureCall;
+import org.eclipse.xtext.xbase.XAssignment;
+import org.eclipse.xtext.xbase.XBinaryOperation;
+import org.eclipse.xtext.xbase.XBlockExpression;
+import org.eclipse.xtext.xbase.XBooleanLiteral;
+import org.eclipse.xtext.xbase.XExpression;
+import org.eclipse.xtext.xbase.XFeatureCall;
+import org.eclipse.xtext.xbase.XIfExpression;
+import org.eclipse.xtext.xbase.XMemberFeatureCall;
+import org.eclipse.xtext.xbase.XNullLiteral;
+import org.eclipse.xtext.xbase.XNumberLiteral;
+import org.eclipse.xtext.xbase.XStringLiteral;
+import org.eclipse.xtext.xbase.XTypeLiteral;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationContext;
+import org.eclipse.xtext.xbase.typesystem.IResolvedTypes;
+import org.eclipse.xtext.xbase.typesystem.references.LightweightTypeReference;
+
+import com.google.common.collect.MapMaker;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * An interpreter that translates an expression once into a tree of {@link Evaluator evaluators} and executes that
+ * tree on subsequent evaluations. The evaluators hold everything that the {@link XbaseInterpreter} computes from the
+ * expression over and over again: the resolved types, the reflective methods of the invoked operations, the names of
+ * the local variables and the values of literals.
+ *
+ * Literals, blocks, if expressions, local variables and the invocation of operations are translated. All other
+ * expressions are evaluated by the tree interpreter, which in turn uses the evaluators of their children. The
+ * evaluators are cached in the resource of the expression and discarded when it changes or when the
+ * {@link #setClassLoader(ClassLoader) class loader} is replaced. Expressions that are not contained in a resource are
+ * always interpreted.
+ *
+ * The translated operation calls invoke the reflective method directly by means of
+ * {@link #invokeMethod(JvmOperation, Method, Object, List)}, so subclasses that intercept
+ * {@link #invokeOperation(JvmOperation, Object, List, IEvaluationContext, CancelIndicator)} have to exclude these calls
+ * from the translation by overriding {@link #compile(XExpression)}.
+ *
+ * @since 2.9
+ */
+public class CompilingXbaseInterpreter extends XbaseInterpreter {
+
+	/**
+	 * The executable form of an expression.
+	 */
+	protected abstract class Evaluator {
+
+		private final LightweightTypeReference expectedType;
+
+		protected Evaluator(XExpression expression) {
+			this.expectedType = getResolvedTypes(expression).getExpectedType(expression);
+		}
+
+		public Object evaluate(IEvaluationContext context, CancelIndicator indicator) {
+			if (indicator.isCanceled())
+				throw new InterpreterCanceledException();
+			Object result = doEvaluate(context, indicator);
+			if (expectedType != null)
+				result = wrapOrUnwrapArray(result, expectedType);
+			return result;
+		}
+
+		protected abstract Object doEvaluate(IEvaluationContext context, CancelIndicator indicator);
+	}
+
+	/**
+	 * Evaluates an expression with the tree interpreter.
+	 */
+	protected class InterpretingEvaluator extends Evaluator {
+
+		private final XExpression expression;
+
+		protected InterpretingEvaluator(XExpression expression) {
+			super(expression);
+			this.expression = expression;
+		}
+
+		@Override
+		protected Object doEvaluate(IEvaluationContext context, CancelIndicator indicator) {
+			return CompilingXbaseInterpreter.this.doEvaluate(expression, context, indicator);
+		}
+	}
+
+	protected class ConstantEvaluator extends Evaluator {
+
+		private final Object value;
+
+		protected ConstantEvaluator(XExpression expression, Object value) {
+			super(expression);
+			this.value = value;
+		}
+
+		@Override
+		protected Object doEvaluate(IEvaluationContext context, CancelIndicator indicator) {
+			return value;
+		}
+	}
+
+	protected class BlockEvaluator extends Evaluator {
+
+		private final Evaluator[] expressions;
+
+		protected BlockEvaluator(XBlockExpression block) {
+			super(block);
+			this.expressions = compile(block.getExpressions());
+		}
+
+		@Override
+		protected Object doEvaluate(IEvaluationContext context, CancelIndicator indicator) {
+			Object result = null;
+			IEvaluationContext forkedContext = context.fork();
+			for (Evaluator expression : expressions) {
+				result = expression.evaluate(forkedContext, indicator);
+			}
+			return result;
+		}
+	}
+
+	protected class IfEvaluator extends Evaluator {
+
+		private final Evaluator condition;
+
+		private final Evaluator thenPart;
+
+		private final Evaluator elsePart;
+
+		private final Object defaultValue;
+
+		protected IfEvaluator(XIfExpression ifExpression) {
+			super(ifExpression);
+			this.condition = getEvaluator(ifExpression.getIf());
+			this.thenPart = getEvaluator(ifExpression.getThen());
+			this.elsePart = ifExpression.getElse() != null ? getEvaluator(ifExpression.getElse()) : null;
+			this.defaultValue = elsePart == null ? getDefaultObjectValue(getResolvedTypes(ifExpression).getActualType(
+					ifExpression)) : null;
+		}
+
+		@Override
+		protected Object doEvaluate(IEvaluationContext context, CancelIndicator indicator) {
+			if (Boolean.TRUE.equals(condition.evaluate(context, indicator)))
+				return thenPart.evaluate(context, indicator);
+			if (elsePart == null)
+				return defaultValue;
+			return elsePart.evaluate(context, indicator);
+		}
+	}
+
+	protected class LocalVariableEvaluator extends Evaluator {
+
+		private final QualifiedName name;
+
+		protected LocalVariableEvaluator(XFeatureCall featureCall) {
+			super(featureCall);
+			this.name = QualifiedName.create(getFeatureNameProvider().getSimpleName(featureCall.getFeature()));
+		}
+
+		@Override
+		protected Object doEvaluate(IEvaluationContext context, CancelIndicator indicator) {
+			return context.getValue(name);
+		}
+	}
+
+	protected class OperationCallEvaluator extends Evaluator {
+
+		private final JvmOperation operation;
+
+		private final Method method;
+
+		private final Evaluator receiver;
+
+		private final boolean nullSafe;
+
+		private final Object nullSafeValue;
+
+		private final Evaluator[] arguments;
+
+		private final JvmTypeReference[] parameterTypes;
+
+		protected OperationCallEvaluator(XAbstractFeatureCall featureCall, Method method) {
+			super(featureCall);
+			this.operation = (JvmOperation) featureCall.getFeature();
+			this.method = method;
+			XExpression actualReceiver = getActualReceiver(featureCall);
+			this.receiver = actualReceiver != null ? getEvaluator(actualReceiver) : null;
+			this.nullSafe = featureCall instanceof XMemberFeatureCall && ((XMemberFeatureCall) featureCall).isNullSafe();
+			this.nullSafeValue = nullSafe ? getDefaultObjectValue(getResolvedTypes(featureCall).getActualType(
+					featureCall)) : null;
+			this.arguments = compile(getActualArguments(featureCall));
+			this.parameterTypes = new JvmTypeReference[arguments.length];
+			for (int i = 0; i < parameterTypes.length; i++) {
+				parameterTypes[i] = operation.getParameters().get(i).getParameterType();
+			}
+		}
+
+		@Override
+		protected Object doEvaluate(IEvaluationContext context, CancelIndicator indicator) {
+			Object receiverObj = receiver != null ? receiver.evaluate(context, indicator) : null;
+			if (nullSafe && receiverObj == null)
+				return nullSafeValue;
+			Object[] argumentValues = new Object[arguments.length];
+			for (int i = 0; i < arguments.length; i++) {
+				argumentValues[i] = coerceArgumentType(arguments[i].evaluate(context, indicator), parameterTypes[i]);
+			}
+			return invokeMethod(operation, method, receiverObj, Arrays.asList(argumentValues));
+		}
+	}
+
+	@Inject
+	private IResourceScopeCache cache;
+
+	/**
+	 * Identifies the evaluators of this interpreter in the cache. Replaced together with the class loader.
+	 */
+	private volatile Object evaluatorsKey = new Object();
+
+	/**
+	 * The resources that contain expressions with cached evaluators.
+	 */
+	private final Set<Resource> resourcesWithEvaluators = Collections.newSetFromMap(new MapMaker().weakKeys()
+			.<Resource, Boolean> makeMap());
+
+	/**
+	 * Discards the cached evaluators, since they refer to the reflective members of the previous class loader.
+	 */
+	@Override
+	public void setClassLoader(ClassLoader classLoader) {
+		super.setClassLoader(classLoader);
+		evaluatorsKey = new Object();
+		// null if invoked by the super constructor
+		if (resourcesWithEvaluators != null) {
+			for (Resource resource : resourcesWithEvaluators) {
+				cache.clear(resource);
+			}
+			resourcesWithEvaluators.clear();
+		}
+	}
+
+	@Override
+	protected Object internalEvaluate(XExpression expression, IEvaluationContext context, CancelIndicator indicator)
+			throws EvaluationException {
+		if (expression.eResource() == null)
+			return super.internalEvaluate(expression, context, indicator);
+		return getEvaluator(expression).evaluate(context, indicator);
+	}
+
+	/**
+	 * @return the cached evaluator for the given expression.
+	 */
+	protected Evaluator getEvaluator(final XExpression expression) {
+		final Resource resource = expression.eResource();
+		if (resource == null)
+			return compile(expression);
+		return cache.get(Tuples.create(evaluatorsKey, expression), resource, new Provider<Evaluator>() {
+			@Override
+			public Evaluator get() {
+				resourcesWithEvaluators.add(resource);
+				return compile(expression);
+			}
+		});
+	}
+
+	protected Evaluator[] compile(List<XExpression> expressions) {
+		Evaluator[] result = new Evaluator[expressions.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = getEvaluator(expressions.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Translates the given expression. Its children are taken from the cache.
+	 */
+	protected Evaluator compile(XExpression expression) {
+		if (expression instanceof XNullLiteral || expression instanceof XBooleanLiteral
+				|| expression instanceof XStringLiteral || expression instanceof XNumberLiteral
+				|| expression instanceof XTypeLiteral) {
+			try {
+				return new ConstantEvaluator(expression, doEvaluate(expression, null, CancelIndicator.NullImpl));
+			} catch (EvaluationException e) {
+				// report the problem when the literal is evaluated
+				return new InterpretingEvaluator(expression);
+			}
+		}
+		if (expression instanceof XBlockExpression)
+			return new BlockEvaluator((XBlockExpression) expression);
+		if (expression instanceof XIfExpression)
+			return new IfEvaluator((XIfExpression) expression);
+		if (expression instanceof XAbstractFeatureCall && !(expression instanceof XAssignment)) {
+			XAbstractFeatureCall featureCall = (XAbstractFeatureCall) expression;
+			if (!featureCall.isTypeLiteral() && !featureCall.isPackageFragment()
+					&& !getExpressionHelper().isShortCircuitOperation(featureCall) && !isGetAndAssign(featureCall)
+					&& !(featureCall instanceof XBinaryOperation && ((XBinaryOperation) featureCall)
+							.isReassignFirstArgument())) {
+				JvmIdentifiableElement feature = featureCall.getFeature();
+				if (feature == null || feature.eIsProxy() || feature instanceof JvmField) {
+					return new InterpretingEvaluator(expression);
+				} else if (feature instanceof JvmOperation) {
+					JvmOperation operation = (JvmOperation) feature;
+					Method method = getMethod(operation);
+					if (method != null && !operation.isVarArgs()
+							&& getActualArguments(featureCall).size() == operation.getParameters().size())
+						return new OperationCallEvaluator(featureCall, method);
+				} else if (featureCall instanceof XFeatureCall && getActualReceiver(featureCall) == null) {
+					return new LocalVariableEvaluator((XFeatureCall) featureCall);
+				}
+			}
+		}
+		return new InterpretingEvaluator(expression);
+	}
+
+	protected IResolvedTypes getResolvedTypes(XExpression expression) {
+		return getTypeResolver().resolveTypes(expression);
+	}
+
+}
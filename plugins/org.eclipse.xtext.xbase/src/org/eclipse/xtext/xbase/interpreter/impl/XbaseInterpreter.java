@@ -12,6 +12,7 @@ import static com.google.common.collect.Maps.*;
 import static com.google.common.collect.Sets.*;
 import static org.eclipse.xtext.util.Strings.*;
 
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -27,6 +28,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.xtext.common.types.JvmConstructor;
 import org.eclipse.xtext.common.types.JvmExecutable;
@@ -34,6 +36,7 @@ import org.eclipse.xtext.common.types.JvmField;
 import org.eclipse.xtext.common.types.JvmFormalParameter;
 import org.eclipse.xtext.common.types.JvmGenericType;
 import org.eclipse.xtext.common.types.JvmIdentifiableElement;
+import org.eclipse.xtext.common.types.JvmMember;
 import org.eclipse.xtext.common.types.JvmOperation;
 import org.eclipse.xtext.common.types.JvmPrimitiveType;
 import org.eclipse.xtext.common.types.JvmType;
@@ -99,6 +102,7 @@ import org.eclipse.xtext.xbase.util.XExpressionHelper;
 import org.eclipse.xtext.xbase.util.XSwitchExpressions;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
@@ -158,12 +162,63 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	private ClassFinder classFinder;
 
 	private ClassLoader classLoader;
+
+	/**
+	 * The reflective counterparts of the invoked operations and constructors and of the accessed fields. They are
+	 * shared by all evaluations and made accessible only once.
+	 */
+	private final ConcurrentMap<JvmMember, AccessibleObject> reflectiveMembers = new MapMaker().weakKeys().makeMap();
 	
 	@Inject
 	public void setClassLoader(ClassLoader classLoader) {
 		this.classFinder = new ClassFinder(classLoader);
 		this.classLoader = classLoader;
 		this.javaReflectAccess.setClassLoader(classLoader);
+		this.reflectiveMembers.clear();
+	}
+
+	/**
+	 * @return the {@link Method} for the given operation or <code>null</code> if it cannot be found. The lookup is
+	 *         cached.
+	 * @since 2.9
+	 */
+	protected Method getMethod(JvmOperation operation) {
+		Method result = (Method) reflectiveMembers.get(operation);
+		if (result == null) {
+			result = javaReflectAccess.getMethod(operation);
+			if (result != null)
+				reflectiveMembers.put(operation, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the {@link Field} for the given field or <code>null</code> if it cannot be found. The lookup is cached.
+	 * @since 2.9
+	 */
+	protected Field getField(JvmField field) {
+		Field result = (Field) reflectiveMembers.get(field);
+		if (result == null) {
+			result = javaReflectAccess.getField(field);
+			if (result != null)
+				reflectiveMembers.put(field, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the {@link Constructor} for the given constructor or <code>null</code> if it cannot be found. The lookup
+	 *         is cached.
+	 * @since 2.9
+	 */
+	protected Constructor<?> getConstructor(JvmConstructor constructor) {
+		Constructor<?> result = (Constructor<?>) reflectiveMembers.get(constructor);
+		if (result == null) {
+			result = javaReflectAccess.getConstructor(constructor);
+			if (result != null)
+				reflectiveMembers.put(constructor, result);
+		}
+		return result;
 	}
 	
 	protected Class<?> getClass(Class<?> class1) {
@@ -735,11 +790,12 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	protected Object _doEvaluate(XConstructorCall constructorCall, IEvaluationContext context, CancelIndicator indicator) {
 		JvmConstructor jvmConstructor = constructorCall.getConstructor();
 		List<Object> arguments = evaluateArgumentExpressions(jvmConstructor, constructorCall.getArguments(), context, indicator);
-		Constructor<?> constructor = javaReflectAccess.getConstructor(jvmConstructor);
+		Constructor<?> constructor = getConstructor(jvmConstructor);
 		try {
 			if (constructor == null)
 				throw new NoSuchMethodException("Could not find constructor " + jvmConstructor.getIdentifier());
-			constructor.setAccessible(true);
+			if (!constructor.isAccessible())
+				constructor.setAccessible(true);
 			Object result = constructor.newInstance(arguments.toArray(new Object[arguments.size()]));
 			return result;
 		} catch (InvocationTargetException targetException) {
@@ -1019,7 +1075,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	}
 
 	protected Object featureCallField(JvmField jvmField, Object receiver) {
-		Field field = javaReflectAccess.getField(jvmField);
+		Field field = getField(jvmField);
 		try {
 			if (field == null) {
 				throw new NoSuchFieldException("Could not find field " + jvmField.getIdentifier());
@@ -1027,7 +1083,8 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			if(!Modifier.isStatic(field.getModifiers()) && receiver == null) {
 				throw new EvaluationException(new NullPointerException("cannot access field " + field + " on null"));
 			}
-			field.setAccessible(true);
+			if (!field.isAccessible())
+				field.setAccessible(true);
 			Object result = field.get(receiver);
 			return result;
 		} catch(EvaluationException ee) {
@@ -1061,7 +1118,16 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	}
 	
 	protected Object invokeOperation(JvmOperation operation, Object receiver, List<Object> argumentValues) {
-		Method method = javaReflectAccess.getMethod(operation);
+		Method method = getMethod(operation);
+		return invokeMethod(operation, method, receiver, argumentValues);
+	}
+
+	/**
+	 * @param operation the operation that should be invoked.
+	 * @param method the method that implements the operation or <code>null</code> if it could not be found.
+	 * @since 2.9
+	 */
+	protected Object invokeMethod(JvmOperation operation, Method method, Object receiver, List<Object> argumentValues) {
 		try {
 			if (method == null) {
 				throw new NoSuchMethodException("Could not find method " + operation.getIdentifier());
@@ -1081,7 +1147,8 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 					throw new InvocationTargetException(throwable);
 				}
 			} else {
-				method.setAccessible(true);
+				if (!method.isAccessible())
+					method.setAccessible(true);
 				Object result = method.invoke(receiver, argumentValues.toArray(new Object[argumentValues.size()]));
 				return result;
 			}
@@ -1106,8 +1173,8 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 
 	protected List<Object> evaluateArgumentExpressions(JvmExecutable executable, List<XExpression> expressions,
 			IEvaluationContext context, CancelIndicator indicator) {
-		List<Object> result = Lists.newArrayList();
 		int paramCount = executable.getParameters().size();
+		List<Object> result = Lists.newArrayListWithCapacity(paramCount);
 		if (executable.isVarArgs())
 			paramCount--;
 		for (int i = 0; i < paramCount; i++) {
@@ -1120,10 +1187,10 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 		if (executable.isVarArgs()) {
 			Class<?> componentType = null;
 			if (executable instanceof JvmOperation) {
-				Method method = javaReflectAccess.getMethod((JvmOperation) executable);
+				Method method = getMethod((JvmOperation) executable);
 				componentType = method.getParameterTypes()[paramCount].getComponentType();
 			} else {
-				Constructor<?> constructor = javaReflectAccess.getConstructor((JvmConstructor) executable);
+				Constructor<?> constructor = getConstructor((JvmConstructor) executable);
 				componentType = constructor.getParameterTypes()[paramCount].getComponentType();
 			}
 			if (expressions.size() == executable.getParameters().size()) {
@@ -1245,12 +1312,13 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 					+ jvmField.getIdentifier() + " on null instance"));
 		JvmTypeReference type = jvmField.getType();
 		Object coerced = coerceArgumentType(value, type);
-		Field field = javaReflectAccess.getField(jvmField);
+		Field field = getField(jvmField);
 		try {
 			if (field == null) {
 				throw new NoSuchFieldException("Could not find field " + jvmField.getIdentifier());
 			}
-			field.setAccessible(true);
+			if (!field.isAccessible())
+				field.setAccessible(true);
 			field.set(receiver, coerced);
 			return value;
 		} catch (Exception e) {
@@ -1295,4 +1363,25 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	protected JavaReflectAccess getJavaReflectAccess() {
 		return javaReflectAccess;
 	}
+
+	/**
+	 * @since 2.9
+	 */
+	protected IBatchTypeResolver getTypeResolver() {
+		return typeResolver;
+	}
+
+	/**
+	 * @since 2.9
+	 */
+	protected IdentifiableSimpleNameProvider getFeatureNameProvider() {
+		return featureNameProvider;
+	}
+
+	/**
+	 * @since 2.9
+	 */
+	protected XExpressionHelper getExpressionHelper() {
+		return expressionHelper;
+	}
 }
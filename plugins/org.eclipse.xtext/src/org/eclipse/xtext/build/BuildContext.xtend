@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.build
 
+import java.util.List
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.xtend.lib.annotations.Accessors
@@ -34,6 +35,15 @@ class BuildContext {
 		return loader.executeClustered(uri.filter[resourceServiceProvider!=null], operation)
 	}
 	
+	/**
+	 * @since 2.9
+	 */
+	def <T> Iterable<T> executeClusterwise(Iterable<URI> uri, (List<Resource>)=>Iterable<? extends T> clusterOperation) {
+		if(loader == null) 
+			loader = new ClusteringStorageAwareResourceLoader(this)
+		return loader.executeClusterwise(uri.filter[resourceServiceProvider!=null], clusterOperation)
+	}
+	
 	def getResourceServiceProvider(URI uri) {
 		val resourceServiceProvider = resourceServiceProviderProvider.apply(uri)
 		return resourceServiceProvider
@@ -49,6 +49,15 @@ class BuildRequest {
 	boolean writeStorageResources = false
 	boolean indexOnly = false
 	
+	/**
+	 * the number of threads used to validate and generate the resources of a cluster.
+	 * Loading and linking always happen on the calling thread. Values greater than one 
+	 * require the languages' validators and generators to be thread-safe.
+	 * 
+	 * @since 2.9
+	 */
+	int numberOfThreads = 1
+	
 	XtextResourceSet resourceSet
 	
 	interface IPostValidationCallback {
@@ -7,9 +7,15 @@
  *******************************************************************************/
 package org.eclipse.xtext.build
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder
 import com.google.inject.Inject
 import com.google.inject.Provider
 import java.util.List
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtend.lib.annotations.Data
@@ -22,11 +28,13 @@ import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.IResourceServiceProvider
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
 import org.eclipse.xtext.resource.persistence.SerializableResourceDescription
 import org.eclipse.xtext.resource.persistence.StorageAwareResource
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.internal.Log
 import org.eclipse.xtext.validation.CheckMode
+import org.eclipse.xtext.validation.Issue
 import org.eclipse.xtext.workspace.IWorkspaceConfigProvider
 import org.eclipse.xtext.generator.trace.TraceFileNameProvider
 import org.eclipse.xtext.generator.trace.TraceRegionSerializer
@@ -45,6 +53,14 @@ import org.eclipse.xtext.parser.IEncodingProvider
 		List<IResourceDescription.Delta> affectedResources
 	}
 	
+	@Data protected static class ValidatedResource {
+		Resource resource
+		IResourceDescription.Manager manager
+		SerializableResourceDescription description
+		/** <code>null</code> if the language does not provide a validator */
+		List<Issue> issues
+	}
+	
 	@Log protected static class InternalStatefulIncrementalBuilder {
 	
 		@Accessors(PROTECTED_SETTER) extension BuildContext context
@@ -69,8 +85,11 @@ import org.eclipse.xtext.parser.IEncodingProvider
 			// add deleted deltas
 			resolvedDeltas += result.resourceDeltas.filter[getNew == null]
 			// add changed and added as fully resolved
-			resolvedDeltas += result.resourceDeltas.filter[getNew != null].map[uri]
-				.executeClustered [
+			val changedURIs = result.resourceDeltas.filter[getNew != null].map[uri]
+			if (request.numberOfThreads > 1) {
+				resolvedDeltas += changedURIs.buildInParallel(result.newIndex, newSource2GeneratedMapping)
+			} else {
+				resolvedDeltas += changedURIs.executeClustered [
 					Resource resource |
 					resource.contents // fully initialize
 					EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl)
@@ -79,15 +98,106 @@ import org.eclipse.xtext.parser.IEncodingProvider
 					val description = manager.getResourceDescription(resource);
                     val copiedDescription = SerializableResourceDescription.createCopy(description);
                     result.newIndex.addDescription(resource.getURI, copiedDescription)
+					indexer.updateReverseDependencies(request.state.reverseDependencies, resource.getURI, copiedDescription, context)
 					if (resource.validate && serviceProvider.get(IShouldGenerate).shouldGenerate(resource, CancelIndicator.NullImpl)) {
 						resource.generate(request, newSource2GeneratedMapping)
 					}
 					val old = oldState.resourceDescriptions.getResourceDescription(resource.getURI)
 					return manager.createDelta(old, copiedDescription)
 				]
+			}
 			return new Result(request.state, resolvedDeltas)
 		}
 		
+		/**
+		 * Processes the changed resources cluster by cluster. Loading and linking happen on the calling 
+		 * thread since they modify the resource set, validation and generation are distributed 
+		 * across {@link BuildRequest#getNumberOfThreads() the configured number of threads}. 
+		 * The new index and the callbacks of the request are updated in the order of the given URIs,
+		 * such that the outcome of the build does not depend on the number of threads.
+		 * 
+		 * @since 2.9
+		 */
+		protected def List<IResourceDescription.Delta> buildInParallel(Iterable<URI> uris, ResourceDescriptionsData newIndex, 
+				Source2GeneratedMapping newMappings) {
+			val threadFactory = new ThreadFactoryBuilder().setNameFormat('IncrementalBuilder-%d').setDaemon(true).build
+			val executor = Executors.newFixedThreadPool(request.numberOfThreads, threadFactory)
+			try {
+				return uris.executeClusterwise [ resources |
+					resources.processCluster(executor, newIndex, newMappings)
+				].toList
+			} finally {
+				executor.shutdown
+			}
+		}
+		
+		protected def List<IResourceDescription.Delta> processCluster(List<Resource> resources, ExecutorService executor, 
+				ResourceDescriptionsData newIndex, Source2GeneratedMapping newMappings) {
+			for (resource : resources) {
+				resource.contents // fully initialize
+				EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl)
+			}
+			val validations = resources.map [ resource |
+				val Callable<ValidatedResource> task = [| resource.describeAndValidate ]
+				executor.submit(task)
+			].toList
+			val deltas = newArrayList
+			val toBeGenerated = <Resource>newArrayList
+			for (validation : validations) {
+				val validated = validation.waitFor
+				val uri = validated.resource.getURI
+				newIndex.addDescription(uri, validated.description)
+				indexer.updateReverseDependencies(request.state.reverseDependencies, uri, validated.description, context)
+				val proceed = validated.issues == null || request.afterValidate.afterValidate(uri, validated.issues)
+				if (proceed && getResourceServiceProvider(uri).get(IShouldGenerate).shouldGenerate(validated.resource, CancelIndicator.NullImpl)) {
+					toBeGenerated += validated.resource
+				}
+				val old = oldState.resourceDescriptions.getResourceDescription(uri)
+				deltas += validated.manager.createDelta(old, validated.description)
+			}
+			val generations = toBeGenerated.map [ resource |
+				val deferredCallbacks = <()=>void>newArrayList
+				val deferringRequest = new BuildRequest => [
+					writeStorageResources = request.writeStorageResources
+					afterGenerateFile = [ source, target |
+						deferredCallbacks += [| request.afterGenerateFile.apply(source, target) ]
+					]
+					afterDeleteFile = [ file |
+						deferredCallbacks += [| request.afterDeleteFile.apply(file) ]
+					]
+				]
+				val Callable<List<()=>void>> task = [| 
+					resource.generate(deferringRequest, newMappings)
+					return deferredCallbacks
+				]
+				executor.submit(task)
+			].toList
+			for (generation : generations) {
+				generation.waitFor.forEach[apply]
+			}
+			return deltas
+		}
+		
+		protected def ValidatedResource describeAndValidate(Resource resource) {
+			val serviceProvider = getResourceServiceProvider(resource.getURI)
+			val manager = serviceProvider.resourceDescriptionManager
+			val description = SerializableResourceDescription.createCopy(manager.getResourceDescription(resource))
+			val resourceValidator = serviceProvider.getResourceValidator();
+			if (resourceValidator == null) {
+				return new ValidatedResource(resource, manager, description, null)
+			}
+			LOG.info("Starting validation for input: '" + resource.getURI.lastSegment + "'");
+			return new ValidatedResource(resource, manager, description, resourceValidator.validate(resource, CheckMode.ALL, null))
+		}
+		
+		private def <T> T waitFor(Future<T> future) {
+			try {
+				return future.get
+			} catch (ExecutionException e) {
+				throw e.cause
+			}
+		}
+		
 		def protected boolean validate(Resource resource) {
 			val resourceValidator = getResourceServiceProvider(resource.getURI).getResourceValidator();
 			if (resourceValidator == null) {
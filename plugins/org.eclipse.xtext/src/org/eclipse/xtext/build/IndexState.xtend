@@ -18,9 +18,17 @@ import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
 	
 	val ResourceDescriptionsData resourceDescriptions
 	val Source2GeneratedMapping fileMappings
+	/**
+	 * @since 2.9
+	 */
+	val ReverseDependencyIndex reverseDependencies
 	
 	new () {
 		this(new ResourceDescriptionsData(emptySet),new Source2GeneratedMapping)
 	}
 	
+	new (ResourceDescriptionsData resourceDescriptions, Source2GeneratedMapping fileMappings) {
+		this(resourceDescriptions, fileMappings, new ReverseDependencyIndex)
+	}
+	
 }
@@ -29,6 +29,7 @@ import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.IResourceDescription.Delta
 import org.eclipse.xtext.resource.IResourceDescriptions
 import org.eclipse.xtext.resource.impl.AbstractResourceDescription
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionManager
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
 import org.eclipse.xtext.util.internal.Log
@@ -49,6 +50,9 @@ import org.eclipse.xtext.util.internal.Log
 	def IndexResult computeAndIndexAffected(BuildRequest request, extension BuildContext context) {
 		val previousIndex = context.oldState.resourceDescriptions
 		val newIndex = request.state.resourceDescriptions
+		// the reverse dependencies are updated after the affected resources have been computed
+		val reverseDependencies = request.state.reverseDependencies
+		synchronizeReverseDependencies(reverseDependencies, previousIndex, context)
 
 		// get the direct deltas
 		val List<Delta> deltas = newArrayList
@@ -67,15 +71,21 @@ import org.eclipse.xtext.util.internal.Log
 		if (!request.externalDeltas.empty)
 			allDeltas.addAll(request.externalDeltas)
 
-		val remainingURIs = previousIndex.allResourceDescriptions.map[getURI].toSet
+		val remainingURIs = reverseDependencies.getAffectionCandidates(allDeltas)
 		remainingURIs.removeAll(deltas.map[uri])
 
 		val allAffected = remainingURIs.filter [
-			val manager = getResourceServiceProvider.resourceDescriptionManager
 			val resourceDescription = previousIndex.getResourceDescription(it)
+			if (resourceDescription == null)
+				return false
+			val manager = getResourceServiceProvider.resourceDescriptionManager
 			val isAffected = resourceDescription.isAffected(manager, allDeltas, allDeltas, newIndex)
 			return isAffected
 		].toList
+		for (delta : deltas) {
+			if (delta.getNew == null)
+				reverseDependencies.removeDependencies(delta.uri)
+		}
 		if (LOG.isInfoEnabled && !allAffected.empty)
 			LOG.info('Creating Deltas for affected resources : ' + allAffected.toSet + ".")
 		deltas.addAll(getDeltasForChangedResources(allAffected, previousIndex, context))
@@ -83,6 +93,56 @@ import org.eclipse.xtext.util.internal.Log
 		return new IndexResult(deltas, newIndex)
 	}
 
+	/**
+	 * Records the imported names and outgoing references of the given description in the reverse dependencies.
+	 * 
+	 * @since 2.9
+	 */
+	def void updateReverseDependencies(ReverseDependencyIndex reverseDependencies, URI uri, IResourceDescription description,
+		BuildContext context) {
+		val manager = context.getResourceServiceProvider(uri)?.resourceDescriptionManager
+		if (manager != null && manager.isAffectedByNamesAndReferencesOnly && !(description instanceof ResolvedResourceDescription)) {
+			reverseDependencies.addDependencies(uri, description)
+		} else {
+			reverseDependencies.addUnrestricted(uri)
+		}
+	}
+
+	/**
+	 * Whether the given manager only considers a resource as affected if it imports a name that is exported by
+	 * one of the deltas or if it references one of their resources. Resources of all other languages are checked 
+	 * for each build. 
+	 * 
+	 * Only the {@link DefaultResourceDescriptionManager} itself is known to decide this way, subclasses may 
+	 * override {@link DefaultResourceDescriptionManager#isAffected(java.util.Collection, IResourceDescription, IResourceDescriptions) isAffected}
+	 * or the computation of the imported names. Override this method to opt in for such a manager.
+	 * 
+	 * @since 2.9
+	 */
+	protected def boolean isAffectedByNamesAndReferencesOnly(IResourceDescription.Manager manager) {
+		return manager.class == DefaultResourceDescriptionManager
+	}
+
+	/**
+	 * Indexes the dependencies of the resources that have been added to the index by other means than the
+	 * incremental builder, e.g. when a client creates a new {@link IndexState} for existing resource descriptions.
+	 * This is done once for a reverse dependency index that is not {@link ReverseDependencyIndex#isComplete() complete} 
+	 * yet, afterwards it is kept in sync with the deltas of each build.
+	 * 
+	 * @since 2.9
+	 */
+	protected def void synchronizeReverseDependencies(ReverseDependencyIndex reverseDependencies,
+		ResourceDescriptionsData index, BuildContext context) {
+		if (reverseDependencies.complete)
+			return;
+		val uris = index.allURIs
+		for (uri : reverseDependencies.indexedURIs.filter[!uris.contains(it)].toList)
+			reverseDependencies.removeDependencies(uri)
+		for (uri : uris.filter[!reverseDependencies.isIndexed(it)].toList)
+			updateReverseDependencies(reverseDependencies, uri, index.getResourceDescription(uri), context)
+		reverseDependencies.complete = true
+	}
+
 	protected def List<Delta> getDeltasForDeletedResources(BuildRequest request, ResourceDescriptionsData oldIndex,
 		extension BuildContext context) {
 		val deltas = <Delta>newArrayList()
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.build
+
+import java.util.Set
+import org.eclipse.emf.common.util.URI
+import org.eclipse.xtext.naming.QualifiedName
+import org.eclipse.xtext.resource.IResourceDescription
+import org.eclipse.xtext.resource.IResourceDescription.Delta
+import org.eclipse.xtext.util.PersistentHashSet
+import org.eclipse.xtext.util.PersistentSetMultimap
+
+/**
+ * Maps the imported names and the referenced resources of the indexed resources back to the
+ * resources that import or reference them. The {@link Indexer} uses it to find the resources 
+ * that may be affected by a set of deltas instead of checking every resource in the index.
+ * 
+ * Resources that are added as {@link #addUnrestricted(URI) unrestricted} are candidates for any delta,
+ * e.g. because their {@link IResourceDescription.Manager} does not decide based on names and references.
+ * 
+ * The dependencies are stored in {@link PersistentSetMultimap persistent multimaps}, such that a 
+ * {@link #copy()} is created in constant time.
+ * 
+ * @since 2.9
+ */
+class ReverseDependencyIndex {
+	
+	val PersistentSetMultimap<QualifiedName, URI> importedName2importing
+	val PersistentSetMultimap<URI, URI> referenced2referencing
+	val PersistentSetMultimap<URI, QualifiedName> uri2importedNames
+	val PersistentSetMultimap<URI, URI> uri2referenced
+	val PersistentHashSet<URI> indexedURIs
+	val PersistentHashSet<URI> unrestrictedURIs
+	
+	/**
+	 * Whether the dependencies of all resources of the index have been recorded.
+	 */
+	var boolean complete
+	
+	new() {
+		this(new PersistentSetMultimap, new PersistentSetMultimap, new PersistentSetMultimap, new PersistentSetMultimap, 
+			new PersistentHashSet, new PersistentHashSet, false)
+	}
+	
+	protected new(PersistentSetMultimap<QualifiedName, URI> importedName2importing, 
+		PersistentSetMultimap<URI, URI> referenced2referencing, PersistentSetMultimap<URI, QualifiedName> uri2importedNames, 
+		PersistentSetMultimap<URI, URI> uri2referenced, PersistentHashSet<URI> indexedURIs, 
+		PersistentHashSet<URI> unrestrictedURIs, boolean complete) {
+		this.importedName2importing = importedName2importing
+		this.referenced2referencing = referenced2referencing
+		this.uri2importedNames = uri2importedNames
+		this.uri2referenced = uri2referenced
+		this.indexedURIs = indexedURIs
+		this.unrestrictedURIs = unrestrictedURIs
+		this.complete = complete
+	}
+	
+	def copy() {
+		new ReverseDependencyIndex(importedName2importing.copy, referenced2referencing.copy, uri2importedNames.copy, 
+			uri2referenced.copy, indexedURIs.copy, unrestrictedURIs.copy, complete)
+	}
+	
+	/**
+	 * Whether the dependencies of all resources of the index have been recorded. A new reverse
+	 * dependency index is synchronized with the index once by the {@link Indexer}, afterwards it 
+	 * is kept up to date with the deltas of the builds. 
+	 */
+	def boolean isComplete() {
+		complete
+	}
+	
+	def void setComplete(boolean complete) {
+		this.complete = complete
+	}
+	
+	/**
+	 * Replaces the dependencies of the given resource with the imported names and the outgoing 
+	 * references of its description.
+	 */
+	def void addDependencies(URI uri, IResourceDescription description) {
+		removeDependencies(uri)
+		indexedURIs += uri
+		for (importedName : description.importedNames) {
+			val name = importedName.toLowerCase
+			importedName2importing.put(name, uri)
+			uri2importedNames.put(uri, name)
+		}
+		for (reference : description.referenceDescriptions) {
+			val target = reference.targetEObjectUri?.trimFragment
+			if (target != null && target != uri) {
+				referenced2referencing.put(target, uri)
+				uri2referenced.put(uri, target)
+			}
+		}
+	}
+	
+	/**
+	 * Marks the given resource as a candidate for any delta.
+	 */
+	def void addUnrestricted(URI uri) {
+		removeDependencies(uri)
+		indexedURIs += uri
+		unrestrictedURIs += uri
+	}
+	
+	def void removeDependencies(URI uri) {
+		if (!indexedURIs.remove(uri)) 
+			return;
+		unrestrictedURIs.remove(uri)
+		for (name : uri2importedNames.removeAll(uri))
+			importedName2importing.remove(name, uri)
+		for (target : uri2referenced.removeAll(uri))
+			referenced2referencing.remove(target, uri)
+	}
+	
+	def boolean isIndexed(URI uri) {
+		indexedURIs.contains(uri)
+	}
+	
+	/**
+	 * @return a snapshot of the indexed resources.
+	 */
+	def Set<URI> getIndexedURIs() {
+		indexedURIs.copy
+	}
+	
+	/**
+	 * @return the resources that import a name exported by the old or the new state of any of the deltas 
+	 * 	or reference a resource of the deltas, plus all unrestricted resources. 
+	 */
+	def Set<URI> getAffectionCandidates(Iterable<Delta> deltas) {
+		val result = newHashSet
+		result += unrestrictedURIs
+		for (delta : deltas) {
+			result += referenced2referencing.get(delta.uri)
+			result.addImporters(delta.old)
+			result.addImporters(delta.getNew)
+		}
+		return result
+	}
+	
+	protected def void addImporters(Set<URI> result, IResourceDescription description) {
+		if (description == null)
+			return;
+		for (exported : description.exportedObjects) {
+			result += importedName2importing.get(exported.name.toLowerCase)
+		}
+	}
+	
+}
@@ -7,40 +7,66 @@
  *******************************************************************************/
 package org.eclipse.xtext.build
 
-import com.google.common.collect.HashMultimap
 import com.google.common.collect.Multimap
-import org.eclipse.emf.common.util.URI
-import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import java.util.HashSet
 import java.util.Set
+import org.eclipse.emf.common.util.URI
+import org.eclipse.xtext.util.PersistentSetMultimap
 
 /**
+ * All operations are synchronized as generators may run concurrently 
+ * if {@link BuildRequest#getNumberOfThreads()} is greater than one. The getters
+ * return snapshots.
+ * 
+ * The mappings are stored in {@link PersistentSetMultimap persistent multimaps}, such that a
+ * {@link #copy()} is created in constant time.
+ * 
  * @author Jan Koehnlein - Initial contribution and API
  */
-@FinalFieldsConstructor class Source2GeneratedMapping {
+class Source2GeneratedMapping {
 	
-	val Multimap<URI, URI> source2generated
-	val Multimap<URI, URI> generated2source
+	val PersistentSetMultimap<URI, URI> source2generated
+	val PersistentSetMultimap<URI, URI> generated2source
 	
 	new() {
-		this(HashMultimap.create, HashMultimap.create)
+		this(new PersistentSetMultimap, new PersistentSetMultimap)
+	}
+	
+	new(Multimap<URI, URI> source2generated, Multimap<URI, URI> generated2source) {
+		this(toPersistentMultimap(source2generated), toPersistentMultimap(generated2source))
+	}
+	
+	/**
+	 * @since 2.9
+	 */
+	protected new(PersistentSetMultimap<URI, URI> source2generated, PersistentSetMultimap<URI, URI> generated2source) {
+		this.source2generated = source2generated
+		this.generated2source = generated2source
+	}
+	
+	def private static PersistentSetMultimap<URI, URI> toPersistentMultimap(Multimap<URI, URI> multimap) {
+		val result = new PersistentSetMultimap<URI, URI>
+		for (entry : multimap.entries) {
+			result.put(entry.key, entry.value)
+		}
+		return result
 	}
 	  
-	def copy() {
-		new Source2GeneratedMapping(HashMultimap.create(source2generated), HashMultimap.create(generated2source))
+	def synchronized copy() {
+		new Source2GeneratedMapping(source2generated.copy, generated2source.copy)
 	}
 	
-	def void addSource2Generated(URI source, URI generated) {
+	def synchronized void addSource2Generated(URI source, URI generated) {
 		source2generated.put(source, generated)
 		generated2source.put(generated, source)
 	}
 	
-	def void removeSource2Generated(URI source, URI generated) {
+	def synchronized void removeSource2Generated(URI source, URI generated) {
 		source2generated.remove(source, generated)
 		generated2source.remove(generated, source)
 	}
 	
-	def Set<URI> deleteSource(URI source) {
+	def synchronized Set<URI> deleteSource(URI source) {
 		val generated = new HashSet<URI>(source2generated.removeAll(source))
 		generated.forEach[
 			generated2source.remove(it, source)
@@ -48,21 +74,21 @@ import java.util.Set
 		return generated
 	}
 
-	def void deleteGenerated(URI generated) {
+	def synchronized void deleteGenerated(URI generated) {
 		generated2source.removeAll(generated).forEach[
 			source2generated.remove(it, generated)
 		]
 	}
 	
-	def Iterable<URI> getGenerated(URI source) {
+	def synchronized Iterable<URI> getGenerated(URI source) {
 		source2generated.get(source)
 	}
 
-	def Iterable<URI> getSource(URI generated) {
+	def synchronized Iterable<URI> getSource(URI generated) {
 		generated2source.get(generated)
 	}
 	
-	def Iterable<URI> getAllGenerated() {
+	def synchronized Iterable<URI> getAllGenerated() {
 		generated2source.keySet
 	}
 	
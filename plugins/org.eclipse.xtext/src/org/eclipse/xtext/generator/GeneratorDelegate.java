@@ -27,6 +27,10 @@ public class GeneratorDelegate implements IGenerator, IGenerator2 {
 		return legacyGenerator;
 	}
 
+	public IGenerator2 getGenerator() {
+		return generator;
+	}
+
 	@Override
 	public void doGenerate(Resource input, IFileSystemAccess2 fsa) {
 		if (generator != null) {
@@ -93,6 +93,13 @@ public class JavaIoFileSystemAccess extends AbstractFileSystemAccess2 {
 	public void setCallBack(IFileCallback callBack) {
 		this.callBack = callBack;
 	}
+
+	/**
+	 * @since 2.9
+	 */
+	public IFileCallback getCallBack() {
+		return callBack;
+	}
 	
 	@Override
 	public void generateFile(String fileName, String outputConfigName, CharSequence contents) throws RuntimeIOException {
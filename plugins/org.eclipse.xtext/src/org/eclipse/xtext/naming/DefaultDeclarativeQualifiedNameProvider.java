@@ -27,7 +27,9 @@ import com.google.inject.Provider;
  * reflectively.
  * 
  * And if no such method is found looks up a property 'name' and invokes the value and appends it to the
- * eContainer's qualifiedName
+ * eContainer's qualifiedName.
+ * 
+ * The computed names are {@link QualifiedNameInterner interned}.
  * 
  * @author Sven Efftinge - Initial contribution and API
  * @author Jan Koehnlein
@@ -63,7 +65,7 @@ public class DefaultDeclarativeQualifiedNameProvider extends IQualifiedNameProvi
 				EObject temp = obj;
 				QualifiedName qualifiedNameFromDispatcher = qualifiedName.invoke(temp);
 				if (qualifiedNameFromDispatcher!=null)
-					return qualifiedNameFromDispatcher;
+					return QualifiedNameInterner.getDefault().intern(qualifiedNameFromDispatcher);
 				String name = getResolver().apply(temp);
 				if (Strings.isEmpty(name))
 					return null;
@@ -72,7 +74,7 @@ public class DefaultDeclarativeQualifiedNameProvider extends IQualifiedNameProvi
 					temp = temp.eContainer();
 					QualifiedName parentsQualifiedName = getFullyQualifiedName(temp);
 					if (parentsQualifiedName != null)
-						return parentsQualifiedName.append(qualifiedNameFromConverter);
+						return QualifiedNameInterner.getDefault().intern(parentsQualifiedName.append(qualifiedNameFromConverter));
 				}
 				return qualifiedNameFromConverter;
 			}
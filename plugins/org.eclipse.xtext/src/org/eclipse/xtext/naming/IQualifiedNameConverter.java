@@ -47,6 +47,7 @@ public interface IQualifiedNameConverter {
 		
 		/**
 		 * Splits the given string into segments and returns them as a {@link QualifiedName}.
+		 * The result is {@link QualifiedNameInterner interned}.
 		 * 
 		 * @exception IllegalArgumentException
 		 *                if the input is empty or null.
@@ -58,10 +59,10 @@ public interface IQualifiedNameConverter {
 			if (qualifiedNameAsString.equals(""))
 				throw new IllegalArgumentException("Qualified name cannot be empty");
 			if (Strings.isEmpty(getDelimiter()))
-				return QualifiedName.create(qualifiedNameAsString);
+				return QualifiedNameInterner.getDefault().intern(QualifiedName.create(qualifiedNameAsString));
 			List<String> segs = getDelimiter().length() == 1 ? Strings.split(qualifiedNameAsString, getDelimiter()
 					.charAt(0)) : Strings.split(qualifiedNameAsString, getDelimiter());
-		    return QualifiedName.create(segs);
+		    return QualifiedNameInterner.getDefault().intern(QualifiedName.create(segs));
 		}
 
 		public String getDelimiter() {
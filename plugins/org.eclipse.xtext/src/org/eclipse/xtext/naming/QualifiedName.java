@@ -17,6 +17,7 @@ import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStrea
 import org.eclipse.xtext.util.Strings;
 
 import com.google.common.base.Function;
+import com.google.common.collect.Interner;
 
 /**
  * A datatype for dealing with qualified names. 
@@ -105,9 +106,9 @@ public class QualifiedName implements Comparable<QualifiedName> {
 		
 		String[] segments = readSegmentArray(eObjectInputStream, segmentCount, firstSegment);
 		if (lowerCase) {
-			return new QualifiedNameLowerCase(segments);
+			return QualifiedNameInterner.getDefault().intern(new QualifiedNameLowerCase(segments));
 		} else {
-			return new QualifiedName(segments);	
+			return QualifiedNameInterner.getDefault().intern(new QualifiedName(segments));
 		}
 	}
 
@@ -293,7 +294,7 @@ public class QualifiedName implements Comparable<QualifiedName> {
 		return lowerCase;
 	}
 	
-	private static class QualifiedNameLowerCase extends QualifiedName {
+	static class QualifiedNameLowerCase extends QualifiedName {
 		public QualifiedNameLowerCase(String[] segments) {
 			super(segments);
 		}
@@ -350,6 +351,16 @@ public class QualifiedName implements Comparable<QualifiedName> {
 		return false;
 	}
 
+	/**
+	 * Replaces the segments of this instance by their canonical representation. Since the replaced strings are equal
+	 * to the original ones, concurrent readers will not notice the difference.
+	 */
+	void internSegments(Interner<String> segmentInterner) {
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = segmentInterner.intern(segments[i]);
+		}
+	}
+
 	/**
 	 * Returns <code>true</code> if this instance can provide a ready to use
 	 * lowercase representation.
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.naming;
+
+import org.eclipse.xtext.naming.QualifiedName.QualifiedNameLowerCase;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Canonicalizes {@link QualifiedName qualified names}. Equal names are represented by the same instance and the
+ * segments of all interned names are deduplicated, such that names with a common prefix, e.g. the types of a package,
+ * share the strings of that prefix. Interned names are weakly referenced and can be garbage collected as soon as they
+ * are no longer used elsewhere.
+ * 
+ * Names that are known to be lower case are interned separately, since they carry the information that their
+ * {@link QualifiedName#toLowerCase() lower case representation} is the name itself. Instances of other subclasses
+ * of {@link QualifiedName} are not interned at all.
+ * 
+ * This class is thread-safe.
+ * 
+ * @since 2.9
+ */
+public class QualifiedNameInterner {
+
+	private static final QualifiedNameInterner DEFAULT = new QualifiedNameInterner();
+
+	/**
+	 * The interner that is used by the {@link IQualifiedNameConverter.DefaultImpl default name converter}, the
+	 * {@link DefaultDeclarativeQualifiedNameProvider default name provider} and when names are
+	 * {@link QualifiedName#createFromStream(org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream)
+	 * read from a stream}.
+	 */
+	public static QualifiedNameInterner getDefault() {
+		return DEFAULT;
+	}
+
+	private final Interner<String> segments = Interners.newWeakInterner();
+
+	private final Interner<QualifiedName> names = Interners.newWeakInterner();
+
+	private final Interner<QualifiedName> lowerCaseNames = Interners.newWeakInterner();
+
+	/**
+	 * @return the canonical instance that is equal to the given name. May be the given name itself.
+	 */
+	public QualifiedName intern(QualifiedName name) {
+		if (name == null || name.isEmpty()) {
+			return name;
+		}
+		Interner<QualifiedName> interner;
+		if (name.getClass() == QualifiedName.class) {
+			interner = names;
+		} else if (name.getClass() == QualifiedNameLowerCase.class) {
+			interner = lowerCaseNames;
+		} else {
+			return name;
+		}
+		QualifiedName result = interner.intern(name);
+		if (result == name) {
+			// newly added, share the segments with the other names
+			name.internSegments(segments);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the canonical instance of the given segment.
+	 */
+	public String intern(String segment) {
+		return segments.intern(segment);
+	}
+
+}
@@ -314,7 +314,7 @@ public abstract class AbstractNode implements INode, BidiTreeIterable<INode> {
 	public INode getPreviousSibling() {
 		if (!hasPreviousSibling())
 			return null;
-		return prev;
+		return basicGetPreviousSibling();
 	}
 	
 	protected AbstractNode basicGetPreviousSibling() {
@@ -329,7 +329,7 @@ public abstract class AbstractNode implements INode, BidiTreeIterable<INode> {
 	public INode getNextSibling() {
 		if (!hasNextSibling())
 			return null;
-		return next;
+		return basicGetNextSibling();
 	}
 	
 	protected AbstractNode basicGetNextSibling() {
@@ -368,7 +368,7 @@ public abstract class AbstractNode implements INode, BidiTreeIterable<INode> {
 	}
 	
 	protected boolean basicHasSiblings() {
-		return prev != this;
+		return basicGetPreviousSibling() != this;
 	}
 
 	enum NodeType {
@@ -51,11 +51,12 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 	}
 	
 	public BidiIterable<AbstractNode> basicGetChildren() {
+		AbstractNode firstChild = basicGetFirstChild();
 		if (firstChild != null) {
 			if (firstChild.hasSiblings()) {
 				return new BasicNodeIterable(firstChild);
 			} else {
-				return SingletonBidiIterable.create(basicGetFirstChild());
+				return SingletonBidiIterable.create(firstChild);
 			}
 		}
 		return EmptyBidiIterable.instance();
@@ -63,7 +64,7 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 	
 	@Override
 	public boolean hasChildren() {
-		return firstChild != null || isFolded();
+		return basicGetFirstChild() != null || isFolded();
 	}
 
 	@Override
@@ -73,6 +74,7 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 	
 	@Override
 	public int getTotalLength() {
+		AbstractNode firstChild = basicGetFirstChild();
 		if (firstChild != null) {
 			int offset = firstChild.getTotalOffset();
 			AbstractNode lastChild = firstChild.basicGetPreviousSibling();
@@ -83,6 +85,7 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 	
 	@Override
 	public int getTotalOffset() {
+		AbstractNode firstChild = basicGetFirstChild();
 		if (firstChild != null)
 			return firstChild.getTotalOffset();
 		AbstractNode compositeWithSiblings = this;
@@ -120,7 +123,7 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 		if (isFolded()) {
 			return new SyntheticCompositeNode(this, 1);
 		}
-		return firstChild;
+		return basicGetFirstChild();
 	}
 	
 	protected AbstractNode basicGetFirstChild() {
@@ -140,6 +143,7 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 	}
 	
 	protected AbstractNode basicGetLastChild() {
+		AbstractNode firstChild = basicGetFirstChild();
 		if (firstChild == null)
 			return null;
 		return firstChild.basicGetPreviousSibling();
@@ -249,7 +253,7 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 		int childNodeCount = getChildCount();
 		SerializationUtil.writeInt(out, childNodeCount, true);
 
-		AbstractNode it = firstChild;
+		AbstractNode it = basicGetFirstChild();
 
 		for (int i = 0; i < childNodeCount; ++i) {
 			SerializationUtil.writeInt(out, it.getNodeId().ordinal(), true);
@@ -261,6 +265,7 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 	}
 
 	private int getChildCount() {
+		AbstractNode firstChild = basicGetFirstChild();
 		if (firstChild == null) {
 			return 0;
 		}
@@ -281,6 +286,7 @@ public class CompositeNode extends AbstractNode implements ICompositeNode {
 			List<String> grammarIdToURIMap) {
 		currentId = super.fillGrammarElementToIdMap(currentId, grammarElementToIdMap, grammarIdToURIMap);
 
+		AbstractNode firstChild = basicGetFirstChild();
 		if (firstChild != null) {
 			AbstractNode it = firstChild;
 
@@ -22,6 +22,8 @@ import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
 
 import com.google.common.collect.Interner;
 import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
 
 /**
  * A stateful (!) builder that provides call back methods for clients who
@@ -77,6 +79,15 @@ public class NodeModelBuilder {
 		}
 	}
 
+	/**
+	 * Whether complete node models should be converted to their {@link PackedRootNode packed representation}.
+	 * @since 2.9
+	 */
+	public final static String PACK_LEAF_NODES_BINDING = "org.eclipse.xtext.nodemodel.impl.NodeModelBuilder.packLeafNodes";
+
+	@Inject(optional=true) @Named(value=PACK_LEAF_NODES_BINDING)
+	private boolean packLeafNodes = false;
+
 	private EObject forcedGrammarElement;
 
 	private ArrayInterner<EObject> cachedFoldedGrammarElements = new ArrayInterner<EObject>();
@@ -382,6 +393,43 @@ public class NodeModelBuilder {
 		}
 	}
 
+	/**
+	 * Invoked by the parser when the node model is complete. Returns the {@link #pack(RootNode) packed}
+	 * representation of the given root node if leaf nodes should be packed. Node models that are produced for a
+	 * partial parse run are never packed, since they are merged into an existing node model.
+	 * @since 2.9
+	 */
+	public ICompositeNode completeRootNode(/* @Nullable */ ICompositeNode rootNode) {
+		if (packLeafNodes && compressRoot && rootNode instanceof RootNode && !(rootNode instanceof PackedRootNode)) {
+			return pack((RootNode) rootNode);
+		}
+		return rootNode;
+	}
+
+	/**
+	 * Converts the given node model into a read-only representation that stores the leaf nodes in primitive arrays
+	 * and creates them on demand. The semantic elements are associated with the new composite nodes, the given
+	 * root node must not be used afterwards.
+	 * @since 2.9
+	 */
+	public PackedRootNode pack(RootNode rootNode) {
+		return PackedNodeStorage.pack(rootNode);
+	}
+
+	/**
+	 * @since 2.9
+	 */
+	public void setPackLeafNodes(boolean packLeafNodes) {
+		this.packLeafNodes = packLeafNodes;
+	}
+
+	/**
+	 * @since 2.9
+	 */
+	public boolean isPackLeafNodes() {
+		return packLeafNodes;
+	}
+
 	public void setCompleteContent(ICompositeNode rootNode, String completeContent) {
 		((RootNode)rootNode).basicSetCompleteContent(completeContent);
 	}
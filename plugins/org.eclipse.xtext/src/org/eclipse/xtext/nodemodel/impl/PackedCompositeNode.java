@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext;
+import org.eclipse.xtext.nodemodel.serialization.SerializationUtil;
+
+/**
+ * A composite node of a {@link PackedRootNode packed node model}. The children are resolved from the
+ * {@link PackedNodeStorage}. A single class covers all kinds of composite nodes, the semantic element and the syntax
+ * error are optional.
+ *
+ * @since 2.9
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class PackedCompositeNode extends CompositeNode implements Adapter {
+
+	private final PackedNodeStorage storage;
+
+	private final int id;
+
+	private final int parentId;
+
+	private final int indexInParent;
+
+	private EObject semanticElement;
+
+	private SyntaxErrorMessage syntaxErrorMessage;
+
+	PackedCompositeNode(PackedNodeStorage storage, int id, int parentId, int indexInParent) {
+		this.storage = storage;
+		this.id = id;
+		this.parentId = parentId;
+		this.indexInParent = indexInParent;
+	}
+
+	@Override
+	protected AbstractNode basicGetFirstChild() {
+		return storage.getChild(id, 0);
+	}
+
+	@Override
+	protected AbstractNode basicGetLastChild() {
+		return storage.getChild(id, -1);
+	}
+
+	@Override
+	protected void basicSetFirstChild(AbstractNode firstChild) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int getTotalOffset() {
+		if (storage.getChildCount(id) != 0)
+			return storage.getTotalOffset(id, 0);
+		return super.getTotalOffset();
+	}
+
+	@Override
+	public int getTotalLength() {
+		int childCount = storage.getChildCount(id);
+		if (childCount != 0)
+			return storage.getTotalEndOffset(id, childCount - 1) - storage.getTotalOffset(id, 0);
+		return 0;
+	}
+
+	@Override
+	protected AbstractNode basicGetNextSibling() {
+		return storage.getChild(parentId, indexInParent + 1);
+	}
+
+	@Override
+	protected AbstractNode basicGetPreviousSibling() {
+		return storage.getChild(parentId, indexInParent - 1);
+	}
+
+	@Override
+	protected boolean basicHasNextSibling() {
+		return indexInParent < storage.getChildCount(parentId) - 1;
+	}
+
+	@Override
+	protected boolean basicHasPreviousSibling() {
+		return indexInParent > 0;
+	}
+
+	@Override
+	protected boolean basicHasSiblings() {
+		return storage.getChildCount(parentId) > 1;
+	}
+
+	@Override
+	protected void basicSetNextSibling(AbstractNode next) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	protected void basicSetPreviousSibling(AbstractNode prev) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public EObject getSemanticElement() {
+		if (semanticElement != null)
+			return semanticElement;
+		return super.getSemanticElement();
+	}
+
+	@Override
+	public EObject basicGetSemanticElement() {
+		return semanticElement;
+	}
+
+	@Override
+	public SyntaxErrorMessage getSyntaxErrorMessage() {
+		return syntaxErrorMessage;
+	}
+
+	protected void basicSetSyntaxErrorMessage(SyntaxErrorMessage syntaxErrorMessage) {
+		this.syntaxErrorMessage = syntaxErrorMessage;
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		// ignore
+	}
+
+	@Override
+	public Notifier getTarget() {
+		return semanticElement;
+	}
+
+	@Override
+	public void setTarget(Notifier newTarget) {
+		if (newTarget == null || newTarget instanceof EObject)
+			semanticElement = (EObject) newTarget;
+		else
+			throw new IllegalArgumentException("Notifier must be an Eobject");
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type instanceof Class<?> && INode.class.isAssignableFrom((Class<?>)type);
+	}
+
+	/**
+	 * Writes the same data as the unpacked node type that is reported by {@link #getNodeId()}.
+	 */
+	@Override
+	void write(DataOutputStream out, SerializationConversionContext scc) throws IOException {
+		super.write(out, scc);
+		if (semanticElement != null) {
+			out.writeBoolean(false);
+			SerializationUtil.writeInt(out, scc.getEObjectId(semanticElement), true);
+		}
+		if (syntaxErrorMessage != null) {
+			SerializationUtil.writeSyntaxErrorMessage(out, scc, syntaxErrorMessage);
+		}
+	}
+
+	@Override
+	NodeType getNodeId() {
+		if (semanticElement != null) {
+			if (syntaxErrorMessage != null)
+				return NodeType.CompositeNodeWithSemanticElementAndSyntaxError;
+			return NodeType.CompositeNodeWithSemanticElement;
+		}
+		if (syntaxErrorMessage != null)
+			return NodeType.CompositeNodeWithSyntaxError;
+		return NodeType.CompositeNode;
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext;
+import org.eclipse.xtext.nodemodel.serialization.SerializationUtil;
+
+/**
+ * A flyweight for a leaf node of a {@link PackedRootNode packed node model}. Instances are created on demand from
+ * the {@link PackedNodeStorage} and do not hold the siblings.
+ *
+ * @since 2.9
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class PackedLeafNode extends LeafNode {
+
+	private final PackedNodeStorage storage;
+
+	private final int index;
+
+	private final int parentId;
+
+	private final int indexInParent;
+
+	PackedLeafNode(PackedNodeStorage storage, int index, int parentId, int indexInParent) {
+		this.storage = storage;
+		this.index = index;
+		this.parentId = parentId;
+		this.indexInParent = indexInParent;
+		super.basicSetTotalOffset(storage.getTotalOffset(index));
+		super.basicSetTotalLength(storage.getTotalLength(index));
+		basicSetGrammarElement(storage.getGrammarElement(index));
+	}
+
+	@Override
+	public boolean isHidden() {
+		return storage.isHidden(index);
+	}
+
+	@Override
+	public SyntaxErrorMessage getSyntaxErrorMessage() {
+		return storage.getSyntaxErrorMessage(index);
+	}
+
+	@Override
+	protected void basicSetTotalOffset(int offset) {
+		super.basicSetTotalOffset(offset);
+		storage.setTotalOffset(index, offset);
+	}
+
+	@Override
+	protected void basicSetTotalLength(int length) {
+		super.basicSetTotalLength(length);
+		storage.setTotalLength(index, length);
+	}
+
+	@Override
+	protected AbstractNode basicGetNextSibling() {
+		return storage.getChild(parentId, indexInParent + 1);
+	}
+
+	@Override
+	protected AbstractNode basicGetPreviousSibling() {
+		return storage.getChild(parentId, indexInParent - 1);
+	}
+
+	@Override
+	protected boolean basicHasNextSibling() {
+		return indexInParent < storage.getChildCount(parentId) - 1;
+	}
+
+	@Override
+	protected boolean basicHasPreviousSibling() {
+		return indexInParent > 0;
+	}
+
+	@Override
+	protected boolean basicHasSiblings() {
+		return storage.getChildCount(parentId) > 1;
+	}
+
+	@Override
+	protected void basicSetNextSibling(AbstractNode next) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	protected void basicSetPreviousSibling(AbstractNode prev) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	void write(DataOutputStream out, SerializationConversionContext scc) throws IOException {
+		super.write(out, scc);
+		SyntaxErrorMessage syntaxErrorMessage = getSyntaxErrorMessage();
+		if (syntaxErrorMessage != null)
+			SerializationUtil.writeSyntaxErrorMessage(out, scc, syntaxErrorMessage);
+	}
+
+	@Override
+	NodeType getNodeId() {
+		if (getSyntaxErrorMessage() != null)
+			return isHidden() ? NodeType.HiddenLeafNodeWithSyntaxError : NodeType.LeafNodeWithSyntaxError;
+		return isHidden() ? NodeType.HiddenLeafNode : NodeType.LeafNode;
+	}
+}
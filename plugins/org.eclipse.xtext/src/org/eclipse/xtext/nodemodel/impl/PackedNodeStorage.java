@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * The shared storage of a packed node model. Leaf nodes are stored in parallel arrays of offsets, lengths,
+ * grammar element ids and flags. The children of each composite node are encoded as an array of references, where a
+ * non-negative value is the index of a leaf and a negative value <code>-(id + 1)</code> refers to the composite node
+ * with the given id.
+ *
+ * Composite nodes are real objects, since semantic elements point to them. Leaf nodes are created on demand as
+ * {@link PackedLeafNode flyweights}. Flyweights are cached per leaf index as long as they are strongly reachable, thus
+ * a leaf keeps its identity for all clients that hold on to it. Cached flyweights are read without locking, a new one
+ * is only published if no other thread installed one for the same index concurrently.
+ *
+ * @since 2.9
+ */
+class PackedNodeStorage {
+
+	private static final byte HIDDEN = 1;
+
+	private static final byte SYNTAX_ERROR = 2;
+
+	private static class LeafReference extends WeakReference<PackedLeafNode> {
+		private final int index;
+
+		LeafReference(PackedLeafNode leaf, int index, ReferenceQueue<PackedLeafNode> queue) {
+			super(leaf, queue);
+			this.index = index;
+		}
+	}
+
+	private int[] totalOffsets = new int[64];
+
+	private int[] totalLengths = new int[64];
+
+	private int[] grammarIds = new int[64];
+
+	private byte[] flags = new byte[64];
+
+	private int leafCount;
+
+	private EObject[] grammarElements;
+
+	private final Map<Integer, SyntaxErrorMessage> syntaxErrors = Maps.newHashMap();
+
+	private CompositeNode[] composites;
+
+	private int[][] children;
+
+	private AtomicReferenceArray<LeafReference> leafCache;
+
+	private final ReferenceQueue<PackedLeafNode> staleReferences = new ReferenceQueue<PackedLeafNode>();
+
+	/**
+	 * Converts the given complete node model into its packed representation. Semantic elements are associated with
+	 * the new composite nodes.
+	 */
+	static PackedRootNode pack(RootNode rootNode) {
+		return new Packer().pack(rootNode);
+	}
+
+	private static class Packer {
+
+		private final PackedNodeStorage storage = new PackedNodeStorage();
+
+		private final Map<EObject, Integer> grammarElementIds = Maps.newHashMap();
+
+		private final List<EObject> grammarElements = Lists.newArrayList();
+
+		private final List<CompositeNode> composites = Lists.newArrayList();
+
+		private final List<int[]> children = Lists.newArrayList();
+
+		PackedRootNode pack(RootNode rootNode) {
+			PackedRootNode result = new PackedRootNode(storage);
+			result.basicSetCompleteContent(rootNode.getCompleteContent());
+			result.basicSetGrammarElement(rootNode.basicGetGrammarElement());
+			result.basicSetLookAhead(rootNode.getLookAhead());
+			result.basicSetSyntaxErrorMessage(rootNode.getSyntaxErrorMessage());
+			associateWithSemanticElement(rootNode, result, rootNode.basicGetSemanticElement());
+			composites.add(result);
+			children.add(null);
+			packChildren(rootNode, result, 0);
+			storage.grammarElements = grammarElements.toArray(new EObject[grammarElements.size()]);
+			storage.composites = composites.toArray(new CompositeNode[composites.size()]);
+			storage.children = children.toArray(new int[children.size()][]);
+			storage.trimToSize();
+			return result;
+		}
+
+		private void packChildren(CompositeNode original, CompositeNode packed, int id) {
+			List<AbstractNode> originalChildren = Lists.newArrayList(original.basicGetChildren());
+			int[] result = new int[originalChildren.size()];
+			children.set(id, result);
+			for (int i = 0; i < result.length; i++) {
+				AbstractNode child = originalChildren.get(i);
+				if (child instanceof LeafNode) {
+					LeafNode leaf = (LeafNode) child;
+					result[i] = storage.addLeaf(leaf.getTotalOffset(), leaf.getTotalLength(),
+							getGrammarElementId(leaf.getGrammarElement()), leaf.isHidden(), leaf.getSyntaxErrorMessage());
+				} else {
+					CompositeNode composite = (CompositeNode) child;
+					int childId = composites.size();
+					PackedCompositeNode packedChild = new PackedCompositeNode(storage, childId, id, i);
+					packedChild.basicSetParent(packed);
+					packedChild.basicSetGrammarElement(composite.basicGetGrammarElement());
+					packedChild.basicSetLookAhead(composite.getLookAhead());
+					packedChild.basicSetSyntaxErrorMessage(composite.getSyntaxErrorMessage());
+					associateWithSemanticElement(composite, packedChild, composite.basicGetSemanticElement());
+					composites.add(packedChild);
+					children.add(null);
+					result[i] = -(childId + 1);
+					packChildren(composite, packedChild, childId);
+				}
+			}
+		}
+
+		private void associateWithSemanticElement(CompositeNode original, Adapter packed, EObject semanticElement) {
+			if (semanticElement != null) {
+				EList<Adapter> adapters = semanticElement.eAdapters();
+				adapters.remove(original);
+				adapters.add(packed);
+			}
+		}
+
+		private int getGrammarElementId(EObject grammarElement) {
+			if (grammarElement == null)
+				return -1;
+			Integer result = grammarElementIds.get(grammarElement);
+			if (result == null) {
+				result = grammarElements.size();
+				grammarElements.add(grammarElement);
+				grammarElementIds.put(grammarElement, result);
+			}
+			return result;
+		}
+	}
+
+	private int addLeaf(int totalOffset, int totalLength, int grammarId, boolean hidden, SyntaxErrorMessage syntaxError) {
+		if (leafCount == totalOffsets.length) {
+			int newLength = leafCount * 2;
+			totalOffsets = Arrays.copyOf(totalOffsets, newLength);
+			totalLengths = Arrays.copyOf(totalLengths, newLength);
+			grammarIds = Arrays.copyOf(grammarIds, newLength);
+			flags = Arrays.copyOf(flags, newLength);
+		}
+		int result = leafCount++;
+		totalOffsets[result] = totalOffset;
+		totalLengths[result] = totalLength;
+		grammarIds[result] = grammarId;
+		byte leafFlags = hidden ? HIDDEN : 0;
+		if (syntaxError != null) {
+			leafFlags |= SYNTAX_ERROR;
+			syntaxErrors.put(result, syntaxError);
+		}
+		flags[result] = leafFlags;
+		return result;
+	}
+
+	private void trimToSize() {
+		totalOffsets = Arrays.copyOf(totalOffsets, leafCount);
+		totalLengths = Arrays.copyOf(totalLengths, leafCount);
+		grammarIds = Arrays.copyOf(grammarIds, leafCount);
+		flags = Arrays.copyOf(flags, leafCount);
+		leafCache = new AtomicReferenceArray<LeafReference>(leafCount);
+	}
+
+	int getTotalOffset(int leaf) {
+		return totalOffsets[leaf];
+	}
+
+	void setTotalOffset(int leaf, int totalOffset) {
+		totalOffsets[leaf] = totalOffset;
+	}
+
+	int getTotalLength(int leaf) {
+		return totalLengths[leaf];
+	}
+
+	void setTotalLength(int leaf, int totalLength) {
+		totalLengths[leaf] = totalLength;
+	}
+
+	EObject getGrammarElement(int leaf) {
+		int grammarId = grammarIds[leaf];
+		if (grammarId == -1)
+			return null;
+		return grammarElements[grammarId];
+	}
+
+	boolean isHidden(int leaf) {
+		return (flags[leaf] & HIDDEN) != 0;
+	}
+
+	SyntaxErrorMessage getSyntaxErrorMessage(int leaf) {
+		if ((flags[leaf] & SYNTAX_ERROR) == 0)
+			return null;
+		return syntaxErrors.get(leaf);
+	}
+
+	int getChildCount(int composite) {
+		return children[composite].length;
+	}
+
+	/**
+	 * @return the child at the given index. The index is taken modulo the number of children, such that the
+	 *         siblings of a node form a ring.
+	 */
+	AbstractNode getChild(int composite, int index) {
+		int[] references = children[composite];
+		int length = references.length;
+		if (length == 0)
+			return null;
+		int indexInParent = (index + length) % length;
+		int reference = references[indexInParent];
+		if (reference < 0)
+			return composites[-reference - 1];
+		return getLeaf(reference, composite, indexInParent);
+	}
+
+	int getTotalOffset(int composite, int index) {
+		int reference = children[composite][index];
+		if (reference < 0)
+			return composites[-reference - 1].getTotalOffset();
+		return totalOffsets[reference];
+	}
+
+	int getTotalEndOffset(int composite, int index) {
+		int reference = children[composite][index];
+		if (reference < 0)
+			return composites[-reference - 1].getTotalEndOffset();
+		return totalOffsets[reference] + totalLengths[reference];
+	}
+
+	private PackedLeafNode getLeaf(int leaf, int parent, int indexInParent) {
+		LeafReference reference = leafCache.get(leaf);
+		PackedLeafNode cached = reference != null ? reference.get() : null;
+		if (cached != null)
+			return cached;
+		expungeStaleReferences();
+		PackedLeafNode result = new PackedLeafNode(this, leaf, parent, indexInParent);
+		result.basicSetParent(composites[parent]);
+		LeafReference newReference = new LeafReference(result, leaf, staleReferences);
+		while (!leafCache.compareAndSet(leaf, reference, newReference)) {
+			reference = leafCache.get(leaf);
+			cached = reference != null ? reference.get() : null;
+			if (cached != null)
+				return cached;
+		}
+		return result;
+	}
+
+	private void expungeStaleReferences() {
+		Object stale;
+		while ((stale = staleReferences.poll()) != null) {
+			LeafReference reference = (LeafReference) stale;
+			leafCache.compareAndSet(reference.index, reference, null);
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+/**
+ * The root of a packed node model. Leaf nodes are not kept as objects but stored in primitive arrays of a
+ * {@link PackedNodeStorage} and created on demand. A packed node model is read-only, it can only be replaced
+ * completely.
+ *
+ * @see NodeModelBuilder#pack(RootNode)
+ * @since 2.9
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class PackedRootNode extends RootNode {
+
+	private final PackedNodeStorage storage;
+
+	PackedRootNode(PackedNodeStorage storage) {
+		this.storage = storage;
+	}
+
+	@Override
+	protected AbstractNode basicGetFirstChild() {
+		return storage.getChild(0, 0);
+	}
+
+	@Override
+	protected AbstractNode basicGetLastChild() {
+		return storage.getChild(0, -1);
+	}
+
+	@Override
+	protected void basicSetFirstChild(AbstractNode firstChild) {
+		throw new UnsupportedOperationException();
+	}
+
+}
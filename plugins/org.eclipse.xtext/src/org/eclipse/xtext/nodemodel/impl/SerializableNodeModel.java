@@ -75,4 +75,17 @@ public class SerializableNodeModel {
 		root = new RootNode();
 		root.readData(in, context);
 	}
+
+	/**
+	 * Converts the node model into the {@link PackedRootNode packed representation}. Packed node models are written
+	 * in the same format as regular ones.
+	 * 
+	 * @since 2.9
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public void packLeafNodes() {
+		if (root != null && !(root instanceof PackedRootNode)) {
+			root = PackedNodeStorage.pack(root);
+		}
+	}
 }
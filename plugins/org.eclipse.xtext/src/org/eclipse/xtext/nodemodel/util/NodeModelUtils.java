@@ -14,6 +14,7 @@ import java.util.List;
 import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.AbstractRule;
 import org.eclipse.xtext.Action;
 import org.eclipse.xtext.Assignment;
@@ -31,6 +32,7 @@ import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
 import org.eclipse.xtext.nodemodel.impl.AbstractNode;
 import org.eclipse.xtext.resource.EObjectAtOffsetHelper;
 import org.eclipse.xtext.resource.ILocationInFileProvider;
+import org.eclipse.xtext.resource.XtextResource;
 
 import com.google.common.collect.Lists;
 
@@ -121,6 +123,18 @@ public class NodeModelUtils {
 	public static ICompositeNode getNode(/* @Nullable */ EObject object) {
 		if (object == null)
 			return null;
+		ICompositeNode result = findNodeAdapter(object);
+		if (result == null) {
+			// the node model of a resource that was loaded from storage is attached on demand
+			Resource resource = object.eResource();
+			if (resource instanceof XtextResource && ((XtextResource) resource).isNodeModelPending()
+					&& ((XtextResource) resource).getParseResult() != null)
+				result = findNodeAdapter(object);
+		}
+		return result;
+	}
+
+	private static ICompositeNode findNodeAdapter(EObject object) {
 		List<Adapter> adapters = object.eAdapters();
 		for (int i = 0; i < adapters.size(); i++) {
 			Adapter adapter = adapters.get(i);
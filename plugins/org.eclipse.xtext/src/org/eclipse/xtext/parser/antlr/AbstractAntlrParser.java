@@ -85,7 +85,13 @@ public abstract class AbstractAntlrParser extends AbstractParser {
 	}
 
 	protected IParseResult doParse(String ruleName, CharStream in, NodeModelBuilder nodeModelBuilder, int initialLookAhead) {
-		TokenSource tokenSource = createLexer(in);
+		return doParse(ruleName, createLexer(in), nodeModelBuilder, initialLookAhead);
+	}
+
+	/**
+	 * @since 2.9
+	 */
+	protected IParseResult doParse(String ruleName, TokenSource tokenSource, NodeModelBuilder nodeModelBuilder, int initialLookAhead) {
 		XtextTokenStream tokenStream = createTokenStream(tokenSource);
 		tokenStream.initCurrentLookAhead(initialLookAhead);
 		setInitialHiddenTokens(tokenStream);
@@ -133,6 +139,41 @@ public abstract class AbstractAntlrParser extends AbstractParser {
 		}
 	}
 
+	/**
+	 * Parses the tokens of the given source that have been lexed in advance by the {@link #getLexerProvider() lexer}
+	 * of this parser.
+	 * 
+	 * @see #isIncrementalLexingSupported()
+	 * @since 2.9
+	 */
+	public IParseResult parse(ParserRule rule, TokenSource tokenSource) {
+		return doParse(rule.getName(), tokenSource, createNodeModelBuilder(), 0);
+	}
+
+	/**
+	 * Parses the tokens of the given source that have been lexed in advance by the {@link #getLexerProvider() lexer}
+	 * of this parser.
+	 * 
+	 * @see #isIncrementalLexingSupported()
+	 * @since 2.9
+	 */
+	public IParseResult parse(RuleCall ruleCall, TokenSource tokenSource, int initialLookAhead) {
+		NodeModelBuilder builder = createNodeModelBuilder();
+		builder.setForcedFirstGrammarElement(ruleCall);
+		return doParse(ruleCall.getRule().getName(), tokenSource, builder, initialLookAhead);
+	}
+
+	/**
+	 * Whether the tokens of a partial reparse may be lexed incrementally by the {@link #getLexerProvider() lexer} of
+	 * this parser. Subclasses that {@link #createLexer(CharStream) create} a different or a stateful lexer have to
+	 * return <code>false</code>.
+	 * 
+	 * @since 2.9
+	 */
+	public boolean isIncrementalLexingSupported() {
+		return true;
+	}
+
 	@Override
 	protected IParseResult doReparse(IParseResult previousParseResult, ReplaceRegion replaceRegion) {
 		return partialParser.reparse(this, previousParseResult, replaceRegion);
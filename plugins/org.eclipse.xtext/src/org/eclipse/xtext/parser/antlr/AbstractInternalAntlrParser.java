@@ -546,7 +546,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 			try {
 				appendAllTokens();
 			} finally {
-				ICompositeNode root = nodeBuilder.compressAndReturnParent(currentNode);
+				ICompositeNode root = nodeBuilder.completeRootNode(nodeBuilder.compressAndReturnParent(currentNode));
 				result = new ParseResult(current, root, hadErrors);
 			}
 		} catch (InvocationTargetException ite) {
@@ -555,7 +555,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 				try {
 					appendAllTokens();
 				} finally {
-					ICompositeNode root = nodeBuilder.compressAndReturnParent(currentNode);
+					ICompositeNode root = nodeBuilder.completeRootNode(nodeBuilder.compressAndReturnParent(currentNode));
 					result = new ParseResult(current, root, hadErrors);
 				}
 				throw (RecognitionException) targetException;
@@ -14,7 +14,11 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.antlr.runtime.TokenSource;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.TreeIterator;
@@ -38,14 +42,17 @@ import org.eclipse.xtext.nodemodel.INode;
 import org.eclipse.xtext.nodemodel.impl.AbstractNode;
 import org.eclipse.xtext.nodemodel.impl.CompositeNode;
 import org.eclipse.xtext.nodemodel.impl.NodeModelBuilder;
+import org.eclipse.xtext.nodemodel.impl.PackedRootNode;
 import org.eclipse.xtext.nodemodel.impl.SyntheticCompositeNode;
 import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
 import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.parser.IParser;
 import org.eclipse.xtext.parser.ParseException;
 import org.eclipse.xtext.parser.ParseResult;
+import org.eclipse.xtext.parser.antlr.AbstractAntlrParser;
 import org.eclipse.xtext.parser.antlr.IPartialParsingHelper;
 import org.eclipse.xtext.parser.antlr.IReferableElementsUnloader;
+import org.eclipse.xtext.parser.antlr.Lexer;
 import org.eclipse.xtext.util.ReplaceRegion;
 import org.eclipse.xtext.util.XtextSwitch;
 
@@ -67,6 +74,11 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 	
 	@Inject(optional=true)
 	private TokenRegionProvider tokenRegionProvider;
+	
+	/**
+	 * The tokens of the current text of a root node, such that they can be re-lexed incrementally.
+	 */
+	private final Map<ICompositeNode, TokenSequence> tokenSequences = Collections.synchronizedMap(new WeakHashMap<ICompositeNode, TokenSequence>());
 
 	@Override
 	@SuppressWarnings({ "unchecked", "rawtypes" })
@@ -77,6 +89,10 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 			throw new NullPointerException("previousParseResult and previousParseResult.rootNode may not be null");
 		}
 		ICompositeNode oldRootNode = previousParseResult.getRootNode();
+		if (oldRootNode instanceof PackedRootNode) {
+			// packed node models are read-only
+			return fullyReparse(parser, previousParseResult, changedRegion);
+		}
 		if (changedRegion.getEndOffset() > oldRootNode.getTotalLength()) {
 			log.error("Invalid " + changedRegion + " originalLength=" + oldRootNode.getTotalLength());
 			return fullyReparse(parser, previousParseResult, changedRegion);
@@ -111,9 +127,23 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 			return fullyReparse(parser, previousParseResult, replaceRegion);
 		}
 		EObject entryRuleOrRuleCall = parsingPointers.findEntryRuleOrRuleCall(oldCompositeNode);
+		StringBuilder builder = new StringBuilder(oldRootNode.getText());
+		replaceRegion.applyTo(builder);
+		String newText = builder.toString();
+		TokenSource tokenSource = null;
+		TokenSequence tokens = getTokenSequence(parser, oldRootNode, newText, replaceRegion);
+		if (tokens != null) {
+			tokenSource = tokens.createTokenSource(oldCompositeNode.getTotalOffset(), reparseRegion);
+		}
 		IParseResult newParseResult = null;
 		try {
-			if (entryRuleOrRuleCall instanceof RuleCall)
+			if (tokenSource != null) {
+				AbstractAntlrParser antlrParser = (AbstractAntlrParser) parser;
+				if (entryRuleOrRuleCall instanceof RuleCall)
+					newParseResult = antlrParser.parse((RuleCall)entryRuleOrRuleCall, tokenSource, oldCompositeNode.getLookAhead());
+				else
+					newParseResult = antlrParser.parse((ParserRule)entryRuleOrRuleCall, tokenSource);
+			} else if (entryRuleOrRuleCall instanceof RuleCall)
 				newParseResult = parser.parse((RuleCall)entryRuleOrRuleCall, new StringReader(reparseRegion), oldCompositeNode.getLookAhead());
 			else
 				newParseResult = parser.parse((ParserRule)entryRuleOrRuleCall, new StringReader(reparseRegion));
@@ -174,13 +204,40 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 		if (oldCompositeNode != oldRootNode) {
 			nodeModelBuilder.replaceAndTransferLookAhead(oldCompositeNode, newParseResult.getRootNode());
 			((ParseResult) newParseResult).setRootNode(oldRootNode);
-			StringBuilder builder = new StringBuilder(oldRootNode.getText());
-			replaceRegion.applyTo(builder);
-			nodeModelBuilder.setCompleteContent(oldRootNode, builder.toString());
+			nodeModelBuilder.setCompleteContent(oldRootNode, newText);
 		} 
 		return newParseResult;
 	}
 	
+	/**
+	 * Returns the tokens of the new text of the given root node or <code>null</code> if the parser does not support
+	 * incremental lexing. Only the tokens that are affected by the change are lexed again, the others are taken from the
+	 * tokens of the previous text. These are known if the previous text was partially parsed, too, otherwise the new
+	 * text is lexed completely.
+	 * 
+	 * @since 2.9
+	 */
+	protected TokenSequence getTokenSequence(IParser parser, ICompositeNode rootNode, String newText, ReplaceRegion replaceRegion) {
+		if (!(parser instanceof AbstractAntlrParser) || !((AbstractAntlrParser) parser).isIncrementalLexingSupported()) {
+			return null;
+		}
+		try {
+			Lexer lexer = ((AbstractAntlrParser) parser).getLexerProvider().get();
+			TokenSequence result = tokenSequences.get(rootNode);
+			if (result != null && result.getTextLength() == rootNode.getTotalLength()) {
+				result.update(lexer, newText, replaceRegion);
+			} else {
+				result = TokenSequence.lex(lexer, newText);
+				tokenSequences.put(rootNode, result);
+			}
+			return result;
+		} catch (RuntimeException e) {
+			log.error("Cannot lex incrementally", e);
+			tokenSequences.remove(rootNode);
+			return null;
+		}
+	}
+	
 	private boolean isRangePartOfExceedingLookAhead(CompositeNode node, ReplaceRegion replaceRegion) {
 		TreeIterator<AbstractNode> iterator = node.basicIterator();
 		int lookAhead = node.getLookAhead();
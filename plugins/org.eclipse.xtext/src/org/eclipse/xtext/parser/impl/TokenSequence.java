@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.parser.impl;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
+import org.eclipse.xtext.parser.antlr.Lexer;
+import org.eclipse.xtext.util.ReplaceRegion;
+
+/**
+ * The tokens that a lexer produced for a document. The sequence can be {@link #update(Lexer, String, ReplaceRegion)
+ * updated incrementally}: Only the tokens from the last stable token before a change are lexed again, until a token
+ * ends at the boundary of a previous token behind the change. Since the lexer always starts at a token boundary and
+ * the remaining text did not change, the lexer would produce the very same tokens again, thus the previous tokens are
+ * reused from there on.
+ * 
+ * This requires a lexer that does not keep state between two tokens, which holds for lexers that are generated by
+ * ANTLR.
+ * 
+ * Tokens are stored in a compact form, i.e. as arrays of their type, channel, offset and length.
+ * 
+ * @since 2.9
+ */
+public class TokenSequence {
+
+	/**
+	 * A char stream that can be positioned without consuming the characters in front of the position.
+	 */
+	private static class PositionableStringStream extends ANTLRStringStream {
+		private PositionableStringStream(String input) {
+			super(input);
+		}
+
+		private void setIndex(int index) {
+			p = index;
+		}
+	}
+
+	private int size;
+
+	private int[] types;
+
+	private int[] channels;
+
+	private int[] offsets;
+
+	private int[] lengths;
+
+	private int textLength;
+
+	private TokenSequence(int capacity) {
+		types = new int[capacity];
+		channels = new int[capacity];
+		offsets = new int[capacity];
+		lengths = new int[capacity];
+	}
+
+	/**
+	 * Lexes the complete text.
+	 */
+	public static TokenSequence lex(Lexer lexer, String text) {
+		TokenSequence result = new TokenSequence(Math.max(16, text.length() / 4));
+		PositionableStringStream stream = new PositionableStringStream(text);
+		lexer.setCharStream(stream);
+		Token token = lexer.nextToken();
+		while (token != Token.EOF_TOKEN) {
+			result.add((CommonToken) token);
+			token = lexer.nextToken();
+		}
+		result.textLength = text.length();
+		return result;
+	}
+
+	private void add(CommonToken token) {
+		ensureCapacity(size + 1);
+		types[size] = token.getType();
+		channels[size] = token.getChannel();
+		offsets[size] = token.getStartIndex();
+		lengths[size] = token.getStopIndex() - token.getStartIndex() + 1;
+		size++;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > types.length) {
+			int newCapacity = Math.max(capacity, types.length + (types.length >> 1));
+			types = copyOf(types, newCapacity);
+			channels = copyOf(channels, newCapacity);
+			offsets = copyOf(offsets, newCapacity);
+			lengths = copyOf(lengths, newCapacity);
+		}
+	}
+
+	private static int[] copyOf(int[] array, int length) {
+		int[] result = new int[length];
+		System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+		return result;
+	}
+
+	/**
+	 * @return the length of the text that is covered by this sequence.
+	 */
+	public int getTextLength() {
+		return textLength;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Re-lexes the tokens that are affected by the given change.
+	 * 
+	 * @param lexer
+	 *            the lexer that produced the previous tokens.
+	 * @param newText
+	 *            the complete text after the change was applied.
+	 * @param change
+	 *            the change in the coordinates of the previous text.
+	 */
+	public void update(Lexer lexer, String newText, ReplaceRegion change) {
+		int delta = change.getText().length() - change.getLength();
+		int newChangeEnd = change.getOffset() + change.getText().length();
+		// the token in front of the change may be affected by the lookahead of the lexer, too
+		int first = Math.max(0, indexOfTokenBefore(change.getOffset()) - 1);
+		int startOffset = first < size ? offsets[first] : 0;
+		PositionableStringStream stream = new PositionableStringStream(newText);
+		lexer.setCharStream(stream);
+		stream.setIndex(startOffset);
+		TokenSequence relexed = new TokenSequence(16);
+		int resumeAt = size;
+		Token token = lexer.nextToken();
+		while (token != Token.EOF_TOKEN) {
+			CommonToken commonToken = (CommonToken) token;
+			relexed.add(commonToken);
+			int end = commonToken.getStopIndex() + 1;
+			if (end >= newChangeEnd) {
+				int index = indexOfTokenAt(end - delta);
+				if (index >= 0) {
+					resumeAt = index;
+					break;
+				}
+			}
+			token = lexer.nextToken();
+		}
+		replace(first, resumeAt, relexed, delta);
+		textLength += delta;
+	}
+
+	private void replace(int from, int to, TokenSequence replacement, int delta) {
+		int tail = size - to;
+		int newSize = from + replacement.size + tail;
+		ensureCapacity(newSize);
+		System.arraycopy(types, to, types, from + replacement.size, tail);
+		System.arraycopy(channels, to, channels, from + replacement.size, tail);
+		System.arraycopy(offsets, to, offsets, from + replacement.size, tail);
+		System.arraycopy(lengths, to, lengths, from + replacement.size, tail);
+		System.arraycopy(replacement.types, 0, types, from, replacement.size);
+		System.arraycopy(replacement.channels, 0, channels, from, replacement.size);
+		System.arraycopy(replacement.offsets, 0, offsets, from, replacement.size);
+		System.arraycopy(replacement.lengths, 0, lengths, from, replacement.size);
+		if (delta != 0) {
+			for (int i = from + replacement.size; i < newSize; i++) {
+				offsets[i] += delta;
+			}
+		}
+		size = newSize;
+	}
+
+	/**
+	 * @return the index of the last token that starts in front of the given offset or <code>-1</code>.
+	 */
+	private int indexOfTokenBefore(int offset) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (offsets[mid] < offset)
+				low = mid + 1;
+			else
+				high = mid - 1;
+		}
+		return high;
+	}
+
+	/**
+	 * @return the index of the token that starts at the given offset, {@link #size()} if the offset is the end of the
+	 *         text or <code>-1</code> if the offset is not at a token boundary.
+	 */
+	private int indexOfTokenAt(int offset) {
+		if (offset == textLength)
+			return size;
+		int index = indexOfTokenBefore(offset) + 1;
+		if (index < size && offsets[index] == offset)
+			return index;
+		return -1;
+	}
+
+	/**
+	 * Creates a token source for the tokens in the given region. The offsets of the produced tokens are relative to the
+	 * region.
+	 * 
+	 * @param offset
+	 *            the offset of the region.
+	 * @param text
+	 *            the text of the region.
+	 * @return the token source or <code>null</code> if the boundaries of the region are not token boundaries.
+	 */
+	public TokenSource createTokenSource(final int offset, String text) {
+		final int from = indexOfTokenAt(offset);
+		final int to = indexOfTokenAt(offset + text.length());
+		if (from < 0 || to < 0 || from > to)
+			return null;
+		final CharStream charStream = new ANTLRStringStream(text);
+		return new TokenSource() {
+			private int next = from;
+
+			@Override
+			public Token nextToken() {
+				if (next >= to)
+					return Token.EOF_TOKEN;
+				int start = offsets[next] - offset;
+				CommonToken result = new CommonToken(charStream, types[next], channels[next], start, start + lengths[next] - 1);
+				next++;
+				return result;
+			}
+
+			@Override
+			public String getSourceName() {
+				return null;
+			}
+		};
+	}
+
+}
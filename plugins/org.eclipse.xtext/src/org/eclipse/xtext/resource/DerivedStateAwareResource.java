@@ -139,6 +139,7 @@ public class DerivedStateAwareResource extends StorageAwareResource {
 			unloaded((InternalEObject) allContents.next());
 		}
 		setParseResult(null);
+		setNodeModelLoader(null);
 		setIsLoadedFromStorage(false);
 	}
 	
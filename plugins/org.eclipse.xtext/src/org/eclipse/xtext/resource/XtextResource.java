@@ -164,6 +164,15 @@ public class XtextResource extends ResourceImpl {
 		return parseResult;
 	}
 
+	/**
+	 * @return <code>true</code> if the node model of this resource is not attached to the semantic elements yet but
+	 *         will be created once the {@link #getParseResult() parse result} is requested.
+	 * @since 2.9
+	 */
+	public boolean isNodeModelPending() {
+		return false;
+	}
+
 	@Override
 	protected void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
 		setEncodingFromOptions(options);
@@ -236,7 +245,8 @@ public class XtextResource extends ResourceImpl {
 		}
 		try {
 			isUpdating = true;
-			updateInternalState(parseResult, parseResult);
+			IParseResult currentParseResult = getParseResult();
+			updateInternalState(currentParseResult, currentParseResult);
 		} finally {
 			isUpdating = false;
 		}
@@ -248,7 +258,7 @@ public class XtextResource extends ResourceImpl {
 		}
 		try {
 			isUpdating = true;
-			IParseResult oldParseResult = parseResult;
+			IParseResult oldParseResult = getParseResult();
 			ReplaceRegion replaceRegion = new ReplaceRegion(new TextRegion(offset, replacedTextLength), newText);
 			IParseResult newParseResult = parser.reparse(oldParseResult, replaceRegion);
 			updateInternalState(oldParseResult, newParseResult);
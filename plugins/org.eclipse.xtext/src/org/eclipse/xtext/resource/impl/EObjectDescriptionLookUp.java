@@ -15,6 +15,7 @@ import java.util.RandomAccess;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcorePackage;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.IEObjectDescription;
@@ -33,6 +34,12 @@ public class EObjectDescriptionLookUp implements ISelectable {
 	
 	private volatile Map<QualifiedName, List<IEObjectDescription>> nameToObjects;
 	
+	/**
+	 * The descriptions by their {@link EClass} and each of its super types.
+	 * @since 2.9
+	 */
+	private volatile Map<EClass, List<IEObjectDescription>> typeToObjects;
+	
 	private volatile List<IEObjectDescription> allDescriptions;
 
 	public EObjectDescriptionLookUp(List<IEObjectDescription> allDescriptions) {
@@ -48,12 +55,18 @@ public class EObjectDescriptionLookUp implements ISelectable {
 	public Iterable<IEObjectDescription> getExportedObjectsByType(final EClass type) {
 		if (allDescriptions.isEmpty())
 			return Collections.emptyList();
-		return Iterables.filter(allDescriptions, new Predicate<IEObjectDescription>() {
-			@Override
-			public boolean apply(IEObjectDescription input) {
-				return EcoreUtil2.isAssignableFrom(type, input.getEClass());
-			}
-		});
+		if (type == EcorePackage.Literals.EOBJECT) {
+			return Iterables.filter(allDescriptions, new Predicate<IEObjectDescription>() {
+				@Override
+				public boolean apply(IEObjectDescription input) {
+					return EcoreUtil2.isAssignableFrom(type, input.getEClass());
+				}
+			});
+		}
+		List<IEObjectDescription> values = getTypeToObjects().get(type);
+		if (values == null)
+			return Collections.emptyList();
+		return Collections.unmodifiableList(values);
 	}
 	
 	@Override
@@ -107,6 +120,7 @@ public class EObjectDescriptionLookUp implements ISelectable {
 		synchronized (this) {
 			this.allDescriptions = allDescriptions;
 			this.nameToObjects = null;			
+			this.typeToObjects = null;
 		}
 	}
 
@@ -132,6 +146,39 @@ public class EObjectDescriptionLookUp implements ISelectable {
 		return this.nameToObjects;
 	}
 
+	/**
+	 * @since 2.9
+	 */
+	protected Map<EClass, List<IEObjectDescription>> getTypeToObjects() {
+		if (typeToObjects == null) {
+			synchronized (this) {
+				if (typeToObjects == null) {
+					Map<EClass, List<IEObjectDescription>> typeToObjects = Maps.newHashMap();
+					for(IEObjectDescription description: allDescriptions) {
+						EClass type = description.getEClass();
+						if (type != null) {
+							putTypeIntoMap(typeToObjects, type, description);
+							for(EClass superType: type.getEAllSuperTypes()) {
+								putTypeIntoMap(typeToObjects, superType, description);
+							}
+						}
+					}
+					this.typeToObjects = typeToObjects;
+				}
+			}
+		}
+		return this.typeToObjects;
+	}
+	
+	private void putTypeIntoMap(Map<EClass, List<IEObjectDescription>> typeToObjects, EClass type, IEObjectDescription description) {
+		List<IEObjectDescription> values = typeToObjects.get(type);
+		if (values == null) {
+			values = Lists.newArrayList();
+			typeToObjects.put(type, values);
+		}
+		values.add(description);
+	}
+
 	protected void putIntoMap(Map<QualifiedName, List<IEObjectDescription>> nameToObjects,
 			IEObjectDescription description) {
 		QualifiedName indexKey = description.getName().toLowerCase();
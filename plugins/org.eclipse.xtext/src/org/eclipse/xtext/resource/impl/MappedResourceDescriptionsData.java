@@ -0,0 +1,564 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.AbstractEObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Charsets;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * A read-only {@link ResourceDescriptionsData} that is backed by a file written by the
+ * {@link MappedResourceDescriptionsWriter}. The file is memory mapped, so opening it is cheap and the data does not
+ * occupy the heap. Resource descriptions and {@link IEObjectDescription object descriptions} are decoded lazily when
+ * they are requested; lookups by name and by type are answered from tables in the file and only decode the matching
+ * entries.
+ *
+ * This is intended for data that does not change, e.g. libraries in a {@link ChunkedResourceDescriptions} or the
+ * descriptions that are kept between two builds by the standalone builder. Use
+ * {@link #copy()} to obtain a modifiable instance. Files are limited to 2GB.
+ *
+ * @since 2.9
+ */
+@Beta
+public class MappedResourceDescriptionsData extends ResourceDescriptionsData {
+
+	public static final int MAGIC = 0x58494458;
+
+	public static final int VERSION = 2;
+
+	private static final int TRAILER_SIZE = 12 * 4;
+
+	private final ByteBuffer buffer;
+
+	private final int stringCount;
+	private final int stringTable;
+	private final int nameTable;
+	private final int resourceCount;
+	private final int resourceTable;
+	private final int bucketCount;
+	private final int bucketTable;
+	private final int typeCount;
+	private final int typeTable;
+
+	private final ConcurrentMap<Integer, ENamedElement> ecoreElements = Maps.newConcurrentMap();
+
+	private final EPackage.Registry packageRegistry;
+
+	public static MappedResourceDescriptionsData load(File file) throws IOException {
+		return load(file, EPackage.Registry.INSTANCE);
+	}
+
+	/**
+	 * @param packageRegistry
+	 *            the registry that resolves the EClasses and EReferences of the descriptions, e.g. the one of the
+	 *            resource set. The global registry is used as a fallback.
+	 */
+	public static MappedResourceDescriptionsData load(File file, EPackage.Registry packageRegistry) throws IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			// the mapping stays valid after the channel is closed
+			return new MappedResourceDescriptionsData(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+					packageRegistry);
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	public MappedResourceDescriptionsData(ByteBuffer buffer) {
+		this(buffer, EPackage.Registry.INSTANCE);
+	}
+
+	/**
+	 * @param packageRegistry
+	 *            the registry that resolves the EClasses and EReferences of the descriptions, e.g. the one of the
+	 *            resource set. The global registry is used as a fallback.
+	 */
+	public MappedResourceDescriptionsData(ByteBuffer buffer, EPackage.Registry packageRegistry) {
+		super(Collections.<URI, IResourceDescription> emptyMap(), Collections.<QualifiedName, Object> emptyMap());
+		this.buffer = buffer;
+		this.packageRegistry = packageRegistry;
+		int trailer = buffer.limit() - TRAILER_SIZE;
+		if (trailer < 0 || buffer.getInt(trailer + 44) != MAGIC)
+			throw new IllegalArgumentException("Not a resource descriptions file.");
+		if (buffer.getInt(trailer + 40) != VERSION)
+			throw new IllegalArgumentException("Unsupported version: " + buffer.getInt(trailer + 40));
+		stringCount = buffer.getInt(trailer);
+		stringTable = buffer.getInt(trailer + 4);
+		nameTable = buffer.getInt(trailer + 12);
+		resourceCount = buffer.getInt(trailer + 16);
+		resourceTable = buffer.getInt(trailer + 20);
+		bucketCount = buffer.getInt(trailer + 24);
+		bucketTable = buffer.getInt(trailer + 28);
+		typeCount = buffer.getInt(trailer + 32);
+		typeTable = buffer.getInt(trailer + 36);
+	}
+
+	/**
+	 * The hash of a lower case name as it is stored in the file. Computed from the segments to be independent of
+	 * {@link QualifiedName#hashCode()}.
+	 */
+	protected static int hash(QualifiedName name) {
+		int result = 1;
+		for (int i = 0; i < name.getSegmentCount(); i++) {
+			result = 31 * result + name.getSegment(i).hashCode();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a modifiable copy that holds the decoded resource descriptions.
+	 */
+	@Override
+	public ResourceDescriptionsData copy() {
+		return new ResourceDescriptionsData(Lists.newArrayList(getAllResourceDescriptions()));
+	}
+
+	@Override
+	public void addDescription(URI uri, IResourceDescription newDescription) {
+		throw new UnsupportedOperationException("MappedResourceDescriptionsData is read-only.");
+	}
+
+	@Override
+	public void removeDescription(URI uri) {
+		throw new UnsupportedOperationException("MappedResourceDescriptionsData is read-only.");
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return resourceCount == 0;
+	}
+
+	@Override
+	public Iterable<IResourceDescription> getAllResourceDescriptions() {
+		return new AbstractList<IResourceDescription>() {
+			@Override
+			public IResourceDescription get(int index) {
+				return getResourceDescription(index);
+			}
+
+			@Override
+			public int size() {
+				return resourceCount;
+			}
+		};
+	}
+
+	@Override
+	protected Iterable<IResourceDescription> getSelectables() {
+		return getAllResourceDescriptions();
+	}
+
+	@Override
+	public IResourceDescription getResourceDescription(URI uri) {
+		int index = indexOf(uri.toString());
+		if (index < 0)
+			return null;
+		return getResourceDescription(index);
+	}
+
+	@Override
+	public Set<URI> getAllURIs() {
+		return new AbstractSet<URI>() {
+			@Override
+			public Iterator<URI> iterator() {
+				return new UnmodifiableIterator<URI>() {
+					private int index = 0;
+
+					@Override
+					public boolean hasNext() {
+						return index < resourceCount;
+					}
+
+					@Override
+					public URI next() {
+						return URI.createURI(getString(buffer.getInt(getRecord(index++))));
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return o instanceof URI && indexOf(o.toString()) >= 0;
+			}
+
+			@Override
+			public int size() {
+				return resourceCount;
+			}
+		};
+	}
+
+	/**
+	 * Iterates the exported objects of all resources without creating their resource descriptions.
+	 */
+	@Override
+	public Iterable<IEObjectDescription> getExportedObjects() {
+		return new Iterable<IEObjectDescription>() {
+			@Override
+			public Iterator<IEObjectDescription> iterator() {
+				return new AbstractIterator<IEObjectDescription>() {
+					private int resourceIndex = 0;
+					private int record = -1;
+					private int exportedIndex = 0;
+
+					@Override
+					protected IEObjectDescription computeNext() {
+						while (record == -1 || exportedIndex == buffer.getInt(record + 4)) {
+							if (resourceIndex == resourceCount)
+								return endOfData();
+							record = getRecord(resourceIndex++);
+							exportedIndex = 0;
+						}
+						return getExportedObject(record, exportedIndex++);
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Answered from the type table in the file. Only the objects whose EClass is a subtype of the given type are
+	 * decoded, objects whose EClass cannot be resolved are only returned for {@link EcorePackage.Literals#EOBJECT}.
+	 */
+	@Override
+	public Iterable<IEObjectDescription> getExportedObjectsByType(EClass type) {
+		if (type == EcorePackage.Literals.EOBJECT)
+			return getExportedObjects();
+		List<IEObjectDescription> result = Lists.newArrayList();
+		for (int i = 0; i < typeCount; i++) {
+			int entry = buffer.getInt(typeTable + 4 * i);
+			EClass eClass = getEcoreElement(buffer.getInt(entry));
+			if (eClass != null && EcoreUtil2.isAssignableFrom(type, eClass)) {
+				int count = buffer.getInt(entry + 4);
+				for (int j = 0; j < count; j++) {
+					result.add(getExportedObject(getRecord(buffer.getInt(entry + 8 + 8 * j)), buffer.getInt(entry + 12 + 8 * j)));
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Iterable<IEObjectDescription> getExportedObjects(EClass type, QualifiedName qualifiedName, boolean ignoreCase) {
+		QualifiedName lowerCase = qualifiedName.toLowerCase();
+		int entry = findLookupEntry(lowerCase);
+		if (entry < 0)
+			return Collections.emptyList();
+		int count = buffer.getInt(entry + 8);
+		List<IEObjectDescription> result = Lists.newArrayListWithCapacity(count);
+		for (int i = 0; i < count; i++) {
+			IEObjectDescription description = getExportedObject(getRecord(buffer.getInt(entry + 12 + 8 * i)),
+					buffer.getInt(entry + 16 + 8 * i));
+			if ((ignoreCase || qualifiedName.equals(description.getName()))
+					&& EcoreUtil2.isAssignableFrom(type, description.getEClass())) {
+				result.add(description);
+			}
+		}
+		return result;
+	}
+
+	protected int findLookupEntry(QualifiedName lowerCase) {
+		int hash = hash(lowerCase);
+		int bucket = hash & (bucketCount - 1);
+		while (true) {
+			int entry = buffer.getInt(bucketTable + 4 * bucket);
+			if (entry == -1)
+				return -1;
+			if (buffer.getInt(entry) == hash && lowerCase.equals(getName(buffer.getInt(entry + 4))))
+				return entry;
+			bucket = (bucket + 1) & (bucketCount - 1);
+		}
+	}
+
+	/**
+	 * Binary search in the resource table which is sorted by URI.
+	 */
+	protected int indexOf(String uri) {
+		int low = 0;
+		int high = resourceCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int comparison = getString(buffer.getInt(getRecord(mid))).compareTo(uri);
+			if (comparison < 0)
+				low = mid + 1;
+			else if (comparison > 0)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	protected IResourceDescription getResourceDescription(int index) {
+		return new MappedResourceDescription(getRecord(index));
+	}
+
+	protected int getRecord(int index) {
+		return buffer.getInt(resourceTable + 4 * index);
+	}
+
+	protected IEObjectDescription getExportedObject(int record, int index) {
+		return new MappedEObjectDescription(record + buffer.getInt(record + 20 + 4 * index));
+	}
+
+	protected String getString(int id) {
+		if (id < 0)
+			return null;
+		if (id >= stringCount)
+			throw new IndexOutOfBoundsException(String.valueOf(id));
+		int offset = buffer.getInt(stringTable + 4 * id);
+		byte[] bytes = new byte[buffer.getInt(offset)];
+		// absolute bulk reads are not available, use a private view to stay thread safe
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset + 4);
+		view.get(bytes);
+		return new String(bytes, Charsets.UTF_8);
+	}
+
+	protected URI getURI(int id) {
+		if (id < 0)
+			return null;
+		return URI.createURI(getString(id));
+	}
+
+	protected QualifiedName getName(int id) {
+		int offset = buffer.getInt(nameTable + 4 * id);
+		String[] segments = new String[buffer.getInt(offset)];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = getString(buffer.getInt(offset + 4 + 4 * i));
+		}
+		return QualifiedName.create(segments);
+	}
+
+	/**
+	 * @return the EClass or EReference with the given id or <code>null</code> if its package is not registered.
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T extends ENamedElement> T getEcoreElement(int id) {
+		if (id < 0)
+			return null;
+		ENamedElement result = ecoreElements.get(id);
+		if (result == null) {
+			URI uri = getURI(id);
+			EPackage ePackage = getEPackage(uri.trimFragment().toString());
+			if (ePackage == null)
+				return null;
+			EObject element = ePackage.eResource() != null ? ePackage.eResource().getEObject(uri.fragment())
+					: findEcoreElement(ePackage, uri.fragment());
+			if (!(element instanceof ENamedElement))
+				return null;
+			result = (ENamedElement) element;
+			ecoreElements.put(id, result);
+		}
+		return (T) result;
+	}
+
+	protected EPackage getEPackage(String nsURI) {
+		EPackage result = packageRegistry.getEPackage(nsURI);
+		if (result == null && packageRegistry != EPackage.Registry.INSTANCE)
+			result = EPackage.Registry.INSTANCE.getEPackage(nsURI);
+		return result;
+	}
+
+	/**
+	 * Resolves fragments of the form <code>//Classifier/feature</code> in a package that is not contained in a
+	 * resource.
+	 */
+	private EObject findEcoreElement(EPackage ePackage, String fragment) {
+		if (fragment == null || !fragment.startsWith("//"))
+			return null;
+		String[] segments = fragment.substring(2).split("/");
+		EClassifier classifier = ePackage.getEClassifier(segments[0]);
+		if (segments.length == 1)
+			return classifier;
+		if (segments.length == 2 && classifier instanceof EClass)
+			return ((EClass) classifier).getEStructuralFeature(segments[1]);
+		return null;
+	}
+
+	protected class MappedResourceDescription extends AbstractResourceDescription {
+
+		private final int record;
+
+		private final URI uri;
+
+		protected MappedResourceDescription(int record) {
+			this.record = record;
+			this.uri = getURI(buffer.getInt(record));
+		}
+
+		@Override
+		protected List<IEObjectDescription> computeExportedObjects() {
+			int count = buffer.getInt(record + 4);
+			List<IEObjectDescription> result = Lists.newArrayListWithCapacity(count);
+			for (int i = 0; i < count; i++) {
+				result.add(getExportedObject(record, i));
+			}
+			return result;
+		}
+
+		@Override
+		public Iterable<QualifiedName> getImportedNames() {
+			int count = buffer.getInt(record + 8);
+			int offset = record + buffer.getInt(record + 16);
+			List<QualifiedName> result = Lists.newArrayListWithCapacity(count);
+			for (int i = 0; i < count; i++) {
+				result.add(getName(buffer.getInt(offset + 4 * i)));
+			}
+			return result;
+		}
+
+		@Override
+		public Iterable<IReferenceDescription> getReferenceDescriptions() {
+			int count = buffer.getInt(record + 12);
+			int offset = record + buffer.getInt(record + 16) + 4 * buffer.getInt(record + 8);
+			List<IReferenceDescription> result = Lists.newArrayListWithCapacity(count);
+			for (int i = 0; i < count; i++, offset += 20) {
+				SerializableReferenceDescription reference = new SerializableReferenceDescription();
+				reference.setSourceEObjectUri(getURI(buffer.getInt(offset)));
+				reference.setTargetEObjectUri(getURI(buffer.getInt(offset + 4)));
+				reference.setContainerEObjectURI(getURI(buffer.getInt(offset + 8)));
+				reference.setEReference(MappedResourceDescriptionsData.this.<EReference>getEcoreElement(buffer.getInt(offset + 12)));
+				reference.setIndexInList(buffer.getInt(offset + 16));
+				result.add(reference);
+			}
+			return result;
+		}
+
+		@Override
+		public URI getURI() {
+			return uri;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + "[" + uri + "]";
+		}
+	}
+
+	/**
+	 * Decodes its name, URI and user data on first access.
+	 */
+	protected class MappedEObjectDescription extends AbstractEObjectDescription {
+
+		private final int offset;
+
+		private QualifiedName name;
+
+		private URI eObjectURI;
+
+		private EObject eObjectOrProxy;
+
+		protected MappedEObjectDescription(int offset) {
+			this.offset = offset;
+		}
+
+		@Override
+		public QualifiedName getName() {
+			if (name == null) {
+				name = MappedResourceDescriptionsData.this.getName(buffer.getInt(offset));
+			}
+			return name;
+		}
+
+		@Override
+		public QualifiedName getQualifiedName() {
+			return getName();
+		}
+
+		/**
+		 * @return the EClass of the described object or an EClass proxy if its package is not registered.
+		 */
+		@Override
+		public EClass getEClass() {
+			int id = buffer.getInt(offset + 4);
+			EClass result = getEcoreElement(id);
+			if (result == null) {
+				result = EcoreFactory.eINSTANCE.createEClass();
+				((InternalEObject) result).eSetProxyURI(getURI(id));
+			}
+			return result;
+		}
+
+		@Override
+		public URI getEObjectURI() {
+			if (eObjectURI == null) {
+				eObjectURI = getURI(buffer.getInt(offset + 8)).appendFragment(getString(buffer.getInt(offset + 12)));
+			}
+			return eObjectURI;
+		}
+
+		@Override
+		public EObject getEObjectOrProxy() {
+			if (eObjectOrProxy == null) {
+				EClass eClass = getEClass();
+				EObject proxy = eClass.eIsProxy() ? EcoreFactory.eINSTANCE.createEObject() : EcoreUtil.create(eClass);
+				((InternalEObject) proxy).eSetProxyURI(getEObjectURI());
+				eObjectOrProxy = proxy;
+			}
+			return eObjectOrProxy;
+		}
+
+		@Override
+		public String getUserData(String key) {
+			int count = buffer.getInt(offset + 16);
+			for (int i = 0; i < count; i++) {
+				if (key.equals(getString(buffer.getInt(offset + 20 + 8 * i)))) {
+					return getString(buffer.getInt(offset + 24 + 8 * i));
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public String[] getUserDataKeys() {
+			String[] result = new String[buffer.getInt(offset + 16)];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = getString(buffer.getInt(offset + 20 + 8 * i));
+			}
+			return result;
+		}
+	}
+
+}
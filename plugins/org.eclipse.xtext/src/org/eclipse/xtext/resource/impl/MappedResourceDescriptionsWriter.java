@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import static org.eclipse.xtext.resource.impl.MappedResourceDescriptionsData.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Writes resource descriptions in the binary format that is read by {@link MappedResourceDescriptionsData}.
+ *
+ * All strings and qualified names are interned into shared tables, resources are sorted by their URI, exported
+ * names are indexed by a hash table and exported objects are grouped by their EClass, such that the reader can answer
+ * lookups directly from the mapped file without decoding unrelated entries. A writer instance is meant to be used for a single file.
+ *
+ * @since 2.9
+ */
+@Beta
+public class MappedResourceDescriptionsWriter {
+
+	private final Map<String, Integer> stringIds = Maps.newHashMap();
+	private final List<String> strings = Lists.newArrayList();
+
+	private final Map<QualifiedName, Integer> nameIds = Maps.newHashMap();
+	private final List<QualifiedName> names = Lists.newArrayList();
+
+	/**
+	 * Lower case name to the flattened pairs of resource index and exported object index.
+	 */
+	private final Map<QualifiedName, List<Integer>> lookup = Maps.newLinkedHashMap();
+
+	/**
+	 * EClass URI id to the flattened pairs of resource index and exported object index.
+	 */
+	private final Map<Integer, List<Integer>> typeLookup = Maps.newLinkedHashMap();
+
+	public static void write(Iterable<? extends IResourceDescription> descriptions, File file) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			new MappedResourceDescriptionsWriter().write(descriptions, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	public void write(Iterable<? extends IResourceDescription> descriptions, OutputStream outputStream) throws IOException {
+		List<IResourceDescription> sorted = Lists.<IResourceDescription>newArrayList(descriptions);
+		Collections.sort(sorted, new Comparator<IResourceDescription>() {
+			@Override
+			public int compare(IResourceDescription o1, IResourceDescription o2) {
+				return o1.getURI().toString().compareTo(o2.getURI().toString());
+			}
+		});
+		ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+		DataOutputStream records = new DataOutputStream(recordBytes);
+		int[] recordOffsets = new int[sorted.size()];
+		for (int i = 0; i < sorted.size(); i++) {
+			recordOffsets[i] = records.size();
+			writeResource(i, sorted.get(i), records);
+		}
+		records.flush();
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		// intern the lookup keys before the string table is written
+		List<QualifiedName> lookupKeys = Lists.newArrayList(lookup.keySet());
+		int[] lookupNameIds = new int[lookupKeys.size()];
+		for (int i = 0; i < lookupKeys.size(); i++) {
+			lookupNameIds[i] = internName(lookupKeys.get(i));
+		}
+		int[] stringOffsets = new int[strings.size()];
+		for (int i = 0; i < strings.size(); i++) {
+			stringOffsets[i] = out.size();
+			byte[] bytes = strings.get(i).getBytes(Charsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		int[] nameOffsets = new int[names.size()];
+		for (int i = 0; i < names.size(); i++) {
+			nameOffsets[i] = out.size();
+			QualifiedName name = names.get(i);
+			out.writeInt(name.getSegmentCount());
+			for (int j = 0; j < name.getSegmentCount(); j++) {
+				out.writeInt(stringIds.get(name.getSegment(j)));
+			}
+		}
+		int recordBase = out.size();
+		recordBytes.writeTo(out);
+		int bucketCount = Integer.highestOneBit(Math.max(lookupKeys.size(), 1)) * 4;
+		int[] buckets = new int[bucketCount];
+		for (int i = 0; i < bucketCount; i++) {
+			buckets[i] = -1;
+		}
+		for (int i = 0; i < lookupKeys.size(); i++) {
+			QualifiedName key = lookupKeys.get(i);
+			List<Integer> entries = lookup.get(key);
+			int hash = hash(key);
+			int bucket = hash & (bucketCount - 1);
+			while (buckets[bucket] != -1) {
+				bucket = (bucket + 1) & (bucketCount - 1);
+			}
+			buckets[bucket] = out.size();
+			out.writeInt(hash);
+			out.writeInt(lookupNameIds[i]);
+			out.writeInt(entries.size() / 2);
+			for (int entry : entries) {
+				out.writeInt(entry);
+			}
+		}
+		int[] typeOffsets = new int[typeLookup.size()];
+		int typeIndex = 0;
+		for (Map.Entry<Integer, List<Integer>> type : typeLookup.entrySet()) {
+			typeOffsets[typeIndex++] = out.size();
+			out.writeInt(type.getKey());
+			out.writeInt(type.getValue().size() / 2);
+			for (int entry : type.getValue()) {
+				out.writeInt(entry);
+			}
+		}
+		int stringTable = writeTable(stringOffsets, 0, out);
+		int nameTable = writeTable(nameOffsets, 0, out);
+		int resourceTable = writeTable(recordOffsets, recordBase, out);
+		int bucketTable = writeTable(buckets, 0, out);
+		int typeTable = writeTable(typeOffsets, 0, out);
+		out.writeInt(stringOffsets.length);
+		out.writeInt(stringTable);
+		out.writeInt(nameOffsets.length);
+		out.writeInt(nameTable);
+		out.writeInt(recordOffsets.length);
+		out.writeInt(resourceTable);
+		out.writeInt(bucketCount);
+		out.writeInt(bucketTable);
+		out.writeInt(typeOffsets.length);
+		out.writeInt(typeTable);
+		out.writeInt(VERSION);
+		out.writeInt(MAGIC);
+		out.flush();
+	}
+
+	protected int writeTable(int[] offsets, int base, DataOutputStream out) throws IOException {
+		int result = out.size();
+		for (int offset : offsets) {
+			out.writeInt(offset == -1 ? -1 : base + offset);
+		}
+		return result;
+	}
+
+	/**
+	 * Record layout: URI, the number of exported objects, imported names and references, the record relative
+	 * offset of the imported names, the record relative offsets of the exported objects followed by the variable
+	 * sized exported objects, the imported names and the references.
+	 */
+	protected void writeResource(int resourceIndex, IResourceDescription description, DataOutputStream out) throws IOException {
+		ByteArrayOutputStream exportedBytes = new ByteArrayOutputStream();
+		DataOutputStream exported = new DataOutputStream(exportedBytes);
+		List<Integer> exportedOffsets = Lists.newArrayList();
+		for (IEObjectDescription object : description.getExportedObjects()) {
+			exportedOffsets.add(exported.size());
+			writeEObjectDescription(object, exported);
+			int exportedIndex = exportedOffsets.size() - 1;
+			addEntry(lookup, object.getName().toLowerCase(), resourceIndex, exportedIndex);
+			addEntry(typeLookup, internURI(EcoreUtil.getURI(object.getEClass())), resourceIndex, exportedIndex);
+		}
+		List<QualifiedName> importedNames = Lists.newArrayList(description.getImportedNames());
+		List<IReferenceDescription> references = Lists.newArrayList(description.getReferenceDescriptions());
+		int headerSize = 4 * (5 + exportedOffsets.size());
+		out.writeInt(internString(description.getURI().toString()));
+		out.writeInt(exportedOffsets.size());
+		out.writeInt(importedNames.size());
+		out.writeInt(references.size());
+		out.writeInt(headerSize + exportedBytes.size());
+		for (int offset : exportedOffsets) {
+			out.writeInt(headerSize + offset);
+		}
+		exportedBytes.writeTo(out);
+		for (QualifiedName importedName : importedNames) {
+			out.writeInt(internName(importedName));
+		}
+		for (IReferenceDescription reference : references) {
+			out.writeInt(internURI(reference.getSourceEObjectUri()));
+			out.writeInt(internURI(reference.getTargetEObjectUri()));
+			out.writeInt(internURI(reference.getContainerEObjectURI()));
+			EReference eReference = reference.getEReference();
+			out.writeInt(eReference == null ? -1 : internURI(EcoreUtil.getURI(eReference)));
+			out.writeInt(reference.getIndexInList());
+		}
+	}
+
+	private static <K> void addEntry(Map<K, List<Integer>> map, K key, int resourceIndex, int exportedIndex) {
+		List<Integer> entries = map.get(key);
+		if (entries == null) {
+			entries = Lists.newArrayListWithCapacity(2);
+			map.put(key, entries);
+		}
+		entries.add(resourceIndex);
+		entries.add(exportedIndex);
+	}
+
+	protected void writeEObjectDescription(IEObjectDescription object, DataOutputStream out) throws IOException {
+		URI uri = object.getEObjectURI();
+		EClass eClass = object.getEClass();
+		out.writeInt(internName(object.getName()));
+		out.writeInt(internURI(EcoreUtil.getURI(eClass)));
+		out.writeInt(internString(uri.trimFragment().toString()));
+		out.writeInt(internString(uri.fragment()));
+		String[] keys = object.getUserDataKeys();
+		out.writeInt(keys.length);
+		for (String key : keys) {
+			out.writeInt(internString(key));
+			out.writeInt(internString(object.getUserData(key)));
+		}
+	}
+
+	protected int internURI(URI uri) {
+		if (uri == null)
+			return -1;
+		return internString(uri.toString());
+	}
+
+	protected int internString(String string) {
+		if (string == null)
+			return -1;
+		Integer result = stringIds.get(string);
+		if (result == null) {
+			result = strings.size();
+			strings.add(string);
+			stringIds.put(string, result);
+		}
+		return result;
+	}
+
+	protected int internName(QualifiedName name) {
+		Integer result = nameIds.get(name);
+		if (result == null) {
+			for (int i = 0; i < name.getSegmentCount(); i++) {
+				internString(name.getSegment(i));
+			}
+			result = names.size();
+			names.add(name);
+			nameIds.put(name, result);
+		}
+		return result;
+	}
+
+}
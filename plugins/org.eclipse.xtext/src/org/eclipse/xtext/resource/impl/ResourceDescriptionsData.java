@@ -7,9 +7,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.resource.impl;
 
-import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -18,6 +16,7 @@ import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcorePackage;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.naming.QualifiedName;
@@ -25,17 +24,20 @@ import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescription.Delta;
 import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.util.PersistentHashMap;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
  * Instances of {@link ResourceDescriptionsData} provide indexed access to
  * resource descriptions that export elements with a certain name.
  * 
+ * The maps are {@link PersistentHashMap persistent}, a {@link #copy()} shares them with
+ * the original and is thus cheap, regardless of the size of the index.
+ * 
  * @author Sebastian Zarnekow - Initial contribution and API
  * @since 2.5
  * 
@@ -85,50 +87,77 @@ import com.google.common.collect.Sets;
 	 * {@link Set Set&lt;IResourceDescription&gt;} as values. It is maintained by 
 	 * {@link #removeDescription(URI)} and {@link #addDescription(URI, IResourceDescription)} 
 	 * which take care of creating the {@link Set Sets} and discarding them if the number
-	 * of elements becomes small enough.  
+	 * of elements becomes small enough. Since the map may be shared with copies, a
+	 * {@link Set} is only modified in place if it was created by this instance after 
+	 * its last {@link #copy()}, see {@link #ownedSets}. Otherwise it is replaced.
 	 */
 	private final Map<QualifiedName, Object> lookupMap;
+	/**
+	 * The value sets of the {@link #lookupMap} that are not shared with any copy of this
+	 * index, compared by identity. They are modified in place, thus many descriptions that 
+	 * export the same name do not cause the set to be copied over and over again.
+	 */
+	private Set<Set<?>> ownedSets = Sets.newIdentityHashSet();
+	/**
+	 * The type lookup map contains the resource descriptions that export at least one
+	 * object of a given {@link EClass} or of one of its sub types. It is maintained alongside
+	 * the {@link #lookupMap}. The values are never modified but replaced. The map is
+	 * <code>null</code> if the instance was created from existing maps without type 
+	 * information. 
+	 */
+	private final Map<EClass, PersistentHashMap<URI, IResourceDescription>> typeLookupMap;
 
 	public ResourceDescriptionsData(Iterable<IResourceDescription> descriptions) {
-		int expectedSize = 500; // magic number in case it's not a Collection
-		if (descriptions instanceof Collection) {
-			expectedSize = ((Collection<?>) descriptions).size();
-		}
-		resourceDescriptionMap = Maps.newHashMapWithExpectedSize(expectedSize);
+		resourceDescriptionMap = new PersistentHashMap<URI, IResourceDescription>();
 		for (IResourceDescription desc : descriptions) {
 			resourceDescriptionMap.put(desc.getURI(), desc);
 		}
-		// magic number - it is assumend that we export at least 2 entries per resource description
-		lookupMap = Maps.newHashMapWithExpectedSize(resourceDescriptionMap.size() * 2);
+		lookupMap = new PersistentHashMap<QualifiedName, Object>();
+		typeLookupMap = new PersistentHashMap<EClass, PersistentHashMap<URI, IResourceDescription>>();
 	    for (IResourceDescription description: descriptions) {
 	    	registerDescription(description, lookupMap);
+	    	registerTypes(description.getURI(), description);
 	    }
 	}
 
 	protected ResourceDescriptionsData(Map<URI, IResourceDescription> resourceDescriptionMap, Map<QualifiedName, Object> lookupMap) {
+		this(resourceDescriptionMap, lookupMap, null);
+	}
+	
+	/**
+	 * @since 2.9
+	 */
+	protected ResourceDescriptionsData(Map<URI, IResourceDescription> resourceDescriptionMap, Map<QualifiedName, Object> lookupMap,
+			Map<EClass, PersistentHashMap<URI, IResourceDescription>> typeLookupMap) {
 		this.resourceDescriptionMap = resourceDescriptionMap;
 		this.lookupMap = lookupMap;
+		this.typeLookupMap = typeLookupMap;
 	}
 	
+	/**
+	 * Returns a modifiable copy of this index. The copy shares the unchanged parts
+	 * of the index with this instance, thus it is created in constant time.
+	 */
 	public ResourceDescriptionsData copy() {
+		// the value sets are shared with the copy from now on
+		ownedSets = Sets.newIdentityHashSet();
 		return new ResourceDescriptionsData(
-				Maps.newHashMap(resourceDescriptionMap),
-				copyLookupMap());
+				copy(resourceDescriptionMap),
+				copyLookupMap(),
+				typeLookupMap != null ? copy(typeLookupMap) : null);
 	}
 	
 	protected Map<QualifiedName, Object> copyLookupMap() {
-		Map<QualifiedName, Object> result = Maps.newHashMap(lookupMap);
-		for(Map.Entry<QualifiedName, Object> entry: result.entrySet()) {
-			Object value = entry.getValue();
-			if (value instanceof Set<?>) {
-				@SuppressWarnings("unchecked")
-				Set<IResourceDescription> copiedValue = new HashSet<IResourceDescription>((Set<? extends IResourceDescription>) value);
-				if (copiedValue.size() <= 1)
-					throw new IllegalStateException("Unexpected number of elements in the value set: " + copiedValue.size() + " for " + entry.getKey());
-				entry.setValue(copiedValue);
-			}
+		// the value sets are no longer modified in place once they are shared, see #ownedSets
+		return copy(lookupMap);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <K, V> PersistentHashMap<K, V> copy(Map<K, V> map) {
+		if (map instanceof PersistentHashMap<?, ?>) {
+			return ((PersistentHashMap<K, V>) map).copy();
 		}
-		return result;
+		return new PersistentHashMap<K, V>(map);
 	}
 
 	@Override
@@ -144,6 +173,7 @@ import com.google.common.collect.Sets;
 	public void removeDescription(URI uri) {
 		IResourceDescription oldDescription = resourceDescriptionMap.remove(uri);
 		if (oldDescription != null) {
+			unregisterTypes(uri, oldDescription);
 			for(IEObjectDescription object: oldDescription.getExportedObjects()) {
 				QualifiedName objectName = object.getName().toLowerCase();
 				Object existing = lookupMap.get(objectName);
@@ -151,11 +181,17 @@ import com.google.common.collect.Sets;
 					lookupMap.remove(objectName);
 				} else if (existing instanceof Set<?>) {
 					Set<?> casted = (Set<?>) existing;
-					if (casted.remove(oldDescription)) {
-						if (casted.size() == 1) {
-							lookupMap.put(objectName, casted.iterator().next());
-						} else if (casted.isEmpty()) {
+					if (casted.contains(oldDescription)) {
+						Set<Object> remaining = ownedSet(casted);
+						remaining.remove(oldDescription);
+						if (remaining.size() == 1) {
+							ownedSets.remove(remaining);
+							lookupMap.put(objectName, remaining.iterator().next());
+						} else if (remaining.isEmpty()) {
+							ownedSets.remove(remaining);
 							lookupMap.remove(objectName);
+						} else if (remaining != casted) {
+							lookupMap.put(objectName, remaining);
 						}
 					}
 				}
@@ -184,6 +220,29 @@ import com.google.common.collect.Sets;
 		return Collections.emptyList();
 	}
 	
+	/**
+	 * Queries only the resource descriptions that export objects of the given type
+	 * according to the {@link #typeLookupMap type lookup map}.
+	 * 
+	 * @since 2.9
+	 */
+	@Override
+	public Iterable<IEObjectDescription> getExportedObjectsByType(final EClass type) {
+		if (typeLookupMap == null || type == EcorePackage.Literals.EOBJECT) {
+			return super.getExportedObjectsByType(type);
+		}
+		Map<URI, IResourceDescription> descriptions = typeLookupMap.get(type);
+		if (descriptions == null) {
+			return Collections.emptyList();
+		}
+		return Iterables.concat(Iterables.transform(descriptions.values(), new Function<IResourceDescription, Iterable<IEObjectDescription>>() {
+			@Override
+			public Iterable<IEObjectDescription> apply(IResourceDescription from) {
+				return from.getExportedObjectsByType(type);
+			}
+		}));
+	}
+	
 	@Override
 	public Iterable<IEObjectDescription> getExportedObjectsByObject(EObject object) {
 		URI resourceURI = EcoreUtil2.getPlatformResourceOrNormalizedURI(object).trimFragment();
@@ -207,21 +266,67 @@ import com.google.common.collect.Sets;
 		if (newDescription != null) {
 			resourceDescriptionMap.put(uri, newDescription);
 			registerDescription(newDescription, lookupMap);
+			registerTypes(uri, newDescription);
+		}
+	}
+	
+	private void registerTypes(URI uri, IResourceDescription description) {
+		if (typeLookupMap == null)
+			return;
+		for(EClass type: getExportedTypes(description)) {
+			PersistentHashMap<URI, IResourceDescription> existing = typeLookupMap.get(type);
+			// the existing map may be shared with a copy of this index
+			PersistentHashMap<URI, IResourceDescription> descriptions = existing != null 
+					? existing.copy() 
+					: new PersistentHashMap<URI, IResourceDescription>();
+			descriptions.put(uri, description);
+			typeLookupMap.put(type, descriptions);
+		}
+	}
+	
+	private void unregisterTypes(URI uri, IResourceDescription description) {
+		if (typeLookupMap == null)
+			return;
+		for(EClass type: getExportedTypes(description)) {
+			PersistentHashMap<URI, IResourceDescription> existing = typeLookupMap.get(type);
+			if (existing != null && existing.containsKey(uri)) {
+				if (existing.size() == 1) {
+					typeLookupMap.remove(type);
+				} else {
+					PersistentHashMap<URI, IResourceDescription> descriptions = existing.copy();
+					descriptions.remove(uri);
+					typeLookupMap.put(type, descriptions);
+				}
+			}
 		}
 	}
+	
+	/**
+	 * @return the types of the exported objects and all their super types.
+	 */
+	private Set<EClass> getExportedTypes(IResourceDescription description) {
+		Set<EClass> result = Sets.newHashSet();
+		for(IEObjectDescription object: description.getExportedObjects()) {
+			EClass type = object.getEClass();
+			if (type != null && result.add(type)) {
+				result.addAll(type.getEAllSuperTypes());
+			}
+		}
+		return result;
+	}
 
-	@SuppressWarnings("unchecked")
 	protected void registerDescription(IResourceDescription description, Map<QualifiedName, Object> target) {
 		for(IEObjectDescription object: description.getExportedObjects()) {
 			QualifiedName lowerCase = object.getName().toLowerCase();
 			Object existing = target.put(lowerCase, description);
 			if (existing != null && existing != description) {
-				Set<IResourceDescription> set = null;
+				Set<Object> set = null;
 				if (existing instanceof IResourceDescription) {
 					set = Sets.newHashSetWithExpectedSize(2);
-					set.add((IResourceDescription)existing);
+					set.add(existing);
+					ownedSets.add(set);
 				} else {
-					set = (Set<IResourceDescription>) existing;
+					set = ownedSet((Set<?>) existing);
 				}
 				set.add(description);
 				target.put(lowerCase, set);
@@ -229,6 +334,20 @@ import com.google.common.collect.Sets;
 		}
 	}
 
+	/**
+	 * Returns the given set if it is owned by this instance, or an owned copy of it if it
+	 * may be shared with a copy of this index.
+	 */
+	@SuppressWarnings("unchecked")
+	private Set<Object> ownedSet(Set<?> set) {
+		if (ownedSets.contains(set)) {
+			return (Set<Object>) set;
+		}
+		Set<Object> result = Sets.<Object>newHashSet(set);
+		ownedSets.add(result);
+		return result;
+	}
+
 	/**
 	 * Put a new resource description into the index, or remove one if the delta has no new description. A delta for a
 	 * particular URI may be registered more than once; overwriting any earlier registration.
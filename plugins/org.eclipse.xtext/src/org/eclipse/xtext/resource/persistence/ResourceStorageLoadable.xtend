@@ -7,7 +7,9 @@
  *******************************************************************************/
 package org.eclipse.xtext.resource.persistence
 
+import com.google.common.io.ByteStreams
 import com.google.common.io.CharStreams
+import java.io.ByteArrayInputStream
 import java.io.DataInputStream
 import java.io.IOException
 import java.io.InputStream
@@ -92,19 +94,46 @@ import org.eclipse.xtext.parser.ParseResult
 		resource.resourceDescription = description
 	}
 	
+	/**
+	 * Reads the bytes of the node model but defers decoding them until the parse result of the resource is requested
+	 * for the first time, e.g. by means of the {@link org.eclipse.xtext.nodemodel.util.NodeModelUtils}.
+	 */
 	protected def void readNodeModel(StorageAwareResource resource, InputStream inputStream) throws IOException {
-		val serializableNodeModel = new SerializableNodeModel(resource)
 		// if this is a synthetic resource (i.e. tests or so, don't load the node model)
 		if (!resource.resourceSet.URIConverter.exists(resource.URI, resource.resourceSet.loadOptions)) {
 			LOG.info("Skipping loading node model for synthetic resource "+resource.URI)
 			return;
 		}
+		val bytes = ByteStreams.toByteArray(inputStream)
+		resource.nodeModelLoader = [|
+			try {
+				decodeNodeModel(resource, new ByteArrayInputStream(bytes))
+			} catch (IOException e) {
+				LOG.error("Cannot load node model for " + resource.URI, e)
+			}
+		]
+	}
+	
+	/**
+	 * Decodes the node model from the given stream and installs it as the parse result of the resource. The node model
+	 * is packed if the resource {@link StorageAwareResource#isPackLeafNodes() asks for it}.
+	 * 
+	 * @since 2.9
+	 */
+	protected def void decodeNodeModel(StorageAwareResource resource, InputStream inputStream) throws IOException {
+		val serializableNodeModel = new SerializableNodeModel(resource)
 		val stream = resource.resourceSet.URIConverter.createInputStream(resource.URI)
-		val in = new InputStreamReader(stream, resource.encoding)
-		val completeContent = CharStreams.toString(in)
+		val completeContent = try {
+			CharStreams.toString(new InputStreamReader(stream, resource.encoding))
+		} finally {
+			stream.close
+		}
 		val deserializationContext = new DeserializationConversionContext(resource, completeContent)
 		val dataIn = new DataInputStream(inputStream)
 		serializableNodeModel.readObjectData(dataIn, deserializationContext)
+		if (resource.packLeafNodes) {
+			serializableNodeModel.packLeafNodes
+		}
 		resource.parseResult = new ParseResult(resource.contents.head,serializableNodeModel.root, deserializationContext.hasErrors)
 	}
 	
@@ -8,13 +8,16 @@
 package org.eclipse.xtext.resource.persistence
 
 import com.google.inject.Inject
+import com.google.inject.name.Named
 import java.io.IOException
 import java.util.Map
 import org.apache.log4j.Logger
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtext.linking.lazy.LazyLinkingResource
+import org.eclipse.xtext.nodemodel.impl.NodeModelBuilder
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.util.internal.Stopwatches
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0
 
 /**
  * A resource implementation that can load itself from ResourceStorage.
@@ -33,6 +36,18 @@ class StorageAwareResource extends LazyLinkingResource {
 	
 	@Accessors IResourceDescription resourceDescription = null;
 	
+	/**
+	 * Whether a node model that is loaded from storage is converted to its packed representation.
+	 * 
+	 * @see NodeModelBuilder#PACK_LEAF_NODES_BINDING
+	 * @since 2.9
+	 */
+	@Accessors @Inject(optional=true) @Named(NodeModelBuilder.PACK_LEAF_NODES_BINDING) boolean packLeafNodes = false
+	
+	volatile Procedure0 nodeModelLoader
+	
+	boolean isLoadingNodeModel = false
+	
 	override load(Map<?, ?> options) throws IOException {
 		if (!isLoaded && !isLoading && resourceStorageFacade!=null && resourceStorageFacade.shouldLoadFromStorage(this)) {
 			if (LOG.isDebugEnabled) {
@@ -72,13 +87,61 @@ class StorageAwareResource extends LazyLinkingResource {
 	override protected doUnload() {
 		super.doUnload
 		isLoadedFromStorage = false;
+		nodeModelLoader = null
 	}
 	
 	override protected clearInternalState() {
 		isLoadedFromStorage = false;
+		nodeModelLoader = null
 		super.clearInternalState();
 	}
 	
+	/**
+	 * Decodes a node model that was loaded from storage on first access.
+	 * 
+	 * @since 2.9
+	 */
+	override getParseResult() {
+		if (nodeModelLoader !== null) {
+			loadNodeModel
+		}
+		super.getParseResult()
+	}
+	
+	/**
+	 * @since 2.9
+	 */
+	override isNodeModelPending() {
+		nodeModelLoader !== null || super.isNodeModelPending
+	}
+	
+	/**
+	 * Registers a loader that installs the node model of this resource once its parse result is requested.
+	 * 
+	 * @since 2.9
+	 */
+	protected def void setNodeModelLoader(Procedure0 nodeModelLoader) {
+		this.nodeModelLoader = nodeModelLoader
+	}
+	
+	/**
+	 * Runs the pending node model loader, if any.
+	 * 
+	 * @since 2.9
+	 */
+	protected def synchronized void loadNodeModel() {
+		val loader = nodeModelLoader
+		if (loader !== null && !isLoadingNodeModel) {
+			isLoadingNodeModel = true
+			try {
+				loader.apply
+			} finally {
+				isLoadingNodeModel = false
+				nodeModelLoader = null
+			}
+		}
+	}
+	
 	override getEObject(String uriFragment) {
 		if (portableURIs.isPortableURIFragment(uriFragment)) {
 			return portableURIs.resolve(this, uriFragment)
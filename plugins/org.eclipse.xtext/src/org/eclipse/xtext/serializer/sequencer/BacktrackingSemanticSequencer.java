@@ -421,9 +421,27 @@ public class BacktrackingSemanticSequencer extends AbstractSemanticSequencer {
 	public void createSequence(EObject context, final EObject obj) {
 		INodesForEObjectProvider nodes = nodeProvider.getNodesForSemanticObject(obj, null);
 		Nfa<ISemState> nfa = nfaProvider.getNFA(context, obj.eClass());
-		final SerializableObject object = new SerializableObject(obj, nodes);
+		SerializableObject object = new SerializableObject(obj, nodes);
+		List<TraceItem> trace = findTrace(nfa, object, nodes);
+		SequenceFeeder feeder = feederProvider.create(obj, nodes, masterSequencer, sequenceAcceptor, errorAcceptor);
+		if (trace != null) {
+			for (TraceItem ti : trace)
+				if (ti.getState() != null && ti.getState().getFeature() != null)
+					accept(ti, feeder);
+		} else if (errorAcceptor != null)
+			errorAcceptor.accept(diagnosticProvider.createBacktrackingFailedDiagnostic(object, context, nfa));
+		feeder.finish();
+	}
+
+	/**
+	 * @return the path through the given NFA that consumes all values of the object, starting with the item that
+	 *         precedes the start state, or <code>null</code> if there is none.
+	 * @since 2.9
+	 */
+	protected List<TraceItem> findTrace(Nfa<ISemState> nfa, final SerializableObject object,
+			INodesForEObjectProvider nodes) {
 		TraceItem co = new TraceItem(object);
-		List<TraceItem> trace = new NfaUtil().backtrack(nfa, co, new NfaUtil.BacktrackHandler<ISemState, TraceItem>() {
+		return new NfaUtil().backtrack(nfa, co, new NfaUtil.BacktrackHandler<ISemState, TraceItem>() {
 			@Override
 			public TraceItem handle(ISemState state, TraceItem previous) {
 				if (!previous.canEnter(state))
@@ -447,14 +465,6 @@ public class BacktrackingSemanticSequencer extends AbstractSemanticSequencer {
 				return r;
 			}
 		});
-		SequenceFeeder feeder = feederProvider.create(obj, nodes, masterSequencer, sequenceAcceptor, errorAcceptor);
-		if (trace != null) {
-			for (TraceItem ti : trace)
-				if (ti.getState() != null && ti.getState().getFeature() != null)
-					accept(ti, feeder);
-		} else if (errorAcceptor != null)
-			errorAcceptor.accept(diagnosticProvider.createBacktrackingFailedDiagnostic(object, context, nfa));
-		feeder.finish();
 	}
 
 }
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer.sequencer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.xtext.AbstractElement;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.serializer.analysis.ISemanticSequencerNfaProvider.ISemState;
+import org.eclipse.xtext.serializer.sequencer.ISemanticNodeProvider.INodesForEObjectProvider;
+import org.eclipse.xtext.util.formallang.Nfa;
+import org.eclipse.xtext.util.formallang.NfaUtil;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+/**
+ * A {@link BacktrackingSemanticSequencer} that remembers the path through the constraint of a context and an EClass
+ * once it has been found. Objects without a node model, e.g. the results of model transformations, that are
+ * serialized later with the same context, EClass and the same numbers of values per feature follow the remembered
+ * path without any backtracking.
+ *
+ * The paths are kept in a {@link DecisionTable} per constraint NFA. Constraints that need to look at the values
+ * themselves to choose between alternatives, i.e. that assign the same feature in different ways, are always
+ * backtracked.
+ *
+ * To use it, bind it as {@link ISemanticSequencer} and as the {@link GenericSequencer generic sequencer} that the
+ * generated sequencers delegate to.
+ *
+ * @since 2.9
+ */
+public class TableDrivenSemanticSequencer extends BacktrackingSemanticSequencer {
+
+	/**
+	 * The decision tables of all constraint NFAs of a language.
+	 */
+	@Singleton
+	public static class DecisionTables {
+
+		/**
+		 * The maximum number of paths per table. Defaults to {@value #DEFAULT_MAXIMUM_ROWS}.
+		 */
+		public final static String MAXIMUM_ROWS = "org.eclipse.xtext.serializer.sequencer.TableDrivenSemanticSequencer.maximumRows";
+
+		public final static int DEFAULT_MAXIMUM_ROWS = 1000;
+
+		@Inject(optional = true)
+		@Named(MAXIMUM_ROWS)
+		private int maximumRows = DEFAULT_MAXIMUM_ROWS;
+
+		private final ConcurrentMap<Nfa<ISemState>, DecisionTable> tables = new ConcurrentHashMap<Nfa<ISemState>, DecisionTable>();
+
+		public DecisionTable getTable(Nfa<ISemState> nfa) {
+			DecisionTable result = tables.get(nfa);
+			if (result == null) {
+				DecisionTable newTable = new DecisionTable(nfa, maximumRows);
+				result = tables.putIfAbsent(nfa, newTable);
+				if (result == null)
+					result = newTable;
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Maps the value counts of an object to its path through a constraint NFA. The path that backtracking finds for
+	 * an object without a node model depends on nothing else, as long as the NFA does not need to validate values.
+	 */
+	public static class DecisionTable {
+
+		private final boolean applicable;
+
+		private final int[] booleanFeatureIDs;
+
+		private final int maximumRows;
+
+		private final ConcurrentMap<Row, ISemState[]> rows = new ConcurrentHashMap<Row, ISemState[]>();
+
+		protected DecisionTable(Nfa<ISemState> nfa, int maximumRows) {
+			this.maximumRows = maximumRows;
+			boolean applicable = true;
+			BitSet booleanFeatures = new BitSet();
+			for (ISemState state : new NfaUtil().collect(nfa)) {
+				if (state.getFeature() == null)
+					continue;
+				List<AbstractElement> toBeValidated = state.getToBeValidatedAssignedElements();
+				if (toBeValidated != null && !toBeValidated.isEmpty())
+					applicable = false;
+				if (state.isBooleanAssignment()) {
+					if (state.getFeature().isMany())
+						applicable = false;
+					booleanFeatures.set(state.getFeatureID());
+				}
+			}
+			this.applicable = applicable;
+			this.booleanFeatureIDs = new int[booleanFeatures.cardinality()];
+			for (int i = booleanFeatures.nextSetBit(0), j = 0; i >= 0; i = booleanFeatures.nextSetBit(i + 1), j++)
+				booleanFeatureIDs[j] = i;
+		}
+
+		/**
+		 * @return <code>false</code> if the path through the NFA depends on the values of an object.
+		 */
+		public boolean isApplicable() {
+			return applicable;
+		}
+
+		public ISemState[] getPath(SerializableObject object) {
+			return rows.get(new Row(object, booleanFeatureIDs));
+		}
+
+		public void putPath(SerializableObject object, ISemState[] path) {
+			if (applicable && rows.size() < maximumRows)
+				rows.putIfAbsent(new Row(object, booleanFeatureIDs), path);
+		}
+
+		public int size() {
+			return rows.size();
+		}
+	}
+
+	/**
+	 * The number of values per feature, whether they are optional and the values of boolean features.
+	 */
+	protected static class Row {
+
+		private final int[] counts;
+
+		private final int hashCode;
+
+		protected Row(SerializableObject object, int[] booleanFeatureIDs) {
+			counts = new int[object.values.length];
+			for (int i = 0; i < counts.length; i++)
+				counts[i] = object.getValueCount(i) << 2 | (object.isOptional(i) ? 2 : 0);
+			for (int id : booleanFeatureIDs)
+				if (Boolean.TRUE.equals(object.values[id]))
+					counts[id] |= 1;
+			hashCode = Arrays.hashCode(counts);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Row && hashCode == ((Row) obj).hashCode && Arrays.equals(counts, ((Row) obj).counts);
+		}
+	}
+
+	@Inject
+	protected DecisionTables decisionTables;
+
+	@Override
+	protected List<TraceItem> findTrace(Nfa<ISemState> nfa, SerializableObject object, INodesForEObjectProvider nodes) {
+		if (!isDecisionTableApplicable(object, nodes))
+			return super.findTrace(nfa, object, nodes);
+		DecisionTable table = decisionTables.getTable(nfa);
+		if (!table.isApplicable())
+			return super.findTrace(nfa, object, nodes);
+		ISemState[] path = table.getPath(object);
+		if (path != null) {
+			List<TraceItem> result = replay(path, object);
+			if (result != null)
+				return result;
+		}
+		List<TraceItem> result = super.findTrace(nfa, object, nodes);
+		if (result != null) {
+			path = new ISemState[result.size() - 1];
+			for (int i = 0; i < path.length; i++)
+				path[i] = result.get(i + 1).getState();
+			table.putPath(object, path);
+		}
+		return result;
+	}
+
+	/**
+	 * The node model determines the order of the followers during backtracking, so the decision tables are only
+	 * consulted for objects without one.
+	 */
+	protected boolean isDecisionTableApplicable(SerializableObject object, INodesForEObjectProvider nodes) {
+		return nodes == ISemanticNodeProvider.NULL_NODES_PROVIDER
+				&& NodeModelUtils.findActualNodeFor(object.getEObject()) == null;
+	}
+
+	/**
+	 * @return the trace along the given path or <code>null</code> if the object cannot follow it.
+	 */
+	protected List<TraceItem> replay(ISemState[] path, SerializableObject object) {
+		List<TraceItem> result = Lists.newArrayListWithCapacity(path.length + 1);
+		TraceItem current = new TraceItem(object);
+		result.add(current);
+		for (ISemState state : path) {
+			if (!current.canEnter(state))
+				return null;
+			current = state.getFeature() != null ? current.cloneAndConsume(state) : current.clone(state);
+			if (current == null)
+				return null;
+			result.add(current);
+		}
+		return current.isConsumed() ? result : null;
+	}
+
+}
@@ -15,6 +15,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.Diagnostic;
@@ -25,9 +26,8 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.util.Exceptions;
-import org.eclipse.xtext.util.SimpleCache;
 
-import com.google.common.base.Function;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
@@ -59,6 +59,8 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 
 	private static final GuardException guardException = new GuardException();
 
+	private static final MethodWrapper[] NO_METHODS = new MethodWrapper[0];
+
 	public static class StateAccess {
 
 		private AbstractDeclarativeValidator validator;
@@ -85,11 +87,15 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		private final Method method;
 		private final String s;
 		private final AbstractDeclarativeValidator instance;
+		private final CheckType checkType;
 
 		protected MethodWrapper(AbstractDeclarativeValidator instance, Method m) {
 			this.instance = instance;
 			this.method = m;
 			this.s = m.getName() + ":" + m.getParameterTypes()[0].getName();
+			Check annotation = m.getAnnotation(Check.class);
+			this.checkType = annotation != null ? annotation.value() : CheckType.FAST;
+			m.setAccessible(true);
 		}
 
 		@Override
@@ -102,19 +108,18 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		}
 
 		public void invoke(State state) {
-			if (instance.state.get() != null && instance.state.get() != state)
+			if (!state.checkMode.shouldCheck(checkType))
+				return;
+			State assigned = instance.state.get();
+			if (assigned != null && assigned != state)
 				throw new IllegalStateException("State is already assigned.");
-			boolean wasNull = instance.state.get() == null;
+			boolean wasNull = assigned == null;
 			if (wasNull)
 				instance.state.set(state);
 			try {
-				Check annotation = method.getAnnotation(Check.class);
-				if (!state.checkMode.shouldCheck(annotation.value()))
-					return;
 				try {
 					state.currentMethod = method;
-					state.currentCheckType = annotation.value();
-					method.setAccessible(true);
+					state.currentCheckType = checkType;
 					method.invoke(instance, state.currentObject);
 				} catch (IllegalArgumentException e) {
 					log.error(e.getMessage(), e);
@@ -152,6 +157,13 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		public Method getMethod() {
 			return method;
 		}
+
+		/**
+		 * @since 2.9
+		 */
+		public CheckType getCheckType() {
+			return checkType;
+		}
 	}
 
 	private volatile Set<MethodWrapper> checkMethods = null;
@@ -243,18 +255,25 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		return instanceToUse;
 	}
 
-	private final SimpleCache<Class<?>, List<MethodWrapper>> methodsForType = new SimpleCache<Class<?>, List<MethodWrapper>>(
-			new Function<Class<?>, List<MethodWrapper>>() {
-				@Override
-				public List<MethodWrapper> apply(Class<?> param) {
-					List<MethodWrapper> result = new ArrayList<MethodWrapper>();
-					for (MethodWrapper mw : checkMethods) {
-						if (mw.isMatching(param))
-							result.add(mw);
-					}
-					return result;
-				}
-			});
+	/**
+	 * The check methods that apply to the instances of a class. The map is read without locking, since it is
+	 * consulted once per validated object.
+	 */
+	private final ConcurrentMap<Class<?>, MethodWrapper[]> methodsForType = new MapMaker().weakKeys().makeMap();
+
+	private MethodWrapper[] getMethodsForType(Class<?> type) {
+		MethodWrapper[] result = methodsForType.get(type);
+		if (result == null) {
+			List<MethodWrapper> methods = new ArrayList<MethodWrapper>();
+			for (MethodWrapper mw : checkMethods) {
+				if (mw.isMatching(type))
+					methods.add(mw);
+			}
+			result = methods.isEmpty() ? NO_METHODS : methods.toArray(new MethodWrapper[methods.size()]);
+			methodsForType.put(type, result);
+		}
+		return result;
+	}
 
 	public static class State {
 		public DiagnosticChain chain = null;
@@ -300,6 +319,9 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 				}
 			}
 		}
+		MethodWrapper[] methods = getMethodsForType(object.getClass());
+		if (methods.length == 0)
+			return true;
 		CheckMode checkMode = CheckMode.getCheckMode(context);
 
 		State state = new State();
@@ -308,7 +330,7 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		state.checkMode = checkMode;
 		state.context = context;
 
-		for (MethodWrapper method : methodsForType.get(object.getClass())) {
+		for (MethodWrapper method : methods) {
 			method.invoke(state);
 		}
 
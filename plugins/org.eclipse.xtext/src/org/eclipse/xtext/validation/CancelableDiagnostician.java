@@ -7,10 +7,12 @@
  *******************************************************************************/
 package org.eclipse.xtext.validation;
 
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.emf.common.util.DiagnosticChain;
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EValidator;
 import org.eclipse.emf.ecore.util.Diagnostician;
@@ -25,9 +27,20 @@ public class CancelableDiagnostician extends Diagnostician {
 	
 	public static final String CANCEL_INDICATOR = CancelableDiagnostician.class + ".CANCEL_INDICATOR";
 	
+	/**
+	 * The key of an {@link EObject} in the validation context whose contents are not validated, since they are
+	 * validated separately by the caller.
+	 * 
+	 * @since 2.9
+	 */
+	public static final String SKIPPED_CONTENTS = CancelableDiagnostician.class + ".SKIPPED_CONTENTS";
+	
+	private final EValidator.Registry registry;
+	
 	@Inject
 	public CancelableDiagnostician(EValidator.Registry registry) {
 		super(registry);
+		this.registry = registry;
 	}
 	
 	@Override
@@ -46,7 +59,31 @@ public class CancelableDiagnostician extends Diagnostician {
 	protected boolean doValidateContents(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
 		if (isCanceled(context))
 			throw new OperationCanceledException();
+		if (context != null && context.get(SKIPPED_CONTENTS) == eObject)
+			return true;
 		return super.doValidateContents(eObject, diagnostics, context);
 	}
 
+	/**
+	 * @return <code>true</code> if the validator that is responsible for instances of the given class is
+	 *         {@link IThreadSafeValidator thread-safe}. The lookup follows the one of
+	 *         {@link #validate(EClass, EObject, DiagnosticChain, Map)}.
+	 * @since 2.9
+	 */
+	public boolean isThreadSafe(EClass eClass) {
+		EValidator eValidator;
+		EClass eType = eClass;
+		while ((eValidator = registry.getEValidator(eType.getEPackage())) == null) {
+			List<EClass> eSuperTypes = eType.getESuperTypes();
+			if (eSuperTypes.isEmpty()) {
+				eValidator = registry.getEValidator(null);
+				break;
+			}
+			eType = eSuperTypes.get(0);
+		}
+		if (eValidator == null || eValidator instanceof IThreadSafeValidator)
+			return true;
+		return eValidator instanceof CompositeEValidator && ((CompositeEValidator) eValidator).isThreadSafe();
+	}
+
 }
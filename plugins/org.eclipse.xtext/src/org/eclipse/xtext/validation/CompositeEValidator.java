@@ -92,22 +92,39 @@ public class CompositeEValidator implements EValidator {
 
 	protected void initDefaults() {
 		if (isUseEObjectValidator()) {
-	 		this.addValidator(new EObjectValidator(){
-				@Override
-				public boolean validate_EveryProxyResolves(EObject eObject, DiagnosticChain diagnostics,
-						Map<Object, Object> context) {
-					// don't check, we have our own implementation, which creates nicer messages
-					return true;
-				}
-				
-				@Override
-				public boolean validate_NoCircularContainment(EObject eObject, DiagnosticChain diagnostics,
-						Map<Object, Object> context) {
-					// don't check
-					return true;
-				}
-			});
+	 		this.addValidator(new DefaultEObjectValidator());
+		}
+	}
+
+	/**
+	 * The {@link EObjectValidator} that is used by default. It is stateless, thus it may be used concurrently.
+	 */
+	private static class DefaultEObjectValidator extends EObjectValidator implements IThreadSafeValidator {
+		@Override
+		public boolean validate_EveryProxyResolves(EObject eObject, DiagnosticChain diagnostics,
+				Map<Object, Object> context) {
+			// don't check, we have our own implementation, which creates nicer messages
+			return true;
+		}
+		
+		@Override
+		public boolean validate_NoCircularContainment(EObject eObject, DiagnosticChain diagnostics,
+				Map<Object, Object> context) {
+			// don't check
+			return true;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if all contained validators are {@link IThreadSafeValidator thread-safe}.
+	 * @since 2.9
+	 */
+	public boolean isThreadSafe() {
+		for (int i = 0; i < getContents().size(); i++) {
+			if (!(getContents().get(i).getDelegate() instanceof IThreadSafeValidator))
+				return false;
 		}
+		return true;
 	}
 
 	public void addValidator(EValidator validator) {
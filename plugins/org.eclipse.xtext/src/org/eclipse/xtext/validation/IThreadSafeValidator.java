@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.validation;
+
+import org.eclipse.emf.ecore.EValidator;
+
+/**
+ * Marks an {@link EValidator} that may be invoked concurrently for different objects of the same resource. It must
+ * neither keep mutable state in fields nor rely on the order in which the objects of a resource are validated.
+ * 
+ * Only resources whose validators are all thread-safe are validated in parallel by the {@link ResourceValidatorImpl}.
+ * 
+ * @see ResourceValidatorImpl#PARALLEL_VALIDATION_THREADS
+ * @since 2.9
+ */
+public interface IThreadSafeValidator extends EValidator {
+
+}
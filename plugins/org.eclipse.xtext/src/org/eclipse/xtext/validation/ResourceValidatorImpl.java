@@ -8,14 +8,31 @@
  *******************************************************************************/
 package org.eclipse.xtext.validation;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EValidator;
+import org.eclipse.emf.ecore.EcorePackage;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.xtext.EcoreUtil2;
@@ -30,8 +47,12 @@ import org.eclipse.xtext.util.internal.Stopwatches.StoppedTask;
 import org.eclipse.xtext.validation.impl.ConcreteSyntaxEValidator;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 
 /**
  * @author Dennis Hbner - Initial contribution and API
@@ -57,6 +78,15 @@ public class ResourceValidatorImpl implements IResourceValidator {
 
 	private static final Logger log = Logger.getLogger(ResourceValidatorImpl.class);
 
+	/**
+	 * The number of threads that validate the children of a root element in parallel. Values below two disable the
+	 * parallel validation, which is the default. Only elements whose validators are all {@link IThreadSafeValidator
+	 * thread-safe} are validated in parallel.
+	 * 
+	 * @since 2.9
+	 */
+	public static final String PARALLEL_VALIDATION_THREADS = "org.eclipse.xtext.validation.ResourceValidatorImpl.parallelValidationThreads";
+
 	@Inject
 	private Diagnostician diagnostician;
 
@@ -66,6 +96,20 @@ public class ResourceValidatorImpl implements IResourceValidator {
 	@Inject
 	private OperationCanceledManager operationCanceledManager;
 	
+	@Inject
+	private IssueSeveritiesProvider issueSeveritiesProvider;
+	
+	@Inject(optional = true)
+	@Named(PARALLEL_VALIDATION_THREADS)
+	private int parallelValidationThreads = 0;
+	
+	private ExecutorService executor;
+	
+	/**
+	 * Whether the validators of an EClass and of its possible contents are thread-safe.
+	 */
+	private final ConcurrentMap<EClass, Boolean> threadSafeClasses = new MapMaker().weakKeys().makeMap();
+	
 	@Override
 	public List<Issue> validate(Resource resource, final CheckMode mode, CancelIndicator mon) throws OperationCanceledError {
 		StoppedTask task = Stopwatches.forTask("ResourceValidatorImpl.validation");
@@ -132,33 +176,195 @@ public class ResourceValidatorImpl implements IResourceValidator {
 	 */
 	protected void validate(Resource resource, EObject element, final CheckMode mode, final CancelIndicator monitor,
 			IAcceptor<Issue> acceptor) {
+		if (isValidatedInParallel(element)) {
+			validateInParallel(resource, element, mode, monitor, acceptor);
+			return;
+		}
 		try {
-			Map<Object, Object> options = Maps.newHashMap();
-			options.put(CheckMode.KEY, mode);
-			options.put(CancelableDiagnostician.CANCEL_INDICATOR, monitor);
-			// disable concrete syntax validation, since a semantic model that has been parsed 
-			// from the concrete syntax always complies with it - otherwise there are parse errors.
-			options.put(ConcreteSyntaxEValidator.DISABLE_CONCRETE_SYNTAX_EVALIDATOR, Boolean.TRUE);
-			// see EObjectValidator.getRootEValidator(Map<Object, Object>)
-			options.put(EValidator.class, diagnostician);
-			if (resource instanceof XtextResource) {
-				options.put(AbstractInjectableValidator.CURRENT_LANGUAGE_NAME,
-						((XtextResource) resource).getLanguageName());
-			}
+			Map<Object, Object> options = createValidationOptions(resource, mode, monitor);
 			Diagnostic diagnostic = diagnostician.validate(element, options);
-			if (!diagnostic.getChildren().isEmpty()) {
-				for (Diagnostic childDiagnostic : diagnostic.getChildren()) {
-					issueFromEValidatorDiagnostic(childDiagnostic, acceptor);
+			issuesFromEValidatorDiagnostic(diagnostic, acceptor);
+		} catch (RuntimeException e) {
+			operationCanceledManager.propagateAsErrorIfCancelException(e);
+			log.error(e.getMessage(), e);
+		}
+	}
+
+	private Map<Object, Object> createValidationOptions(Resource resource, CheckMode mode, CancelIndicator monitor) {
+		Map<Object, Object> options = Maps.newHashMap();
+		options.put(CheckMode.KEY, mode);
+		options.put(CancelableDiagnostician.CANCEL_INDICATOR, monitor);
+		// disable concrete syntax validation, since a semantic model that has been parsed 
+		// from the concrete syntax always complies with it - otherwise there are parse errors.
+		options.put(ConcreteSyntaxEValidator.DISABLE_CONCRETE_SYNTAX_EVALIDATOR, Boolean.TRUE);
+		// see EObjectValidator.getRootEValidator(Map<Object, Object>)
+		options.put(EValidator.class, diagnostician);
+		if (resource instanceof XtextResource) {
+			options.put(AbstractInjectableValidator.CURRENT_LANGUAGE_NAME,
+					((XtextResource) resource).getLanguageName());
+		}
+		return options;
+	}
+
+	private void issuesFromEValidatorDiagnostic(Diagnostic diagnostic, IAcceptor<Issue> acceptor) {
+		if (!diagnostic.getChildren().isEmpty()) {
+			for (Diagnostic childDiagnostic : diagnostic.getChildren()) {
+				issueFromEValidatorDiagnostic(childDiagnostic, acceptor);
+			}
+		} else {
+			issueFromEValidatorDiagnostic(diagnostic, acceptor);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the children of the given element are validated in parallel. This requires a
+	 *         {@link CancelableDiagnostician}, more than one {@link #PARALLEL_VALIDATION_THREADS thread} and
+	 *         {@link IThreadSafeValidator thread-safe} validators for the class of the element and all classes that
+	 *         its instances may contain. The result is computed from the metamodel and cached per class.
+	 * @since 2.9
+	 */
+	protected boolean isValidatedInParallel(EObject element) {
+		if (parallelValidationThreads < 2 || !(diagnostician instanceof CancelableDiagnostician)
+				|| element.eContents().size() < 2)
+			return false;
+		EClass eClass = element.eClass();
+		Boolean result = threadSafeClasses.get(eClass);
+		if (result == null) {
+			result = isThreadSafe((CancelableDiagnostician) diagnostician, eClass);
+			threadSafeClasses.put(eClass, result);
+		}
+		return result;
+	}
+
+	/**
+	 * The possible contents of an instance of the given class are the types of its containment references and
+	 * recursively their contents. Since instances of subtypes may be contained, too, the subtypes in the packages
+	 * that are reached this way are included.
+	 */
+	private boolean isThreadSafe(CancelableDiagnostician cancelableDiagnostician, EClass eClass) {
+		List<EClass> classes = Lists.newArrayList(eClass);
+		Set<EClass> reached = Sets.newHashSet(eClass);
+		Set<EPackage> packages = Sets.newLinkedHashSet();
+		int i = 0;
+		while (i < classes.size()) {
+			for (; i < classes.size(); i++) {
+				EClass current = classes.get(i);
+				if (!cancelableDiagnostician.isThreadSafe(current))
+					return false;
+				if (current.getEPackage() != null)
+					packages.add(current.getEPackage());
+				for (EReference containment : current.getEAllContainments()) {
+					EClass type = containment.getEReferenceType();
+					// anything can be contained
+					if (type == null || type == EcorePackage.Literals.EOBJECT)
+						return false;
+					if (reached.add(type))
+						classes.add(type);
 				}
-			} else {
-				issueFromEValidatorDiagnostic(diagnostic, acceptor);
 			}
+			for (EPackage ePackage : packages) {
+				for (EClassifier classifier : ePackage.getEClassifiers()) {
+					if (classifier instanceof EClass && !reached.contains(classifier)
+							&& !Collections.disjoint(((EClass) classifier).getEAllSuperTypes(), reached)) {
+						reached.add((EClass) classifier);
+						classes.add((EClass) classifier);
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Validates the given element itself and then chunks of its children as independent tasks. The issues are passed
+	 * to the acceptor in the same order as by a sequential validation.
+	 * 
+	 * The element is validated first in the calling thread, thus the state that validators keep per resource in the
+	 * validation context, e.g. whether the {@link NamesAreUniqueValidator unique names} have been checked, is known
+	 * before the children are validated. Each task validates with its own copy of that context.
+	 * 
+	 * @since 2.9
+	 */
+	protected void validateInParallel(Resource resource, final EObject element, CheckMode mode,
+			final CancelIndicator monitor, IAcceptor<Issue> acceptor) {
+		final Map<Object, Object> options = createValidationOptions(resource, mode, monitor);
+		options.put(AbstractInjectableValidator.ISSUE_SEVERITIES, issueSeveritiesProvider.getIssueSeverities(resource));
+		options.put(CancelableDiagnostician.SKIPPED_CONTENTS, element);
+		try {
+			Diagnostic diagnostic = diagnostician.validate(element, options);
+			issuesFromEValidatorDiagnostic(diagnostic, acceptor);
 		} catch (RuntimeException e) {
 			operationCanceledManager.propagateAsErrorIfCancelException(e);
 			log.error(e.getMessage(), e);
+		} finally {
+			options.remove(CancelableDiagnostician.SKIPPED_CONTENTS);
+		}
+		List<EObject> children = element.eContents();
+		// a few chunks per thread balance subtrees of different sizes
+		int chunkSize = Math.max(1, children.size() / (parallelValidationThreads * 4));
+		List<Callable<List<Diagnostic>>> tasks = Lists.newArrayList();
+		for (final List<EObject> chunk : Lists.partition(children, chunkSize)) {
+			// validators may store their state in the context
+			final Map<Object, Object> chunkOptions = Maps.newHashMap(options);
+			tasks.add(new Callable<List<Diagnostic>>() {
+				@Override
+				public List<Diagnostic> call() {
+					List<Diagnostic> result = Lists.newArrayListWithCapacity(chunk.size());
+					for (EObject child : chunk) {
+						result.add(diagnostician.validate(child, chunkOptions));
+					}
+					return result;
+				}
+			});
+		}
+		List<Future<List<Diagnostic>>> results = Lists.newArrayListWithCapacity(tasks.size());
+		ExecutorService executor = getExecutor();
+		try {
+			for (Callable<List<Diagnostic>> task : tasks) {
+				try {
+					results.add(executor.submit(task));
+				} catch (RejectedExecutionException e) {
+					// the executor was shut down by setParallelValidationThreads
+					FutureTask<List<Diagnostic>> inline = new FutureTask<List<Diagnostic>>(task);
+					inline.run();
+					results.add(inline);
+				}
+			}
+			for (Future<List<Diagnostic>> result : results) {
+				operationCanceledManager.checkCanceled(monitor);
+				try {
+					for (Diagnostic diagnostic : result.get()) {
+						issuesFromEValidatorDiagnostic(diagnostic, acceptor);
+					}
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof Error)
+						throw (Error) cause;
+					operationCanceledManager.propagateAsErrorIfCancelException(cause);
+					log.error(cause.getMessage(), cause);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			operationCanceledManager.propagateAsErrorIfCancelException(new OperationCanceledException());
+		} finally {
+			for (Future<List<Diagnostic>> result : results) {
+				result.cancel(false);
+			}
 		}
 	}
 
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			ThreadPoolExecutor threadPool = new ThreadPoolExecutor(parallelValidationThreads,
+					parallelValidationThreads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactoryBuilder().setNameFormat("Validation %d").setDaemon(true).build());
+			threadPool.allowCoreThreadTimeOut(true);
+			executor = threadPool;
+		}
+		return executor;
+	}
+
 	protected void resolveProxies(final Resource resource, final CancelIndicator monitor) {
 		EcoreUtil2.resolveLazyCrossReferences(resource, monitor);
 	}
@@ -184,6 +390,7 @@ public class ResourceValidatorImpl implements IResourceValidator {
 
 	public void setDiagnostician(Diagnostician diagnostician) {
 		this.diagnostician = diagnostician;
+		this.threadSafeClasses.clear();
 	}
 
 	public Diagnostician getDiagnostician() {
@@ -198,4 +405,23 @@ public class ResourceValidatorImpl implements IResourceValidator {
 		return converter;
 	}
 
+	/**
+	 * @since 2.9
+	 */
+	public synchronized void setParallelValidationThreads(int parallelValidationThreads) {
+		this.parallelValidationThreads = parallelValidationThreads;
+		if (executor != null) {
+			// running validations are completed
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	/**
+	 * @since 2.9
+	 */
+	public int getParallelValidationThreads() {
+		return parallelValidationThreads;
+	}
+
 }
@@ -8,6 +8,7 @@
 package org.eclipse.xtext.build;
 
 import com.google.common.base.Objects;
+import java.util.List;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtend.lib.annotations.Accessors;
@@ -58,6 +59,26 @@ public class BuildContext {
     return this.loader.<T>executeClustered(_filter, operation);
   }
   
+  /**
+   * @since 2.9
+   */
+  public <T extends Object> Iterable<T> executeClusterwise(final Iterable<URI> uri, final Function1<? super List<Resource>, ? extends Iterable<? extends T>> clusterOperation) {
+    boolean _equals = Objects.equal(this.loader, null);
+    if (_equals) {
+      ClusteringStorageAwareResourceLoader _clusteringStorageAwareResourceLoader = new ClusteringStorageAwareResourceLoader(this);
+      this.loader = _clusteringStorageAwareResourceLoader;
+    }
+    final Function1<URI, Boolean> _function = new Function1<URI, Boolean>() {
+      @Override
+      public Boolean apply(final URI it) {
+        IResourceServiceProvider _resourceServiceProvider = BuildContext.this.getResourceServiceProvider(it);
+        return Boolean.valueOf((!Objects.equal(_resourceServiceProvider, null)));
+      }
+    };
+    Iterable<URI> _filter = IterableExtensions.<URI>filter(uri, _function);
+    return this.loader.<T>executeClusterwise(_filter, clusterOperation);
+  }
+  
   public IResourceServiceProvider getResourceServiceProvider(final URI uri) {
     final IResourceServiceProvider resourceServiceProvider = this.resourceServiceProviderProvider.apply(uri);
     return resourceServiceProvider;
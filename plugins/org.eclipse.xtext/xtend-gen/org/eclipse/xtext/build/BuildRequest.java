@@ -118,6 +118,15 @@ public class BuildRequest {
   
   private boolean indexOnly = false;
   
+  /**
+   * the number of threads used to validate and generate the resources of a cluster.
+   * Loading and linking always happen on the calling thread. Values greater than one
+   * require the languages' validators and generators to be thread-safe.
+   * 
+   * @since 2.9
+   */
+  private int numberOfThreads = 1;
+  
   private XtextResourceSet resourceSet;
   
   public void setBaseDir(final URI baseDir) {
@@ -205,6 +214,15 @@ public class BuildRequest {
     this.indexOnly = indexOnly;
   }
   
+  @Pure
+  public int getNumberOfThreads() {
+    return this.numberOfThreads;
+  }
+  
+  public void setNumberOfThreads(final int numberOfThreads) {
+    this.numberOfThreads = numberOfThreads;
+  }
+  
   @Pure
   public XtextResourceSet getResourceSet() {
     return this.resourceSet;
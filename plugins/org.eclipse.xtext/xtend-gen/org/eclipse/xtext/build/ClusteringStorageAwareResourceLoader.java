@@ -37,6 +37,28 @@ public class ClusteringStorageAwareResourceLoader {
   private final BuildContext context;
   
   public <T extends Object> Iterable<T> executeClustered(final Iterable<URI> uris, final Function1<? super Resource, ? extends T> operation) {
+    final Function1<List<Resource>, List<T>> _function = new Function1<List<Resource>, List<T>>() {
+      @Override
+      public List<T> apply(final List<Resource> resources) {
+        final Function1<Resource, T> _function = new Function1<Resource, T>() {
+          @Override
+          public T apply(final Resource it) {
+            return operation.apply(it);
+          }
+        };
+        return ListExtensions.<Resource, T>map(resources, _function);
+      }
+    };
+    return this.<T>executeClusterwise(uris, _function);
+  }
+  
+  /**
+   * Loads the resources for the given URIs cluster by cluster and passes each cluster
+   * as a whole to the given operation before the resource set is cleared.
+   * 
+   * @since 2.9
+   */
+  public <T extends Object> Iterable<T> executeClusterwise(final Iterable<URI> uris, final Function1<? super List<Resource>, ? extends Iterable<? extends T>> clusterOperation) {
     ArrayList<T> _xblockexpression = null;
     {
       final ArrayList<URI> loadedURIs = CollectionLiterals.<URI>newArrayList();
@@ -53,14 +75,8 @@ public class ClusteringStorageAwareResourceLoader {
           boolean _continueProcessing = _clusteringPolicy.continueProcessing(_resourceSet, uri, _size);
           boolean _not = (!_continueProcessing);
           if (_not) {
-            final Function1<Resource, T> _function = new Function1<Resource, T>() {
-              @Override
-              public T apply(final Resource it) {
-                return operation.apply(it);
-              }
-            };
-            List<T> _map = ListExtensions.<Resource, T>map(resources, _function);
-            Iterables.<T>addAll(result, _map);
+            Iterable<? extends T> _apply = clusterOperation.apply(resources);
+            Iterables.<T>addAll(result, _apply);
             resources.clear();
             this.clearResourceSet();
             loadedURIs.clear();
@@ -85,14 +101,8 @@ public class ClusteringStorageAwareResourceLoader {
           resources.add(_resource);
         }
       }
-      final Function1<Resource, T> _function = new Function1<Resource, T>() {
-        @Override
-        public T apply(final Resource it) {
-          return operation.apply(it);
-        }
-      };
-      List<T> _map = ListExtensions.<Resource, T>map(resources, _function);
-      Iterables.<T>addAll(result, _map);
+      Iterable<? extends T> _apply = clusterOperation.apply(resources);
+      Iterables.<T>addAll(result, _apply);
       _xblockexpression = result;
     }
     return _xblockexpression;
@@ -9,6 +9,7 @@ package org.eclipse.xtext.build;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import java.io.InputStream;
@@ -16,6 +17,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -29,6 +36,7 @@ import org.eclipse.xtext.build.BuildContext;
 import org.eclipse.xtext.build.BuildRequest;
 import org.eclipse.xtext.build.IndexState;
 import org.eclipse.xtext.build.Indexer;
+import org.eclipse.xtext.build.ReverseDependencyIndex;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
 import org.eclipse.xtext.generator.GeneratorDelegate;
 import org.eclipse.xtext.generator.IContextualOutputConfigurationProvider;
@@ -62,7 +70,9 @@ import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 import org.eclipse.xtext.xbase.lib.Pure;
@@ -140,6 +150,107 @@ public class IncrementalBuilder {
     }
   }
   
+  @Data
+  protected static class ValidatedResource {
+    private final Resource resource;
+    
+    private final IResourceDescription.Manager manager;
+    
+    private final SerializableResourceDescription description;
+    
+    /**
+     * <code>null</code> if the language does not provide a validator
+     */
+    private final List<Issue> issues;
+    
+    public ValidatedResource(final Resource resource, final IResourceDescription.Manager manager, final SerializableResourceDescription description, final List<Issue> issues) {
+      super();
+      this.resource = resource;
+      this.manager = manager;
+      this.description = description;
+      this.issues = issues;
+    }
+    
+    @Override
+    @Pure
+    public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((this.resource== null) ? 0 : this.resource.hashCode());
+      result = prime * result + ((this.manager== null) ? 0 : this.manager.hashCode());
+      result = prime * result + ((this.description== null) ? 0 : this.description.hashCode());
+      result = prime * result + ((this.issues== null) ? 0 : this.issues.hashCode());
+      return result;
+    }
+    
+    @Override
+    @Pure
+    public boolean equals(final Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      IncrementalBuilder.ValidatedResource other = (IncrementalBuilder.ValidatedResource) obj;
+      if (this.resource == null) {
+        if (other.resource != null)
+          return false;
+      } else if (!this.resource.equals(other.resource))
+        return false;
+      if (this.manager == null) {
+        if (other.manager != null)
+          return false;
+      } else if (!this.manager.equals(other.manager))
+        return false;
+      if (this.description == null) {
+        if (other.description != null)
+          return false;
+      } else if (!this.description.equals(other.description))
+        return false;
+      if (this.issues == null) {
+        if (other.issues != null)
+          return false;
+      } else if (!this.issues.equals(other.issues))
+        return false;
+      return true;
+    }
+    
+    @Override
+    @Pure
+    public String toString() {
+      ToStringBuilder b = new ToStringBuilder(this);
+      b.add("resource", this.resource);
+      b.add("manager", this.manager);
+      b.add("description", this.description);
+      b.add("issues", this.issues);
+      return b.toString();
+    }
+    
+    @Pure
+    public Resource getResource() {
+      return this.resource;
+    }
+    
+    @Pure
+    public IResourceDescription.Manager getManager() {
+      return this.manager;
+    }
+    
+    @Pure
+    public SerializableResourceDescription getDescription() {
+      return this.description;
+    }
+    
+    /**
+     * <code>null</code> if the language does not provide a validator
+     */
+    @Pure
+    public List<Issue> getIssues() {
+      return this.issues;
+    }
+  }
+  
   @Log
   protected static class InternalStatefulIncrementalBuilder {
     @Accessors(AccessorType.PROTECTED_SETTER)
@@ -210,43 +321,268 @@ public class IncrementalBuilder {
           return it.getUri();
         }
       };
-      Iterable<URI> _map = IterableExtensions.<IResourceDescription.Delta, URI>map(_filter_1, _function_3);
-      final Function1<Resource, IResourceDescription.Delta> _function_4 = new Function1<Resource, IResourceDescription.Delta>() {
-        @Override
-        public IResourceDescription.Delta apply(final Resource resource) {
+      final Iterable<URI> changedURIs = IterableExtensions.<IResourceDescription.Delta, URI>map(_filter_1, _function_3);
+      int _numberOfThreads = this.request.getNumberOfThreads();
+      boolean _greaterThan = (_numberOfThreads > 1);
+      if (_greaterThan) {
+        ResourceDescriptionsData _newIndex = result.getNewIndex();
+        List<IResourceDescription.Delta> _buildInParallel = this.buildInParallel(changedURIs, _newIndex, newSource2GeneratedMapping);
+        Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _buildInParallel);
+      } else {
+        final Function1<Resource, IResourceDescription.Delta> _function_4 = new Function1<Resource, IResourceDescription.Delta>() {
+          @Override
+          public IResourceDescription.Delta apply(final Resource resource) {
+            resource.getContents();
+            EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
+            URI _uRI = resource.getURI();
+            final IResourceServiceProvider serviceProvider = InternalStatefulIncrementalBuilder.this.context.getResourceServiceProvider(_uRI);
+            final IResourceDescription.Manager manager = serviceProvider.getResourceDescriptionManager();
+            final IResourceDescription description = manager.getResourceDescription(resource);
+            final SerializableResourceDescription copiedDescription = SerializableResourceDescription.createCopy(description);
+            ResourceDescriptionsData _newIndex = result.getNewIndex();
+            URI _uRI_1 = resource.getURI();
+            _newIndex.addDescription(_uRI_1, copiedDescription);
+            IndexState _state = InternalStatefulIncrementalBuilder.this.request.getState();
+            ReverseDependencyIndex _reverseDependencies = _state.getReverseDependencies();
+            URI _uRI_2 = resource.getURI();
+            InternalStatefulIncrementalBuilder.this.indexer.updateReverseDependencies(_reverseDependencies, _uRI_2, copiedDescription, InternalStatefulIncrementalBuilder.this.context);
+            boolean _and = false;
+            boolean _validate = InternalStatefulIncrementalBuilder.this.validate(resource);
+            if (!_validate) {
+              _and = false;
+            } else {
+              IShouldGenerate _get = serviceProvider.<IShouldGenerate>get(IShouldGenerate.class);
+              boolean _shouldGenerate = _get.shouldGenerate(resource, CancelIndicator.NullImpl);
+              _and = _shouldGenerate;
+            }
+            if (_and) {
+              InternalStatefulIncrementalBuilder.this.generate(resource, InternalStatefulIncrementalBuilder.this.request, newSource2GeneratedMapping);
+            }
+            IndexState _oldState = InternalStatefulIncrementalBuilder.this.context.getOldState();
+            ResourceDescriptionsData _resourceDescriptions = _oldState.getResourceDescriptions();
+            URI _uRI_3 = resource.getURI();
+            final IResourceDescription old = _resourceDescriptions.getResourceDescription(_uRI_3);
+            return manager.createDelta(old, copiedDescription);
+          }
+        };
+        Iterable<IResourceDescription.Delta> _executeClustered = this.context.<IResourceDescription.Delta>executeClustered(changedURIs, _function_4);
+        Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _executeClustered);
+      }
+      IndexState _state_1 = this.request.getState();
+      return new IncrementalBuilder.Result(_state_1, resolvedDeltas);
+    }
+    
+    /**
+     * Processes the changed resources cluster by cluster. Loading and linking happen on the calling
+     * thread since they modify the resource set, validation and generation are distributed
+     * across {@link BuildRequest#getNumberOfThreads() the configured number of threads}.
+     * The new index and the callbacks of the request are updated in the order of the given URIs,
+     * such that the outcome of the build does not depend on the number of threads.
+     * 
+     * @since 2.9
+     */
+    protected List<IResourceDescription.Delta> buildInParallel(final Iterable<URI> uris, final ResourceDescriptionsData newIndex, final Source2GeneratedMapping newMappings) {
+      ThreadFactoryBuilder _threadFactoryBuilder = new ThreadFactoryBuilder();
+      ThreadFactoryBuilder _setNameFormat = _threadFactoryBuilder.setNameFormat("IncrementalBuilder-%d");
+      ThreadFactoryBuilder _setDaemon = _setNameFormat.setDaemon(true);
+      final ThreadFactory threadFactory = _setDaemon.build();
+      int _numberOfThreads = this.request.getNumberOfThreads();
+      final ExecutorService executor = Executors.newFixedThreadPool(_numberOfThreads, threadFactory);
+      try {
+        final Function1<List<Resource>, List<IResourceDescription.Delta>> _function = new Function1<List<Resource>, List<IResourceDescription.Delta>>() {
+          @Override
+          public List<IResourceDescription.Delta> apply(final List<Resource> resources) {
+            return InternalStatefulIncrementalBuilder.this.processCluster(resources, executor, newIndex, newMappings);
+          }
+        };
+        Iterable<IResourceDescription.Delta> _executeClusterwise = this.context.<IResourceDescription.Delta>executeClusterwise(uris, _function);
+        return IterableExtensions.<IResourceDescription.Delta>toList(_executeClusterwise);
+      } finally {
+        executor.shutdown();
+      }
+    }
+    
+    protected List<IResourceDescription.Delta> processCluster(final List<Resource> resources, final ExecutorService executor, final ResourceDescriptionsData newIndex, final Source2GeneratedMapping newMappings) {
+      for (final Resource resource : resources) {
+        {
           resource.getContents();
           EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
-          URI _uRI = resource.getURI();
-          final IResourceServiceProvider serviceProvider = InternalStatefulIncrementalBuilder.this.context.getResourceServiceProvider(_uRI);
-          final IResourceDescription.Manager manager = serviceProvider.getResourceDescriptionManager();
-          final IResourceDescription description = manager.getResourceDescription(resource);
-          final SerializableResourceDescription copiedDescription = SerializableResourceDescription.createCopy(description);
-          ResourceDescriptionsData _newIndex = result.getNewIndex();
-          URI _uRI_1 = resource.getURI();
-          _newIndex.addDescription(_uRI_1, copiedDescription);
+        }
+      }
+      final Function1<Resource, Future<IncrementalBuilder.ValidatedResource>> _function = new Function1<Resource, Future<IncrementalBuilder.ValidatedResource>>() {
+        @Override
+        public Future<IncrementalBuilder.ValidatedResource> apply(final Resource resource) {
+          Future<IncrementalBuilder.ValidatedResource> _xblockexpression = null;
+          {
+            final Callable<IncrementalBuilder.ValidatedResource> _function = new Callable<IncrementalBuilder.ValidatedResource>() {
+              @Override
+              public IncrementalBuilder.ValidatedResource call() throws Exception {
+                return InternalStatefulIncrementalBuilder.this.describeAndValidate(resource);
+              }
+            };
+            final Callable<IncrementalBuilder.ValidatedResource> task = _function;
+            _xblockexpression = executor.<IncrementalBuilder.ValidatedResource>submit(task);
+          }
+          return _xblockexpression;
+        }
+      };
+      List<Future<IncrementalBuilder.ValidatedResource>> _map = ListExtensions.<Resource, Future<IncrementalBuilder.ValidatedResource>>map(resources, _function);
+      final List<Future<IncrementalBuilder.ValidatedResource>> validations = IterableExtensions.<Future<IncrementalBuilder.ValidatedResource>>toList(_map);
+      final ArrayList<IResourceDescription.Delta> deltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
+      final ArrayList<Resource> toBeGenerated = CollectionLiterals.<Resource>newArrayList();
+      for (final Future<IncrementalBuilder.ValidatedResource> validation : validations) {
+        {
+          final IncrementalBuilder.ValidatedResource validated = this.<IncrementalBuilder.ValidatedResource>waitFor(validation);
+          Resource _resource = validated.getResource();
+          final URI uri = _resource.getURI();
+          SerializableResourceDescription _description = validated.getDescription();
+          newIndex.addDescription(uri, _description);
+          IndexState _state = this.request.getState();
+          ReverseDependencyIndex _reverseDependencies = _state.getReverseDependencies();
+          SerializableResourceDescription _description_1 = validated.getDescription();
+          this.indexer.updateReverseDependencies(_reverseDependencies, uri, _description_1, this.context);
+          boolean _or = false;
+          List<Issue> _issues = validated.getIssues();
+          boolean _equals = Objects.equal(_issues, null);
+          if (_equals) {
+            _or = true;
+          } else {
+            BuildRequest.IPostValidationCallback _afterValidate = this.request.getAfterValidate();
+            List<Issue> _issues_1 = validated.getIssues();
+            boolean _afterValidate_1 = _afterValidate.afterValidate(uri, _issues_1);
+            _or = _afterValidate_1;
+          }
+          final boolean proceed = _or;
           boolean _and = false;
-          boolean _validate = InternalStatefulIncrementalBuilder.this.validate(resource);
-          if (!_validate) {
+          if (!proceed) {
             _and = false;
           } else {
-            IShouldGenerate _get = serviceProvider.<IShouldGenerate>get(IShouldGenerate.class);
-            boolean _shouldGenerate = _get.shouldGenerate(resource, CancelIndicator.NullImpl);
+            IResourceServiceProvider _resourceServiceProvider = this.context.getResourceServiceProvider(uri);
+            IShouldGenerate _get = _resourceServiceProvider.<IShouldGenerate>get(IShouldGenerate.class);
+            Resource _resource_1 = validated.getResource();
+            boolean _shouldGenerate = _get.shouldGenerate(_resource_1, CancelIndicator.NullImpl);
             _and = _shouldGenerate;
           }
           if (_and) {
-            InternalStatefulIncrementalBuilder.this.generate(resource, InternalStatefulIncrementalBuilder.this.request, newSource2GeneratedMapping);
+            Resource _resource_2 = validated.getResource();
+            toBeGenerated.add(_resource_2);
           }
-          IndexState _oldState = InternalStatefulIncrementalBuilder.this.context.getOldState();
+          IndexState _oldState = this.context.getOldState();
           ResourceDescriptionsData _resourceDescriptions = _oldState.getResourceDescriptions();
-          URI _uRI_2 = resource.getURI();
-          final IResourceDescription old = _resourceDescriptions.getResourceDescription(_uRI_2);
-          return manager.createDelta(old, copiedDescription);
+          final IResourceDescription old = _resourceDescriptions.getResourceDescription(uri);
+          IResourceDescription.Manager _manager = validated.getManager();
+          SerializableResourceDescription _description_2 = validated.getDescription();
+          IResourceDescription.Delta _createDelta = _manager.createDelta(old, _description_2);
+          deltas.add(_createDelta);
+        }
+      }
+      final Function1<Resource, Future<List<Procedure0>>> _function_1 = new Function1<Resource, Future<List<Procedure0>>>() {
+        @Override
+        public Future<List<Procedure0>> apply(final Resource resource) {
+          Future<List<Procedure0>> _xblockexpression = null;
+          {
+            final ArrayList<Procedure0> deferredCallbacks = CollectionLiterals.<Procedure0>newArrayList();
+            BuildRequest _buildRequest = new BuildRequest();
+            final Procedure1<BuildRequest> _function = new Procedure1<BuildRequest>() {
+              @Override
+              public void apply(final BuildRequest it) {
+                boolean _isWriteStorageResources = InternalStatefulIncrementalBuilder.this.request.isWriteStorageResources();
+                it.setWriteStorageResources(_isWriteStorageResources);
+                final Procedure2<URI, URI> _function = new Procedure2<URI, URI>() {
+                  @Override
+                  public void apply(final URI source, final URI target) {
+                    final Procedure0 _function = new Procedure0() {
+                      @Override
+                      public void apply() {
+                        Procedure2<? super URI, ? super URI> _afterGenerateFile = InternalStatefulIncrementalBuilder.this.request.getAfterGenerateFile();
+                        _afterGenerateFile.apply(source, target);
+                      }
+                    };
+                    deferredCallbacks.add(_function);
+                  }
+                };
+                it.setAfterGenerateFile(_function);
+                final Procedure1<URI> _function_1 = new Procedure1<URI>() {
+                  @Override
+                  public void apply(final URI file) {
+                    final Procedure0 _function = new Procedure0() {
+                      @Override
+                      public void apply() {
+                        Procedure1<? super URI> _afterDeleteFile = InternalStatefulIncrementalBuilder.this.request.getAfterDeleteFile();
+                        _afterDeleteFile.apply(file);
+                      }
+                    };
+                    deferredCallbacks.add(_function);
+                  }
+                };
+                it.setAfterDeleteFile(_function_1);
+              }
+            };
+            final BuildRequest deferringRequest = ObjectExtensions.<BuildRequest>operator_doubleArrow(_buildRequest, _function);
+            final Callable<List<Procedure0>> _function_1 = new Callable<List<Procedure0>>() {
+              @Override
+              public List<Procedure0> call() throws Exception {
+                InternalStatefulIncrementalBuilder.this.generate(resource, deferringRequest, newMappings);
+                return deferredCallbacks;
+              }
+            };
+            final Callable<List<Procedure0>> task = _function_1;
+            _xblockexpression = executor.<List<Procedure0>>submit(task);
+          }
+          return _xblockexpression;
         }
       };
-      Iterable<IResourceDescription.Delta> _executeClustered = this.context.<IResourceDescription.Delta>executeClustered(_map, _function_4);
-      Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _executeClustered);
-      IndexState _state_1 = this.request.getState();
-      return new IncrementalBuilder.Result(_state_1, resolvedDeltas);
+      List<Future<List<Procedure0>>> _map_1 = ListExtensions.<Resource, Future<List<Procedure0>>>map(toBeGenerated, _function_1);
+      final List<Future<List<Procedure0>>> generations = IterableExtensions.<Future<List<Procedure0>>>toList(_map_1);
+      for (final Future<List<Procedure0>> generation : generations) {
+        List<Procedure0> _waitFor = this.<List<Procedure0>>waitFor(generation);
+        final Procedure1<Procedure0> _function_2 = new Procedure1<Procedure0>() {
+          @Override
+          public void apply(final Procedure0 it) {
+            it.apply();
+          }
+        };
+        IterableExtensions.<Procedure0>forEach(_waitFor, _function_2);
+      }
+      return deltas;
+    }
+    
+    protected IncrementalBuilder.ValidatedResource describeAndValidate(final Resource resource) {
+      URI _uRI = resource.getURI();
+      final IResourceServiceProvider serviceProvider = this.context.getResourceServiceProvider(_uRI);
+      final IResourceDescription.Manager manager = serviceProvider.getResourceDescriptionManager();
+      IResourceDescription _resourceDescription = manager.getResourceDescription(resource);
+      final SerializableResourceDescription description = SerializableResourceDescription.createCopy(_resourceDescription);
+      final IResourceValidator resourceValidator = serviceProvider.getResourceValidator();
+      boolean _equals = Objects.equal(resourceValidator, null);
+      if (_equals) {
+        return new IncrementalBuilder.ValidatedResource(resource, manager, description, null);
+      }
+      URI _uRI_1 = resource.getURI();
+      String _lastSegment = _uRI_1.lastSegment();
+      String _plus = ("Starting validation for input: \'" + _lastSegment);
+      String _plus_1 = (_plus + "\'");
+      IncrementalBuilder.InternalStatefulIncrementalBuilder.LOG.info(_plus_1);
+      List<Issue> _validate = resourceValidator.validate(resource, CheckMode.ALL, null);
+      return new IncrementalBuilder.ValidatedResource(resource, manager, description, _validate);
+    }
+    
+    private <T extends Object> T waitFor(final Future<T> future) {
+      try {
+        try {
+          return future.get();
+        } catch (final Throwable _t) {
+          if (_t instanceof ExecutionException) {
+            final ExecutionException e = (ExecutionException)_t;
+            Throwable _cause = e.getCause();
+            throw _cause;
+          } else {
+            throw Exceptions.sneakyThrow(_t);
+          }
+        }
+      } catch (Throwable _e) {
+        throw Exceptions.sneakyThrow(_e);
+      }
     }
     
     protected boolean validate(final Resource resource) {
@@ -9,6 +9,7 @@ package org.eclipse.xtext.build;
 
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
+import org.eclipse.xtext.build.ReverseDependencyIndex;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
@@ -26,14 +27,24 @@ public class IndexState {
   
   private final Source2GeneratedMapping fileMappings;
   
+  /**
+   * @since 2.9
+   */
+  private final ReverseDependencyIndex reverseDependencies;
+  
   public IndexState() {
     this(new ResourceDescriptionsData(CollectionLiterals.<IResourceDescription>emptySet()), new Source2GeneratedMapping());
   }
   
   public IndexState(final ResourceDescriptionsData resourceDescriptions, final Source2GeneratedMapping fileMappings) {
+    this(resourceDescriptions, fileMappings, new ReverseDependencyIndex());
+  }
+  
+  public IndexState(final ResourceDescriptionsData resourceDescriptions, final Source2GeneratedMapping fileMappings, final ReverseDependencyIndex reverseDependencies) {
     super();
     this.resourceDescriptions = resourceDescriptions;
     this.fileMappings = fileMappings;
+    this.reverseDependencies = reverseDependencies;
   }
   
   @Pure
@@ -45,4 +56,12 @@ public class IndexState {
   public Source2GeneratedMapping getFileMappings() {
     return this.fileMappings;
   }
+  
+  /**
+   * @since 2.9
+   */
+  @Pure
+  public ReverseDependencyIndex getReverseDependencies() {
+    return this.reverseDependencies;
+  }
 }
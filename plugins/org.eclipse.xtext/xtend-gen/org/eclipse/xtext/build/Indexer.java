@@ -32,6 +32,7 @@ import org.eclipse.xtend2.lib.StringConcatenation;
 import org.eclipse.xtext.build.BuildContext;
 import org.eclipse.xtext.build.BuildRequest;
 import org.eclipse.xtext.build.IndexState;
+import org.eclipse.xtext.build.ReverseDependencyIndex;
 import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.CompilerPhases;
 import org.eclipse.xtext.resource.EObjectDescription;
@@ -42,6 +43,7 @@ import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionManager;
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.util.internal.Log;
@@ -213,6 +215,9 @@ public class Indexer {
     final ResourceDescriptionsData previousIndex = _oldState.getResourceDescriptions();
     IndexState _state = request.getState();
     final ResourceDescriptionsData newIndex = _state.getResourceDescriptions();
+    IndexState _state_1 = request.getState();
+    final ReverseDependencyIndex reverseDependencies = _state_1.getReverseDependencies();
+    this.synchronizeReverseDependencies(reverseDependencies, previousIndex, context);
     final List<IResourceDescription.Delta> deltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
     boolean _isInfoEnabled = Indexer.LOG.isInfoEnabled();
     if (_isInfoEnabled) {
@@ -242,35 +247,39 @@ public class Indexer {
       List<IResourceDescription.Delta> _externalDeltas_1 = request.getExternalDeltas();
       allDeltas.addAll(_externalDeltas_1);
     }
-    Iterable<IResourceDescription> _allResourceDescriptions = previousIndex.getAllResourceDescriptions();
-    final Function1<IResourceDescription, URI> _function = new Function1<IResourceDescription, URI>() {
-      @Override
-      public URI apply(final IResourceDescription it) {
-        return it.getURI();
-      }
-    };
-    Iterable<URI> _map = IterableExtensions.<IResourceDescription, URI>map(_allResourceDescriptions, _function);
-    final Set<URI> remainingURIs = IterableExtensions.<URI>toSet(_map);
-    final Function1<IResourceDescription.Delta, URI> _function_1 = new Function1<IResourceDescription.Delta, URI>() {
+    final Set<URI> remainingURIs = reverseDependencies.getAffectionCandidates(allDeltas);
+    final Function1<IResourceDescription.Delta, URI> _function = new Function1<IResourceDescription.Delta, URI>() {
       @Override
       public URI apply(final IResourceDescription.Delta it) {
         return it.getUri();
       }
     };
-    List<URI> _map_1 = ListExtensions.<IResourceDescription.Delta, URI>map(deltas, _function_1);
-    remainingURIs.removeAll(_map_1);
-    final Function1<URI, Boolean> _function_2 = new Function1<URI, Boolean>() {
+    List<URI> _map = ListExtensions.<IResourceDescription.Delta, URI>map(deltas, _function);
+    remainingURIs.removeAll(_map);
+    final Function1<URI, Boolean> _function_1 = new Function1<URI, Boolean>() {
       @Override
       public Boolean apply(final URI it) {
+        final IResourceDescription resourceDescription = previousIndex.getResourceDescription(it);
+        boolean _equals = Objects.equal(resourceDescription, null);
+        if (_equals) {
+          return Boolean.valueOf(false);
+        }
         IResourceServiceProvider _resourceServiceProvider = context.getResourceServiceProvider(it);
         final IResourceDescription.Manager manager = _resourceServiceProvider.getResourceDescriptionManager();
-        final IResourceDescription resourceDescription = previousIndex.getResourceDescription(it);
         final boolean isAffected = Indexer.this.isAffected(resourceDescription, manager, allDeltas, allDeltas, newIndex);
         return Boolean.valueOf(isAffected);
       }
     };
-    Iterable<URI> _filter = IterableExtensions.<URI>filter(remainingURIs, _function_2);
+    Iterable<URI> _filter = IterableExtensions.<URI>filter(remainingURIs, _function_1);
     final List<URI> allAffected = IterableExtensions.<URI>toList(_filter);
+    for (final IResourceDescription.Delta delta_1 : deltas) {
+      IResourceDescription _new = delta_1.getNew();
+      boolean _equals = Objects.equal(_new, null);
+      if (_equals) {
+        URI _uri = delta_1.getUri();
+        reverseDependencies.removeDependencies(_uri);
+      }
+    }
     boolean _and = false;
     boolean _isInfoEnabled_1 = Indexer.LOG.isInfoEnabled();
     if (!_isInfoEnabled_1) {
@@ -291,6 +300,98 @@ public class Indexer {
     return new Indexer.IndexResult(deltas, newIndex);
   }
   
+  /**
+   * Records the imported names and outgoing references of the given description in the reverse dependencies.
+   * 
+   * @since 2.9
+   */
+  public void updateReverseDependencies(final ReverseDependencyIndex reverseDependencies, final URI uri, final IResourceDescription description, final BuildContext context) {
+    IResourceServiceProvider _resourceServiceProvider = context.getResourceServiceProvider(uri);
+    IResourceDescription.Manager _resourceDescriptionManager = null;
+    if (_resourceServiceProvider!=null) {
+      _resourceDescriptionManager=_resourceServiceProvider.getResourceDescriptionManager();
+    }
+    final IResourceDescription.Manager manager = _resourceDescriptionManager;
+    boolean _and = false;
+    boolean _and_1 = false;
+    boolean _notEquals = (!Objects.equal(manager, null));
+    if (!_notEquals) {
+      _and_1 = false;
+    } else {
+      boolean _isAffectedByNamesAndReferencesOnly = this.isAffectedByNamesAndReferencesOnly(manager);
+      _and_1 = _isAffectedByNamesAndReferencesOnly;
+    }
+    if (!_and_1) {
+      _and = false;
+    } else {
+      _and = (!(description instanceof Indexer.ResolvedResourceDescription));
+    }
+    if (_and) {
+      reverseDependencies.addDependencies(uri, description);
+    } else {
+      reverseDependencies.addUnrestricted(uri);
+    }
+  }
+  
+  /**
+   * Whether the given manager only considers a resource as affected if it imports a name that is exported by
+   * one of the deltas or if it references one of their resources. Resources of all other languages are checked
+   * for each build.
+   * 
+   * Only the {@link DefaultResourceDescriptionManager} itself is known to decide this way, subclasses may
+   * override {@link DefaultResourceDescriptionManager#isAffected(java.util.Collection, IResourceDescription, IResourceDescriptions) isAffected}
+   * or the computation of the imported names. Override this method to opt in for such a manager.
+   * 
+   * @since 2.9
+   */
+  protected boolean isAffectedByNamesAndReferencesOnly(final IResourceDescription.Manager manager) {
+    Class<? extends IResourceDescription.Manager> _class = manager.getClass();
+    return Objects.equal(_class, DefaultResourceDescriptionManager.class);
+  }
+  
+  /**
+   * Indexes the dependencies of the resources that have been added to the index by other means than the
+   * incremental builder, e.g. when a client creates a new {@link IndexState} for existing resource descriptions.
+   * This is done once for a reverse dependency index that is not {@link ReverseDependencyIndex#isComplete() complete}
+   * yet, afterwards it is kept in sync with the deltas of each build.
+   * 
+   * @since 2.9
+   */
+  protected void synchronizeReverseDependencies(final ReverseDependencyIndex reverseDependencies, final ResourceDescriptionsData index, final BuildContext context) {
+    boolean _isComplete = reverseDependencies.isComplete();
+    if (_isComplete) {
+      return;
+    }
+    final Set<URI> uris = index.getAllURIs();
+    Set<URI> _indexedURIs_1 = reverseDependencies.getIndexedURIs();
+    final Function1<URI, Boolean> _function = new Function1<URI, Boolean>() {
+      @Override
+      public Boolean apply(final URI it) {
+        boolean _contains = uris.contains(it);
+        return Boolean.valueOf((!_contains));
+      }
+    };
+    Iterable<URI> _filter = IterableExtensions.<URI>filter(_indexedURIs_1, _function);
+    List<URI> _list = IterableExtensions.<URI>toList(_filter);
+    for (final URI uri : _list) {
+      reverseDependencies.removeDependencies(uri);
+    }
+    final Function1<URI, Boolean> _function_1 = new Function1<URI, Boolean>() {
+      @Override
+      public Boolean apply(final URI it) {
+        boolean _isIndexed = reverseDependencies.isIndexed(it);
+        return Boolean.valueOf((!_isIndexed));
+      }
+    };
+    Iterable<URI> _filter_1 = IterableExtensions.<URI>filter(uris, _function_1);
+    List<URI> _list_1 = IterableExtensions.<URI>toList(_filter_1);
+    for (final URI uri_1 : _list_1) {
+      IResourceDescription _resourceDescription = index.getResourceDescription(uri_1);
+      this.updateReverseDependencies(reverseDependencies, uri_1, _resourceDescription, context);
+    }
+    reverseDependencies.setComplete(true);
+  }
+  
   protected List<IResourceDescription.Delta> getDeltasForDeletedResources(final BuildRequest request, final ResourceDescriptionsData oldIndex, @Extension final BuildContext context) {
     final ArrayList<IResourceDescription.Delta> deltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
     List<URI> _deletedFiles = request.getDeletedFiles();
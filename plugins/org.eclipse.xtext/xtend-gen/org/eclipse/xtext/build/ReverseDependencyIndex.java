@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.build;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
+import java.util.HashSet;
+import java.util.Set;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.util.PersistentHashSet;
+import org.eclipse.xtext.util.PersistentSetMultimap;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+
+/**
+ * Maps the imported names and the referenced resources of the indexed resources back to the
+ * resources that import or reference them. The {@link Indexer} uses it to find the resources
+ * that may be affected by a set of deltas instead of checking every resource in the index.
+ * 
+ * Resources that are added as {@link #addUnrestricted(URI) unrestricted} are candidates for any delta,
+ * e.g. because their {@link IResourceDescription.Manager} does not decide based on names and references.
+ * 
+ * The dependencies are stored in {@link PersistentSetMultimap persistent multimaps}, such that a
+ * {@link #copy()} is created in constant time.
+ * 
+ * @since 2.9
+ */
+@SuppressWarnings("all")
+public class ReverseDependencyIndex {
+  private final PersistentSetMultimap<QualifiedName, URI> importedName2importing;
+  
+  private final PersistentSetMultimap<URI, URI> referenced2referencing;
+  
+  private final PersistentSetMultimap<URI, QualifiedName> uri2importedNames;
+  
+  private final PersistentSetMultimap<URI, URI> uri2referenced;
+  
+  private final PersistentHashSet<URI> indexedURIs;
+  
+  private final PersistentHashSet<URI> unrestrictedURIs;
+  
+  /**
+   * Whether the dependencies of all resources of the index have been recorded.
+   */
+  private boolean complete;
+  
+  public ReverseDependencyIndex() {
+    this(new PersistentSetMultimap<QualifiedName, URI>(), new PersistentSetMultimap<URI, URI>(), new PersistentSetMultimap<URI, QualifiedName>(), new PersistentSetMultimap<URI, URI>(), 
+      new PersistentHashSet<URI>(), new PersistentHashSet<URI>(), false);
+  }
+  
+  protected ReverseDependencyIndex(final PersistentSetMultimap<QualifiedName, URI> importedName2importing, final PersistentSetMultimap<URI, URI> referenced2referencing, final PersistentSetMultimap<URI, QualifiedName> uri2importedNames, final PersistentSetMultimap<URI, URI> uri2referenced, final PersistentHashSet<URI> indexedURIs, final PersistentHashSet<URI> unrestrictedURIs, final boolean complete) {
+    this.importedName2importing = importedName2importing;
+    this.referenced2referencing = referenced2referencing;
+    this.uri2importedNames = uri2importedNames;
+    this.uri2referenced = uri2referenced;
+    this.indexedURIs = indexedURIs;
+    this.unrestrictedURIs = unrestrictedURIs;
+    this.complete = complete;
+  }
+  
+  public ReverseDependencyIndex copy() {
+    PersistentSetMultimap<QualifiedName, URI> _copy = this.importedName2importing.copy();
+    PersistentSetMultimap<URI, URI> _copy_1 = this.referenced2referencing.copy();
+    PersistentSetMultimap<URI, QualifiedName> _copy_2 = this.uri2importedNames.copy();
+    PersistentSetMultimap<URI, URI> _copy_3 = this.uri2referenced.copy();
+    PersistentHashSet<URI> _copy_4 = this.indexedURIs.copy();
+    PersistentHashSet<URI> _copy_5 = this.unrestrictedURIs.copy();
+    return new ReverseDependencyIndex(_copy, _copy_1, _copy_2, _copy_3, _copy_4, _copy_5, this.complete);
+  }
+  
+  /**
+   * Whether the dependencies of all resources of the index have been recorded. A new reverse
+   * dependency index is synchronized with the index once by the {@link Indexer}, afterwards it
+   * is kept up to date with the deltas of the builds.
+   */
+  public boolean isComplete() {
+    return this.complete;
+  }
+  
+  public void setComplete(final boolean complete) {
+    this.complete = complete;
+  }
+  
+  /**
+   * Replaces the dependencies of the given resource with the imported names and the outgoing
+   * references of its description.
+   */
+  public void addDependencies(final URI uri, final IResourceDescription description) {
+    this.removeDependencies(uri);
+    this.indexedURIs.add(uri);
+    Iterable<QualifiedName> _importedNames = description.getImportedNames();
+    for (final QualifiedName importedName : _importedNames) {
+      {
+        final QualifiedName name = importedName.toLowerCase();
+        this.importedName2importing.put(name, uri);
+        this.uri2importedNames.put(uri, name);
+      }
+    }
+    Iterable<IReferenceDescription> _referenceDescriptions = description.getReferenceDescriptions();
+    for (final IReferenceDescription reference : _referenceDescriptions) {
+      {
+        URI _targetEObjectUri = reference.getTargetEObjectUri();
+        URI _trimFragment = null;
+        if (_targetEObjectUri!=null) {
+          _trimFragment=_targetEObjectUri.trimFragment();
+        }
+        final URI target = _trimFragment;
+        boolean _and = false;
+        boolean _notEquals = (!Objects.equal(target, null));
+        if (!_notEquals) {
+          _and = false;
+        } else {
+          boolean _notEquals_1 = (!Objects.equal(target, uri));
+          _and = _notEquals_1;
+        }
+        if (_and) {
+          this.referenced2referencing.put(target, uri);
+          this.uri2referenced.put(uri, target);
+        }
+      }
+    }
+  }
+  
+  /**
+   * Marks the given resource as a candidate for any delta.
+   */
+  public void addUnrestricted(final URI uri) {
+    this.removeDependencies(uri);
+    this.indexedURIs.add(uri);
+    this.unrestrictedURIs.add(uri);
+  }
+  
+  public void removeDependencies(final URI uri) {
+    boolean _remove = this.indexedURIs.remove(uri);
+    boolean _not = (!_remove);
+    if (_not) {
+      return;
+    }
+    this.unrestrictedURIs.remove(uri);
+    Set<QualifiedName> _removeAll = this.uri2importedNames.removeAll(uri);
+    for (final QualifiedName name : _removeAll) {
+      this.importedName2importing.remove(name, uri);
+    }
+    Set<URI> _removeAll_1 = this.uri2referenced.removeAll(uri);
+    for (final URI target : _removeAll_1) {
+      this.referenced2referencing.remove(target, uri);
+    }
+  }
+  
+  public boolean isIndexed(final URI uri) {
+    return this.indexedURIs.contains(uri);
+  }
+  
+  /**
+   * @return a snapshot of the indexed resources.
+   */
+  public Set<URI> getIndexedURIs() {
+    return this.indexedURIs.copy();
+  }
+  
+  /**
+   * @return the resources that import a name exported by the old or the new state of any of the deltas
+   * 	or reference a resource of the deltas, plus all unrestricted resources.
+   */
+  public Set<URI> getAffectionCandidates(final Iterable<IResourceDescription.Delta> deltas) {
+    final HashSet<URI> result = CollectionLiterals.<URI>newHashSet();
+    Iterables.<URI>addAll(result, this.unrestrictedURIs);
+    for (final IResourceDescription.Delta delta : deltas) {
+      {
+        URI _uri = delta.getUri();
+        Set<URI> _get = this.referenced2referencing.get(_uri);
+        Iterables.<URI>addAll(result, _get);
+        IResourceDescription _old = delta.getOld();
+        this.addImporters(result, _old);
+        IResourceDescription _new = delta.getNew();
+        this.addImporters(result, _new);
+      }
+    }
+    return result;
+  }
+  
+  protected void addImporters(final Set<URI> result, final IResourceDescription description) {
+    boolean _equals = Objects.equal(description, null);
+    if (_equals) {
+      return;
+    }
+    Iterable<IEObjectDescription> _exportedObjects = description.getExportedObjects();
+    for (final IEObjectDescription exported : _exportedObjects) {
+      QualifiedName _name = exported.getName();
+      QualifiedName _lowerCase = _name.toLowerCase();
+      Set<URI> _get = this.importedName2importing.get(_lowerCase);
+      Iterables.<URI>addAll(result, _get);
+    }
+  }
+}
@@ -7,48 +7,77 @@
  */
 package org.eclipse.xtext.build;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import org.eclipse.emf.common.util.URI;
-import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
+import org.eclipse.xtext.util.PersistentSetMultimap;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 
 /**
+ * All operations are synchronized as generators may run concurrently
+ * if {@link BuildRequest#getNumberOfThreads()} is greater than one. The getters
+ * return snapshots.
+ * 
+ * The mappings are stored in {@link PersistentSetMultimap persistent multimaps}, such that a
+ * {@link #copy()} is created in constant time.
+ * 
  * @author Jan Koehnlein - Initial contribution and API
  */
-@FinalFieldsConstructor
 @SuppressWarnings("all")
 public class Source2GeneratedMapping {
-  private final Multimap<URI, URI> source2generated;
+  private final PersistentSetMultimap<URI, URI> source2generated;
   
-  private final Multimap<URI, URI> generated2source;
+  private final PersistentSetMultimap<URI, URI> generated2source;
   
   public Source2GeneratedMapping() {
-    this(HashMultimap.<URI, URI>create(), HashMultimap.<URI, URI>create());
+    this(new PersistentSetMultimap<URI, URI>(), new PersistentSetMultimap<URI, URI>());
   }
   
-  public Source2GeneratedMapping copy() {
-    HashMultimap<URI, URI> _create = HashMultimap.<URI, URI>create(this.source2generated);
-    HashMultimap<URI, URI> _create_1 = HashMultimap.<URI, URI>create(this.generated2source);
-    return new Source2GeneratedMapping(_create, _create_1);
+  public Source2GeneratedMapping(final Multimap<URI, URI> source2generated, final Multimap<URI, URI> generated2source) {
+    this(Source2GeneratedMapping.toPersistentMultimap(source2generated), Source2GeneratedMapping.toPersistentMultimap(generated2source));
+  }
+  
+  /**
+   * @since 2.9
+   */
+  protected Source2GeneratedMapping(final PersistentSetMultimap<URI, URI> source2generated, final PersistentSetMultimap<URI, URI> generated2source) {
+    this.source2generated = source2generated;
+    this.generated2source = generated2source;
+  }
+  
+  private static PersistentSetMultimap<URI, URI> toPersistentMultimap(final Multimap<URI, URI> multimap) {
+    final PersistentSetMultimap<URI, URI> result = new PersistentSetMultimap<URI, URI>();
+    Collection<Map.Entry<URI, URI>> _entries = multimap.entries();
+    for (final Map.Entry<URI, URI> entry : _entries) {
+      URI _key = entry.getKey();
+      URI _value = entry.getValue();
+      result.put(_key, _value);
+    }
+    return result;
   }
   
-  public void addSource2Generated(final URI source, final URI generated) {
+  public synchronized Source2GeneratedMapping copy() {
+    PersistentSetMultimap<URI, URI> _copy = this.source2generated.copy();
+    PersistentSetMultimap<URI, URI> _copy_1 = this.generated2source.copy();
+    return new Source2GeneratedMapping(_copy, _copy_1);
+  }
+  
+  public synchronized void addSource2Generated(final URI source, final URI generated) {
     this.source2generated.put(source, generated);
     this.generated2source.put(generated, source);
   }
   
-  public void removeSource2Generated(final URI source, final URI generated) {
+  public synchronized void removeSource2Generated(final URI source, final URI generated) {
     this.source2generated.remove(source, generated);
     this.generated2source.remove(generated, source);
   }
   
-  public Set<URI> deleteSource(final URI source) {
-    Collection<URI> _removeAll = this.source2generated.removeAll(source);
+  public synchronized Set<URI> deleteSource(final URI source) {
+    Set<URI> _removeAll = this.source2generated.removeAll(source);
     final HashSet<URI> generated = new HashSet<URI>(_removeAll);
     final Procedure1<URI> _function = new Procedure1<URI>() {
       @Override
@@ -60,8 +89,8 @@ public class Source2GeneratedMapping {
     return generated;
   }
   
-  public void deleteGenerated(final URI generated) {
-    Collection<URI> _removeAll = this.generated2source.removeAll(generated);
+  public synchronized void deleteGenerated(final URI generated) {
+    Set<URI> _removeAll = this.generated2source.removeAll(generated);
     final Procedure1<URI> _function = new Procedure1<URI>() {
       @Override
       public void apply(final URI it) {
@@ -71,21 +100,15 @@ public class Source2GeneratedMapping {
     IterableExtensions.<URI>forEach(_removeAll, _function);
   }
   
-  public Iterable<URI> getGenerated(final URI source) {
+  public synchronized Iterable<URI> getGenerated(final URI source) {
     return this.source2generated.get(source);
   }
   
-  public Iterable<URI> getSource(final URI generated) {
+  public synchronized Iterable<URI> getSource(final URI generated) {
     return this.generated2source.get(generated);
   }
   
-  public Iterable<URI> getAllGenerated() {
+  public synchronized Iterable<URI> getAllGenerated() {
     return this.generated2source.keySet();
   }
-  
-  public Source2GeneratedMapping(final Multimap<URI, URI> source2generated, final Multimap<URI, URI> generated2source) {
-    super();
-    this.source2generated = source2generated;
-    this.generated2source = generated2source;
-  }
 }
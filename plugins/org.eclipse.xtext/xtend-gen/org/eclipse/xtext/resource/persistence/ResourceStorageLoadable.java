@@ -7,7 +7,9 @@
  */
 package org.eclipse.xtext.resource.persistence;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,6 +34,7 @@ import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
 
 /**
  * @author Sven Efftinge - Initial contribution and API
@@ -114,8 +117,11 @@ public class ResourceStorageLoadable {
     }
   }
   
+  /**
+   * Reads the bytes of the node model but defers decoding them until the parse result of the resource is requested
+   * for the first time, e.g. by means of the {@link org.eclipse.xtext.nodemodel.util.NodeModelUtils}.
+   */
   protected void readNodeModel(final StorageAwareResource resource, final InputStream inputStream) throws IOException {
-    final SerializableNodeModel serializableNodeModel = new SerializableNodeModel(resource);
     ResourceSet _resourceSet = resource.getResourceSet();
     URIConverter _uRIConverter = _resourceSet.getURIConverter();
     URI _uRI = resource.getURI();
@@ -129,16 +135,56 @@ public class ResourceStorageLoadable {
       ResourceStorageLoadable.LOG.info(_plus);
       return;
     }
-    ResourceSet _resourceSet_2 = resource.getResourceSet();
-    URIConverter _uRIConverter_1 = _resourceSet_2.getURIConverter();
-    URI _uRI_2 = resource.getURI();
-    final InputStream stream = _uRIConverter_1.createInputStream(_uRI_2);
-    String _encoding = resource.getEncoding();
-    final InputStreamReader in = new InputStreamReader(stream, _encoding);
-    final String completeContent = CharStreams.toString(in);
+    final byte[] bytes = ByteStreams.toByteArray(inputStream);
+    final Procedure0 _function = new Procedure0() {
+      @Override
+      public void apply() {
+        try {
+          ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(bytes);
+          ResourceStorageLoadable.this.decodeNodeModel(resource, _byteArrayInputStream);
+        } catch (final Throwable _t) {
+          if (_t instanceof IOException) {
+            final IOException e = (IOException)_t;
+            URI _uRI = resource.getURI();
+            String _plus = ("Cannot load node model for " + _uRI);
+            ResourceStorageLoadable.LOG.error(_plus, e);
+          } else {
+            throw Exceptions.sneakyThrow(_t);
+          }
+        }
+      }
+    };
+    resource.setNodeModelLoader(_function);
+  }
+  
+  /**
+   * Decodes the node model from the given stream and installs it as the parse result of the resource. The node model
+   * is packed if the resource {@link StorageAwareResource#isPackLeafNodes() asks for it}.
+   * 
+   * @since 2.9
+   */
+  protected void decodeNodeModel(final StorageAwareResource resource, final InputStream inputStream) throws IOException {
+    final SerializableNodeModel serializableNodeModel = new SerializableNodeModel(resource);
+    ResourceSet _resourceSet = resource.getResourceSet();
+    URIConverter _uRIConverter = _resourceSet.getURIConverter();
+    URI _uRI = resource.getURI();
+    final InputStream stream = _uRIConverter.createInputStream(_uRI);
+    String _xtrycatchfinallyexpression = null;
+    try {
+      String _encoding = resource.getEncoding();
+      InputStreamReader _inputStreamReader = new InputStreamReader(stream, _encoding);
+      _xtrycatchfinallyexpression = CharStreams.toString(_inputStreamReader);
+    } finally {
+      stream.close();
+    }
+    final String completeContent = _xtrycatchfinallyexpression;
     final DeserializationConversionContext deserializationContext = new DeserializationConversionContext(resource, completeContent);
     final DataInputStream dataIn = new DataInputStream(inputStream);
     serializableNodeModel.readObjectData(dataIn, deserializationContext);
+    boolean _isPackLeafNodes = resource.isPackLeafNodes();
+    if (_isPackLeafNodes) {
+      serializableNodeModel.packLeafNodes();
+    }
     EList<EObject> _contents = resource.getContents();
     EObject _head = IterableExtensions.<EObject>head(_contents);
     boolean _hasErrors = deserializationContext.hasErrors();
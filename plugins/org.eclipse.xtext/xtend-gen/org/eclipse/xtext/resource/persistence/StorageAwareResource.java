@@ -9,6 +9,7 @@ package org.eclipse.xtext.resource.persistence;
 
 import com.google.common.base.Objects;
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
@@ -19,6 +20,8 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtend.lib.annotations.AccessorType;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.linking.lazy.LazyLinkingResource;
+import org.eclipse.xtext.nodemodel.impl.NodeModelBuilder;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.persistence.IResourceStorageFacade;
 import org.eclipse.xtext.resource.persistence.PortableURIs;
@@ -26,6 +29,7 @@ import org.eclipse.xtext.resource.persistence.ResourceStorageLoadable;
 import org.eclipse.xtext.util.internal.Stopwatches;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
 import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
@@ -53,6 +57,21 @@ public class StorageAwareResource extends LazyLinkingResource {
   @Accessors
   private IResourceDescription resourceDescription = null;
   
+  /**
+   * Whether a node model that is loaded from storage is converted to its packed representation.
+   * 
+   * @see NodeModelBuilder#PACK_LEAF_NODES_BINDING
+   * @since 2.9
+   */
+  @Accessors
+  @Inject(optional = true)
+  @Named(NodeModelBuilder.PACK_LEAF_NODES_BINDING)
+  private boolean packLeafNodes = false;
+  
+  private volatile Procedure0 nodeModelLoader;
+  
+  private boolean isLoadingNodeModel = false;
+  
   @Override
   public void load(final Map<?, ?> options) throws IOException {
     boolean _and = false;
@@ -117,14 +136,75 @@ public class StorageAwareResource extends LazyLinkingResource {
   protected void doUnload() {
     super.doUnload();
     this.isLoadedFromStorage = false;
+    this.nodeModelLoader = null;
   }
   
   @Override
   protected void clearInternalState() {
     this.isLoadedFromStorage = false;
+    this.nodeModelLoader = null;
     super.clearInternalState();
   }
   
+  /**
+   * Decodes a node model that was loaded from storage on first access.
+   * 
+   * @since 2.9
+   */
+  @Override
+  public IParseResult getParseResult() {
+    IParseResult _xblockexpression = null;
+    {
+      if ((this.nodeModelLoader != null)) {
+        this.loadNodeModel();
+      }
+      _xblockexpression = super.getParseResult();
+    }
+    return _xblockexpression;
+  }
+  
+  /**
+   * @since 2.9
+   */
+  @Override
+  public boolean isNodeModelPending() {
+    boolean _or = false;
+    if ((this.nodeModelLoader != null)) {
+      _or = true;
+    } else {
+      boolean _isNodeModelPending = super.isNodeModelPending();
+      _or = _isNodeModelPending;
+    }
+    return _or;
+  }
+  
+  /**
+   * Registers a loader that installs the node model of this resource once its parse result is requested.
+   * 
+   * @since 2.9
+   */
+  protected void setNodeModelLoader(final Procedure0 nodeModelLoader) {
+    this.nodeModelLoader = nodeModelLoader;
+  }
+  
+  /**
+   * Runs the pending node model loader, if any.
+   * 
+   * @since 2.9
+   */
+  protected synchronized void loadNodeModel() {
+    final Procedure0 loader = this.nodeModelLoader;
+    if (((loader != null) && (!this.isLoadingNodeModel))) {
+      this.isLoadingNodeModel = true;
+      try {
+        loader.apply();
+      } finally {
+        this.isLoadingNodeModel = false;
+        this.nodeModelLoader = null;
+      }
+    }
+  }
+  
   @Override
   public EObject getEObject(final String uriFragment) {
     EObject _xblockexpression = null;
@@ -174,4 +254,13 @@ public class StorageAwareResource extends LazyLinkingResource {
   public void setResourceDescription(final IResourceDescription resourceDescription) {
     this.resourceDescription = resourceDescription;
   }
+  
+  @Pure
+  public boolean isPackLeafNodes() {
+    return this.packLeafNodes;
+  }
+  
+  public void setPackLeafNodes(final boolean packLeafNodes) {
+    this.packLeafNodes = packLeafNodes;
+  }
 }
@@ -0,0 +1,9 @@
+package parallel
+
+import java.util.List
+
+class P1 {
+	def name() {
+		new P2().name + '1'
+	}
+}
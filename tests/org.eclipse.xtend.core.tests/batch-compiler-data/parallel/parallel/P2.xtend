@@ -0,0 +1,9 @@
+package parallel
+
+import java.util.List
+
+class P2 {
+	def name() {
+		new P3().name + '2'
+	}
+}
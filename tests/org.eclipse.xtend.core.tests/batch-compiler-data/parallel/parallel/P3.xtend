@@ -0,0 +1,9 @@
+package parallel
+
+import java.util.List
+
+class P3 {
+	def name() {
+		new P4().name + '3'
+	}
+}
@@ -0,0 +1,9 @@
+package parallel
+
+import java.util.List
+
+class P4 {
+	def name() {
+		new P5().name + '4'
+	}
+}
@@ -0,0 +1,9 @@
+package parallel
+
+import java.util.List
+
+class P5 {
+	def name() {
+		'5'
+	}
+}
@@ -10,11 +10,20 @@ package org.eclipse.xtend.core.tests.compiler.batch
 import com.google.common.base.Charsets
 import com.google.common.io.Files
 import com.google.inject.Inject
+import java.io.BufferedReader
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
 import java.io.File
 import java.io.IOException
+import java.io.InputStreamReader
+import java.net.InetAddress
+import java.net.ServerSocket
+import java.net.Socket
 import java.util.Set
 import org.apache.log4j.Level
+import org.eclipse.xtend.core.compiler.batch.CompilationState
 import org.eclipse.xtend.core.compiler.batch.XtendBatchCompiler
+import org.eclipse.xtend.core.compiler.batch.XtendCompilerDaemon
 import org.eclipse.xtend.core.tests.RuntimeInjectorProvider
 import org.eclipse.xtext.junit4.InjectWith
 import org.eclipse.xtext.junit4.XtextRunner
@@ -42,12 +51,16 @@ class TestBatchCompiler {
 	@Inject
 	XtendBatchCompiler batchCompiler
 
+	@Inject
+	XtendCompilerDaemon daemon
+
 	static String OUTPUT_DIRECTORY_WITH_SPACES = "./test result"
 	static String OUTPUT_DIRECTORY = "./test-result"
 	static String XTEND_SRC_DIRECTORY = "./batch-compiler-data/test data"
 	static String BUG396747_SRC_DIRECTORY = "./batch-compiler-data/bug396747"
 	static String BUG410594_SRC_DIRECTORY = "./batch-compiler-data/bug410594"
 	static String BUG416262_SRC_DIRECTORY = "./batch-compiler-data/bug416262"
+	static String PARALLEL_SRC_DIRECTORY = "./batch-compiler-data/parallel"
 	static String BUG417177_SRC_DIRECTORY_1 = "./batch-compiler-data/bug417177/dir1/src1/"
 	static String BUG417177_SRC_DIRECTORY_2 = "./batch-compiler-data/bug417177/dir2/dir2a/src2"
 	static String BUG417177_OUTPUT_DIRECTORY = "./batch-compiler-data/bug417177/dir3/bin"
@@ -498,7 +511,110 @@ class TestBatchCompiler {
 		assertTrue(batchCompiler.compile)
 		assertEquals(0, new File(TEMP_DIRECTORY).list.size)
 	}
+
+	@Test
+	def void testPreCompileInMemory() {
+		batchCompiler.preCompileInMemory = true
+		batchCompiler.deleteTempDirectory = false
+		batchCompiler.tempDirectory = TEMP_DIRECTORY
+		assertTrue(batchCompiler.compile)
+		assertTrue(new File(OUTPUT_DIRECTORY + "/test/XtendA.java").exists)
+		assertFalse(new File(TEMP_DIRECTORY).exists)
+	}
+
+	@Test
+	def void testParallelCompilation() {
+		batchCompiler.numberOfThreads = 4
+		batchCompiler.writeTraceFiles = true
+		assertTrue(batchCompiler.compile)
+		assertEquals(7, new File(OUTPUT_DIRECTORY + "/test").list[dir, name|name.endsWith(".java")].size)
+		assertEquals(7, new File(OUTPUT_DIRECTORY + "/test").list[dir, name|name.endsWith("._trace")].size)
+	}
+
+	@Test
+	def void testParallelCompilationIsDeterministic() {
+		batchCompiler.sourcePath = PARALLEL_SRC_DIRECTORY
+		val sequentialLog = LoggingTester.captureLogging(Level.WARN, XtendBatchCompiler) [
+			assertTrue(batchCompiler.compile)
+		]
+		val sequentialOutput = parallelOutput
+		cleanFolder(new File(OUTPUT_DIRECTORY), null, true, false)
+		batchCompiler.numberOfThreads = 4
+		val parallelLog = LoggingTester.captureLogging(Level.WARN, XtendBatchCompiler) [
+			assertTrue(batchCompiler.compile)
+		]
+		// each file has an unused import
+		sequentialLog.assertNumberOfLogEntries(5, Level.WARN, "is never used")
+		assertEquals(sequentialLog.logEntries.map[message], parallelLog.logEntries.map[message])
+		assertEquals(5, sequentialOutput.size)
+		assertEquals(sequentialOutput, parallelOutput)
+	}
+
+	def private getParallelOutput() {
+		val names = new File(OUTPUT_DIRECTORY + "/parallel").list[dir, name|name.endsWith(".java")].sort
+		names.toInvertedMap[(OUTPUT_DIRECTORY + "/parallel/" + it).contents]
+	}
+
+	@Test
+	def void testCompilationState() {
+		val state = new CompilationState
+		try {
+			batchCompiler.compilationState = state
+			assertTrue(batchCompiler.compile)
+			val generated = new File(OUTPUT_DIRECTORY + "/test/XtendA.java")
+			assertTrue(generated.exists)
+			generated.delete
+			assertTrue(batchCompiler.compile)
+			assertTrue("Deleted Java files are generated again", generated.exists)
+			val source = new File(XTEND_SRC_DIRECTORY + "/test/XtendA.xtend")
+			source.setLastModified(source.lastModified + 1000)
+			assertTrue(batchCompiler.compile)
+			assertTrue(generated.exists)
+		} finally {
+			state.close
+		}
+	}
 	
+	@Test
+	def void testDaemonProtocol() {
+		val requests = #[
+			XTEND_SRC_DIRECTORY, '',
+			'-d', OUTPUT_DIRECTORY, '-useCurrentClassLoader', XTEND_SRC_DIRECTORY, '',
+			XtendCompilerDaemon.SHUTDOWN, '',
+			'-d', OUTPUT_DIRECTORY, XTEND_SRC_DIRECTORY
+		].join('\n') + '\n\n'
+		val out = new ByteArrayOutputStream
+		daemon.serve(new ByteArrayInputStream(requests.getBytes('UTF-8')), out)
+		assertEquals(#[XtendCompilerDaemon.FAILURE, XtendCompilerDaemon.SUCCESS], out.toString('UTF-8').split('\r?\n').toList)
+		assertTrue(new File(OUTPUT_DIRECTORY + "/test/XtendA.java").exists)
+	}
+
+	@Test
+	def void testDaemonSurvivesBrokenConnection() {
+		val serverSocket = new ServerSocket(0, 0, InetAddress.getByName(null))
+		val server = new Thread [daemon.serve(serverSocket)]
+		server.start
+		try {
+			val broken = new Socket(serverSocket.inetAddress, serverSocket.localPort)
+			broken.setSoLinger(true, 0)
+			broken.outputStream.write('-d\n'.getBytes('UTF-8'))
+			broken.close
+			val client = new Socket(serverSocket.inetAddress, serverSocket.localPort)
+			try {
+				val request = XTEND_SRC_DIRECTORY + '\n\n' + XtendCompilerDaemon.SHUTDOWN + '\n\n'
+				client.outputStream.write(request.getBytes('UTF-8'))
+				val reader = new BufferedReader(new InputStreamReader(client.inputStream, 'UTF-8'))
+				assertEquals(XtendCompilerDaemon.FAILURE, reader.readLine)
+			} finally {
+				client.close
+			}
+			server.join(5000)
+			assertFalse(server.alive)
+		} finally {
+			serverSocket.close
+		}
+	}
+
 	@Test
 	def void testNoSuppressWarningsAnnotations() {
 		batchCompiler.generateSyntheticSuppressWarnings = false
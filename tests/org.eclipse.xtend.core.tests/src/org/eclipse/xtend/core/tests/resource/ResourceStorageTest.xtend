@@ -14,6 +14,8 @@ import org.eclipse.emf.common.util.URI
 import org.eclipse.xtend.core.tests.AbstractXtendTestCase
 import org.eclipse.xtext.common.types.JvmGenericType
 import org.eclipse.xtext.junit4.util.InMemoryURIConverter
+import org.eclipse.xtext.nodemodel.ICompositeNode
+import org.eclipse.xtext.nodemodel.impl.PackedRootNode
 import org.eclipse.xtext.nodemodel.util.NodeModelUtils
 import org.eclipse.xtext.resource.persistence.IResourceStorageFacade
 import org.eclipse.xtext.resource.persistence.ResourceStorageFacade
@@ -173,4 +175,75 @@ class ResourceStorageTest extends AbstractXtendTestCase {
 		assertTrue(field.isSetConstant)
 		assertNull(field.constantValue)
 	}
+	
+	@Test def void testNodeModelIsLoadedOnDemand() {
+		val contents = '''
+			class C {
+				def m() {}
+			}
+		'''
+		val file = file(contents)
+		
+		val bout = new ByteArrayOutputStream;
+		(resourceStorageFacade as ResourceStorageFacade).storeNodeModel = true
+		resourceStorageFacade.createResourceStorageWritable(bout).writeResource(file.eResource as StorageAwareResource)
+		
+		val in = resourceStorageFacade.createResourceStorageLoadable(new ByteArrayInputStream(bout.toByteArray))
+		
+		val resource = file.eResource.resourceSet.createResource(URI.createURI("synthetic:/test/MyClass.xtend")) as StorageAwareResource
+		// set a synthetic converter so we can obtain the text by the URI
+		val converter = new InMemoryURIConverter()
+		converter.addModel(resource.URI.toString, contents)
+		resource.resourceSet.URIConverter = converter
+		
+		file.eResource.resourceSet.resources += resource;
+		resource.loadFromStorage(in)
+		
+		// the node model is not attached before it is requested
+		val root = resource.contents.head
+		assertFalse(root.eAdapters.exists[it instanceof ICompositeNode])
+		
+		val node = NodeModelUtils.getNode(root)
+		assertNotNull(node)
+		assertSame(node, resource.parseResult.rootNode)
+		assertEquals(contents, node.text)
+	}
+	
+	@Test def void testPackedNodeModelIsLoaded() {
+		val contents = '''
+			class C {
+				def m() {}
+			}
+		'''
+		val file = file(contents)
+		
+		val bout = new ByteArrayOutputStream;
+		(resourceStorageFacade as ResourceStorageFacade).storeNodeModel = true
+		resourceStorageFacade.createResourceStorageWritable(bout).writeResource(file.eResource as StorageAwareResource)
+		
+		val in = resourceStorageFacade.createResourceStorageLoadable(new ByteArrayInputStream(bout.toByteArray))
+		
+		val resource = file.eResource.resourceSet.createResource(URI.createURI("synthetic:/test/MyClass.xtend")) as StorageAwareResource
+		resource.packLeafNodes = true
+		// set a synthetic converter so we can obtain the text by the URI
+		val converter = new InMemoryURIConverter()
+		converter.addModel(resource.URI.toString, contents)
+		resource.resourceSet.URIConverter = converter
+		
+		file.eResource.resourceSet.resources += resource;
+		resource.loadFromStorage(in)
+		
+		val node = NodeModelUtils.getNode(resource.contents.head)
+		assertTrue(node instanceof PackedRootNode)
+		assertEquals(contents, node.text)
+		val restoredNodes = node.asTreeIterable.iterator
+		val originalNodes = NodeModelUtils.findActualNodeFor(file).asTreeIterable.iterator
+		while (originalNodes.hasNext) {
+			val original = originalNodes.next
+			val restored = restoredNodes.next
+			assertEquals(original.totalOffset, restored.totalOffset)
+			assertEquals(original.text, restored.text)
+		}
+		assertFalse(restoredNodes.hasNext)
+	}
 }
\ No newline at end of file
@@ -10,14 +10,27 @@ package org.eclipse.xtend.core.tests.compiler.batch;
 import com.google.common.base.Charsets;
 import com.google.common.base.Objects;
 import com.google.inject.Inject;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.apache.log4j.Level;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtend.core.compiler.batch.CompilationState;
 import org.eclipse.xtend.core.compiler.batch.XtendBatchCompiler;
+import org.eclipse.xtend.core.compiler.batch.XtendCompilerDaemon;
 import org.eclipse.xtend.core.tests.RuntimeInjectorProvider;
 import org.eclipse.xtend2.lib.StringConcatenation;
 import org.eclipse.xtext.generator.OutputConfiguration;
@@ -35,6 +48,7 @@ import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.InputOutput;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.junit.After;
@@ -57,6 +71,9 @@ public class TestBatchCompiler {
   @Inject
   private XtendBatchCompiler batchCompiler;
   
+  @Inject
+  private XtendCompilerDaemon daemon;
+  
   private static String OUTPUT_DIRECTORY_WITH_SPACES = "./test result";
   
   private static String OUTPUT_DIRECTORY = "./test-result";
@@ -69,6 +86,8 @@ public class TestBatchCompiler {
   
   private static String BUG416262_SRC_DIRECTORY = "./batch-compiler-data/bug416262";
   
+  private static String PARALLEL_SRC_DIRECTORY = "./batch-compiler-data/parallel";
+  
   private static String BUG417177_SRC_DIRECTORY_1 = "./batch-compiler-data/bug417177/dir1/src1/";
   
   private static String BUG417177_SRC_DIRECTORY_2 = "./batch-compiler-data/bug417177/dir2/dir2a/src2";
@@ -1066,6 +1085,221 @@ public class TestBatchCompiler {
     Assert.assertEquals(0, _size);
   }
   
+  @Test
+  public void testPreCompileInMemory() {
+    this.batchCompiler.setPreCompileInMemory(true);
+    this.batchCompiler.setDeleteTempDirectory(false);
+    this.batchCompiler.setTempDirectory(TestBatchCompiler.TEMP_DIRECTORY);
+    boolean _compile = this.batchCompiler.compile();
+    Assert.assertTrue(_compile);
+    File _file = new File((TestBatchCompiler.OUTPUT_DIRECTORY + "/test/XtendA.java"));
+    boolean _exists = _file.exists();
+    Assert.assertTrue(_exists);
+    File _file_1 = new File(TestBatchCompiler.TEMP_DIRECTORY);
+    boolean _exists_1 = _file_1.exists();
+    Assert.assertFalse(_exists_1);
+  }
+  
+  @Test
+  public void testParallelCompilation() {
+    this.batchCompiler.setNumberOfThreads(4);
+    this.batchCompiler.setWriteTraceFiles(true);
+    boolean _compile = this.batchCompiler.compile();
+    Assert.assertTrue(_compile);
+    File _file = new File((TestBatchCompiler.OUTPUT_DIRECTORY + "/test"));
+    final FilenameFilter _function = new FilenameFilter() {
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return name.endsWith(".java");
+      }
+    };
+    String[] _list = _file.list(_function);
+    int _size = ((List<String>)Conversions.doWrapArray(_list)).size();
+    Assert.assertEquals(7, _size);
+    File _file_1 = new File((TestBatchCompiler.OUTPUT_DIRECTORY + "/test"));
+    final FilenameFilter _function_1 = new FilenameFilter() {
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return name.endsWith("._trace");
+      }
+    };
+    String[] _list_1 = _file_1.list(_function_1);
+    int _size_1 = ((List<String>)Conversions.doWrapArray(_list_1)).size();
+    Assert.assertEquals(7, _size_1);
+  }
+  
+  @Test
+  public void testParallelCompilationIsDeterministic() {
+    this.batchCompiler.setSourcePath(TestBatchCompiler.PARALLEL_SRC_DIRECTORY);
+    final Runnable _function = new Runnable() {
+      @Override
+      public void run() {
+        boolean _compile = TestBatchCompiler.this.batchCompiler.compile();
+        Assert.assertTrue(_compile);
+      }
+    };
+    final LoggingTester.LogCapture sequentialLog = LoggingTester.captureLogging(Level.WARN, XtendBatchCompiler.class, _function);
+    final Map<String, String> sequentialOutput = this.getParallelOutput();
+    File _file = new File(TestBatchCompiler.OUTPUT_DIRECTORY);
+    Files.cleanFolder(_file, null, true, false);
+    this.batchCompiler.setNumberOfThreads(4);
+    final Runnable _function_1 = new Runnable() {
+      @Override
+      public void run() {
+        boolean _compile = TestBatchCompiler.this.batchCompiler.compile();
+        Assert.assertTrue(_compile);
+      }
+    };
+    final LoggingTester.LogCapture parallelLog = LoggingTester.captureLogging(Level.WARN, XtendBatchCompiler.class, _function_1);
+    sequentialLog.assertNumberOfLogEntries(5, Level.WARN, "is never used");
+    List<LoggingTester.LogEntry> _logEntries = sequentialLog.getLogEntries();
+    final Function1<LoggingTester.LogEntry, String> _function_2 = new Function1<LoggingTester.LogEntry, String>() {
+      @Override
+      public String apply(final LoggingTester.LogEntry it) {
+        return it.getMessage();
+      }
+    };
+    List<String> _map = ListExtensions.<LoggingTester.LogEntry, String>map(_logEntries, _function_2);
+    List<LoggingTester.LogEntry> _logEntries_1 = parallelLog.getLogEntries();
+    final Function1<LoggingTester.LogEntry, String> _function_3 = new Function1<LoggingTester.LogEntry, String>() {
+      @Override
+      public String apply(final LoggingTester.LogEntry it) {
+        return it.getMessage();
+      }
+    };
+    List<String> _map_1 = ListExtensions.<LoggingTester.LogEntry, String>map(_logEntries_1, _function_3);
+    Assert.assertEquals(_map, _map_1);
+    int _size = sequentialOutput.size();
+    Assert.assertEquals(5, _size);
+    Map<String, String> _parallelOutput = this.getParallelOutput();
+    Assert.assertEquals(sequentialOutput, _parallelOutput);
+  }
+  
+  private Map<String, String> getParallelOutput() {
+    Map<String, String> _xblockexpression = null;
+    {
+      File _file = new File((TestBatchCompiler.OUTPUT_DIRECTORY + "/parallel"));
+      final FilenameFilter _function = new FilenameFilter() {
+        @Override
+        public boolean accept(final File dir, final String name) {
+          return name.endsWith(".java");
+        }
+      };
+      String[] _list = _file.list(_function);
+      final List<String> names = IterableExtensions.<String>sort(((Iterable<String>)Conversions.doWrapArray(_list)));
+      final Function1<String, String> _function_1 = new Function1<String, String>() {
+        @Override
+        public String apply(final String it) {
+          return TestBatchCompiler.this.getContents(((TestBatchCompiler.OUTPUT_DIRECTORY + "/parallel/") + it));
+        }
+      };
+      _xblockexpression = IterableExtensions.<String, String>toInvertedMap(names, _function_1);
+    }
+    return _xblockexpression;
+  }
+  
+  @Test
+  public void testCompilationState() {
+    final CompilationState state = new CompilationState();
+    try {
+      this.batchCompiler.setCompilationState(state);
+      boolean _compile = this.batchCompiler.compile();
+      Assert.assertTrue(_compile);
+      final File generated = new File((TestBatchCompiler.OUTPUT_DIRECTORY + "/test/XtendA.java"));
+      boolean _exists = generated.exists();
+      Assert.assertTrue(_exists);
+      generated.delete();
+      boolean _compile_1 = this.batchCompiler.compile();
+      Assert.assertTrue(_compile_1);
+      boolean _exists_1 = generated.exists();
+      Assert.assertTrue("Deleted Java files are generated again", _exists_1);
+      final File source = new File((TestBatchCompiler.XTEND_SRC_DIRECTORY + "/test/XtendA.xtend"));
+      long _lastModified = source.lastModified();
+      long _plus = (_lastModified + 1000);
+      source.setLastModified(_plus);
+      boolean _compile_2 = this.batchCompiler.compile();
+      Assert.assertTrue(_compile_2);
+      boolean _exists_2 = generated.exists();
+      Assert.assertTrue(_exists_2);
+    } finally {
+      state.close();
+    }
+  }
+  
+  @Test
+  public void testDaemonProtocol() {
+    try {
+      String _join = IterableExtensions.join(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList(TestBatchCompiler.XTEND_SRC_DIRECTORY, "", "-d", TestBatchCompiler.OUTPUT_DIRECTORY, "-useCurrentClassLoader", TestBatchCompiler.XTEND_SRC_DIRECTORY, "", XtendCompilerDaemon.SHUTDOWN, "", "-d", TestBatchCompiler.OUTPUT_DIRECTORY, TestBatchCompiler.XTEND_SRC_DIRECTORY)), "\n");
+      final String requests = (_join + "\n\n");
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] _bytes = requests.getBytes("UTF-8");
+      ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(_bytes);
+      this.daemon.serve(_byteArrayInputStream, out);
+      String _string = out.toString("UTF-8");
+      String[] _split = _string.split("\\r?\\n");
+      List<String> _list = IterableExtensions.<String>toList(((Iterable<String>)Conversions.doWrapArray(_split)));
+      Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList(XtendCompilerDaemon.FAILURE, XtendCompilerDaemon.SUCCESS)), _list);
+      File _file = new File((TestBatchCompiler.OUTPUT_DIRECTORY + "/test/XtendA.java"));
+      boolean _exists = _file.exists();
+      Assert.assertTrue(_exists);
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test
+  public void testDaemonSurvivesBrokenConnection() {
+    try {
+      InetAddress _byName = InetAddress.getByName(null);
+      final ServerSocket serverSocket = new ServerSocket(0, 0, _byName);
+      final Runnable _function = new Runnable() {
+        @Override
+        public void run() {
+          try {
+            TestBatchCompiler.this.daemon.serve(serverSocket);
+          } catch (Throwable _e) {
+            throw Exceptions.sneakyThrow(_e);
+          }
+        }
+      };
+      final Thread server = new Thread(_function);
+      server.start();
+      try {
+        InetAddress _inetAddress = serverSocket.getInetAddress();
+        int _localPort = serverSocket.getLocalPort();
+        final Socket broken = new Socket(_inetAddress, _localPort);
+        broken.setSoLinger(true, 0);
+        OutputStream _outputStream = broken.getOutputStream();
+        byte[] _bytes = "-d\n".getBytes("UTF-8");
+        _outputStream.write(_bytes);
+        broken.close();
+        InetAddress _inetAddress_1 = serverSocket.getInetAddress();
+        int _localPort_1 = serverSocket.getLocalPort();
+        final Socket client = new Socket(_inetAddress_1, _localPort_1);
+        try {
+          final String request = (((TestBatchCompiler.XTEND_SRC_DIRECTORY + "\n\n") + XtendCompilerDaemon.SHUTDOWN) + "\n\n");
+          OutputStream _outputStream_1 = client.getOutputStream();
+          byte[] _bytes_1 = request.getBytes("UTF-8");
+          _outputStream_1.write(_bytes_1);
+          InputStream _inputStream = client.getInputStream();
+          InputStreamReader _inputStreamReader = new InputStreamReader(_inputStream, "UTF-8");
+          final BufferedReader reader = new BufferedReader(_inputStreamReader);
+          String _readLine = reader.readLine();
+          Assert.assertEquals(XtendCompilerDaemon.FAILURE, _readLine);
+        } finally {
+          client.close();
+        }
+        server.join(5000);
+        boolean _isAlive = server.isAlive();
+        Assert.assertFalse(_isAlive);
+      } finally {
+        serverSocket.close();
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
   @Test
   public void testNoSuppressWarningsAnnotations() {
     this.batchCompiler.setGenerateSyntheticSuppressWarnings(false);
@@ -34,7 +34,9 @@ import org.eclipse.xtext.nodemodel.BidiTreeIterable;
 import org.eclipse.xtext.nodemodel.BidiTreeIterator;
 import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.impl.PackedRootNode;
 import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.persistence.IResourceStorageFacade;
@@ -343,4 +345,132 @@ public class ResourceStorageTest extends AbstractXtendTestCase {
       throw Exceptions.sneakyThrow(_e);
     }
   }
+  
+  @Test
+  public void testNodeModelIsLoadedOnDemand() {
+    try {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("class C {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("def m() {}");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      final String contents = _builder.toString();
+      final XtendFile file = this.file(contents);
+      final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      ((ResourceStorageFacade) this.resourceStorageFacade).setStoreNodeModel(true);
+      ResourceStorageWritable _createResourceStorageWritable = this.resourceStorageFacade.createResourceStorageWritable(bout);
+      Resource _eResource = file.eResource();
+      _createResourceStorageWritable.writeResource(((StorageAwareResource) _eResource));
+      byte[] _byteArray = bout.toByteArray();
+      ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(_byteArray);
+      final ResourceStorageLoadable in = this.resourceStorageFacade.createResourceStorageLoadable(_byteArrayInputStream);
+      Resource _eResource_1 = file.eResource();
+      ResourceSet _resourceSet = _eResource_1.getResourceSet();
+      URI _createURI = URI.createURI("synthetic:/test/MyClass.xtend");
+      Resource _createResource = _resourceSet.createResource(_createURI);
+      final StorageAwareResource resource = ((StorageAwareResource) _createResource);
+      final InMemoryURIConverter converter = new InMemoryURIConverter();
+      URI _uRI = resource.getURI();
+      String _string = _uRI.toString();
+      converter.addModel(_string, contents);
+      ResourceSet _resourceSet_1 = resource.getResourceSet();
+      _resourceSet_1.setURIConverter(converter);
+      Resource _eResource_2 = file.eResource();
+      ResourceSet _resourceSet_2 = _eResource_2.getResourceSet();
+      EList<Resource> _resources = _resourceSet_2.getResources();
+      _resources.add(resource);
+      resource.loadFromStorage(in);
+      EList<EObject> _contents = resource.getContents();
+      final EObject root = IterableExtensions.<EObject>head(_contents);
+      EList<Adapter> _eAdapters = root.eAdapters();
+      final Function1<Adapter, Boolean> _function = new Function1<Adapter, Boolean>() {
+        @Override
+        public Boolean apply(final Adapter it) {
+          return Boolean.valueOf((it instanceof ICompositeNode));
+        }
+      };
+      boolean _exists = IterableExtensions.<Adapter>exists(_eAdapters, _function);
+      Assert.assertFalse(_exists);
+      final ICompositeNode node = NodeModelUtils.getNode(root);
+      Assert.assertNotNull(node);
+      IParseResult _parseResult = resource.getParseResult();
+      ICompositeNode _rootNode = _parseResult.getRootNode();
+      Assert.assertSame(node, _rootNode);
+      String _text = node.getText();
+      Assert.assertEquals(contents, _text);
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test
+  public void testPackedNodeModelIsLoaded() {
+    try {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("class C {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("def m() {}");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      final String contents = _builder.toString();
+      final XtendFile file = this.file(contents);
+      final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      ((ResourceStorageFacade) this.resourceStorageFacade).setStoreNodeModel(true);
+      ResourceStorageWritable _createResourceStorageWritable = this.resourceStorageFacade.createResourceStorageWritable(bout);
+      Resource _eResource = file.eResource();
+      _createResourceStorageWritable.writeResource(((StorageAwareResource) _eResource));
+      byte[] _byteArray = bout.toByteArray();
+      ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(_byteArray);
+      final ResourceStorageLoadable in = this.resourceStorageFacade.createResourceStorageLoadable(_byteArrayInputStream);
+      Resource _eResource_1 = file.eResource();
+      ResourceSet _resourceSet = _eResource_1.getResourceSet();
+      URI _createURI = URI.createURI("synthetic:/test/MyClass.xtend");
+      Resource _createResource = _resourceSet.createResource(_createURI);
+      final StorageAwareResource resource = ((StorageAwareResource) _createResource);
+      resource.setPackLeafNodes(true);
+      final InMemoryURIConverter converter = new InMemoryURIConverter();
+      URI _uRI = resource.getURI();
+      String _string = _uRI.toString();
+      converter.addModel(_string, contents);
+      ResourceSet _resourceSet_1 = resource.getResourceSet();
+      _resourceSet_1.setURIConverter(converter);
+      Resource _eResource_2 = file.eResource();
+      ResourceSet _resourceSet_2 = _eResource_2.getResourceSet();
+      EList<Resource> _resources = _resourceSet_2.getResources();
+      _resources.add(resource);
+      resource.loadFromStorage(in);
+      EList<EObject> _contents = resource.getContents();
+      EObject _head = IterableExtensions.<EObject>head(_contents);
+      final ICompositeNode node = NodeModelUtils.getNode(_head);
+      Assert.assertTrue((node instanceof PackedRootNode));
+      String _text = node.getText();
+      Assert.assertEquals(contents, _text);
+      BidiTreeIterable<INode> _asTreeIterable = node.getAsTreeIterable();
+      final BidiTreeIterator<INode> restoredNodes = _asTreeIterable.iterator();
+      ICompositeNode _findActualNodeFor = NodeModelUtils.findActualNodeFor(file);
+      BidiTreeIterable<INode> _asTreeIterable_1 = _findActualNodeFor.getAsTreeIterable();
+      final BidiTreeIterator<INode> originalNodes = _asTreeIterable_1.iterator();
+      while (originalNodes.hasNext()) {
+        {
+          final INode original = originalNodes.next();
+          final INode restored = restoredNodes.next();
+          int _totalOffset = original.getTotalOffset();
+          int _totalOffset_1 = restored.getTotalOffset();
+          Assert.assertEquals(_totalOffset, _totalOffset_1);
+          String _text_1 = original.getText();
+          String _text_2 = restored.getText();
+          Assert.assertEquals(_text_1, _text_2);
+        }
+      }
+      boolean _hasNext = restoredNodes.hasNext();
+      Assert.assertFalse(_hasNext);
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
 }
@@ -207,6 +207,83 @@ public class StandaloneBuilderTest {
 
 	}
 
+	@Test
+	public void testBuildCache() {
+		initBuilder(new TestLanguageConfiguration(false));
+		testBuilder.setBuildCacheDir(new File(TMP_DIR, "cache"));
+		try {
+			assertTrue("Builder launch returned false", testBuilder.launch());
+			assertEquals(2, testBuilder.getValidateCalled());
+			assertEquals(1, testBuilder.getGenerateCalled());
+			assertTrue(new File(TMP_DIR, "cache/" + BuildCache.INDEX_FILE_NAME).exists());
+
+			testBuilder.resetCallStatistic();
+			assertTrue("Builder launch returned false", testBuilder.launch());
+			assertEquals("Up to date resources should not be validated", 0, testBuilder.getValidateCalled());
+			assertEquals("Up to date resources should not be generated", 0, testBuilder.getGenerateCalled());
+
+			assertTrue(getFile("src-gen/Foo.txt").delete());
+			testBuilder.resetCallStatistic();
+			assertTrue("Builder launch returned false", testBuilder.launch());
+			assertEquals("Resources with missing output should be built", 1, testBuilder.getValidateCalled());
+			assertTrue(getFile("src-gen/Foo.txt").exists());
+		} finally {
+			testBuilder.setBuildCacheDir(null);
+		}
+	}
+
+	@Test
+	public void testBuildCacheWithChangedConfiguration() {
+		initBuilder(new TestLanguageConfiguration(false));
+		testBuilder.setBuildCacheDir(new File(TMP_DIR, "cache"));
+		try {
+			assertTrue("Builder launch returned false", testBuilder.launch());
+			assertTrue(getFile("src-gen/Bar.txt").exists());
+
+			initBuilder(new TestLanguageConfiguration(true));
+			assertTrue("Builder launch returned false", testBuilder.launch());
+			assertEquals("Changed output configurations should discard the cache", 2, testBuilder.getValidateCalled());
+			assertTrue(getFile("src2-gen/Bar.txt").exists());
+		} finally {
+			testBuilder.setBuildCacheDir(null);
+		}
+	}
+
+	@Test
+	public void testBuildCacheWithChangedDependency() {
+		File sourceDir = new File(TMP_DIR, "deps");
+		assertTrue(sourceDir.mkdirs());
+		Files.writeStringIntoFile(new File(sourceDir, "A.buildertestlanguage").getPath(), "object A references B");
+		Files.writeStringIntoFile(new File(sourceDir, "B.buildertestlanguage").getPath(), "object B");
+		Files.writeStringIntoFile(new File(sourceDir, "C.buildertestlanguage").getPath(), "object C");
+		initBuilder(new TestLanguageConfiguration(false), "tmp/deps");
+		testBuilder.setBuildCacheDir(new File(TMP_DIR, "cache"));
+		try {
+			assertTrue("Builder launch returned false", testBuilder.launch());
+			assertEquals(3, testBuilder.getValidateCalled());
+
+			Files.writeStringIntoFile(new File(sourceDir, "B.buildertestlanguage").getPath(), "object B otherRefs C");
+			testBuilder.resetCallStatistic();
+			assertTrue("Builder launch returned false", testBuilder.launch());
+			assertEquals("The changed resource and its dependent should be built", 2, testBuilder.getValidateCalled());
+		} finally {
+			testBuilder.setBuildCacheDir(null);
+		}
+	}
+
+	@Test
+	public void testParallelIndex() {
+		initBuilder(new TestLanguageConfiguration(true));
+		testBuilder.setNumberOfThreads(2);
+		try {
+			assertTrue("Builder launch returned false", testBuilder.launch());
+			assertTrue(getFile("src-gen/Foo.txt").exists());
+			assertTrue(getFile("src2-gen/Bar.txt").exists());
+		} finally {
+			testBuilder.setNumberOfThreads(1);
+		}
+	}
+
 	private File getFile(String projectRelativePath) {
 		return new File(PROJECT_DIR, projectRelativePath);
 	}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.access.binary.BinaryClass;
+import org.eclipse.xtext.common.types.access.binary.asm.ClassFileBytesAccess;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+public class PersistentDeclaredTypeCacheTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private PersistentDeclaredTypeCache cache;
+
+	private DeclaredTypeFactory factory;
+
+	private BinaryClass binaryClass;
+
+	@Before
+	public void setUp() throws Exception {
+		cache = new PersistentDeclaredTypeCache(temporaryFolder.getRoot());
+		ClassLoader classLoader = getClass().getClassLoader();
+		factory = new DeclaredTypeFactory(new ClassFileBytesAccess(), classLoader);
+		binaryClass = BinaryClass.forName(Lists.class.getName(), classLoader);
+	}
+
+	@Test
+	public void testStoreAndLoad() {
+		File cacheFile = cache.getCacheFile(binaryClass);
+		Assume.assumeNotNull(cacheFile);
+		assertNull(cache.load(binaryClass));
+		JvmDeclaredType type = factory.createType(binaryClass);
+		cache.store(binaryClass, type);
+		assertTrue(cacheFile.isFile());
+		assertNull(type.eResource());
+		JvmDeclaredType cached = cache.load(binaryClass);
+		assertNotNull(cached);
+		assertNotSame(type, cached);
+		assertNull(cached.eResource());
+		assertEquals(type.getIdentifier(), cached.getIdentifier());
+		assertEquals(type.getMembers().size(), cached.getMembers().size());
+		assertEquals(type.getSuperTypes().size(), cached.getSuperTypes().size());
+	}
+
+	@Test
+	public void testCachingFactoryUsesPersistentCache() {
+		Assume.assumeNotNull(cache.getCacheFile(binaryClass));
+		new CachingDeclaredTypeFactory(factory, cache).createType(binaryClass);
+		JvmDeclaredType cached = cache.load(binaryClass);
+		assertNotNull(cached);
+		assertEquals(Lists.class.getName(), cached.getIdentifier());
+	}
+
+	@Test
+	public void testClassFoldersAreNotCached() {
+		BinaryClass folderClass = new BinaryClass(getClass().getName(), getClass().getClassLoader());
+		Assume.assumeTrue("file".equals(folderClass.getClassFileURL().getProtocol()));
+		assertNull(cache.getCacheFile(folderClass));
+	}
+
+}
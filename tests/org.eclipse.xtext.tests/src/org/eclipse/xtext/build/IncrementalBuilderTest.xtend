@@ -50,6 +50,28 @@ class IncrementalBuilderTest extends AbstractIncrementalBuilderTest {
 		assertTrue(generated.values.containsSuffix('src-gen/A.txt'))
 	}
 	
+	@Test def void testParallelBuild() {
+		build(newBuildRequest [
+			numberOfThreads = 4
+			dirtyFiles = #[
+				'src/A.indextestlanguage' - '''
+					foo {
+						entity A {foo.B reference}
+					}
+				''',
+				'src/B.indextestlanguage' - '''
+					foo {
+						entity B {foo.X reference}
+					}
+				'''
+			]
+		])
+		assertEquals(issues.toString, 1, issues.size)
+		assertEquals(1, generated.size)
+		assertTrue(generated.get(uri('src/A.indextestlanguage')).containsSuffix('src-gen/A.txt'))
+		assertEquals(2, indexState.resourceDescriptions.allResourceDescriptions.size)
+	}
+	
 	@Test def void testDelete_01() {
 		build(newBuildRequest [
 			dirtyFiles = #[
@@ -161,5 +183,78 @@ class IncrementalBuilderTest extends AbstractIncrementalBuilderTest {
 		assertTrue(deleted.containsSuffix('src-gen/A.txt'))
 	}
 
+	@Test def void testAffectedResources() {
+		build(newBuildRequest [
+			dirtyFiles = #[
+				'src/A.indextestlanguage' - '''
+					foo {
+						entity A {foo.B reference}
+					}
+				''',
+				'src/B.indextestlanguage' - '''
+					foo {
+						entity B
+					}
+				''',
+				'src/C.indextestlanguage' - '''
+					foo {
+						entity C
+					}
+				'''
+			]
+		])
+		assertTrue(issues.toString, issues.isEmpty)
+
+		build(newBuildRequest [
+			dirtyFiles = #[
+				'src/B.indextestlanguage' - '''
+					foo {
+						entity B
+						entity B2
+					}
+				'''
+			]
+		])
+		assertTrue(issues.toString, issues.isEmpty)
+		assertTrue(generated.containsKey(uri('src/A.indextestlanguage')))
+		assertTrue(generated.containsKey(uri('src/B.indextestlanguage')))
+		assertFalse(generated.containsKey(uri('src/C.indextestlanguage')))
+	}
+
+	@Test def void testStaleReverseDependencies() {
+		build(newBuildRequest [
+			dirtyFiles = #[
+				'src/A.indextestlanguage' - '''
+					foo {
+						entity A {foo.B reference}
+					}
+				''',
+				'src/B.indextestlanguage' - '''
+					foo {
+						entity B
+					}
+				'''
+			]
+		])
+		assertTrue(issues.toString, issues.isEmpty)
+
+		build(newBuildRequest [
+			dirtyFiles = #[
+				'src/B.indextestlanguage' - '''
+					foo {
+						entity B
+						entity B2
+					}
+				'''
+			]
+			// same number of resources as the index, but different ones
+			val stale = new ReverseDependencyIndex
+			stale.addUnrestricted(uri('src/X.indextestlanguage'))
+			stale.addUnrestricted(uri('src/Y.indextestlanguage'))
+			state = new IndexState(state.resourceDescriptions, state.fileMappings, stale)
+		])
+		assertTrue(issues.toString, issues.isEmpty)
+		assertTrue(generated.containsKey(uri('src/A.indextestlanguage')))
+	}
 	
 }
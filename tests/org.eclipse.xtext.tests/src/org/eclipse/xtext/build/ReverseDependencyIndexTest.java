@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.build;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
+import org.eclipse.xtext.resource.impl.DefaultReferenceDescription;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+public class ReverseDependencyIndexTest extends Assert {
+
+	private static class TestDescription extends AbstractResourceDescription {
+		private final URI uri;
+		private final List<IEObjectDescription> exported = Lists.newArrayList();
+		private final List<QualifiedName> imported = Lists.newArrayList();
+		private final List<IReferenceDescription> references = Lists.newArrayList();
+
+		TestDescription(String path) {
+			this.uri = uri(path);
+		}
+
+		TestDescription exports(String name) {
+			exported.add(EObjectDescription.create(QualifiedName.create(name), EcoreFactory.eINSTANCE.createEClass()));
+			return this;
+		}
+
+		TestDescription imports(String name) {
+			imported.add(QualifiedName.create(name));
+			return this;
+		}
+
+		TestDescription references(String path) {
+			references.add(new DefaultReferenceDescription(uri.appendFragment("/0"), uri(path).appendFragment("/0"), null,
+					-1, null));
+			return this;
+		}
+
+		@Override
+		protected List<IEObjectDescription> computeExportedObjects() {
+			return exported;
+		}
+
+		@Override
+		public Iterable<QualifiedName> getImportedNames() {
+			return imported;
+		}
+
+		@Override
+		public Iterable<IReferenceDescription> getReferenceDescriptions() {
+			return references;
+		}
+
+		@Override
+		public URI getURI() {
+			return uri;
+		}
+	}
+
+	private static URI uri(String path) {
+		return URI.createURI("inmemory:/" + path);
+	}
+
+	private static List<Delta> changed(IResourceDescription description) {
+		return Collections.<Delta> singletonList(new DefaultResourceDescriptionDelta(null, description));
+	}
+
+	@Test public void testImportedNames() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.addDependencies(uri("a"), new TestDescription("a").imports("foo.Bar"));
+		index.addDependencies(uri("b"), new TestDescription("b").imports("foo.Baz"));
+		Set<URI> candidates = index.getAffectionCandidates(changed(new TestDescription("c").exports("foo.bar")));
+		assertEquals(ImmutableSet.of(uri("a")), candidates);
+	}
+
+	@Test public void testReferences() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.addDependencies(uri("a"), new TestDescription("a").references("c"));
+		index.addDependencies(uri("b"), new TestDescription("b").references("b"));
+		assertEquals(ImmutableSet.of(uri("a")), index.getAffectionCandidates(changed(new TestDescription("c"))));
+		assertTrue(index.getAffectionCandidates(changed(new TestDescription("b"))).isEmpty());
+	}
+
+	@Test public void testUnrestricted() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.addDependencies(uri("a"), new TestDescription("a").imports("foo"));
+		index.addUnrestricted(uri("b"));
+		assertEquals(ImmutableSet.of(uri("b")), index.getAffectionCandidates(changed(new TestDescription("c"))));
+		index.addDependencies(uri("b"), new TestDescription("b"));
+		assertTrue(index.getAffectionCandidates(changed(new TestDescription("c"))).isEmpty());
+	}
+
+	@Test public void testReplaceAndRemove() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.addDependencies(uri("a"), new TestDescription("a").imports("foo").references("c"));
+		index.addDependencies(uri("a"), new TestDescription("a").imports("bar"));
+		assertTrue(index.getAffectionCandidates(changed(new TestDescription("c").exports("foo"))).isEmpty());
+		assertEquals(ImmutableSet.of(uri("a")), index.getAffectionCandidates(changed(new TestDescription("c").exports("bar"))));
+		index.removeDependencies(uri("a"));
+		assertFalse(index.isIndexed(uri("a")));
+		assertTrue(index.getAffectionCandidates(changed(new TestDescription("c").exports("bar"))).isEmpty());
+	}
+
+	@Test public void testCopyIsIndependent() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.addDependencies(uri("a"), new TestDescription("a").imports("foo"));
+		index.setComplete(true);
+		ReverseDependencyIndex copy = index.copy();
+		assertTrue(copy.isComplete());
+		copy.removeDependencies(uri("a"));
+		copy.addDependencies(uri("b"), new TestDescription("b").imports("foo"));
+		assertEquals(ImmutableSet.of(uri("a")), index.getAffectionCandidates(changed(new TestDescription("c").exports("foo"))));
+		assertEquals(ImmutableSet.of(uri("b")), copy.getAffectionCandidates(changed(new TestDescription("c").exports("foo"))));
+		assertEquals(ImmutableSet.of(uri("a")), index.getIndexedURIs());
+		assertEquals(ImmutableSet.of(uri("b")), copy.getIndexedURIs());
+	}
+
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.naming;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QualifiedNameInternerTest extends Assert {
+
+	@Test public void testEqualNamesAreIdentical() {
+		QualifiedNameInterner interner = new QualifiedNameInterner();
+		QualifiedName first = interner.intern(QualifiedName.create("org", "example", "A"));
+		QualifiedName second = interner.intern(QualifiedName.create("org", "example", "A"));
+		assertSame(first, second);
+		assertNotSame(first, interner.intern(QualifiedName.create("org", "example", "B")));
+	}
+
+	@Test public void testSegmentsAreShared() {
+		QualifiedNameInterner interner = new QualifiedNameInterner();
+		QualifiedName first = interner.intern(QualifiedName.create(new String("org"), new String("example"), "A"));
+		QualifiedName second = interner.intern(QualifiedName.create(new String("org"), new String("example"), "B"));
+		assertSame(first.getSegment(0), second.getSegment(0));
+		assertSame(first.getSegment(1), second.getSegment(1));
+		assertSame(first.getSegment(0), interner.intern(new String("org")));
+	}
+
+	@Test public void testLowerCaseNamesAreInternedSeparately() {
+		QualifiedNameInterner interner = new QualifiedNameInterner();
+		QualifiedName name = interner.intern(QualifiedName.create("a", "b"));
+		QualifiedName lowerCase = interner.intern(QualifiedName.create("A", "B").toLowerCase());
+		assertEquals(name, lowerCase);
+		assertNotSame(name, lowerCase);
+		assertSame(lowerCase, interner.intern(QualifiedName.create("A", "B").toLowerCase()));
+		assertSame(name, interner.intern(QualifiedName.create("a", "b")));
+	}
+
+	@Test public void testEmpty() {
+		QualifiedNameInterner interner = new QualifiedNameInterner();
+		assertSame(QualifiedName.EMPTY, interner.intern(QualifiedName.EMPTY));
+	}
+
+	@Test public void testConverterInternsNames() {
+		IQualifiedNameConverter converter = new IQualifiedNameConverter.DefaultImpl();
+		assertSame(converter.toQualifiedName("org.example.A"), converter.toQualifiedName("org.example.A"));
+		assertSame(converter.toQualifiedName("A"), converter.toQualifiedName("A"));
+	}
+
+	@Test public void testDeserializedNamesAreInterned() throws IOException {
+		QualifiedName name = QualifiedName.create("org", "example", "A");
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		EObjectOutputStream out = new BinaryResourceImpl.EObjectOutputStream(bos, Collections.emptyMap());
+		name.writeToStream(out);
+		name.writeToStream(out);
+		name.toLowerCase().writeToStream(out);
+		out.flush();
+
+		EObjectInputStream in = new BinaryResourceImpl.EObjectInputStream(new ByteArrayInputStream(bos.toByteArray()), Collections.emptyMap());
+		QualifiedName first = QualifiedName.createFromStream(in);
+		QualifiedName second = QualifiedName.createFromStream(in);
+		QualifiedName lowerCase = QualifiedName.createFromStream(in);
+		assertEquals(name, first);
+		assertSame(first, second);
+		assertSame(lowerCase, lowerCase.toLowerCase());
+		assertSame(first.getSegment(0), lowerCase.getSegment(0));
+	}
+
+}
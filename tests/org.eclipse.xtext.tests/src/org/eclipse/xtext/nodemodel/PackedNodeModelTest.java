@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.dummy.DummyTestLanguageStandaloneSetup;
+import org.eclipse.xtext.dummy.dummyLang.Model;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.nodemodel.impl.InvariantChecker;
+import org.eclipse.xtext.nodemodel.impl.NodeModelBuilder;
+import org.eclipse.xtext.nodemodel.impl.PackedRootNode;
+import org.eclipse.xtext.nodemodel.impl.RootNode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+public class PackedNodeModelTest extends AbstractXtextTests {
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(DummyTestLanguageStandaloneSetup.class);
+	}
+
+	@Test public void testSameStructure() throws Exception {
+		ICompositeNode rootNode = getRootNode("element foo;\noptional element bar 'baz';");
+		List<String> expected = describe(rootNode);
+		PackedRootNode packed = new NodeModelBuilder().pack((RootNode) rootNode);
+		assertEquals(expected, describe(packed));
+		new InvariantChecker().checkInvariant(packed);
+	}
+
+	@Test public void testSyntaxErrors() throws Exception {
+		ICompositeNode rootNode = getRootNodeAndExpect("element # ;", 1);
+		List<String> expected = describe(rootNode);
+		PackedRootNode packed = new NodeModelBuilder().pack((RootNode) rootNode);
+		assertEquals(expected, describe(packed));
+		int errors = 0;
+		for (INode node : packed.getAsTreeIterable()) {
+			if (node.getSyntaxErrorMessage() != null)
+				errors++;
+		}
+		assertEquals(1, errors);
+	}
+
+	@Test public void testSemanticElements() throws Exception {
+		Model model = (Model) getModel("element foo; element bar;");
+		ICompositeNode rootNode = NodeModelUtils.getNode(model);
+		PackedRootNode packed = new NodeModelBuilder().pack((RootNode) rootNode);
+		assertSame(packed, NodeModelUtils.getNode(model));
+		for (EObject element : model.getElements()) {
+			ICompositeNode node = NodeModelUtils.getNode(element);
+			assertSame(packed, node.getRootNode());
+			assertSame(element, node.getSemanticElement());
+			assertSame(element, NodeModelUtils.findActualSemanticObjectFor(node.getLeafNodes().iterator().next()));
+		}
+	}
+
+	@Test public void testLeafIdentity() throws Exception {
+		PackedRootNode packed = new NodeModelBuilder().pack((RootNode) getRootNode("element foo;"));
+		ILeafNode first = packed.getLeafNodes().iterator().next();
+		assertSame(first, packed.getLeafNodes().iterator().next());
+		assertSame(first, first.getNextSibling().getPreviousSibling());
+		assertSame(first, NodeModelUtils.findLeafNodeAtOffset(packed, 0));
+		assertSame(Iterables.getLast(packed.getLeafNodes()), NodeModelUtils.findLeafNodeAtOffset(packed, 11));
+	}
+
+	@Test public void testConcurrentLeafIdentity() throws Exception {
+		final PackedRootNode packed = new NodeModelBuilder().pack((RootNode) getRootNode("element foo; element bar;"));
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<ILeafNode>>> futures = Lists.newArrayList();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executor.submit(new Callable<List<ILeafNode>>() {
+					@Override
+					public List<ILeafNode> call() throws Exception {
+						start.await();
+						return Lists.newArrayList(packed.getLeafNodes());
+					}
+				}));
+			}
+			start.countDown();
+			List<ILeafNode> expected = futures.get(0).get();
+			for (Future<List<ILeafNode>> future : futures) {
+				List<ILeafNode> leafs = future.get();
+				assertEquals(expected.size(), leafs.size());
+				for (int i = 0; i < leafs.size(); i++) {
+					assertSame(expected.get(i), leafs.get(i));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private List<String> describe(ICompositeNode rootNode) {
+		List<String> result = Lists.newArrayList();
+		for (INode node : rootNode.getAsTreeIterable()) {
+			StringBuilder builder = new StringBuilder();
+			builder.append(node instanceof ILeafNode ? "leaf" : "composite");
+			builder.append(" ").append(node.getTotalOffset()).append(":").append(node.getTotalLength());
+			builder.append(" ").append(node.getOffset()).append(":").append(node.getLength());
+			builder.append(" '").append(node.getText()).append("'");
+			builder.append(" ").append(node.getGrammarElement());
+			builder.append(" ").append(node.getSemanticElement());
+			builder.append(" ").append(node.getSyntaxErrorMessage());
+			builder.append(" ").append(node.getStartLine());
+			if (node instanceof ILeafNode)
+				builder.append(" hidden=").append(((ILeafNode) node).isHidden());
+			else
+				builder.append(" lookAhead=").append(((ICompositeNode) node).getLookAhead());
+			result.add(builder.toString());
+		}
+		return result;
+	}
+}
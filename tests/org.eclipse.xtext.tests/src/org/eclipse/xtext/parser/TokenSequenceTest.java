@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.parser;
+
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.parser.antlr.Lexer;
+import org.eclipse.xtext.parser.impl.TokenSequence;
+import org.eclipse.xtext.testlanguages.SimpleExpressionsTestLanguageStandaloneSetup;
+import org.eclipse.xtext.util.ReplaceRegion;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TokenSequenceTest extends AbstractXtextTests {
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		with(SimpleExpressionsTestLanguageStandaloneSetup.class);
+	}
+
+	@Test
+	public void testUpdate() throws Exception {
+		String model = "a1 / /* comment */ b2 + c3";
+		String[][] changes = {
+				{ "0", "0", "x" },
+				{ "3", "1", "*" },
+				{ "5", "2", "" },
+				{ "4", "0", "/*" },
+				{ "2", "0", " " },
+				{ "7", "3", "d4 - e5" },
+				{ "0", "0", "" },
+		};
+		TokenSequence tokens = TokenSequence.lex(get(Lexer.class), model);
+		for (String[] change : changes) {
+			int offset = Math.min(Integer.parseInt(change[0]), model.length());
+			int length = Math.min(Integer.parseInt(change[1]), model.length() - offset);
+			ReplaceRegion replaceRegion = new ReplaceRegion(offset, length, change[2]);
+			StringBuilder builder = new StringBuilder(model);
+			replaceRegion.applyTo(builder);
+			model = builder.toString();
+			tokens.update(get(Lexer.class), model, replaceRegion);
+			assertEquals(model, toString(TokenSequence.lex(get(Lexer.class), model), model),
+					toString(tokens, model));
+			assertEquals(model.length(), tokens.getTextLength());
+		}
+	}
+
+	@Test
+	public void testCreateTokenSource() throws Exception {
+		String model = "a1 / b2";
+		TokenSequence tokens = TokenSequence.lex(get(Lexer.class), model);
+		assertNull(tokens.createTokenSource(1, "1 /"));
+		assertNull(tokens.createTokenSource(0, "a1 / b"));
+		assertEquals("0:b2", getText(tokens.createTokenSource(5, "b2")));
+		assertEquals("0: 1:/2: 3:b2", getText(tokens.createTokenSource(2, " / b2")));
+	}
+
+	private String getText(TokenSource tokenSource) {
+		StringBuilder result = new StringBuilder();
+		Token token = tokenSource.nextToken();
+		while (token != Token.EOF_TOKEN) {
+			result.append(((CommonToken) token).getStartIndex()).append(':').append(token.getText());
+			token = tokenSource.nextToken();
+		}
+		return result.toString();
+	}
+
+	private String toString(TokenSequence tokens, String model) {
+		return toString(tokens.createTokenSource(0, model));
+	}
+
+	private String toString(TokenSource tokenSource) {
+		StringBuilder result = new StringBuilder();
+		Token token = tokenSource.nextToken();
+		while (token != Token.EOF_TOKEN) {
+			CommonToken commonToken = (CommonToken) token;
+			result.append(commonToken.getStartIndex()).append(':').append(commonToken.getType()).append('[')
+					.append(commonToken.getText()).append(']');
+			token = tokenSource.nextToken();
+		}
+		return result.toString();
+	}
+
+}
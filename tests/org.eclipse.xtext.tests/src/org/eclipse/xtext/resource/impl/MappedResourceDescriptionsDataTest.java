@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableEObjectDescription;
+import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+public class MappedResourceDescriptionsDataTest extends Assert {
+
+	private URI first = URI.createURI("file:/foo/first.foo");
+	private URI second = URI.createURI("file:/foo/second.foo");
+	private MappedResourceDescriptionsData data;
+
+	@Before
+	public void setUp() throws Exception {
+		SerializableResourceDescription firstDescription = createDescription(first, QualifiedName.create("foo", "Bar"));
+		SerializableReferenceDescription reference = new SerializableReferenceDescription();
+		reference.setSourceEObjectUri(first.appendFragment("/0"));
+		reference.setTargetEObjectUri(second.appendFragment("/1"));
+		reference.setEReference(EcorePackage.Literals.EANNOTATION__REFERENCES);
+		reference.setIndexInList(3);
+		firstDescription.setReferences(Lists.newArrayList(reference));
+		firstDescription.setImportedNames(Lists.newArrayList(QualifiedName.create("foo", "bar")));
+		SerializableResourceDescription secondDescription = createDescription(second, QualifiedName.create("foo", "bar"),
+				QualifiedName.create("baz"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new MappedResourceDescriptionsWriter().write(Lists.newArrayList(secondDescription, firstDescription), out);
+		data = new MappedResourceDescriptionsData(ByteBuffer.wrap(out.toByteArray()));
+	}
+
+	private SerializableResourceDescription createDescription(URI uri, QualifiedName... names) {
+		SerializableResourceDescription result = new SerializableResourceDescription();
+		result.setURI(uri);
+		List<SerializableEObjectDescription> descriptions = Lists.newArrayList();
+		for (int i = 0; i < names.length; i++) {
+			SerializableEObjectDescription description = new SerializableEObjectDescription();
+			description.setEObjectURI(uri.appendFragment("/" + i));
+			description.setQualifiedName(names[i]);
+			description.setEClass(EcorePackage.Literals.ECLASS);
+			HashMap<String, String> userData = new HashMap<String, String>();
+			userData.put("index", String.valueOf(i));
+			description.setUserData(userData);
+			descriptions.add(description);
+		}
+		result.setDescriptions(descriptions);
+		result.setReferences(Collections.<SerializableReferenceDescription> emptyList());
+		result.setImportedNames(Collections.<QualifiedName> emptyList());
+		return result;
+	}
+
+	@Test public void testResourceDescriptions() {
+		assertEquals(2, Iterables.size(data.getAllResourceDescriptions()));
+		assertEquals(2, data.getAllURIs().size());
+		assertTrue(data.getAllURIs().contains(second));
+		assertNull(data.getResourceDescription(URI.createURI("file:/foo/missing.foo")));
+		IResourceDescription description = data.getResourceDescription(first);
+		assertEquals(first, description.getURI());
+		assertEquals(QualifiedName.create("foo", "bar"), Iterables.getOnlyElement(description.getImportedNames()));
+		IReferenceDescription reference = Iterables.getOnlyElement(description.getReferenceDescriptions());
+		assertEquals(first.appendFragment("/0"), reference.getSourceEObjectUri());
+		assertEquals(second.appendFragment("/1"), reference.getTargetEObjectUri());
+		assertNull(reference.getContainerEObjectURI());
+		assertSame(EcorePackage.Literals.EANNOTATION__REFERENCES, reference.getEReference());
+		assertEquals(3, reference.getIndexInList());
+	}
+
+	@Test public void testExportedObjects() {
+		IEObjectDescription baz = Iterables.getOnlyElement(data.getExportedObjects(EcorePackage.Literals.ECLASSIFIER,
+				QualifiedName.create("baz"), false));
+		assertEquals(second.appendFragment("/1"), baz.getEObjectURI());
+		assertSame(EcorePackage.Literals.ECLASS, baz.getEClass());
+		assertEquals("1", baz.getUserData("index"));
+		assertArrayEquals(new String[] { "index" }, baz.getUserDataKeys());
+		assertTrue(baz.getEObjectOrProxy().eIsProxy());
+
+		assertEquals(2, Iterables.size(data.getExportedObjects(EcorePackage.Literals.ECLASS, QualifiedName.create("FOO", "BAR"), true)));
+		assertEquals(1, Iterables.size(data.getExportedObjects(EcorePackage.Literals.ECLASS, QualifiedName.create("foo", "Bar"), false)));
+		assertTrue(Iterables.isEmpty(data.getExportedObjects(EcorePackage.Literals.EDATA_TYPE, QualifiedName.create("baz"), true)));
+		assertTrue(Iterables.isEmpty(data.getExportedObjects(EcorePackage.Literals.ECLASS, QualifiedName.create("missing"), true)));
+		assertEquals(3, Iterables.size(data.getExportedObjects()));
+	}
+
+	@Test public void testExportedObjectsByType() {
+		assertEquals(3, Iterables.size(data.getExportedObjectsByType(EcorePackage.Literals.ECLASS)));
+		assertEquals(3, Iterables.size(data.getExportedObjectsByType(EcorePackage.Literals.ECLASSIFIER)));
+		assertEquals(3, Iterables.size(data.getExportedObjectsByType(EcorePackage.Literals.EOBJECT)));
+		assertTrue(Iterables.isEmpty(data.getExportedObjectsByType(EcorePackage.Literals.EDATA_TYPE)));
+	}
+
+	@Test public void testCopy() {
+		ResourceDescriptionsData copy = data.copy();
+		copy.removeDescription(first);
+		assertEquals(1, copy.getAllURIs().size());
+		assertEquals(2, data.getAllURIs().size());
+	}
+
+	@Test public void testUnregisteredPackage() throws Exception {
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("unregistered");
+		ePackage.setNsURI("http://www.eclipse.org/xtext/test/unregistered");
+		EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+		eClass.setName("Element");
+		ePackage.getEClassifiers().add(eClass);
+		Resource resource = new ResourceImpl(URI.createURI(ePackage.getNsURI()));
+		resource.getContents().add(ePackage);
+		SerializableResourceDescription description = createDescription(first, QualifiedName.create("element"));
+		description.getDescriptions().get(0).setEClass(eClass);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new MappedResourceDescriptionsWriter().write(Lists.newArrayList(description), out);
+
+		MappedResourceDescriptionsData withoutPackage = new MappedResourceDescriptionsData(ByteBuffer.wrap(out.toByteArray()));
+		IEObjectDescription element = Iterables.getOnlyElement(withoutPackage.getExportedObjects());
+		assertTrue(element.getEClass().eIsProxy());
+		assertTrue(element.getEObjectOrProxy().eIsProxy());
+		assertEquals(first.appendFragment("/0"), EcoreUtil.getURI(element.getEObjectOrProxy()));
+		assertTrue(Iterables.isEmpty(withoutPackage.getExportedObjects(eClass, QualifiedName.create("element"), false)));
+		assertTrue(Iterables.isEmpty(withoutPackage.getExportedObjectsByType(eClass)));
+		assertEquals(1, Iterables.size(withoutPackage.getExportedObjectsByType(EcorePackage.Literals.EOBJECT)));
+
+		EPackage.Registry registry = new EPackageRegistryImpl();
+		registry.put(ePackage.getNsURI(), ePackage);
+		MappedResourceDescriptionsData withPackage = new MappedResourceDescriptionsData(ByteBuffer.wrap(out.toByteArray()), registry);
+		element = Iterables.getOnlyElement(withPackage.getExportedObjects(eClass, QualifiedName.create("element"), false));
+		assertSame(eClass, element.getEClass());
+		assertSame(eClass, element.getEObjectOrProxy().eClass());
+		assertEquals(element.getEObjectURI(), Iterables.getOnlyElement(withPackage.getExportedObjectsByType(eClass)).getEObjectURI());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testReadOnly() {
+		data.removeDescription(first);
+	}
+
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableEObjectDescription;
+import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+public class ResourceDescriptionsDataTest extends Assert {
+
+	private QualifiedName name = QualifiedName.create("foo", "Bar");
+
+	@Test
+	public void testManyDescriptionsWithSameName() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Collections.<IResourceDescription> emptyList());
+		for (int i = 0; i < 100; i++) {
+			data.addDescription(uri(i), createDescription(uri(i)));
+		}
+		assertEquals(100, Iterables.size(data.getExportedObjects(EcorePackage.Literals.ECLASS, name, false)));
+		for (int i = 0; i < 99; i++) {
+			data.removeDescription(uri(i));
+		}
+		assertEquals(1, Iterables.size(data.getExportedObjects(EcorePackage.Literals.ECLASS, name, false)));
+		data.removeDescription(uri(99));
+		assertTrue(Iterables.isEmpty(data.getExportedObjects(EcorePackage.Literals.ECLASS, name, false)));
+	}
+
+	@Test
+	public void testCopySharesNoModifiedNames() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Collections.<IResourceDescription> emptyList());
+		for (int i = 0; i < 3; i++) {
+			data.addDescription(uri(i), createDescription(uri(i)));
+		}
+		ResourceDescriptionsData copy = data.copy();
+		copy.addDescription(uri(3), createDescription(uri(3)));
+		copy.removeDescription(uri(0));
+		data.addDescription(uri(4), createDescription(uri(4)));
+		data.addDescription(uri(5), createDescription(uri(5)));
+		copy.addDescription(uri(6), createDescription(uri(6)));
+		assertEquals(5, Iterables.size(data.getExportedObjects(EcorePackage.Literals.ECLASS, name, false)));
+		assertNotNull(data.getResourceDescription(uri(0)));
+		assertEquals(4, Iterables.size(copy.getExportedObjects(EcorePackage.Literals.ECLASS, name, false)));
+		assertNull(copy.getResourceDescription(uri(0)));
+	}
+
+	private URI uri(int i) {
+		return URI.createURI("file:/foo/file" + i + ".foo");
+	}
+
+	private SerializableResourceDescription createDescription(URI uri) {
+		SerializableResourceDescription result = new SerializableResourceDescription();
+		result.setURI(uri);
+		SerializableEObjectDescription description = new SerializableEObjectDescription();
+		description.setEObjectURI(uri.appendFragment("/0"));
+		description.setQualifiedName(name);
+		description.setEClass(EcorePackage.Literals.ECLASS);
+		List<SerializableEObjectDescription> descriptions = Lists.newArrayList(description);
+		result.setDescriptions(descriptions);
+		result.setReferences(Collections.<SerializableReferenceDescription> emptyList());
+		result.setImportedNames(Collections.<QualifiedName> emptyList());
+		return result;
+	}
+}
@@ -275,4 +275,27 @@ public class ResourceSetBasedResourceDescriptionsTest extends Assert implements
 		assertTrue(resDescs.getExportedObjects().iterator().hasNext());
 	}
 	
+	@Test public void testDataExportedObjectsByType() throws Exception {
+		Resource first = createResource();
+		ENamedElement firstPackage = createNamedElement(null, EcorePackage.Literals.EPACKAGE, first);
+		ENamedElement firstClass = createNamedElement(null, EcorePackage.Literals.ECLASS, first);
+		Resource second = createResource();
+		ENamedElement secondClass = createNamedElement(null, EcorePackage.Literals.ECLASS, second);
+		IResourceDescription firstDescription = resourceDescriptionManager.getResourceDescription(first);
+		IResourceDescription secondDescription = resourceDescriptionManager.getResourceDescription(second);
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Lists.newArrayList(firstDescription, secondDescription));
+		checkFindAllEObjectsResult(Lists.newArrayList(firstClass, secondClass), data.getExportedObjectsByType(EcorePackage.Literals.ECLASSIFIER));
+		checkFindAllEObjectsResult(Lists.newArrayList(firstPackage), data.getExportedObjectsByType(EcorePackage.Literals.EPACKAGE));
+		checkFindAllEObjectsResult(Lists.newArrayList(firstPackage, firstClass, secondClass), data.getExportedObjectsByType(EcorePackage.Literals.ENAMED_ELEMENT));
+		checkFindAllEObjectsResult(Lists.newArrayList(firstPackage, firstClass, secondClass), data.getExportedObjectsByType(EcorePackage.Literals.EOBJECT));
+		assertTrue(Iterables.isEmpty(data.getExportedObjectsByType(EcorePackage.Literals.EDATA_TYPE)));
+		
+		ResourceDescriptionsData copy = data.copy();
+		copy.removeDescription(first.getURI());
+		checkFindAllEObjectsResult(Lists.newArrayList(secondClass), copy.getExportedObjectsByType(EcorePackage.Literals.ECLASSIFIER));
+		assertTrue(Iterables.isEmpty(copy.getExportedObjectsByType(EcorePackage.Literals.EPACKAGE)));
+		checkFindAllEObjectsResult(Lists.newArrayList(firstClass, secondClass), data.getExportedObjectsByType(EcorePackage.Literals.ECLASSIFIER));
+		checkFindAllEObjectsResult(Lists.newArrayList(firstPackage), data.getExportedObjectsByType(EcorePackage.Literals.EPACKAGE));
+	}
+	
 }
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.junit4.serializer.DebugSequenceAcceptor;
+import org.eclipse.xtext.serializer.analysis.ISemanticSequencerNfaProvider;
+import org.eclipse.xtext.serializer.diagnostic.ISerializationDiagnostic;
+import org.eclipse.xtext.serializer.sequencer.BacktrackingSemanticSequencer;
+import org.eclipse.xtext.serializer.sequencer.ISemanticSequencer;
+import org.eclipse.xtext.serializer.sequencer.NodeModelSemanticSequencer;
+import org.eclipse.xtext.serializer.sequencer.TableDrivenSemanticSequencer;
+import org.eclipse.xtext.serializer.sequencer.TableDrivenSemanticSequencer.DecisionTable;
+import org.junit.Test;
+
+public class TableDrivenSemanticSequencerTest extends AbstractSemanticSequencerTest {
+
+	@Override
+	protected ISemanticSequencer getGenericSemanticSequencer() {
+		return get(TableDrivenSemanticSequencer.class);
+	}
+
+	@Test
+	public void testWithoutNodeModel() throws Exception {
+		String[] models = { "#3 a kw1 b kw2 c d kw3 e f", "#3 a kw1 kw2 c kw3 e", "#3 a kw1 kw2 c kw3",
+				"#4 a kw1 b c kw2 d e f g kw3 h i j k", "#4 a kw1 b c kw2 d e kw3 h i", "#4 a kw1 b c kw2 d e kw3" };
+		for (int i = 0; i < 2; i++) {
+			for (String model : models) {
+				EObject parsed = getModel(model).eContents().get(0);
+				EObject context = get(NodeModelSemanticSequencer.class).findContexts(parsed, true, null).iterator()
+						.next();
+				EObject copy = EcoreUtil.copy(parsed.eContainer()).eContents().get(0);
+				assertEquals(model, sequence(get(BacktrackingSemanticSequencer.class), context, copy),
+						sequence(getGenericSemanticSequencer(), context, copy));
+			}
+		}
+		EObject model = getModel(models[0]).eContents().get(0);
+		EObject context = get(NodeModelSemanticSequencer.class).findContexts(model, true, null).iterator().next();
+		DecisionTable table = get(TableDrivenSemanticSequencer.DecisionTables.class).getTable(
+				get(ISemanticSequencerNfaProvider.class).getNFA(context, model.eClass()));
+		assertTrue(table.isApplicable());
+		assertEquals(3, table.size());
+	}
+
+	private String sequence(ISemanticSequencer sequencer, EObject context, EObject model) {
+		DebugSequenceAcceptor acceptor = new DebugSequenceAcceptor();
+		sequencer.init(acceptor, ISerializationDiagnostic.STDERR_ACCEPTOR);
+		sequencer.createSequence(context, model);
+		return acceptor.toString();
+	}
+
+}
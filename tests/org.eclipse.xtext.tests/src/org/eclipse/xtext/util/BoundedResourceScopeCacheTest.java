@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.lang.ref.WeakReference;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Provider;
+
+public class BoundedResourceScopeCacheTest extends Assert {
+
+	private BoundedResourceScopeCache cache;
+
+	private Resource resource;
+
+	private EClass eClass;
+
+	@Before
+	public void setUp() {
+		cache = new BoundedResourceScopeCache();
+		resource = new ResourceImpl();
+		eClass = EcoreFactory.eINSTANCE.createEClass();
+		resource.getContents().add(eClass);
+	}
+
+	private Provider<Object> provide(final Object value) {
+		return new Provider<Object>() {
+			@Override
+			public Object get() {
+				return value;
+			}
+		};
+	}
+
+	@Test public void testCachedValue() {
+		assertEquals("a", cache.get("key", resource, provide("a")));
+		assertEquals("a", cache.get("key", resource, provide("b")));
+		assertNull(cache.get("null", resource, provide(null)));
+		assertNull(cache.get("null", resource, provide("c")));
+		assertEquals(2, cache.getMissCount());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getWeight());
+	}
+
+	@Test public void testSemanticChangeClearsResource() {
+		Resource other = new ResourceImpl();
+		cache.get("key", resource, provide("a"));
+		cache.get("key", "group", resource, provide("b"));
+		cache.get("key", other, provide("c"));
+		eClass.setName("Changed");
+		assertEquals("d", cache.get("key", resource, provide("d")));
+		assertEquals("e", cache.get("key", "group", resource, provide("e")));
+		assertEquals("c", cache.get("key", other, provide("f")));
+	}
+
+	@Test public void testInvalidateGroup() {
+		cache.get("key", resource, provide("a"));
+		cache.get("key", "group", resource, provide("b"));
+		cache.invalidate(resource, "group");
+		assertEquals("a", cache.get("key", resource, provide("c")));
+		assertEquals("d", cache.get("key", "group", resource, provide("d")));
+	}
+
+	@Test public void testRemovedAdapterInvalidatesResource() {
+		cache.get("key", resource, provide("a"));
+		resource.eAdapters().clear();
+		assertEquals(0, cache.getWeight());
+		assertEquals("b", cache.get("key", resource, provide("b")));
+		assertEquals(1, resource.eAdapters().size());
+		eClass.setName("Changed");
+		assertEquals("c", cache.get("key", resource, provide("c")));
+	}
+
+	@Test public void testClear() {
+		cache.get("key", resource, provide("a"));
+		cache.get("key", "group", resource, provide("b"));
+		cache.clear(resource);
+		assertEquals(0, cache.getWeight());
+		assertEquals("c", cache.get("key", resource, provide("c")));
+		assertEquals("d", cache.get("key", "group", resource, provide("d")));
+	}
+
+	@Test public void testLeastRecentlyUsedAreEvicted() {
+		cache.setMaximumWeight(100);
+		for (int i = 0; i < 100; i++) {
+			cache.get(i, resource, provide(i));
+		}
+		assertEquals(0, cache.getEvictionCount());
+		cache.get(0, resource, provide(-1));
+		cache.get(100, resource, provide(100));
+		assertEquals(75, cache.getWeight());
+		assertEquals(26, cache.getEvictionCount());
+		assertEquals(0, cache.get(0, resource, provide(-1)));
+		assertEquals(-1, cache.get(1, resource, provide(-1)));
+	}
+
+	@Test public void testWeigher() {
+		cache = new BoundedResourceScopeCache() {
+			@Override
+			protected int weigh(Object key, Object value) {
+				return value.toString().length();
+			}
+		};
+		cache.setMaximumWeight(8);
+		cache.get("a", resource, provide("12345"));
+		cache.get("b", resource, provide("1234"));
+		assertEquals(4, cache.getWeight());
+		assertEquals("1234", cache.get("b", resource, provide("x")));
+		assertEquals("x", cache.get("a", resource, provide("x")));
+	}
+
+	@Test public void testDroppedResourceIsCollected() throws InterruptedException {
+		Resource dropped = new ResourceImpl();
+		EClass content = EcoreFactory.eINSTANCE.createEClass();
+		dropped.getContents().add(content);
+		// the values refer to the resource
+		cache.get("key", dropped, provide(content));
+		cache.get("key", "group", dropped, provide(content));
+		cache.get("key", resource, provide("a"));
+		assertEquals(3, cache.getWeight());
+		WeakReference<Resource> reference = new WeakReference<Resource>(dropped);
+		dropped = null;
+		content = null;
+		for (int i = 0; i < 100 && (reference.get() != null || cache.getWeight() != 1); i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(reference.get());
+		// the weight of the collected groups has been subtracted
+		assertEquals(1, cache.getWeight());
+		assertEquals("a", cache.get("key", resource, provide("b")));
+	}
+
+}
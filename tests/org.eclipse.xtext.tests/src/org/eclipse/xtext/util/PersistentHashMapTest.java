@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class PersistentHashMapTest extends Assert {
+
+	/**
+	 * A key with a configurable hash code to provoke collisions.
+	 */
+	private static class Key {
+		private final int hash;
+		private final int id;
+
+		Key(int hash, int id) {
+			this.hash = hash;
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return id + "#" + hash;
+		}
+	}
+
+	@Test public void testPutGetRemove() {
+		PersistentHashMap<String, Integer> map = new PersistentHashMap<String, Integer>();
+		assertTrue(map.isEmpty());
+		assertNull(map.put("a", 1));
+		assertEquals(Integer.valueOf(1), map.put("a", 2));
+		assertNull(map.put("b", 3));
+		assertEquals(2, map.size());
+		assertEquals(Integer.valueOf(2), map.get("a"));
+		assertFalse(map.containsKey("c"));
+		assertNull(map.get(null));
+		assertEquals(Integer.valueOf(2), map.remove("a"));
+		assertNull(map.remove("a"));
+		assertEquals(1, map.size());
+	}
+
+	@Test public void testCopyIsIndependent() {
+		PersistentHashMap<String, Integer> map = new PersistentHashMap<String, Integer>();
+		for (int i = 0; i < 1000; i++) {
+			map.put("key" + i, i);
+		}
+		PersistentHashMap<String, Integer> copy = map.copy();
+		map.put("key1", -1);
+		map.remove("key2");
+		copy.put("new", 0);
+		copy.remove("key3");
+		assertEquals(Integer.valueOf(-1), map.get("key1"));
+		assertEquals(Integer.valueOf(1), copy.get("key1"));
+		assertFalse(map.containsKey("key2"));
+		assertTrue(copy.containsKey("key2"));
+		assertTrue(map.containsKey("key3"));
+		assertFalse(map.containsKey("new"));
+		assertEquals(999, map.size());
+		assertEquals(1000, copy.size());
+	}
+
+	@Test public void testIteratorIsSnapshot() {
+		PersistentHashMap<String, Integer> map = new PersistentHashMap<String, Integer>();
+		for (int i = 0; i < 100; i++) {
+			map.put("key" + i, i);
+		}
+		int count = 0;
+		Iterator<Map.Entry<String, Integer>> iterator = map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, Integer> entry = iterator.next();
+			map.put(entry.getKey() + "_", entry.getValue());
+			if (entry.getValue() % 2 == 0)
+				iterator.remove();
+			count++;
+		}
+		assertEquals(100, count);
+		assertEquals(150, map.size());
+	}
+
+	@Test public void testCollisions() {
+		PersistentHashMap<Key, Integer> map = new PersistentHashMap<Key, Integer>();
+		for (int i = 0; i < 10; i++) {
+			map.put(new Key(42, i), i);
+		}
+		PersistentHashMap<Key, Integer> copy = map.copy();
+		for (int i = 0; i < 9; i++) {
+			assertEquals(Integer.valueOf(i), map.remove(new Key(42, i)));
+		}
+		assertEquals(1, map.size());
+		assertEquals(Integer.valueOf(9), map.get(new Key(42, 9)));
+		assertEquals(10, copy.size());
+		assertEquals(Integer.valueOf(0), copy.get(new Key(42, 0)));
+	}
+
+	@Test public void testRandomOperations() {
+		Random random = new Random(4711);
+		List<PersistentHashMap<Key, Integer>> maps = Lists.newArrayList();
+		List<Map<Key, Integer>> expectations = Lists.newArrayList();
+		maps.add(new PersistentHashMap<Key, Integer>());
+		expectations.add(new HashMap<Key, Integer>());
+		for (int i = 0; i < 20000; i++) {
+			int index = random.nextInt(maps.size());
+			PersistentHashMap<Key, Integer> map = maps.get(index);
+			Map<Key, Integer> expectation = expectations.get(index);
+			int id = random.nextInt(1000);
+			Key key = new Key(id % 97 == 0 ? 0 : id * 31, id);
+			int operation = random.nextInt(10);
+			if (operation < 5) {
+				assertEquals(expectation.put(key, i), map.put(key, i));
+			} else if (operation < 8) {
+				assertEquals(expectation.remove(key), map.remove(key));
+			} else if (operation < 9 && maps.size() < 5) {
+				maps.add(map.copy());
+				expectations.add(new HashMap<Key, Integer>(expectation));
+			} else {
+				assertEquals(expectation.get(key), map.get(key));
+			}
+		}
+		for (int i = 0; i < maps.size(); i++) {
+			assertEquals(expectations.get(i), maps.get(i));
+			assertEquals(maps.get(i), expectations.get(i));
+		}
+	}
+
+}
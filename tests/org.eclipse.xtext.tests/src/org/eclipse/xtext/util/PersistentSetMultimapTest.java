@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+public class PersistentSetMultimapTest extends Assert {
+
+	@Test
+	public void testPutAndRemove() {
+		PersistentSetMultimap<String, Integer> multimap = new PersistentSetMultimap<String, Integer>();
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(multimap.put("a", i));
+		}
+		assertFalse(multimap.put("a", 1));
+		assertEquals(1000, multimap.get("a").size());
+		for (int i = 0; i < 999; i++) {
+			assertTrue(multimap.remove("a", i));
+		}
+		assertEquals(ImmutableSet.of(999), multimap.get("a"));
+		assertTrue(multimap.remove("a", 999));
+		assertFalse(multimap.containsKey("a"));
+		assertTrue(multimap.get("a").isEmpty());
+	}
+
+	@Test
+	public void testCopy() {
+		PersistentSetMultimap<String, Integer> multimap = new PersistentSetMultimap<String, Integer>();
+		multimap.put("a", 1);
+		multimap.put("a", 2);
+		multimap.put("b", 1);
+		PersistentSetMultimap<String, Integer> copy = multimap.copy();
+		copy.put("a", 3);
+		copy.remove("b", 1);
+		multimap.remove("a", 1);
+		multimap.put("c", 1);
+		assertEquals(ImmutableSet.of(2), multimap.get("a"));
+		assertEquals(ImmutableSet.of(1), multimap.get("b"));
+		assertEquals(ImmutableSet.of("a", "b", "c"), multimap.keySet());
+		assertEquals(ImmutableSet.of(1, 2, 3), copy.get("a"));
+		assertEquals(ImmutableSet.of("a"), copy.keySet());
+	}
+
+	@Test
+	public void testSnapshots() {
+		PersistentSetMultimap<String, Integer> multimap = new PersistentSetMultimap<String, Integer>();
+		multimap.put("a", 1);
+		Set<Integer> values = multimap.get("a");
+		Set<String> keys = multimap.keySet();
+		multimap.put("a", 2);
+		multimap.put("b", 2);
+		assertEquals(ImmutableSet.of(1), values);
+		assertEquals(ImmutableSet.of("a"), keys);
+		assertEquals(ImmutableSet.of(2), multimap.removeAll("b"));
+		assertEquals(ImmutableSet.of(1, 2), multimap.get("a"));
+	}
+
+}
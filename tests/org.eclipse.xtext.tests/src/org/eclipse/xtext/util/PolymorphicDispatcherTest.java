@@ -164,6 +164,31 @@ public class PolymorphicDispatcherTest extends Assert {
 		assertEquals("Number_3_foo", dispatcher.invoke(BigInteger.valueOf(3), "foo"));
 	}
 
+	@Test public void testAlternatingTypes() throws Exception {
+		Object o1 = new Object() {
+			String label(Integer i) {
+				return "Integer_" + i;
+			}
+
+			String label(Number n) {
+				return "Number_" + n;
+			}
+
+			String label(Object o) {
+				return "Object_" + o;
+			}
+		};
+		PolymorphicDispatcher<String> dispatcher = new PolymorphicDispatcher<String>("label", Lists.newArrayList(o1));
+		for (int i = 0; i < 3; i++) {
+			assertEquals("Integer_1", dispatcher.invoke(new Integer(1)));
+			assertEquals("Number_2", dispatcher.invoke(new Long(2)));
+			assertEquals("Integer_3", dispatcher.invoke(new Integer(3)));
+			assertEquals("Object_foo", dispatcher.invoke("foo"));
+			assertEquals("Integer_null", dispatcher.invoke((Object) null));
+			assertEquals("Number_4", dispatcher.invoke(new Long(4)));
+		}
+	}
+
 	@Test public void testAmbiguous() throws Exception {
 		Object o1 = new Object() {
 
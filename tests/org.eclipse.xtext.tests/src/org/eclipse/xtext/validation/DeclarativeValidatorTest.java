@@ -14,6 +14,7 @@ import java.util.Map;
 import org.eclipse.emf.common.util.BasicDiagnostic;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EcoreFactory;
@@ -105,6 +106,31 @@ public class DeclarativeValidatorTest extends Assert {
 				EcorePackage.Literals.ECLASS__EALL_ATTRIBUTES);
 	}
 
+	@Test public void testDispatchByType() throws Exception {
+		AbstractDeclarativeValidator test = new AbstractDeclarativeValidator() {
+			@Check
+			public void checkClass(EClass x) {
+				error("class", EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+			}
+
+			@Check(CheckType.EXPENSIVE)
+			public void checkAttribute(EAttribute x) {
+				error("attribute", EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+			}
+		};
+		for (int i = 0; i < 2; i++) {
+			BasicDiagnostic chain = new BasicDiagnostic();
+			assertFalse(test.validate(EcorePackage.eINSTANCE.getEClass(), chain, Collections.emptyMap()));
+			assertTrue(test.validate(EcorePackage.eINSTANCE.getEString(), chain, Collections.emptyMap()));
+			assertFalse(test.validate(EcorePackage.Literals.ENAMED_ELEMENT__NAME, chain, Collections.emptyMap()));
+			assertTrue(test.validate(EcorePackage.Literals.ENAMED_ELEMENT__NAME, chain,
+					Collections.<Object, Object> singletonMap(CheckMode.KEY, CheckMode.FAST_ONLY)));
+			assertEquals(2, chain.getChildren().size());
+			assertEquals("class", chain.getChildren().get(0).getMessage());
+			assertEquals("attribute", chain.getChildren().get(1).getMessage());
+		}
+	}
+
 	@Test public void testGuard() throws Exception {
 		AbstractDeclarativeValidator validator = new AbstractDeclarativeValidator() {
 			@Check
@@ -7,8 +7,11 @@
  *******************************************************************************/
 package org.eclipse.xtext.validation;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.emf.common.util.BasicDiagnostic;
 import org.eclipse.emf.common.util.Diagnostic;
@@ -17,6 +20,7 @@ import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EDataType;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EValidator;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.junit4.AbstractXtextTests;
 import org.eclipse.xtext.linking.LangATestLanguageStandaloneSetup;
@@ -26,40 +30,72 @@ import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.util.StringInputStream;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
 /**
  * @author Sven Efftinge - Initial contribution and API
  */
 public class ResourceValidatorImplTest extends AbstractXtextTests {
 	
-	@Override
-	public void setUp() throws Exception {
-		super.setUp();
-		with(new LangATestLanguageStandaloneSetup());
-		EValidator.Registry.INSTANCE.put(LangATestLanguagePackage.eINSTANCE, new EValidator(){
+	private static class TestValidator implements EValidator {
 
-			@Override
-			public boolean validate(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
-				if (eObject instanceof Type) {
-					String name = ((Type)eObject).getName();
-					if (name.equals("Foo"))
-						diagnostics.add(new BasicDiagnostic(Diagnostic.ERROR,"",12,"Foo",null));
-					if (name.equals("Bar"))
-						diagnostics.add(new BasicDiagnostic(Diagnostic.WARNING,"",12,"Foo",null));
-				}
-				return true;
+		@Override
+		public boolean validate(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
+			if (eObject instanceof Type) {
+				String name = ((Type)eObject).getName();
+				if (name.equals("Foo"))
+					diagnostics.add(new BasicDiagnostic(Diagnostic.ERROR,"",12,"Foo",null));
+				if (name.equals("Bar"))
+					diagnostics.add(new BasicDiagnostic(Diagnostic.WARNING,"",12,"Foo",null));
 			}
+			return true;
+		}
 
-			@Override
-			public boolean validate(EClass eClass, EObject eObject, DiagnosticChain diagnostics,
-					Map<Object, Object> context) {
-				return validate(eObject,diagnostics,context);
-			}
+		@Override
+		public boolean validate(EClass eClass, EObject eObject, DiagnosticChain diagnostics,
+				Map<Object, Object> context) {
+			return validate(eObject,diagnostics,context);
+		}
 
-			@Override
-			public boolean validate(EDataType eDataType, Object value, DiagnosticChain diagnostics,
-					Map<Object, Object> context) {
-				return false;
-			}});
+		@Override
+		public boolean validate(EDataType eDataType, Object value, DiagnosticChain diagnostics,
+				Map<Object, Object> context) {
+			return false;
+		}
+	}
+	
+	private static class ThreadSafeTestValidator extends TestValidator implements IThreadSafeValidator {
+	}
+	
+	private static class ContextRecordingValidator extends ThreadSafeTestValidator {
+		
+		private final AtomicInteger resourceChecks = new AtomicInteger();
+		
+		private final AtomicInteger typesWithSeverities = new AtomicInteger();
+		
+		private final Set<Map<Object, Object>> contexts = Collections.synchronizedSet(Sets.<Map<Object, Object>>newIdentityHashSet());
+		
+		@Override
+		public boolean validate(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
+			contexts.add(context);
+			// once per resource like the NamesAreUniqueValidator
+			Resource resource = eObject.eResource();
+			if (!context.containsKey(resource)) {
+				context.put(resource, this);
+				resourceChecks.incrementAndGet();
+			}
+			if (eObject instanceof Type && context.get(AbstractInjectableValidator.ISSUE_SEVERITIES) != null)
+				typesWithSeverities.incrementAndGet();
+			return super.validate(eObject, diagnostics, context);
+		}
+	}
+	
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(new LangATestLanguageStandaloneSetup());
+		EValidator.Registry.INSTANCE.put(LangATestLanguagePackage.eINSTANCE, new TestValidator());
 	}
 	
 	@Test public void testSyntaxError() throws Exception {
@@ -93,6 +129,57 @@ public class ResourceValidatorImplTest extends AbstractXtextTests {
 		assertEquals(Severity.WARNING, list.get(0).getSeverity());
 	}
 	
+	@Test public void testParallelValidation() throws Exception {
+		EValidator.Registry.INSTANCE.put(LangATestLanguagePackage.eINSTANCE, new ThreadSafeTestValidator());
+		StringBuilder model = new StringBuilder();
+		List<Severity> expected = Lists.newArrayList();
+		for (int i = 0; i < 200; i++) {
+			if (i % 3 == 0) {
+				model.append("type Foo\n");
+				expected.add(Severity.ERROR);
+			} else if (i % 5 == 0) {
+				model.append("type Bar\n");
+				expected.add(Severity.WARNING);
+			} else {
+				model.append("type T").append(i).append("\n");
+			}
+		}
+		XtextResource resource = getResourceAndExpect(new StringInputStream(model.toString()), 0);
+		ResourceValidatorImpl validator = (ResourceValidatorImpl) getValidator();
+		validator.setParallelValidationThreads(4);
+		assertTrue(validator.isValidatedInParallel(resource.getContents().get(0)));
+		List<Issue> list = validator.validate(resource, CheckMode.NORMAL_AND_FAST, null);
+		List<Severity> actual = Lists.newArrayList();
+		for (Issue issue : list) {
+			actual.add(issue.getSeverity());
+		}
+		assertEquals(expected, actual);
+	}
+	
+	@Test public void testParallelValidationContext() throws Exception {
+		ContextRecordingValidator recording = new ContextRecordingValidator();
+		EValidator.Registry.INSTANCE.put(LangATestLanguagePackage.eINSTANCE, recording);
+		StringBuilder model = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			model.append("type T").append(i).append("\n");
+		}
+		XtextResource resource = getResourceAndExpect(new StringInputStream(model.toString()), 0);
+		ResourceValidatorImpl validator = (ResourceValidatorImpl) getValidator();
+		validator.setParallelValidationThreads(4);
+		assertTrue(validator.validate(resource, CheckMode.NORMAL_AND_FAST, null).isEmpty());
+		assertEquals(1, recording.resourceChecks.get());
+		assertEquals(100, recording.typesWithSeverities.get());
+		assertTrue(recording.contexts.size() > 2);
+	}
+	
+	@Test public void testNoParallelValidationWithoutThreadSafeValidator() throws Exception {
+		XtextResource resource = getResourceAndExpect(new StringInputStream("type Foo type Bar"), 0);
+		ResourceValidatorImpl validator = (ResourceValidatorImpl) getValidator();
+		validator.setParallelValidationThreads(4);
+		assertFalse(validator.isValidatedInParallel(resource.getContents().get(0)));
+		assertEquals(2, validator.validate(resource, CheckMode.NORMAL_AND_FAST, null).size());
+	}
+	
 	private IResourceValidator getValidator() {
 		return get(IResourceValidator.class);
 	}
@@ -14,12 +14,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.xtend2.lib.StringConcatenation;
 import org.eclipse.xtext.build.BuildRequest;
+import org.eclipse.xtext.build.IndexState;
+import org.eclipse.xtext.build.ReverseDependencyIndex;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
 import org.eclipse.xtext.index.IndexTestLanguageInjectorProvider;
 import org.eclipse.xtext.junit4.InjectWith;
 import org.eclipse.xtext.junit4.XtextRunner;
 import org.eclipse.xtext.junit4.build.AbstractIncrementalBuilderTest;
+import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
@@ -79,6 +83,52 @@ public class IncrementalBuilderTest extends AbstractIncrementalBuilderTest {
     Assert.assertTrue(_containsSuffix_1);
   }
   
+  @Test
+  public void testParallelBuild() {
+    final Procedure1<BuildRequest> _function = new Procedure1<BuildRequest>() {
+      @Override
+      public void apply(final BuildRequest it) {
+        it.setNumberOfThreads(4);
+        StringConcatenation _builder = new StringConcatenation();
+        _builder.append("foo {");
+        _builder.newLine();
+        _builder.append("\t");
+        _builder.append("entity A {foo.B reference}");
+        _builder.newLine();
+        _builder.append("}");
+        _builder.newLine();
+        URI _minus = IncrementalBuilderTest.this.operator_minus(
+          "src/A.indextestlanguage", _builder.toString());
+        StringConcatenation _builder_1 = new StringConcatenation();
+        _builder_1.append("foo {");
+        _builder_1.newLine();
+        _builder_1.append("\t");
+        _builder_1.append("entity B {foo.X reference}");
+        _builder_1.newLine();
+        _builder_1.append("}");
+        _builder_1.newLine();
+        URI _minus_1 = IncrementalBuilderTest.this.operator_minus(
+          "src/B.indextestlanguage", _builder_1.toString());
+        it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_minus, _minus_1)));
+      }
+    };
+    BuildRequest _newBuildRequest = this.newBuildRequest(_function);
+    this.build(_newBuildRequest);
+    String _string = this.issues.toString();
+    int _size = this.issues.size();
+    Assert.assertEquals(_string, 1, _size);
+    int _size_1 = this.generated.size();
+    Assert.assertEquals(1, _size_1);
+    URI _uri = this.uri("src/A.indextestlanguage");
+    Collection<URI> _get = this.generated.get(_uri);
+    boolean _containsSuffix = this.containsSuffix(_get, "src-gen/A.txt");
+    Assert.assertTrue(_containsSuffix);
+    ResourceDescriptionsData _resourceDescriptions = this.indexState.getResourceDescriptions();
+    Iterable<IResourceDescription> _allResourceDescriptions = _resourceDescriptions.getAllResourceDescriptions();
+    int _size_2 = IterableExtensions.size(_allResourceDescriptions);
+    Assert.assertEquals(2, _size_2);
+  }
+  
   @Test
   public void testDelete_01() {
     final Procedure1<BuildRequest> _function = new Procedure1<BuildRequest>() {
@@ -297,4 +347,155 @@ public class IncrementalBuilderTest extends AbstractIncrementalBuilderTest {
     boolean _containsSuffix_10 = this.containsSuffix(this.deleted, "src-gen/A.txt");
     Assert.assertTrue(_containsSuffix_10);
   }
+  
+  @Test
+  public void testAffectedResources() {
+    final Procedure1<BuildRequest> _function = new Procedure1<BuildRequest>() {
+      @Override
+      public void apply(final BuildRequest it) {
+        StringConcatenation _builder = new StringConcatenation();
+        _builder.append("foo {");
+        _builder.newLine();
+        _builder.append("\t");
+        _builder.append("entity A {foo.B reference}");
+        _builder.newLine();
+        _builder.append("}");
+        _builder.newLine();
+        URI _minus = IncrementalBuilderTest.this.operator_minus(
+          "src/A.indextestlanguage", _builder.toString());
+        StringConcatenation _builder_1 = new StringConcatenation();
+        _builder_1.append("foo {");
+        _builder_1.newLine();
+        _builder_1.append("\t");
+        _builder_1.append("entity B");
+        _builder_1.newLine();
+        _builder_1.append("}");
+        _builder_1.newLine();
+        URI _minus_1 = IncrementalBuilderTest.this.operator_minus(
+          "src/B.indextestlanguage", _builder_1.toString());
+        StringConcatenation _builder_2 = new StringConcatenation();
+        _builder_2.append("foo {");
+        _builder_2.newLine();
+        _builder_2.append("\t");
+        _builder_2.append("entity C");
+        _builder_2.newLine();
+        _builder_2.append("}");
+        _builder_2.newLine();
+        URI _minus_2 = IncrementalBuilderTest.this.operator_minus(
+          "src/C.indextestlanguage", _builder_2.toString());
+        it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_minus, _minus_1, _minus_2)));
+      }
+    };
+    BuildRequest _newBuildRequest = this.newBuildRequest(_function);
+    this.build(_newBuildRequest);
+    String _string = this.issues.toString();
+    boolean _isEmpty = this.issues.isEmpty();
+    Assert.assertTrue(_string, _isEmpty);
+    final Procedure1<BuildRequest> _function_1 = new Procedure1<BuildRequest>() {
+      @Override
+      public void apply(final BuildRequest it) {
+        StringConcatenation _builder = new StringConcatenation();
+        _builder.append("foo {");
+        _builder.newLine();
+        _builder.append("\t");
+        _builder.append("entity B");
+        _builder.newLine();
+        _builder.append("\t");
+        _builder.append("entity B2");
+        _builder.newLine();
+        _builder.append("}");
+        _builder.newLine();
+        URI _minus = IncrementalBuilderTest.this.operator_minus(
+          "src/B.indextestlanguage", _builder.toString());
+        it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_minus)));
+      }
+    };
+    BuildRequest _newBuildRequest_1 = this.newBuildRequest(_function_1);
+    this.build(_newBuildRequest_1);
+    String _string_1 = this.issues.toString();
+    boolean _isEmpty_1 = this.issues.isEmpty();
+    Assert.assertTrue(_string_1, _isEmpty_1);
+    URI _uri = this.uri("src/A.indextestlanguage");
+    boolean _containsKey = this.generated.containsKey(_uri);
+    Assert.assertTrue(_containsKey);
+    URI _uri_1 = this.uri("src/B.indextestlanguage");
+    boolean _containsKey_1 = this.generated.containsKey(_uri_1);
+    Assert.assertTrue(_containsKey_1);
+    URI _uri_2 = this.uri("src/C.indextestlanguage");
+    boolean _containsKey_2 = this.generated.containsKey(_uri_2);
+    Assert.assertFalse(_containsKey_2);
+  }
+  
+  @Test
+  public void testStaleReverseDependencies() {
+    final Procedure1<BuildRequest> _function = new Procedure1<BuildRequest>() {
+      @Override
+      public void apply(final BuildRequest it) {
+        StringConcatenation _builder = new StringConcatenation();
+        _builder.append("foo {");
+        _builder.newLine();
+        _builder.append("\t");
+        _builder.append("entity A {foo.B reference}");
+        _builder.newLine();
+        _builder.append("}");
+        _builder.newLine();
+        URI _minus = IncrementalBuilderTest.this.operator_minus(
+          "src/A.indextestlanguage", _builder.toString());
+        StringConcatenation _builder_1 = new StringConcatenation();
+        _builder_1.append("foo {");
+        _builder_1.newLine();
+        _builder_1.append("\t");
+        _builder_1.append("entity B");
+        _builder_1.newLine();
+        _builder_1.append("}");
+        _builder_1.newLine();
+        URI _minus_1 = IncrementalBuilderTest.this.operator_minus(
+          "src/B.indextestlanguage", _builder_1.toString());
+        it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_minus, _minus_1)));
+      }
+    };
+    BuildRequest _newBuildRequest = this.newBuildRequest(_function);
+    this.build(_newBuildRequest);
+    String _string = this.issues.toString();
+    boolean _isEmpty = this.issues.isEmpty();
+    Assert.assertTrue(_string, _isEmpty);
+    final Procedure1<BuildRequest> _function_1 = new Procedure1<BuildRequest>() {
+      @Override
+      public void apply(final BuildRequest it) {
+        StringConcatenation _builder = new StringConcatenation();
+        _builder.append("foo {");
+        _builder.newLine();
+        _builder.append("\t");
+        _builder.append("entity B");
+        _builder.newLine();
+        _builder.append("\t");
+        _builder.append("entity B2");
+        _builder.newLine();
+        _builder.append("}");
+        _builder.newLine();
+        URI _minus = IncrementalBuilderTest.this.operator_minus(
+          "src/B.indextestlanguage", _builder.toString());
+        it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_minus)));
+        final ReverseDependencyIndex stale = new ReverseDependencyIndex();
+        URI _uri = IncrementalBuilderTest.this.uri("src/X.indextestlanguage");
+        stale.addUnrestricted(_uri);
+        URI _uri_1 = IncrementalBuilderTest.this.uri("src/Y.indextestlanguage");
+        stale.addUnrestricted(_uri_1);
+        IndexState _state = it.getState();
+        ResourceDescriptionsData _resourceDescriptions = _state.getResourceDescriptions();
+        IndexState _state_1 = it.getState();
+        Source2GeneratedMapping _fileMappings = _state_1.getFileMappings();
+        IndexState _indexState = new IndexState(_resourceDescriptions, _fileMappings, stale);
+        it.setState(_indexState);
+      }
+    };
+    BuildRequest _newBuildRequest_1 = this.newBuildRequest(_function_1);
+    this.build(_newBuildRequest_1);
+    String _string_1 = this.issues.toString();
+    boolean _isEmpty_1 = this.issues.isEmpty();
+    Assert.assertTrue(_string_1, _isEmpty_1);
+    URI _uri = this.uri("src/A.indextestlanguage");
+    boolean _containsKey = this.generated.containsKey(_uri);
+    Assert.assertTrue(_containsKey);
+  }
 }
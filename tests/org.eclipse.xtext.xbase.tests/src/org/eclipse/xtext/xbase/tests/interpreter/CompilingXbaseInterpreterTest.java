@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2015 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.tests.interpreter;
+
+import org.eclipse.xtext.junit4.InjectWith;
+import org.eclipse.xtext.junit4.XtextRunner;
+import org.eclipse.xtext.junit4.util.ParseHelper;
+import org.eclipse.xtext.xbase.XExpression;
+import org.eclipse.xtext.xbase.XbaseStandaloneSetup;
+import org.eclipse.xtext.xbase.interpreter.IExpressionInterpreter;
+import org.eclipse.xtext.xbase.interpreter.impl.CompilingXbaseInterpreter;
+import org.eclipse.xtext.xbase.interpreter.impl.DefaultEvaluationContext;
+import org.eclipse.xtext.xbase.tests.XbaseInjectorProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+/**
+ * Runs the evaluation tests against the {@link CompilingXbaseInterpreter}.
+ */
+@RunWith(XtextRunner.class)
+@InjectWith(CompilingXbaseInterpreterTest.CompilingInterpreterInjectorProvider.class)
+public class CompilingXbaseInterpreterTest extends XbaseInterpreterTest {
+
+	public static class CompilingInterpreterInjectorProvider extends XbaseInjectorProvider {
+		@Override
+		protected Injector internalCreateInjector() {
+			return new XbaseStandaloneSetup() {
+				@Override
+				public Injector createInjector() {
+					return Guice.createInjector(new XbaseTestRuntimeModule() {
+						@Override
+						public Class<? extends IExpressionInterpreter> bindIExpressionInterpreter() {
+							return CompilingXbaseInterpreter.class;
+						}
+					});
+				}
+			}.createInjectorAndDoEMFRegistration();
+		}
+	}
+
+	@Inject
+	private ParseHelper<XExpression> parseHelper;
+
+	@Inject
+	private IExpressionInterpreter interpreter;
+
+	@Inject
+	private Injector injector;
+
+	public static class CountingInterpreter extends CompilingXbaseInterpreter {
+		private int compiled = 0;
+
+		@Override
+		protected Evaluator compile(XExpression expression) {
+			compiled++;
+			return super.compile(expression);
+		}
+	}
+
+	@Test
+	public void testRepeatedEvaluation() throws Exception {
+		assertTrue(interpreter instanceof CompilingXbaseInterpreter);
+		XExpression expression = parseHelper.parse("{ val x = 'abc' if (x.length > 2) x.substring(1).toUpperCase else null }");
+		for (int i = 0; i < 3; i++) {
+			assertEquals("BC", interpreter.evaluate(expression, new DefaultEvaluationContext(), null).getResult());
+		}
+	}
+
+	@Test
+	public void testNewClassLoaderDiscardsEvaluators() throws Exception {
+		CountingInterpreter counting = injector.getInstance(CountingInterpreter.class);
+		XExpression expression = parseHelper.parse("'abc'.substring(1).toUpperCase");
+		assertEquals("BC", counting.evaluate(expression, new DefaultEvaluationContext(), null).getResult());
+		int compiled = counting.compiled;
+		assertTrue(compiled > 0);
+		assertEquals("BC", counting.evaluate(expression, new DefaultEvaluationContext(), null).getResult());
+		assertEquals(compiled, counting.compiled);
+		counting.setClassLoader(new ClassLoader(getClass().getClassLoader()) {});
+		assertEquals("BC", counting.evaluate(expression, new DefaultEvaluationContext(), null).getResult());
+		assertEquals(2 * compiled, counting.compiled);
+	}
+
+}